@@ -0,0 +1,81 @@
+/*
+ * Copyright 2017-2018 Youcef DEBBAH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.jsoftware95.benchmarks;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.NoBenchmarksException;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.openjdk.jmh.runner.options.ProfilerConfig;
+
+import java.io.IOException;
+
+/**
+ * Entry point of {@code target/benchmarks.jar}: handles the usual JMH command line options like
+ * {@code org.openjdk.jmh.Main} does (see {@code -h}, {@code -l}, {@code -lp}...) but always adds the GC profiler to
+ * the runs, so every result comes with its allocation rate
+ * ({@code gc.alloc.rate.norm} is the count of bytes allocated per operation).
+ */
+public final class BenchmarksMain {
+
+    private BenchmarksMain() {
+    }
+
+    public static void main(final String[] args) throws RunnerException, IOException {
+        final CommandLineOptions commandLineOptions;
+        try {
+            commandLineOptions = new CommandLineOptions(args);
+        } catch (CommandLineOptionException e) {
+            System.err.println("invalid benchmarks options: " + e.getMessage());
+            System.exit(1);
+            return;
+        }
+
+        final ChainedOptionsBuilder options = new OptionsBuilder().parent(commandLineOptions);
+        if (commandLineOptions.getProfilers().stream().noneMatch(BenchmarksMain::isGCProfiler))
+            options.addProfiler(GCProfiler.class);
+
+        // the informative options of org.openjdk.jmh.Main run nothing
+        final Runner runner = new Runner(options.build());
+        if (commandLineOptions.shouldHelp())
+            commandLineOptions.showHelp();
+        else if (commandLineOptions.shouldList())
+            runner.list();
+        else if (commandLineOptions.shouldListWithParams())
+            runner.listWithParams(commandLineOptions);
+        else if (commandLineOptions.shouldListProfilers())
+            commandLineOptions.listProfilers();
+        else if (commandLineOptions.shouldListResultFormats())
+            commandLineOptions.listResultFormats();
+        else {
+            try {
+                runner.run();
+            } catch (NoBenchmarksException e) {
+                System.err.println("no matching benchmarks (see -l for the list of the benchmarks)");
+                System.exit(1);
+            }
+        }
+    }
+
+    private static boolean isGCProfiler(final ProfilerConfig profiler) {
+        return profiler.getKlass().equals("gc") || profiler.getKlass().equals(GCProfiler.class.getName());
+    }
+}
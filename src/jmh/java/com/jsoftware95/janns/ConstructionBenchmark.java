@@ -0,0 +1,80 @@
+/*
+ * Copyright 2017-2018 Youcef DEBBAH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.jsoftware95.janns;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the creation of jpanzer brains (6-12-3 networks), one by one and by {@link
+ * EnumNeuralNetwork#massClone(int, com.jsoftware95.janns.api.DataMapper)} of a whole population, the allocation rate
+ * reported by the GC profiler shows what the construction of the neurons, connections and layers costs (with tracing
+ * disabled nothing should be allocated for logging).
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Dlog4j.configurationFile=log4j2-benchmarks.properties")
+public class ConstructionBenchmark {
+
+    private static final String BRAIN_TOPOLOGY = "6-12-3";
+
+    private EnumNeuralNetwork<BenchmarkProperty, BenchmarkProperty> network;
+    private BenchmarkProperty[] inputs;
+    private BenchmarkProperty[] outputs;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        network = Topology.newNetwork(BRAIN_TOPOLOGY, 42);
+        inputs = Topology.properties(network.getInputProperties().length);
+        outputs = Topology.properties(network.getOutputProperties().length);
+    }
+
+    @Benchmark
+    public EnumNeuralNetwork<BenchmarkProperty, BenchmarkProperty> newNetwork() {
+        final EnumNeuralNetwork<BenchmarkProperty, BenchmarkProperty> newNetwork = new EnumNeuralNetwork<>(inputs, outputs);
+        newNetwork.addHiddenLayer(network.getHiddenLayersSizes()[0]);
+        return newNetwork;
+    }
+
+    @Benchmark
+    public List<EnumNeuralNetwork<BenchmarkProperty, BenchmarkProperty>> massClone(final Clones clones) {
+        return network.massClone(clones.clonesCount, null);
+    }
+
+    @State(Scope.Thread)
+    public static class Clones {
+
+        @Param({"1", "64", "256"})
+        public int clonesCount;
+    }
+}
@@ -0,0 +1,107 @@
+/*
+ * Copyright 2017-2018 Youcef DEBBAH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.jsoftware95.janns;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures a forward pass of {@link EnumNeuralNetwork} from the jpanzer brain up to wide and deep networks: setting the
+ * inputs through {@link EnumInputLayer#setInput(Enum, double)}, {@link EnumNeuralNetwork#processInput()} and reading
+ * the outputs through {@link EnumOutputLayer#getOutput(Enum)}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Dlog4j.configurationFile=log4j2-benchmarks.properties")
+public class ForwardPassBenchmark {
+
+    private static final int INPUTS_SETS = 64;
+
+    @Param({"6-12-3", "10-20-7", "64-128-128-16", "256-512-256-32"})
+    public String topology;
+
+    private EnumNeuralNetwork<BenchmarkProperty, BenchmarkProperty> network;
+    private BenchmarkProperty[] inputs;
+    private BenchmarkProperty[] outputs;
+    private double[][] inputsSets;
+    private int nextSet;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        network = Topology.newNetwork(topology, 42);
+        inputs = Topology.properties(network.getInputProperties().length);
+        outputs = Topology.properties(network.getOutputProperties().length);
+
+        final SplittableRandom random = new SplittableRandom(7);
+        inputsSets = new double[INPUTS_SETS][inputs.length];
+        for (final double[] set : inputsSets)
+            for (int i = 0; i < set.length; i++)
+                set[i] = random.nextDouble();
+
+        // the engine is built lazily by the first pass, it's not part of what is measured
+        network.processInput();
+    }
+
+    /* cycles through a few inputs sets so the measured code can't be specialized for constant inputs */
+    private double[] nextInputs() {
+        final double[] set = inputsSets[nextSet];
+        nextSet = (nextSet + 1) % INPUTS_SETS;
+        return set;
+    }
+
+    @Benchmark
+    public void processInput(final Blackhole blackhole) {
+        final double[] values = nextInputs();
+        for (int i = 0; i < inputs.length; i++)
+            network.setInput(inputs[i], values[i]);
+
+        network.processInput();
+
+        for (final BenchmarkProperty output : outputs)
+            blackhole.consume(network.getOutput(output));
+    }
+
+    @Benchmark
+    public void setInput() {
+        final double[] values = nextInputs();
+        for (int i = 0; i < inputs.length; i++)
+            network.inputLayer.setInput(inputs[i], values[i]);
+    }
+
+    @Benchmark
+    public void getOutput(final Blackhole blackhole) {
+        for (final BenchmarkProperty output : outputs)
+            blackhole.consume(network.outputLayer.getOutput(output));
+    }
+}
@@ -0,0 +1,89 @@
+/*
+ * Copyright 2017-2018 Youcef DEBBAH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.jsoftware95.janns;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures reading and writing the parameters of an {@link EnumNeuralNetwork}: the boxed {@link
+ * EnumNeuralNetwork#getData()} / {@link EnumNeuralNetwork#setData(Deque)} pair, the primitive {@link
+ * EnumNeuralNetwork#getParameters()} / {@link EnumNeuralNetwork#setParameters(double[], int)} pair and {@link
+ * EnumNeuralNetwork#massClone(int, com.jsoftware95.janns.api.DataMapper)}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Dlog4j.configurationFile=log4j2-benchmarks.properties")
+public class ParametersBenchmark {
+
+    private static final int CLONES_COUNT = 16;
+
+    @Param({"6-12-3", "10-20-7", "64-128-128-16", "256-512-256-32"})
+    public String topology;
+
+    private EnumNeuralNetwork<BenchmarkProperty, BenchmarkProperty> network;
+    private double[] parameters;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        network = Topology.newNetwork(topology, 42);
+        parameters = network.getParameters();
+    }
+
+    @Benchmark
+    public Deque<Double> getData() {
+        return network.getData();
+    }
+
+    @Benchmark
+    public EnumNeuralNetwork<BenchmarkProperty, BenchmarkProperty> getAndSetData() {
+        network.setData(network.getData());
+        return network;
+    }
+
+    @Benchmark
+    public double[] getParameters() {
+        return network.getParameters();
+    }
+
+    @Benchmark
+    public int setParameters() {
+        return network.setParameters(parameters, 0);
+    }
+
+    @Benchmark
+    public List<EnumNeuralNetwork<BenchmarkProperty, BenchmarkProperty>> massClone() {
+        return network.massClone(CLONES_COUNT, null);
+    }
+}
@@ -0,0 +1,97 @@
+/*
+ * Copyright 2017-2018 Youcef DEBBAH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.jsoftware95.janns;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures one forward pass of a whole population of networks (one input vector per network): a single
+ * {@link NetworkPopulation#forward(double[][], double[][])} against a separate
+ * {@link EnumNeuralNetwork#forward(double[][], double[][])} call for each network.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Dlog4j.configurationFile=log4j2-benchmarks.properties")
+public class PopulationForwardBenchmark {
+
+    @Param({"6-12-3", "64-128-128-16"})
+    public String topology;
+
+    @Param({"64"})
+    public int populationSize;
+
+    private List<EnumNeuralNetwork<BenchmarkProperty, BenchmarkProperty>> networks;
+    private NetworkPopulation population;
+    private double[][] inputs;
+    private double[][] outputs;
+    private double[][][] inputRows;
+    private double[][][] outputRows;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        networks = new ArrayList<>(populationSize);
+        for (int i = 0; i < populationSize; i++)
+            networks.add(Topology.newNetwork(topology, 42 + i));
+        population = NetworkPopulation.of(networks);
+
+        final SplittableRandom random = new SplittableRandom(7);
+        inputs = new double[populationSize][population.getInputsCount()];
+        outputs = new double[populationSize][population.getOutputsCount()];
+        inputRows = new double[populationSize][][];
+        outputRows = new double[populationSize][][];
+        for (int i = 0; i < populationSize; i++) {
+            for (int j = 0; j < inputs[i].length; j++)
+                inputs[i][j] = random.nextDouble();
+            inputRows[i] = new double[][]{inputs[i]};
+            outputRows[i] = new double[][]{outputs[i]};
+        }
+    }
+
+    @Benchmark
+    public void population(final Blackhole blackhole) {
+        population.forward(inputs, outputs);
+        blackhole.consume(outputs);
+    }
+
+    @Benchmark
+    public void separateNetworks(final Blackhole blackhole) {
+        for (int i = 0; i < populationSize; i++)
+            networks.get(i).forward(inputRows[i], outputRows[i]);
+        blackhole.consume(outputs);
+    }
+}
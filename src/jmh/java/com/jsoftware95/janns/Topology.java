@@ -0,0 +1,56 @@
+/*
+ * Copyright 2017-2018 Youcef DEBBAH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.jsoftware95.janns;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+/**
+ * A network topology written as the sizes of its layers separated by dashes, from the inputs to the outputs (for
+ * example {@code "6-12-3"} is the jpanzer brain: 6 inputs, a hidden layer of 12 neurons and 3 outputs).
+ */
+final class Topology {
+
+    private Topology() {
+    }
+
+    /**
+     * Creates a network of the given topology with seeded random parameters.
+     *
+     * @throws IllegalArgumentException if the topology has less than two layers or too many inputs or outputs
+     */
+    static EnumNeuralNetwork<BenchmarkProperty, BenchmarkProperty> newNetwork(final String topology, final long seed) {
+        final int[] sizes = Arrays.stream(topology.split("-")).mapToInt(Integer::parseInt).toArray();
+        if (sizes.length < 2)
+            throw new IllegalArgumentException("a topology needs at least an input and an output layer: " + topology);
+
+        final EnumNeuralNetwork<BenchmarkProperty, BenchmarkProperty> network =
+                new EnumNeuralNetwork<>(properties(sizes[0]), properties(sizes[sizes.length - 1]));
+        for (int i = 1; i < sizes.length - 1; i++)
+            network.addHiddenLayer(sizes[i]);
+
+        network.setRandom(new SplittableRandom(seed));
+        network.randomize();
+        return network;
+    }
+
+    static BenchmarkProperty[] properties(final int count) {
+        if (count <= 0 || count > BenchmarkProperty.ALL.length)
+            throw new IllegalArgumentException("properties count must be in [1, " + BenchmarkProperty.ALL.length + "]: " + count);
+        return Arrays.copyOf(BenchmarkProperty.ALL, count);
+    }
+}
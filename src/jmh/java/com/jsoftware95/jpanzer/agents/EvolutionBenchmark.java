@@ -0,0 +1,198 @@
+/*
+ * Copyright 2017-2018 Youcef DEBBAH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.jsoftware95.jpanzer.agents;
+
+import com.jsoftware95.janns.EnumNeuralNetwork;
+
+import java.io.IOException;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.lang.management.OperatingSystemMXBean;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * End to end benchmark of the evolution: a player loaded from a checkpoint of {@code bestPlayers/} evolves for a fixed
+ * count of generations against another (fixed) checkpoint, with a fixed seed, then a JSON report of the run is written.
+ * <p>
+ * Usage: {@code EvolutionBenchmark [generations] [seed] [report file]} (defaults: 10 generations, seed 42 and
+ * {@code target/evolution-benchmark.json}). The report holds:
+ * <ul>
+ * <li>{@code generationsPerHour} and {@code gamesPerSecond}: the capacity of this machine, games are the rounds
+ * actually simulated (rounds served from the fitness cache are not counted)</li>
+ * <li>{@code cpuUtilization}: the CPU time of the process over the wall time of all the available processors (in
+ * [0, 1], {@code -1} if the JVM doesn't expose the process CPU time)</li>
+ * <li>{@code peakHeapBytes}: the sum of the peak usages of the heap memory pools (an upper bound of the peak heap)</li>
+ * <li>{@code gcCount} and {@code gcSeconds}: the collections done during the run and their accumulated time as reported
+ * by the collectors (for concurrent collectors this includes concurrent work, not only pauses)</li>
+ * <li>{@code generationsSeconds}: the duration of each generation, the first ones include the JIT warm-up</li>
+ * </ul>
+ * Two runs with the same seed evolve the same brains, so their {@code fitness} is the same.
+ */
+public final class EvolutionBenchmark {
+
+    static final String PLAYER_CHECKPOINT = "Player-Alpha_g-540_at_09-09-34";
+    static final String OPPONENT_CHECKPOINT = "Player-Beta_g-540_at_09-09-34";
+
+    private EvolutionBenchmark() {
+    }
+
+    public static void main(final String... args) throws IOException {
+        if (args.length > 3)
+            throw new IllegalArgumentException("usage: EvolutionBenchmark [generations] [seed] [report file]");
+
+        final int generations = args.length > 0 ? Integer.parseInt(args[0]) : 10;
+        final long seed = args.length > 1 ? Long.parseLong(args[1]) : 42;
+        final Path report = Paths.get(args.length > 2 ? args[2] : "target/evolution-benchmark.json");
+        if (generations <= 0)
+            throw new IllegalArgumentException("generations count must be positive: " + generations);
+
+        final String json = run(generations, seed);
+        if (report.toAbsolutePath().getParent() != null)
+            Files.createDirectories(report.toAbsolutePath().getParent());
+        Files.write(report, json.getBytes(StandardCharsets.UTF_8));
+        System.out.println(json);
+    }
+
+    private static String run(final int generations, final long seed) {
+        final Player player = loadPlayer("Alpha", PLAYER_CHECKPOINT, seed);
+        final Player opponent = loadPlayer("Beta", OPPONENT_CHECKPOINT, seed);
+        final EnumNeuralNetwork<Inputs, Outputs> opponentBrain = opponent.brain;
+        final int initialGeneration = player.getGeneration();
+
+        final List<GarbageCollectorMXBean> collectors = ManagementFactory.getGarbageCollectorMXBeans();
+        final List<MemoryPoolMXBean> heapPools = new ArrayList<>();
+        for (final MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans())
+            if (pool.getType() == MemoryType.HEAP) {
+                pool.resetPeakUsage();
+                heapPools.add(pool);
+            }
+
+        final long gcCount0 = gcCount(collectors);
+        final long gcMillis0 = gcMillis(collectors);
+        final long cpu0 = processCpuTime();
+        final long t0 = System.nanoTime();
+
+        final double[] generationsSeconds = new double[generations];
+        for (int i = 0; i < generations; i++) {
+            final long start = System.nanoTime();
+            player.setBrain(player.evolveBrain(opponentBrain));
+            generationsSeconds[i] = (System.nanoTime() - start) / 1e9;
+        }
+
+        final double wallSeconds = (System.nanoTime() - t0) / 1e9;
+        final long cpu1 = processCpuTime();
+        final long gcCount = gcCount(collectors) - gcCount0;
+        final double gcSeconds = (gcMillis(collectors) - gcMillis0) / 1e3;
+        long peakHeap = 0;
+        for (final MemoryPoolMXBean pool : heapPools)
+            peakHeap += pool.getPeakUsage().getUsed();
+
+        player.stopPlaying();
+        opponent.stopPlaying();
+
+        final int evolvedGenerations = player.getGeneration() - initialGeneration;
+        if (evolvedGenerations != generations)
+            throw new IllegalStateException("only " + evolvedGenerations + " of " + generations + " generations evolved (see the logs)");
+
+        final int processors = Runtime.getRuntime().availableProcessors();
+        final double cpuUtilization = cpu0 < 0 || cpu1 < 0 ? -1 : (cpu1 - cpu0) / 1e9 / wallSeconds / processors;
+        final long games = player.getPlayedRounds();
+
+        return new StringBuilder("{\n")
+                .append(field("benchmark", "evolution"))
+                .append(field("player", PLAYER_CHECKPOINT))
+                .append(field("opponent", OPPONENT_CHECKPOINT))
+                .append(field("seed", seed))
+                .append(field("generations", generations))
+                .append(field("processors", processors))
+                .append(field("evaluationThreads", EvaluationService.getShared().getParallelism()))
+                .append(field("javaVersion", System.getProperty("java.version")))
+                .append(field("wallSeconds", wallSeconds))
+                .append(field("generationsPerHour", generations / wallSeconds * 3600))
+                .append(field("games", games))
+                .append(field("gamesPerSecond", games / wallSeconds))
+                .append(field("cpuUtilization", cpuUtilization))
+                .append(field("peakHeapBytes", peakHeap))
+                .append(field("gcCount", gcCount))
+                .append(field("gcSeconds", gcSeconds))
+                .append(field("fitness", player.getFitness()))
+                .append("  \"generationsSeconds\": ").append(array(generationsSeconds)).append("\n}")
+                .toString();
+    }
+
+    private static Player loadPlayer(final String name, final String checkpoint, final long seed) {
+        final Player player = new Player(name, false, seed);
+        player.loadData(checkpoint);
+        if (player.getGeneration() == 0)
+            throw new IllegalStateException("could not load checkpoint: bestPlayers/" + checkpoint + " (see the logs)");
+        return player;
+    }
+
+    private static long gcCount(final List<GarbageCollectorMXBean> collectors) {
+        long count = 0;
+        for (final GarbageCollectorMXBean collector : collectors)
+            count += Math.max(0, collector.getCollectionCount());
+        return count;
+    }
+
+    private static long gcMillis(final List<GarbageCollectorMXBean> collectors) {
+        long millis = 0;
+        for (final GarbageCollectorMXBean collector : collectors)
+            millis += Math.max(0, collector.getCollectionTime());
+        return millis;
+    }
+
+    /* the CPU time of the whole process in nanoseconds, or -1 if not supported */
+    private static long processCpuTime() {
+        final OperatingSystemMXBean os = ManagementFactory.getOperatingSystemMXBean();
+        if (os instanceof com.sun.management.OperatingSystemMXBean)
+            return ((com.sun.management.OperatingSystemMXBean) os).getProcessCpuTime();
+        return -1;
+    }
+
+    private static String field(final String name, final String value) {
+        return "  \"" + name + "\": \"" + value.replace("\\", "\\\\").replace("\"", "\\\"") + "\",\n";
+    }
+
+    private static String field(final String name, final long value) {
+        return "  \"" + name + "\": " + value + ",\n";
+    }
+
+    private static String field(final String name, final double value) {
+        return "  \"" + name + "\": " + number(value) + ",\n";
+    }
+
+    private static String array(final double[] values) {
+        final StringBuilder builder = new StringBuilder("[");
+        for (int i = 0; i < values.length; i++)
+            builder.append(i == 0 ? "" : ", ").append(number(values[i]));
+        return builder.append(']').toString();
+    }
+
+    /* JSON has no NaN nor infinities */
+    private static String number(final double value) {
+        return Double.isNaN(value) || Double.isInfinite(value) ? "null" : String.format(Locale.ROOT, "%.6f", value);
+    }
+}
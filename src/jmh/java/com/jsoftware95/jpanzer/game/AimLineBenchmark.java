@@ -0,0 +1,59 @@
+package com.jsoftware95.jpanzer.game;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the aim lines update ({@link Tank#updateAimLine()}) of the two players of a round, when they face each other
+ * (the aim lines get clipped to the targets) and when they don't.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Djava.awt.headless=true", "-Dlog4j.configurationFile=log4j2-benchmarks.properties"})
+public class AimLineBenchmark {
+
+    private GameSimulation facingWorld;
+    private GameSimulation missingWorld;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        // player 1 aims up and player 2 aims down
+        facingWorld = worldWithPlayers(400, 500, 400, 100);
+        missingWorld = worldWithPlayers(200, 500, 600, 100);
+    }
+
+    private static GameSimulation worldWithPlayers(final int x1, final int y1, final int x2, final int y2) {
+        final GameSimulation world = new GameSimulation("aim-benchmark", false, 42);
+        world.homeTank = new Tank(x1, y1, true, Direction.STOP, world, 1);
+        world.homeTank2 = new Tank(x2, y2, true, Direction.STOP, world, 2);
+        return world;
+    }
+
+    @Benchmark
+    public GameSimulation facing() {
+        facingWorld.homeTank.updateAimLine();
+        facingWorld.homeTank2.updateAimLine();
+        return facingWorld;
+    }
+
+    @Benchmark
+    public GameSimulation missing() {
+        missingWorld.homeTank.updateAimLine();
+        missingWorld.homeTank2.updateAimLine();
+        return missingWorld;
+    }
+}
@@ -0,0 +1,99 @@
+package com.jsoftware95.jpanzer.game;
+
+import java.util.SplittableRandom;
+
+/**
+ * Builds the seeded worlds used by the jpanzer benchmarks.
+ * <p>
+ * The {@code "duel"} scenario is the training round (two tanks and a river), the {@code "classic"} scenario adds the
+ * walls and the twenty AI tanks of the classic single player level, which fire a lot more bullets.
+ */
+final class BenchmarkWorlds {
+
+    static final String DUEL = "duel";
+    static final String CLASSIC = "classic";
+
+    private BenchmarkWorlds() {
+    }
+
+    /**
+     * Creates a world of the given scenario with a {@link RandomAgent} attached to each player tank.
+     *
+     * @throws IllegalArgumentException if the scenario is unknown
+     */
+    static GameSimulation newWorld(final String scenario, final long seed) {
+        final GameSimulation world = new GameSimulation("benchmark-" + seed, false, seed);
+        if (CLASSIC.equals(scenario))
+            addClassicLevel(world);
+        else if (!DUEL.equals(scenario))
+            throw new IllegalArgumentException("unknown scenario: " + scenario);
+
+        final SplittableRandom random = new SplittableRandom(seed);
+        world.getConnectionToTank1().attach(new RandomAgent(random.split()));
+        world.getConnectionToTank2().attach(new RandomAgent(random.split()));
+        return world;
+    }
+
+    /*
+     * the walls and the enemy tanks of the first level of the original game
+     */
+    static void addClassicLevel(final GameSimulation world) {
+        for (int i = 0; i < 16; i++) {
+            world.otherWall.add(new CommonWall(200 + 21 * i, 300, world));
+            world.otherWall.add(new CommonWall(500 + 21 * i, 180, world));
+            world.otherWall.add(new CommonWall(200, 400 + 21 * i, world));
+            world.otherWall.add(new CommonWall(500, 400 + 21 * i, world));
+            world.otherWall.add(new CommonWall(200 + 21 * i, 320, world));
+            world.otherWall.add(new CommonWall(500 + 21 * i, 220, world));
+            world.otherWall.add(new CommonWall(222, 400 + 21 * i, world));
+            world.otherWall.add(new CommonWall(522, 400 + 21 * i, world));
+        }
+
+        for (int i = 0; i < 10; i++) {
+            world.metalWall.add(new MetalWall(140 + 30 * i, 150, world));
+            world.metalWall.add(new MetalWall(600, 400 + 20 * i, world));
+            world.metalWall.add(new MetalWall(140 + 30 * i, 180, world));
+        }
+
+        for (int i = 0; i < 20; i++) {
+            if (i < 9)
+                world.tanks.add(new Tank(150 + 70 * i, 40, false, Direction.D, world, 0));
+            else if (i < 15)
+                world.tanks.add(new Tank(700, 140 + 50 * (i - 6), false, Direction.D, world, 0));
+            else
+                world.tanks.add(new Tank(10, 50 * (i - 12), false, Direction.D, world, 0));
+        }
+
+        world.mapChanged();
+    }
+
+    /**
+     * Keeps an order for a few steps then picks another one at random (moving in one direction and firing most of the
+     * time), so the player tanks move across the whole map like the trained agents do.
+     */
+    static final class RandomAgent implements GameAgent {
+
+        private final SplittableRandom random;
+        private final Orders orders = new Orders();
+        private int remainingSteps;
+
+        RandomAgent(final SplittableRandom random) {
+            this.random = random;
+        }
+
+        @Override
+        public Orders decide(final Context context) {
+            if (remainingSteps-- > 0)
+                return orders;
+
+            remainingSteps = random.nextInt(4, 16);
+            final int move = random.nextInt(5);
+            orders.setMoveLeft(move == 0);
+            orders.setMoveUp(move == 1);
+            orders.setMoveRight(move == 2);
+            orders.setMoveDown(move == 3);
+            orders.setFire(random.nextInt(4) != 0);
+            return orders;
+        }
+    }
+}
@@ -0,0 +1,130 @@
+package com.jsoftware95.jpanzer.game;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the bullets collisions sweeps of a tick ({@link Bullets#hitWall}, {@link Bullets#hitTank} and
+ * {@link Bullets#hitBullet} of every bullet against every wall, tank or other bullet) with a growing count of bullets
+ * in the classic level, along with the grid based sweep the simulation actually does for bullets against bullets.
+ * <p>
+ * A hit kills the bullet (and may destroy a wall) so, to keep the world unchanged between invocations, bullets are
+ * only placed where they don't overlap anything: the sweeps measure the miss path, which is by far the common one.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Djava.awt.headless=true", "-Dlog4j.configurationFile=log4j2-benchmarks.properties"})
+public class BulletCollisionsBenchmark {
+
+    private static final int MAX_ATTEMPTS = 1_000_000;
+    private static final Direction[] DIRECTIONS = {Direction.L, Direction.U, Direction.R, Direction.D};
+
+    @Param({"16", "64", "256", "1024"})
+    public int bulletsCount;
+
+    private GameSimulation world;
+    private SpatialGrid bulletsGrid;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        world = new GameSimulation("bullets-benchmark", false, 42);
+        BenchmarkWorlds.addClassicLevel(world);
+
+        final SplittableRandom random = new SplittableRandom(7);
+        for (int attempts = 0; world.bullets.size() < bulletsCount; attempts++) {
+            if (attempts == MAX_ATTEMPTS)
+                throw new IllegalStateException("no room left for " + bulletsCount + " bullets");
+
+            final int x = random.nextInt(TankClient.Fram_width - Bullets.width);
+            final int y = random.nextInt(TankClient.Fram_length - Bullets.length);
+            if (isFree(x, y))
+                world.bullets.add(x, y, DIRECTIONS[random.nextInt(DIRECTIONS.length)], -1);
+        }
+
+        bulletsGrid = new SpatialGrid(TankClient.Fram_width, TankClient.Fram_length, 64);
+        for (int i = 0; i < world.bullets.size(); i++)
+            bulletsGrid.insert(i, world.bullets.getX(i), world.bullets.getY(i), Bullets.width, Bullets.length);
+    }
+
+    private boolean isFree(final int x, final int y) {
+        for (final CommonWall wall : world.otherWall)
+            if (overlaps(x, y, wall.getX(), wall.getY(), CommonWall.width, CommonWall.length))
+                return false;
+        for (final MetalWall wall : world.metalWall)
+            if (overlaps(x, y, wall.getX(), wall.getY(), MetalWall.width, MetalWall.length))
+                return false;
+        for (final Tank tank : world.tanks)
+            if (overlaps(x, y, tank.getX(), tank.getY(), Tank.width, Tank.length))
+                return false;
+        for (int i = 0; i < world.bullets.size(); i++)
+            if (overlaps(x, y, world.bullets.getX(i), world.bullets.getY(i), Bullets.width, Bullets.length))
+                return false;
+        return true;
+    }
+
+    private static boolean overlaps(final int x, final int y, final int otherX, final int otherY, final int width, final int length) {
+        return Aabb.intersects(x, y, Bullets.width, Bullets.length, otherX, otherY, width, length);
+    }
+
+    @TearDown(Level.Iteration)
+    public void checkNoHit() {
+        for (int i = 0; i < world.bullets.size(); i++)
+            if (!world.bullets.isLive(i))
+                throw new IllegalStateException("bullet " + i + " hit something, the sweeps didn't measure the miss path");
+    }
+
+    @Benchmark
+    public void hitWall(final Blackhole blackhole) {
+        for (int bullet = 0; bullet < world.bullets.size(); bullet++) {
+            for (int i = 0; i < world.metalWall.size(); i++)
+                blackhole.consume(Bullets.hitWall(world, bullet, world.metalWall.get(i)));
+            for (int i = 0; i < world.otherWall.size(); i++)
+                blackhole.consume(Bullets.hitWall(world, bullet, world.otherWall.get(i)));
+        }
+    }
+
+    @Benchmark
+    public void hitTank(final Blackhole blackhole) {
+        for (int bullet = 0; bullet < world.bullets.size(); bullet++)
+            for (int i = 0; i < world.tanks.size(); i++)
+                blackhole.consume(Bullets.hitTank(world, bullet, world.tanks.get(i)));
+    }
+
+    @Benchmark
+    public void hitBullet(final Blackhole blackhole) {
+        for (int bullet = 0; bullet < world.bullets.size(); bullet++)
+            for (int other = 0; other < world.bullets.size(); other++)
+                if (other != bullet)
+                    blackhole.consume(Bullets.hitBullet(world, bullet, other));
+    }
+
+    @Benchmark
+    public void hitBulletWithGrid(final Blackhole blackhole) {
+        for (int bullet = 0; bullet < world.bullets.size(); bullet++) {
+            final int candidates = bulletsGrid.query(world.bullets.getX(bullet), world.bullets.getY(bullet), Bullets.width, Bullets.length);
+            for (int k = 0; k < candidates; k++) {
+                final int other = bulletsGrid.getResult(k);
+                if (other != bullet)
+                    blackhole.consume(Bullets.hitBullet(world, bullet, other));
+            }
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package com.jsoftware95.jpanzer.game;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures {@link Tank#collideWithTanks(List)} for every tank of a growing crowd of tanks.
+ * <p>
+ * A collision moves the tanks back so the crowd is placed without overlaps, the sweep measures the miss path.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Djava.awt.headless=true", "-Dlog4j.configurationFile=log4j2-benchmarks.properties"})
+public class TankCollisionsBenchmark {
+
+    private static final int MAX_ATTEMPTS = 1_000_000;
+
+    @Param({"8", "32", "128"})
+    public int tanksCount;
+
+    private GameSimulation world;
+    private final List<Tank> crowd = new ArrayList<>();
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        world = new GameSimulation("tanks-benchmark", false, 42);
+        final SplittableRandom random = new SplittableRandom(7);
+        for (int attempts = 0; crowd.size() < tanksCount; attempts++) {
+            if (attempts == MAX_ATTEMPTS)
+                throw new IllegalStateException("no room left for " + tanksCount + " tanks");
+
+            final Tank tank = new Tank(random.nextInt(TankClient.Fram_width), random.nextInt(TankClient.Fram_length), false, Direction.STOP, world, 0);
+            if (isFree(tank))
+                crowd.add(tank);
+        }
+    }
+
+    private boolean isFree(final Tank tank) {
+        for (final Tank other : crowd)
+            if (Aabb.intersects(tank.getX(), tank.getY(), Tank.width, Tank.length, other.getX(), other.getY(), Tank.width, Tank.length))
+                return false;
+        return true;
+    }
+
+    @Benchmark
+    public void collideWithTanks(final Blackhole blackhole) {
+        for (int i = 0; i < crowd.size(); i++)
+            blackhole.consume(crowd.get(i).collideWithTanks(crowd));
+    }
+}
@@ -0,0 +1,54 @@
+package com.jsoftware95.jpanzer.game;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures one world tick ({@link GameSimulation#step()}: agents, tanks moves, bullets and collisions), the score is
+ * the count of ticks per second of a single core, run it with {@code -t <threads>} to see how it scales (each thread
+ * steps its own worlds).
+ * <p>
+ * When a round ends a new world is created with the next seed, so the score includes the creation of a world once
+ * per round (at most {@value GameSimulation#MAX_TIME} ticks).
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Djava.awt.headless=true", "-Dlog4j.configurationFile=log4j2-benchmarks.properties"})
+public class WorldStepBenchmark {
+
+    @Param({BenchmarkWorlds.DUEL, BenchmarkWorlds.CLASSIC})
+    public String scenario;
+
+    private GameSimulation world;
+    private long seed;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        seed = 42;
+        world = BenchmarkWorlds.newWorld(scenario, seed);
+    }
+
+    @Benchmark
+    public int step() {
+        if (world.isRoundEnded())
+            world = BenchmarkWorlds.newWorld(scenario, ++seed);
+
+        world.step();
+        return world.getCurrentTime();
+    }
+}
@@ -31,8 +31,7 @@ public enum ActivationFunctions implements ActivationFunction {
      */
     RELU {
         @Override
-        public Double apply(final Double collectedInput) {
-            Objects.requireNonNull(collectedInput);
+        public double applyAsDouble(final double collectedInput) {
             if (collectedInput >= 0)
                 return collectedInput;
             else
@@ -45,12 +44,11 @@ public enum ActivationFunctions implements ActivationFunction {
      */
     RELU_CAPPED_BY_ONE {
         @Override
-        public Double apply(final Double collectedInput) {
-            Objects.requireNonNull(collectedInput);
+        public double applyAsDouble(final double collectedInput) {
             if (collectedInput >= 1)
                 return 1.0d;
             else
-                return RELU.apply(collectedInput);
+                return RELU.applyAsDouble(collectedInput);
         }
     },
 
@@ -60,8 +58,7 @@ public enum ActivationFunctions implements ActivationFunction {
      */
     POSITIVE_ZERO_NEGATIVE {
         @Override
-        public Double apply(final Double collectedInput) {
-            Objects.requireNonNull(collectedInput);
+        public double applyAsDouble(final double collectedInput) {
             if (collectedInput > 0)
                 return 1.0;
             else if (collectedInput < 0)
@@ -76,6 +73,16 @@ public enum ActivationFunctions implements ActivationFunction {
      */
     @Override
     @Contract(value = "null -> fail;!null -> !null", pure = true)
-    public abstract Double apply(final Double collectedInput);
+    public Double apply(final Double collectedInput) {
+        Objects.requireNonNull(collectedInput);
+        return applyAsDouble(collectedInput);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    @Contract(pure = true)
+    public abstract double applyAsDouble(final double collectedInput);
 
 }
@@ -0,0 +1,388 @@
+/*
+ * Copyright 2017-2018 Youcef DEBBAH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.jsoftware95.janns;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * An append-only file that keeps the parameters and fitness of every generation of one or more players (all having
+ * the same parameters count), typically one archive per training run.
+ * <p>
+ * File layout (all numbers are little-endian):
+ * <pre>
+ *     header
+ *         magic            4 bytes: 'J' 'A' 'R' 'C'
+ *         version          int
+ *         parameters       int (parameters count of each record)
+ *         players          int (count of used slots in the players table)
+ *         players table    {@value #MAX_PLAYERS} slots of 64 bytes, each one an unsigned short length
+ *                          followed by the UTF-8 bytes of a player name
+ *     records          fixed-size, one after another until the end of the file
+ *         player           int (slot of the player in the players table)
+ *         generation       int
+ *         fitness          double
+ *         parameters       parameters count doubles
+ * </pre>
+ * Since all records have the same size the n<sup>th</sup> record is found at {@code HEADER_SIZE + n * recordSize}
+ * without parsing anything before it, and records are read through a memory mapped view of the file. The records
+ * count is implied by the file size, so an incomplete record left by a crash is ignored when the archive is opened
+ * and overwritten by the next appended one.
+ * <p>
+ * Instances of this class are thread-safe.
+ */
+public final class CheckpointArchive implements Closeable {
+
+    /**
+     * The version of the format written by this class
+     */
+    public static final int VERSION = 1;
+
+    /**
+     * Maximum number of distinct players an archive can hold
+     */
+    public static final int MAX_PLAYERS = 64;
+
+    /**
+     * Maximum length (in UTF-8 bytes) of a player name
+     */
+    public static final int MAX_PLAYER_NAME_LENGTH = 62;
+
+    private static final int PLAYER_SLOT_SIZE = MAX_PLAYER_NAME_LENGTH + Short.BYTES;
+    private static final int HEADER_SIZE = 16 + MAX_PLAYERS * PLAYER_SLOT_SIZE;
+    private static final int RECORD_HEADER_SIZE = 2 * Integer.BYTES + Double.BYTES;
+    private static final int PLAYERS_COUNT_POSITION = 12;
+    private static final byte[] MAGIC = {'J', 'A', 'R', 'C'};
+
+    private final FileChannel channel;
+    private final int parametersCount;
+    private final int recordSize;
+    private final List<String> players = new ArrayList<>();
+    private final Map<String, Integer> playersSlots = new HashMap<>();
+    private final Map<Long, Integer> index = new HashMap<>();
+    private int size;
+    private MappedByteBuffer records;
+
+    private CheckpointArchive(final FileChannel channel, final int parametersCount) {
+        this.channel = channel;
+        this.parametersCount = parametersCount;
+        this.recordSize = RECORD_HEADER_SIZE + parametersCount * Double.BYTES;
+    }
+
+    /**
+     * Creates a new empty archive.
+     *
+     * @param file            where the archive will be created (must not exist)
+     * @param parametersCount the parameters count of every record of the archive
+     *
+     * @return the created archive, opened for appending
+     * @throws IllegalArgumentException if {@code parametersCount} is negative
+     * @throws IOException              if the file already exists or can't be written
+     */
+    public static CheckpointArchive create(final Path file, final int parametersCount) throws IOException {
+        Objects.requireNonNull(file);
+        if (parametersCount < 0)
+            throw new IllegalArgumentException("negative parameters count: " + parametersCount);
+
+        final FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE_NEW, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            final ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+            header.put(MAGIC).putInt(VERSION).putInt(parametersCount).putInt(0);
+            header.rewind();
+            writeFully(channel, header, 0);
+
+            return new CheckpointArchive(channel, parametersCount);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Opens an existing archive, its records are indexed by scanning the (fixed-size) header of each one.
+     *
+     * @param file the archive to open
+     *
+     * @return the opened archive, ready for reading and appending
+     * @throws IOException if the file can't be read or is not a valid archive
+     */
+    public static CheckpointArchive open(final Path file) throws IOException {
+        Objects.requireNonNull(file);
+
+        final FileChannel channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            if (channel.size() < HEADER_SIZE)
+                throw new IOException("not a checkpoint archive: " + file);
+
+            final ByteBuffer header = channel.map(FileChannel.MapMode.READ_ONLY, 0, HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+            final byte[] magic = new byte[MAGIC.length];
+            header.get(magic);
+            if (!Arrays.equals(magic, MAGIC))
+                throw new IOException("not a checkpoint archive: " + file);
+
+            final int version = header.getInt();
+            if (version != VERSION)
+                throw new IOException("unsupported archive version: " + version + " in: " + file);
+
+            final int parametersCount = header.getInt();
+            final int playersCount = header.getInt();
+            if (parametersCount < 0 || playersCount < 0 || playersCount > MAX_PLAYERS)
+                throw new IOException("corrupted checkpoint archive: " + file);
+
+            final CheckpointArchive archive = new CheckpointArchive(channel, parametersCount);
+            for (int slot = 0; slot < playersCount; slot++) {
+                header.position(HEADER_SIZE - MAX_PLAYERS * PLAYER_SLOT_SIZE + slot * PLAYER_SLOT_SIZE);
+                final byte[] name = new byte[header.getShort() & 0xFFFF];
+                if (name.length > MAX_PLAYER_NAME_LENGTH)
+                    throw new IOException("corrupted checkpoint archive: " + file);
+                header.get(name);
+                archive.registerPlayer(new String(name, StandardCharsets.UTF_8));
+            }
+
+            archive.size = (int) Math.min(Integer.MAX_VALUE, (channel.size() - HEADER_SIZE) / archive.recordSize);
+            archive.remap();
+            for (int record = 0; record < archive.size; record++)
+                archive.index.put(key(archive.getPlayerSlot(record), archive.getGeneration(record)), record);
+
+            return archive;
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    private static void writeFully(final FileChannel channel, final ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining())
+            position += channel.write(buffer, position);
+    }
+
+    private static long key(final int playerSlot, final int generation) {
+        return ((long) playerSlot << 32) | (generation & 0xFFFFFFFFL);
+    }
+
+    private void registerPlayer(final String player) {
+        playersSlots.put(player, players.size());
+        players.add(player);
+    }
+
+    /**
+     * Appends a record at the end of this archive, if the given player already has a record with the same generation
+     * it will be shadowed by the new one in {@link #indexOf(String, int)} lookups.
+     *
+     * @param player     the name of the player
+     * @param generation the generation of the saved parameters
+     * @param fitness    the fitness of the saved parameters
+     * @param parameters the saved parameters (see {@link EnumNeuralNetwork#getParameters()})
+     *
+     * @return the index of the appended record
+     * @throws IllegalArgumentException if the parameters count is not the one of this archive, the player name is too
+     *                                  long or this archive is full of players
+     * @throws IOException              if the record can't be written
+     */
+    public synchronized int append(final String player, final int generation, final double fitness,
+                                   final double[] parameters) throws IOException {
+        Objects.requireNonNull(player);
+        Objects.requireNonNull(parameters);
+        ensureOpen();
+
+        if (parameters.length != parametersCount)
+            throw new IllegalArgumentException("expected " + parametersCount + " parameters but found: " + parameters.length);
+        if (size == Integer.MAX_VALUE)
+            throw new IllegalStateException("archive is full");
+
+        final long t0 = System.nanoTime();
+        final int playerSlot = getOrAddPlayerSlot(player);
+
+        final ByteBuffer record = ByteBuffer.allocate(recordSize).order(ByteOrder.LITTLE_ENDIAN);
+        record.putInt(playerSlot).putInt(generation).putDouble(fitness);
+        record.asDoubleBuffer().put(parameters);
+        record.rewind();
+        writeFully(channel, record, HEADER_SIZE + (long) size * recordSize);
+
+        index.put(key(playerSlot, generation), size);
+        JannsMetrics.CHECKPOINT_WRITE.recordSince(t0);
+        return size++;
+    }
+
+    private int getOrAddPlayerSlot(final String player) throws IOException {
+        final Integer existingSlot = playersSlots.get(player);
+        if (existingSlot != null)
+            return existingSlot;
+
+        final byte[] name = player.getBytes(StandardCharsets.UTF_8);
+        if (name.length > MAX_PLAYER_NAME_LENGTH)
+            throw new IllegalArgumentException("player name too long: " + player);
+        if (players.size() == MAX_PLAYERS)
+            throw new IllegalArgumentException("this archive can't hold more than " + MAX_PLAYERS + " players");
+
+        final int slot = players.size();
+        final ByteBuffer slotBuffer = ByteBuffer.allocate(Short.BYTES + name.length).order(ByteOrder.LITTLE_ENDIAN);
+        slotBuffer.putShort((short) name.length).put(name).flip();
+        writeFully(channel, slotBuffer, HEADER_SIZE - MAX_PLAYERS * PLAYER_SLOT_SIZE + slot * PLAYER_SLOT_SIZE);
+
+        final ByteBuffer count = ByteBuffer.allocate(Integer.BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        count.putInt(slot + 1).flip();
+        writeFully(channel, count, PLAYERS_COUNT_POSITION);
+
+        registerPlayer(player);
+        return slot;
+    }
+
+    /**
+     * @param player     the name of the player
+     * @param generation the generation to look for
+     *
+     * @return the index of the last record appended for the given player and generation, or {@code -1} if there is
+     * no such record
+     */
+    public synchronized int indexOf(final String player, final int generation) {
+        final Integer slot = playersSlots.get(Objects.requireNonNull(player));
+        if (slot == null)
+            return -1;
+
+        final Integer record = index.get(key(slot, generation));
+        return record == null ? -1 : record;
+    }
+
+    public synchronized String getPlayer(final int record) {
+        return players.get(getPlayerSlot(record));
+    }
+
+    private int getPlayerSlot(final int record) {
+        return recordsView(record).getInt(position(record));
+    }
+
+    public synchronized int getGeneration(final int record) {
+        return recordsView(record).getInt(position(record) + Integer.BYTES);
+    }
+
+    public synchronized double getFitness(final int record) {
+        return recordsView(record).getDouble(position(record) + 2 * Integer.BYTES);
+    }
+
+    /**
+     * @param record the index of the record
+     *
+     * @return a copy of the parameters saved in the given record
+     */
+    public double[] getParameters(final int record) {
+        final double[] parameters = new double[parametersCount];
+        copyParametersInto(record, parameters);
+        return parameters;
+    }
+
+    /**
+     * Copies the parameters saved in the given record to the start of the given array.
+     *
+     * @param record      the index of the record
+     * @param destination where the parameters will be copied
+     *
+     * @throws IllegalArgumentException if {@code destination} is shorter than {@link #getParametersCount()}
+     */
+    public synchronized void copyParametersInto(final int record, final double[] destination) {
+        Objects.requireNonNull(destination);
+        if (destination.length < parametersCount)
+            throw new IllegalArgumentException("destination too short: " + destination.length + " < " + parametersCount);
+
+        final ByteBuffer view = recordsView(record).duplicate().order(ByteOrder.LITTLE_ENDIAN);
+        view.position(position(record) + RECORD_HEADER_SIZE);
+        view.asDoubleBuffer().get(destination, 0, parametersCount);
+    }
+
+    private int position(final int record) {
+        return record * recordSize;
+    }
+
+    /*
+     * the mapped view only covers the records that existed when it was created, so it's extended on demand
+     */
+    private MappedByteBuffer recordsView(final int record) {
+        if (record < 0 || record >= size)
+            throw new IndexOutOfBoundsException("record: " + record + ", size: " + size);
+
+        ensureOpen();
+        if (records == null || (long) (record + 1) * recordSize > records.capacity())
+            remap();
+
+        return records;
+    }
+
+    private void remap() {
+        try {
+            final long length = (long) size * recordSize;
+            if (length > Integer.MAX_VALUE)
+                throw new IllegalStateException("archive too big to be mapped: " + length + " bytes");
+
+            records = channel.map(FileChannel.MapMode.READ_ONLY, HEADER_SIZE, length);
+            records.order(ByteOrder.LITTLE_ENDIAN);
+        } catch (IOException e) {
+            throw new IllegalStateException("could not map the archive records", e);
+        }
+    }
+
+    private void ensureOpen() {
+        if (!channel.isOpen())
+            throw new IllegalStateException("archive is already closed");
+    }
+
+    /**
+     * @return the count of records in this archive
+     */
+    public synchronized int size() {
+        return size;
+    }
+
+    public int getParametersCount() {
+        return parametersCount;
+    }
+
+    /**
+     * @return the names of the players that have at least one record in this archive
+     */
+    public synchronized List<String> getPlayers() {
+        return Collections.unmodifiableList(new ArrayList<>(players));
+    }
+
+    /**
+     * Forces the records appended so far (and the size of the file that implies their count) to the storage device.
+     *
+     * @throws IOException if the file can't be synced
+     */
+    public synchronized void force() throws IOException {
+        ensureOpen();
+        channel.force(true);
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        channel.close();
+    }
+}
@@ -16,13 +16,16 @@
 
 package com.jsoftware95.janns;
 
+import com.jsoftware95.janns.api.Layer;
 import com.jsoftware95.janns.api.Neuron;
 import com.jsoftware95.janns.api.WeightedConnection;
+import com.jsoftware95.toolkit.Tracing;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.jetbrains.annotations.NotNull;
 
 import java.util.Objects;
+import java.util.concurrent.ThreadLocalRandom;
 
 /**
  * Represents a connection between two neurons with the associated weight.
@@ -80,11 +83,12 @@ public class Connection implements WeightedConnection {
         else
             this.weight = calcNewWeight();
 
-        log.trace("new instance: " + this);
+        if (Tracing.isEnabled(log))
+            log.trace("new instance: {}", this);
     }
 
     private double calcNewWeight() {
-        return (1 - Math.random()) * 2 - 1;
+        return (1 - ThreadLocalRandom.current().nextDouble()) * 2 - 1;
     }
 
     /**
@@ -92,7 +96,18 @@ public class Connection implements WeightedConnection {
      */
     @Override
     public double updateWeight() {
-        return weight = calcNewWeight();
+        weight = calcNewWeight();
+        modified();
+        return weight;
+    }
+
+    /*
+     * records a change of this connection in the layer of it's source (which belongs to the same network)
+     */
+    private void modified() {
+        final Layer<?> sourceLayer = source.getParentLayer();
+        if (sourceLayer instanceof LayerModel)
+            ((LayerModel<?>) sourceLayer).modified();
     }
 
     /**
@@ -149,6 +164,7 @@ public class Connection implements WeightedConnection {
     @Override
     public final void setSource(final Neuron<? extends Neuron<?>> source) {
         this.source = Objects.requireNonNull(source);
+        modified();
     }
 
     /**
@@ -167,6 +183,7 @@ public class Connection implements WeightedConnection {
         if (weight < -1 || weight > 1)
             throw new IllegalArgumentException("connection weight must be in [-1, 1], for: " + weight);
         this.weight = weight;
+        modified();
     }
 
     /**
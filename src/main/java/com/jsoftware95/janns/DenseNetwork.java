@@ -0,0 +1,287 @@
+/*
+ * Copyright 2017-2018 Youcef DEBBAH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.jsoftware95.janns;
+
+import com.jsoftware95.janns.api.ActivationFunction;
+import com.jsoftware95.janns.api.Neuron;
+import com.jsoftware95.janns.api.SignalCollector;
+import com.jsoftware95.janns.api.WeightedConnection;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * A dense (fully connected) representation of a feed-forward network where each processing layer is stored as one
+ * contiguous row-major weights matrix and one biases vector.
+ * <p>
+ * Instances are snapshots of an object model (layers of {@link processingNeuronModel}), they produce exactly the same
+ * outputs as the neurons they were built from but they don't follow later changes made to these neurons.
+ * <p>
+ * This class is not thread safe.
+ */
+final class DenseNetwork {
+
+    /*
+     * neurons count of each layer, the first one is the input layer
+     */
+    private final int[] sizes;
+
+    /*
+     * weights of each processing layer, the weight of the connection from neuron i to neuron j is at [j * inputs + i]
+     */
+    private final double[][] weights;
+
+    private final double[][] biases;
+
+    private final ActivationFunction[][] activationFunctions;
+
+    private final SignalCollectors[][] signalCollectors;
+
+    /*
+     * the latest output of each layer, the first one holds the input
+     */
+    private final double[][] outputs;
+
+    /*
+     * reusable outputs of the hidden layers for batches: [layer][sample][neuron] (grown when a bigger batch comes)
+     */
+    private double[][][] batchOutputs;
+
+    private DenseNetwork(final int[] sizes) {
+        this.sizes = sizes;
+
+        final int layers = sizes.length - 1;
+        weights = new double[layers][];
+        biases = new double[layers][];
+        activationFunctions = new ActivationFunction[layers][];
+        signalCollectors = new SignalCollectors[layers][];
+        outputs = new double[sizes.length][];
+        outputs[0] = new double[sizes[0]];
+        batchOutputs = new double[sizes.length][0][];
+
+        for (int layer = 0; layer < layers; layer++) {
+            weights[layer] = new double[sizes[layer + 1] * sizes[layer]];
+            biases[layer] = new double[sizes[layer + 1]];
+            activationFunctions[layer] = new ActivationFunction[sizes[layer + 1]];
+            signalCollectors[layer] = new SignalCollectors[sizes[layer + 1]];
+            outputs[layer + 1] = new double[sizes[layer + 1]];
+        }
+    }
+
+    /**
+     * Copies the weights, biases and functions of the given layers into a new dense network.
+     *
+     * @param inputNeurons     the neurons of the input layer
+     * @param processingLayers the neurons of each processing layer, in processing order (the output layer is the last)
+     *
+     * @return a dense copy of the given layers or {@code null} if they can not be represented densely (i.e. a neuron
+     * is not connected to every neuron of the upper layer in order, or it uses a {@link SignalCollector} that is not one
+     * of the {@link SignalCollectors built-in collectors})
+     */
+    static DenseNetwork of(final List<? extends Neuron<?>> inputNeurons,
+                           final List<? extends List<? extends processingNeuronModel<?>>> processingLayers) {
+        Objects.requireNonNull(inputNeurons);
+        Objects.requireNonNull(processingLayers);
+
+        final int[] sizes = new int[processingLayers.size() + 1];
+        sizes[0] = inputNeurons.size();
+        for (int layer = 0; layer < processingLayers.size(); layer++)
+            sizes[layer + 1] = processingLayers.get(layer).size();
+
+        final DenseNetwork network = new DenseNetwork(sizes);
+
+        List<? extends Neuron<?>> upperNeurons = inputNeurons;
+        for (int layer = 0; layer < processingLayers.size(); layer++) {
+            final List<? extends processingNeuronModel<?>> neurons = processingLayers.get(layer);
+            final int inputs = upperNeurons.size();
+
+            for (int j = 0; j < neurons.size(); j++) {
+                final processingNeuronModel<?> neuron = neurons.get(j);
+                if (!(neuron.getSignalCollector() instanceof SignalCollectors))
+                    return null;
+
+                if (neuron.getConnections().size() != inputs)
+                    return null;
+
+                final Iterator<WeightedConnection> connections = neuron.getConnections().iterator();
+                for (int i = 0; i < inputs; i++) {
+                    final WeightedConnection connection = connections.next();
+                    if (connection.getSource() != upperNeurons.get(i))
+                        return null;
+
+                    network.weights[layer][j * inputs + i] = connection.getWeight();
+                }
+
+                network.biases[layer][j] = neuron.getBias();
+                network.activationFunctions[layer][j] = neuron.getActivationFunction();
+                network.signalCollectors[layer][j] = (SignalCollectors) neuron.getSignalCollector();
+            }
+
+            upperNeurons = neurons;
+        }
+
+        return network;
+    }
+
+    /**
+     * Returns the buffer that holds the input of this network, it should be filled before calling {@link #forward()}.
+     *
+     * @return the input buffer (not a copy)
+     */
+    double[] getInput() {
+        return outputs[0];
+    }
+
+    /**
+     * Returns the output calculated by the last call to {@link #forward()} for the given layer.
+     *
+     * @param layer the index of the layer ({@code 0} is the input layer, the output layer is the last one)
+     *
+     * @return the output buffer of the given layer (not a copy)
+     */
+    double[] getOutput(final int layer) {
+        return outputs[layer];
+    }
+
+    /**
+     * @return the number of layers including the input and the output layers
+     */
+    int getLayersCount() {
+        return sizes.length;
+    }
+
+    /**
+     * Calculates the output of every processing layer using the current content of the {@linkplain #getInput() input
+     * buffer}.
+     */
+    void forward() {
+        for (int layer = 0; layer < weights.length; layer++) {
+            final double[] input = outputs[layer];
+            final double[] output = outputs[layer + 1];
+            final double[] layerWeights = weights[layer];
+            final double[] layerBiases = biases[layer];
+            final SignalCollectors[] layerCollectors = signalCollectors[layer];
+            final ActivationFunction[] layerActivations = activationFunctions[layer];
+            final int inputs = sizes[layer];
+
+            for (int j = 0; j < output.length; j++) {
+                final double sum = layerCollectors[j].collect(input, layerWeights, j * inputs);
+                output[j] = layerActivations[j].applyAsDouble(sum + layerBiases[j]);
+            }
+        }
+    }
+
+    /**
+     * Calculates the output of the whole network for every input vector of the given batch, layer by layer (each layer
+     * is applied to all the samples before moving to the next one).
+     * <p>
+     * This method doesn't use nor change the single sample input and output buffers.
+     *
+     * @param inputs  the input vectors, each one must have an element per input neuron
+     * @param results where the output vectors are written, must have at least {@code inputs.length} rows and each row
+     *                must have an element per output neuron
+     */
+    void forward(final double[][] inputs, final double[][] results) {
+        final int batchSize = inputs.length;
+        final int lastLayer = weights.length - 1;
+
+        double[][] input = inputs;
+        for (int layer = 0; layer <= lastLayer; layer++) {
+            final double[][] output = layer == lastLayer ? results : getBatchOutputs(layer + 1, batchSize);
+            final double[] layerWeights = weights[layer];
+            final double[] layerBiases = biases[layer];
+            final SignalCollectors[] layerCollectors = signalCollectors[layer];
+            final ActivationFunction[] layerActivations = activationFunctions[layer];
+            final int inputsCount = sizes[layer];
+
+            for (int j = 0; j < sizes[layer + 1]; j++) {
+                final SignalCollectors collector = layerCollectors[j];
+                final ActivationFunction activation = layerActivations[j];
+                final double bias = layerBiases[j];
+                final int offset = j * inputsCount;
+
+                for (int sample = 0; sample < batchSize; sample++)
+                    output[sample][j] = activation.applyAsDouble(collector.collect(input[sample], layerWeights, offset) + bias);
+            }
+
+            input = output;
+        }
+    }
+
+    /*
+     * returns the reusable batch buffers of the given hidden layer, with at least batchSize rows
+     */
+    private double[][] getBatchOutputs(final int layer, final int batchSize) {
+        double[][] buffers = batchOutputs[layer];
+        if (buffers.length < batchSize) {
+            final int oldSize = buffers.length;
+            buffers = Arrays.copyOf(buffers, Math.max(batchSize, oldSize * 2));
+            for (int sample = oldSize; sample < buffers.length; sample++)
+                buffers[sample] = new double[sizes[layer]];
+            batchOutputs[layer] = buffers;
+        }
+
+        return buffers;
+    }
+
+    /**
+     * @return the number of input neurons
+     */
+    int getInputsCount() {
+        return sizes[0];
+    }
+
+    /**
+     * @return the number of output neurons
+     */
+    int getOutputsCount() {
+        return sizes[sizes.length - 1];
+    }
+
+    /**
+     * @param layer the index of the layer ({@code 0} is the input layer)
+     *
+     * @return the number of neurons in the given layer
+     */
+    int getSize(final int layer) {
+        return sizes[layer];
+    }
+
+    /**
+     * @param layer the index of a processing layer ({@code 0} is the first hidden layer, or the output layer if there
+     *              are no hidden layers)
+     *
+     * @return the weights matrix of the given layer (not a copy)
+     */
+    double[] getWeights(final int layer) {
+        return weights[layer];
+    }
+
+    double[] getBiases(final int layer) {
+        return biases[layer];
+    }
+
+    ActivationFunction[] getActivationFunctions(final int layer) {
+        return activationFunctions[layer];
+    }
+
+    SignalCollectors[] getSignalCollectors(final int layer) {
+        return signalCollectors[layer];
+    }
+}
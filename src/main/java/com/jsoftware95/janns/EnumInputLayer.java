@@ -18,6 +18,7 @@ package com.jsoftware95.janns;
 
 import com.jsoftware95.janns.api.InputLayer;
 import com.jsoftware95.toolkit.InputMappers;
+import com.jsoftware95.toolkit.Tracing;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
@@ -110,7 +111,8 @@ public class EnumInputLayer<E extends Enum<E>> extends LayerModel<EnumInputNeuro
     public void setInput(final Enum<E> property, final double value) {
         Objects.requireNonNull(property);
         helpSettingInput(property, value);
-        log.trace(property + " is set to: " + value);
+        if (Tracing.isEnabled(log))
+            log.trace("{} is set to: {}", property, value);
     }
 
     /**
@@ -123,7 +125,8 @@ public class EnumInputLayer<E extends Enum<E>> extends LayerModel<EnumInputNeuro
         Objects.requireNonNull(property);
         final double input = value ? 1 : 0;
         helpSettingInput(property, input);
-        log.trace(property + " is set to: " + value + " -> " + input);
+        if (Tracing.isEnabled(log))
+            log.trace("{} is set to: {} -> {}", property, value, input);
     }
 
     /**
@@ -136,7 +139,8 @@ public class EnumInputLayer<E extends Enum<E>> extends LayerModel<EnumInputNeuro
         Objects.requireNonNull(property);
         final double input = InputMappers.LINEAR.map(value, min, max);
         helpSettingInput(property, input);
-        log.trace(property + " is set to: " + value + " [" + min + ", " + max + "] -> " + input);
+        if (Tracing.isEnabled(log))
+            log.trace("{} is set to: {} [{}, {}] -> {}", property, value, min, max, input);
     }
 
 }
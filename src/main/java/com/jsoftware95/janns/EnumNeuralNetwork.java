@@ -20,6 +20,7 @@ import com.jsoftware95.janns.api.DataMapper;
 import com.jsoftware95.janns.api.Neuron;
 import com.jsoftware95.janns.api.WeightedConnection;
 import com.jsoftware95.toolkit.InputMappers;
+import com.jsoftware95.toolkit.Tracing;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
@@ -27,10 +28,11 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Deque;
 import java.util.Formatter;
+import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.List;
-import java.util.NoSuchElementException;
 import java.util.Objects;
+import java.util.SplittableRandom;
 
 /**
  * This class model an Artificial Neural Network using Enum constants to represent input and output properties (for the
@@ -46,6 +48,26 @@ public class EnumNeuralNetwork<I extends Enum<I>, O extends Enum<O>> extends Neu
 
     private final Deque<SimpleHiddenLayer> hiddenLayers = new LinkedList<>();
 
+    /*
+     * a dense copy of the layers used to process the input (null when it needs to be rebuilt)
+     */
+    private transient DenseNetwork engine;
+
+    /*
+     * true if the layers can't be represented by a dense network (no need to retry building the engine)
+     */
+    private transient boolean engineUnsupported;
+
+    /*
+     * the modifications count of the layers when the engine was built (the engine is stale once it changes)
+     */
+    private transient long engineModifications;
+
+    /*
+     * the source of new parameters (null to use the thread-local generator, which can't be replayed)
+     */
+    private transient SplittableRandom random;
+
     /**
      * Creates a new neural network instance with the given {@code inputs} and {@code outputs}. The instance will have
      * an input neuron for each {@code input} and an output neuron for each {@code output} but without any hidden layers
@@ -60,7 +82,8 @@ public class EnumNeuralNetwork<I extends Enum<I>, O extends Enum<O>> extends Neu
     public EnumNeuralNetwork(final Enum<I>[] inputs, final Enum<O>[] outputs) {
         super(new EnumInputLayer<>(inputs), new EnumOutputLayer<>(null, outputs));
         outputLayer.setUpperLayer(inputLayer);
-        log.trace("new enum neural network with inputs: " + Arrays.toString(inputs) + " and outputs: " + Arrays.toString(outputs));
+        if (Tracing.isEnabled(log))
+            log.trace("new enum neural network with inputs: {} and outputs: {}", Arrays.toString(inputs), Arrays.toString(outputs));
     }
 
     /**
@@ -89,25 +112,12 @@ public class EnumNeuralNetwork<I extends Enum<I>, O extends Enum<O>> extends Neu
      * </code></pre>
      *
      * @return parameters that represents the behavior of this Neural Network
+     * @see #getParameters()
      */
     public Deque<Double> getData() {
         final Deque<Double> data = new LinkedList<>();
-
-        for (final EnumOutputNeuron<O> neuron : outputLayer.getNeurons()) {
-            for (final WeightedConnection connection : neuron.getConnections()) {
-                data.add(connection.getWeight());
-            }
-            data.add(neuron.getBias());
-        }
-
-        for (final SimpleHiddenLayer hiddenLayer : hiddenLayers) {
-            for (final SimpleHiddenNeuron neuron : hiddenLayer.getNeurons()) {
-                for (final WeightedConnection connection : neuron.getConnections()) {
-                    data.add(connection.getWeight());
-                }
-                data.add(neuron.getBias());
-            }
-        }
+        for (final double value : getParameters())
+            data.add(value);
 
         return data;
     }
@@ -115,54 +125,220 @@ public class EnumNeuralNetwork<I extends Enum<I>, O extends Enum<O>> extends Neu
     /**
      * Sets the behavior of this Neural Network by setting all the biases and connections weights.
      * <p>
-     * Each element used from the given deque will get <strong>removed</strong> (from the original instance).
+     * Each element used from the given deque will get <strong>removed</strong> (from the original instance), but only
+     * once all of them have been accepted: if an exception is thrown both the deque and this Neural Network are left
+     * unchanged.
      * <p>
      * Note that if any value in the given deque is NaN then a new value it will be generated instead of it.
      *
      * @param data the new biases and connections of this Neural Network
      *
-     * @throws NullPointerException     if {@code data} is {@code null}
-     * @throws IllegalArgumentException if the size of {@code data} is not sufficient for the whole NN
+     * @throws NullPointerException     if {@code data} or one of the elements to be used is {@code null}
+     * @throws IllegalArgumentException if the size of {@code data} is not sufficient for the whole NN or one of the
+     *                                  values is outside [-1, 1]
+     * @see #setParameters(double[], int)
      */
     public void setData(final Deque<Double> data) {
         Objects.requireNonNull(data);
-        final Deque<Double> oldData = getData();
+        final int count = getParametersCount();
+        if (data.size() < count)
+            throw new IllegalArgumentException("not enough data for this NN (expected: " + count + ", found: " + data.size() + ")");
+
+        final double[] parameters = new double[count];
+        final Iterator<Double> iterator = data.iterator();
+        for (int i = 0; i < count; i++) {
+            final Double value = iterator.next();
+            if (value == null)
+                throw new NullPointerException("null parameter at index: " + i);
+            parameters[i] = value;
+        }
 
-        try {
-            setDataForNeurons(outputLayer.getNeurons(), data);
+        setParameters(parameters, 0);
+        for (int i = 0; i < count; i++)
+            data.pop();
+    }
 
-            for (final SimpleHiddenLayer hiddenLayer : hiddenLayers) {
-                setDataForNeurons(hiddenLayer.getNeurons(), data);
-            }
-        } catch (final NoSuchElementException e) {
-            setData(oldData);
-            throw new IllegalArgumentException("not enough data for this NN (expected: " + oldData.size() + ", found: " + data.size() + ")", e);
+    /**
+     * Returns the number of parameters (connections weights and biases) of this Neural Network, which is the length
+     * of the array returned by {@link #getParameters()}.
+     *
+     * @return the number of parameters of this Neural Network
+     */
+    public int getParametersCount() {
+        int count = 0;
+
+        for (final EnumOutputNeuron<O> neuron : outputLayer.getNeurons())
+            count += neuron.getConnections().size() + 1;
+
+        for (final SimpleHiddenLayer hiddenLayer : hiddenLayers)
+            for (final SimpleHiddenNeuron neuron : hiddenLayer.getNeurons())
+                count += neuron.getConnections().size() + 1;
+
+        return count;
+    }
+
+    /**
+     * Returns all the parameters that controls the behavior of this Neural Network, in the same order as
+     * {@link #getData()}: for each neuron of the output layer then of each hidden layer (in the order they've been
+     * added with) the weights of it's connections followed by it's bias.
+     *
+     * @return a new array with the parameters of this Neural Network
+     */
+    public double[] getParameters() {
+        final double[] parameters = new double[getParametersCount()];
+        copyParametersInto(parameters, 0);
+        return parameters;
+    }
+
+    /**
+     * Copies the parameters of this Neural Network (see {@link #getParameters()}) to the beginning of the given array.
+     *
+     * @param target where the parameters get copied
+     *
+     * @throws NullPointerException     if {@code target} is {@code null}
+     * @throws IllegalArgumentException if {@code target} is too small
+     */
+    public void copyParametersInto(final double[] target) {
+        copyParametersInto(target, 0);
+    }
+
+    /**
+     * Copies the parameters of this Neural Network (see {@link #getParameters()}) into the given array starting at
+     * {@code offset}.
+     *
+     * @param target where the parameters get copied
+     * @param offset the index in {@code target} of the first parameter
+     *
+     * @return the index in {@code target} just after the last copied parameter
+     * @throws NullPointerException     if {@code target} is {@code null}
+     * @throws IllegalArgumentException if {@code offset} is negative or {@code target} is too small
+     */
+    public int copyParametersInto(final double[] target, final int offset) {
+        Objects.requireNonNull(target);
+        checkRange(target.length, offset);
+
+        int index = copyParametersInto(outputLayer.getNeurons(), target, offset);
+        for (final SimpleHiddenLayer hiddenLayer : hiddenLayers)
+            index = copyParametersInto(hiddenLayer.getNeurons(), target, index);
+
+        return index;
+    }
+
+    private static int copyParametersInto(final List<? extends processingNeuronModel<?>> neurons, final double[] target, int index) {
+        for (int i = 0; i < neurons.size(); i++) {
+            final processingNeuronModel<?> neuron = neurons.get(i);
+            for (final WeightedConnection connection : neuron.getConnections())
+                target[index++] = connection.getWeight();
+            target[index++] = neuron.getBias();
         }
+
+        return index;
     }
 
-    /*
-     * set the data for each neuron and if a value is NaN then a new value will be generated instead
+    /**
+     * Sets all the parameters of this Neural Network from the given array starting at {@code offset}, in the order
+     * described in {@link #getParameters()}.
+     * <p>
+     * The values are all checked before any change is made, so if an exception is thrown this Neural Network is left
+     * unchanged. Note that if any value is NaN then a new value will be generated instead of it.
+     *
+     * @param parameters an array that contains the new parameters
+     * @param offset     the index in {@code parameters} of the first parameter
+     *
+     * @return the index in {@code parameters} just after the last used parameter
+     * @throws NullPointerException     if {@code parameters} is {@code null}
+     * @throws IllegalArgumentException if {@code offset} is negative, the array doesn't contain enough parameters or a
+     *                                  value is outside [-1, 1]
      */
+    public int setParameters(final double[] parameters, final int offset) {
+        Objects.requireNonNull(parameters);
+        final int end = checkRange(parameters.length, offset);
+
+        for (int i = offset; i < end; i++) {
+            final double value = parameters[i];
+            if (value < -1 || value > 1)
+                throw new IllegalArgumentException("parameters must be in [-1, 1], found: " + value + " at index: " + i);
+        }
 
-    private void setDataForNeurons(final Iterable<? extends processingNeuronModel<?>> neurons, final Deque<Double> data) {
-        assert neurons != null;
-        assert data != null;
+        invalidateEngine();
+        int index = setParameters(outputLayer.getNeurons(), parameters, offset);
+        for (final SimpleHiddenLayer hiddenLayer : hiddenLayers)
+            index = setParameters(hiddenLayer.getNeurons(), parameters, index);
+
+        return index;
+    }
 
-        for (final processingNeuronModel<?> neuron : neurons) {
+    /*
+     * set the parameters of each neuron and if a value is NaN then a new value will be generated instead
+     */
+    private int setParameters(final List<? extends processingNeuronModel<?>> neurons, final double[] parameters, int index) {
+        for (int i = 0; i < neurons.size(); i++) {
+            final processingNeuronModel<?> neuron = neurons.get(i);
             for (final WeightedConnection connection : neuron.getConnections()) {
-                final Double value = data.pop();
-                if (Double.isNaN(value))
-                    connection.updateWeight();
-                else
+                final double value = parameters[index++];
+                if (!Double.isNaN(value))
                     connection.setWeight(value);
+                else if (random != null)
+                    connection.setWeight(newParameter(random));
+                else
+                    connection.updateWeight();
             }
 
-            final Double value = data.pop();
-            if (Double.isNaN(value))
-                neuron.updateBias();
-            else
+            final double value = parameters[index++];
+            if (!Double.isNaN(value))
                 neuron.setBias(value);
+            else if (random != null)
+                neuron.setBias(newParameter(random));
+            else
+                neuron.updateBias();
         }
+
+        return index;
+    }
+
+    /*
+     * a new parameter in ]-1, 1] (same distribution as the ones generated by connections and neurons)
+     */
+    private static double newParameter(final SplittableRandom random) {
+        return (1 - random.nextDouble()) * 2 - 1;
+    }
+
+    /**
+     * Sets the source of the parameters generated by this Neural Network (for NaN values passed to
+     * {@link #setParameters(double[], int)} and by {@link #randomize()}), the clones made by
+     * {@link #massClone(int, DataMapper)} get their own source split from this one.
+     * <p>
+     * Two networks with the same structure given sources created with the same seed generate the same parameters, which
+     * makes a whole evolution run reproducible from a single seed.
+     *
+     * @param random the source of new parameters, if {@code null} a thread-local generator is used (the default)
+     */
+    public void setRandom(final SplittableRandom random) {
+        this.random = random;
+    }
+
+    /**
+     * Replaces all the parameters (connections weights and biases) of this Neural Network by new random values in
+     * ]-1, 1] generated from the source set by {@link #setRandom(SplittableRandom)}.
+     */
+    public void randomize() {
+        final double[] parameters = new double[getParametersCount()];
+        Arrays.fill(parameters, Double.NaN);
+        setParameters(parameters, 0);
+    }
+
+    /*
+     * returns the index just after the parameters of this network if they fit in the given array at the given offset
+     */
+    private int checkRange(final int length, final int offset) {
+        if (offset < 0)
+            throw new IllegalArgumentException("negative offset: " + offset);
+
+        final int count = getParametersCount();
+        if (length - offset < count)
+            throw new IllegalArgumentException("not enough room for the parameters of this NN (expected: " + count + ", found: " + Math.max(0, length - offset) + ")");
+
+        return offset + count;
     }
 
     /**
@@ -184,19 +360,214 @@ public class EnumNeuralNetwork<I extends Enum<I>, O extends Enum<O>> extends Neu
         final SimpleHiddenLayer newHiddenLayer = new SimpleHiddenLayer(upperLayer, neuronsCount);
         outputLayer.setUpperLayer(newHiddenLayer);
         hiddenLayers.add(newHiddenLayer);
+        invalidateEngine();
     }
 
     /**
      * {@inheritDoc}
+     * <p>
+     * The calculations are done by a dense copy of the layers (contiguous weights and biases arrays) and the results are
+     * then written back to the neurons, so the outputs are the same as processing the layers one by one. The dense copy
+     * is rebuilt whenever a weight, a bias, a function or the connections of a neuron have changed since it was made.
      */
     @Override
     public void processInput() {
+        JannsMetrics.FORWARD_PASSES.increment();
+        final DenseNetwork engine = getEngine();
+        if (engine == null) {
+            processInputNeuronByNeuron();
+            return;
+        }
+
+        final double[] input = engine.getInput();
+        final List<EnumInputNeuron<I>> inputNeurons = inputLayer.getNeurons();
+        for (int i = 0; i < input.length; i++)
+            input[i] = inputNeurons.get(i).getOutput();
+
+        engine.forward();
+
+        int layer = 1;
+        for (final SimpleHiddenLayer hiddenLayer : hiddenLayers)
+            writeOutputs(hiddenLayer.getNeurons(), engine.getOutput(layer++));
+
+        writeOutputs(outputLayer.getNeurons(), engine.getOutput(layer));
+    }
+
+    /**
+     * Calculates the outputs for a batch of input vectors in one call.
+     * <p>
+     * Each input vector holds one value per input neuron, in the same order as the {@code inputs} used to create this
+     * network, and each output vector holds one value per output neuron in the order of {@code outputs}. The batch is
+     * processed layer by layer so the weights of a layer are reused for all the samples while they are still in the
+     * cache.
+     * <p>
+     * Unlike {@link #processInput()}, the current input and outputs of the neurons are left untouched (except for
+     * networks with custom signal collectors, which are processed one sample at a time through the neurons).
+     *
+     * @param inputs the input vectors (each value must be in [-1, 1])
+     *
+     * @return a new array with an output vector for each input vector
+     * @throws NullPointerException     if {@code inputs} or one of it's vectors is {@code null}
+     * @throws IllegalArgumentException if an input vector has a wrong length or a value outside [-1, 1]
+     */
+    public double[][] forward(final double[][] inputs) {
+        Objects.requireNonNull(inputs);
+        final double[][] outputs = new double[inputs.length][outputLayer.size()];
+        forward(inputs, outputs);
+        return outputs;
+    }
+
+    /**
+     * Same as {@link #forward(double[][])} but writes the results into the given {@code outputs} buffer, so a batch
+     * can be processed repeatedly without allocating new arrays.
+     *
+     * @param inputs  the input vectors (each value must be in [-1, 1])
+     * @param outputs where the output vectors are written (rows beyond {@code inputs.length} are left untouched)
+     *
+     * @throws NullPointerException     if one of the arguments or one of their vectors is {@code null}
+     * @throws IllegalArgumentException if a vector has a wrong length, an input value is outside [-1, 1] or
+     *                                  {@code outputs} has less rows than {@code inputs}
+     */
+    public void forward(final double[][] inputs, final double[][] outputs) {
+        Objects.requireNonNull(inputs);
+        Objects.requireNonNull(outputs);
+        if (outputs.length < inputs.length)
+            throw new IllegalArgumentException("not enough output vectors (expected: " + inputs.length + ", found: " + outputs.length + ")");
+
+        final int inputsCount = inputLayer.size();
+        final int outputsCount = outputLayer.size();
+        for (int sample = 0; sample < inputs.length; sample++) {
+            checkVector(inputs[sample], inputsCount, "input", sample);
+            checkVector(outputs[sample], outputsCount, "output", sample);
+            for (final double value : inputs[sample])
+                if (value < -1 || value > 1)
+                    throw new IllegalArgumentException("neuron input must be in [-1, 1] interval, got: " + value + " (sample: " + sample + ")");
+        }
+
+        JannsMetrics.FORWARD_PASSES.add(inputs.length);
+        final DenseNetwork engine = getEngine();
+        if (engine != null) {
+            engine.forward(inputs, outputs);
+            return;
+        }
+
+        final List<EnumInputNeuron<I>> inputNeurons = inputLayer.getNeurons();
+        final List<EnumOutputNeuron<O>> outputNeurons = outputLayer.getNeurons();
+        for (int sample = 0; sample < inputs.length; sample++) {
+            for (int i = 0; i < inputsCount; i++)
+                inputNeurons.get(i).setInput(inputs[sample][i]);
+
+            processInputNeuronByNeuron();
+
+            for (int i = 0; i < outputsCount; i++)
+                outputs[sample][i] = outputNeurons.get(i).getOutput();
+        }
+    }
+
+    private static void checkVector(final double[] vector, final int expectedLength, final String type, final int sample) {
+        if (vector == null)
+            throw new NullPointerException(type + " vector is null (sample: " + sample + ")");
+        if (vector.length != expectedLength)
+            throw new IllegalArgumentException(type + " vector has a wrong length (expected: " + expectedLength + ", found: " + vector.length + ", sample: " + sample + ")");
+    }
+
+    /*
+     * process the input using the object model (each neuron collects the output of it's upper layer by itself)
+     */
+    void processInputNeuronByNeuron() {
         for (final SimpleHiddenLayer hiddenLayer : hiddenLayers)
             hiddenLayer.processInput();
 
         outputLayer.processInput();
     }
 
+    private static void writeOutputs(final List<? extends processingNeuronModel<?>> neurons, final double[] outputs) {
+        for (int i = 0; i < outputs.length; i++)
+            neurons.get(i).setOutput(outputs[i]);
+    }
+
+    /*
+     * returns the dense copy of the layers (built lazily) or null if the layers can't be represented densely
+     */
+    DenseNetwork getEngine() {
+        final long modifications = getModifications();
+        if (modifications != engineModifications) {
+            invalidateEngine();
+            engineModifications = modifications;
+        }
+
+        if (engine == null && !engineUnsupported) {
+            engine = DenseNetwork.of(inputLayer.getNeurons(), getProcessingLayers());
+            engineUnsupported = engine == null;
+            if (engineUnsupported)
+                log.debug("layers can't be processed by a dense network, the object model will be used instead");
+        }
+
+        return engine;
+    }
+
+    /*
+     * returns the number of changes made to all the layers of this network so far
+     */
+    private long getModifications() {
+        long modifications = inputLayer.getModifications() + outputLayer.getModifications();
+        for (final SimpleHiddenLayer hiddenLayer : hiddenLayers)
+            modifications += hiddenLayer.getModifications();
+
+        return modifications;
+    }
+
+    /*
+     * returns the neurons of each hidden layer (in the order they've been added with) followed by the output neurons
+     */
+    List<List<? extends processingNeuronModel<?>>> getProcessingLayers() {
+        final List<List<? extends processingNeuronModel<?>>> processingLayers = new ArrayList<>(hiddenLayers.size() + 1);
+        for (final SimpleHiddenLayer hiddenLayer : hiddenLayers)
+            processingLayers.add(hiddenLayer.getNeurons());
+        processingLayers.add(outputLayer.getNeurons());
+
+        return processingLayers;
+    }
+
+    /**
+     * Returns the number of neurons in each hidden layer of this network, in the order they've been added with.
+     *
+     * @return a new array with the size of each hidden layer
+     */
+    public int[] getHiddenLayersSizes() {
+        final int[] sizes = new int[hiddenLayers.size()];
+        int i = 0;
+        for (final SimpleHiddenLayer hiddenLayer : hiddenLayers)
+            sizes[i++] = hiddenLayer.size();
+
+        return sizes;
+    }
+
+    /**
+     * @return the properties of the input layer, in the order of the input neurons
+     */
+    public Enum<I>[] getInputProperties() {
+        return inputLayer.getProperties().clone();
+    }
+
+    /**
+     * @return the properties of the output layer, in the order of the output neurons
+     */
+    public Enum<O>[] getOutputProperties() {
+        return outputLayer.getProperties().clone();
+    }
+
+    /**
+     * Discards the dense copy of the layers that is used by {@link #processInput()}, it will be rebuilt from the neurons
+     * on the next call. Changes made through the setters of the neurons and connections are detected automatically, so
+     * this is only needed after editing the collections returned by {@link com.jsoftware95.janns.api.ProcessingNeuron#getConnections()}
+     * in place.
+     */
+    public void invalidateEngine() {
+        engine = null;
+        engineUnsupported = false;
+    }
+
     /*
      * returns the layer that the output layer is currently linked to
      */
@@ -272,6 +643,9 @@ public class EnumNeuralNetwork<I extends Enum<I>, O extends Enum<O>> extends Neu
      * will be passed for the first copy). This mean that {@code dataMapper} will be called
      * {@code this.getData().size()} time for each copy that's why it's highly recommended to avoid pouting any heavy
      * possessing inside your {@code dataMapper}.
+     * <p>
+     * If this instance has a source of random parameters (see {@link #setRandom(SplittableRandom)}) each copy gets its own
+     * source split from it, in the order of the copies.
      *
      * @param clonesCount number of new instance to create
      * @param dataMapper  a function that map each value in the data of original instance to it's equivalent for the
@@ -285,29 +659,26 @@ public class EnumNeuralNetwork<I extends Enum<I>, O extends Enum<O>> extends Neu
             throw new IllegalArgumentException("clones count must be more than 0");
 
         final List<EnumNeuralNetwork<I, O>> clones = new ArrayList<>(clonesCount);
-        final Deque<Double> originalData = getData();
+        final double[] originalParameters = getParameters();
+        final double[] parameters = new double[originalParameters.length];
 
-        int cloneIndex = 0;
-        while (cloneIndex < clonesCount) {
+        for (int cloneIndex = 0; cloneIndex < clonesCount; cloneIndex++) {
             final EnumNeuralNetwork<I, O> newNetwork = new EnumNeuralNetwork<>(inputLayer.getProperties(), outputLayer.getProperties());
             for (final SimpleHiddenLayer hiddenLayer : hiddenLayers)
                 newNetwork.addHiddenLayer(hiddenLayer.size());
 
-            final Deque<Double> data;
+            if (random != null)
+                newNetwork.setRandom(random.split());
+
             if (dataMapper == null) {
-                data = new LinkedList<>(originalData);
+                newNetwork.setParameters(originalParameters, 0);
             } else {
-                data = new LinkedList<>();
-                int valueIndex = 0;
-                for (final Double value : originalData) {
-                    data.add(dataMapper.apply(value, cloneIndex, valueIndex));
-                    valueIndex++;
-                }
+                for (int valueIndex = 0; valueIndex < parameters.length; valueIndex++)
+                    parameters[valueIndex] = dataMapper.apply(originalParameters[valueIndex], cloneIndex, valueIndex);
+                newNetwork.setParameters(parameters, 0);
             }
 
-            newNetwork.setData(data);
             clones.add(newNetwork);
-            cloneIndex++;
         }
 
         return clones;
@@ -25,7 +25,6 @@ import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
 import java.util.ArrayList;
-import java.util.LinkedList;
 import java.util.List;
 import java.util.Objects;
 
@@ -114,7 +113,7 @@ public class EnumOutputLayer<E extends Enum<E>> extends LayerModel<EnumOutputNeu
      * create new connections with all neurons on the given layer
      */
     private List<WeightedConnection> getConnectionsWith(final Layer<? extends Neuron<?>> upperLayer) {
-        final List<WeightedConnection> weightedLinks = new LinkedList<>();
+        final List<WeightedConnection> weightedLinks = new ArrayList<>(upperLayer == null ? 0 : upperLayer.size());
 
         if (upperLayer != null) {
             for (int connectionID = 0; connectionID < upperLayer.size(); connectionID++)
@@ -0,0 +1,36 @@
+/*
+ * Copyright 2017-2018 Youcef DEBBAH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.jsoftware95.janns;
+
+import com.jsoftware95.toolkit.metrics.Counter;
+import com.jsoftware95.toolkit.metrics.LatencyRecorder;
+import com.jsoftware95.toolkit.metrics.MetricsRegistry;
+
+/*
+ * the metrics of this library in the default registry
+ */
+final class JannsMetrics {
+
+    /* the count of input vectors processed, by single or batched forward passes */
+    static final Counter FORWARD_PASSES = MetricsRegistry.getDefault().counter("janns.forwardPasses");
+
+    /* the time taken to write a checkpoint (a file or an archive record) */
+    static final LatencyRecorder CHECKPOINT_WRITE = MetricsRegistry.getDefault().latency("janns.checkpointWrite");
+
+    private JannsMetrics() {
+    }
+}
@@ -17,6 +17,7 @@
 package com.jsoftware95.janns;
 
 import com.jsoftware95.janns.api.Layer;
+import com.jsoftware95.toolkit.Tracing;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
@@ -59,6 +60,11 @@ public abstract class LayerModel<T extends NeuronModel<T>> implements Layer<T> {
      */
     private int id;
 
+    /*
+     * number of changes made to the neurons of this layer or to the connections that use them as a source
+     */
+    private transient long modifications;
+
     /**
      * Constructs a new layer with the given {@code id} (must be unique within network scope).
      *
@@ -67,7 +73,8 @@ public abstract class LayerModel<T extends NeuronModel<T>> implements Layer<T> {
     protected LayerModel(final int id) {
         this.id = id;
         this.neurons = new ArrayList<>();
-        log.trace("new instance: " + this);
+        if (Tracing.isEnabled(log))
+            log.trace("new instance: {}", this);
     }
 
     /**
@@ -99,6 +106,7 @@ public abstract class LayerModel<T extends NeuronModel<T>> implements Layer<T> {
 
         if (!neurons.contains(neuron))
             neurons.add(neuron);
+        modified();
     }
 
     /**
@@ -110,6 +118,7 @@ public abstract class LayerModel<T extends NeuronModel<T>> implements Layer<T> {
         for (int i = 0; i < neurons.size(); i++) {
             neurons.get(i).setId(i);
         }
+        modified();
     }
 
     /**
@@ -118,6 +127,7 @@ public abstract class LayerModel<T extends NeuronModel<T>> implements Layer<T> {
     @Override
     public void clearNeurons() {
         neurons.clear();
+        modified();
     }
 
     /**
@@ -144,6 +154,20 @@ public abstract class LayerModel<T extends NeuronModel<T>> implements Layer<T> {
         return neurons;
     }
 
+    /*
+     * records a change that invalidates any copy made of this layer (e.g. a DenseNetwork)
+     */
+    void modified() {
+        modifications++;
+    }
+
+    /*
+     * returns the number of changes recorded so far, a copy made of this layer is up to date as long as it doesn't change
+     */
+    long getModifications() {
+        return modifications;
+    }
+
     @Override
     public boolean equals(final Object that) {
         if (this == that) return true;
@@ -0,0 +1,425 @@
+/*
+ * Copyright 2017-2018 Youcef DEBBAH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.jsoftware95.janns;
+
+import com.jsoftware95.janns.api.ActivationFunction;
+import com.jsoftware95.janns.api.SignalCollector;
+
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * A snapshot of an {@link EnumNeuralNetwork} (topology and parameters) along with the generation that produced it,
+ * stored in a compact and versioned binary format.
+ * <p>
+ * File layout (all numbers are little-endian):
+ * <pre>
+ *     magic            4 bytes: 'J' 'A' 'N' 'N'
+ *     version          int
+ *     generation       int
+ *     inputs           int count, then count strings (names of the input properties)
+ *     outputs          int count, then count strings (names of the output properties)
+ *     hidden layers    int count, then count ints (neurons count of each hidden layer)
+ *     functions        for each processing layer (hidden layers then the output layer): two strings, the name of the
+ *                      {@link ActivationFunctions activation function} and of the {@link SignalCollectors signal
+ *                      collector} used by all the neurons of that layer
+ *     parameters       int count, then count doubles (see {@link EnumNeuralNetwork#getParameters()})
+ * </pre>
+ * Strings are stored as an unsigned short length followed by their UTF-8 bytes.
+ * <p>
+ * Instances of this class are immutable.
+ */
+public final class NetworkCheckpoint {
+
+    /**
+     * The version of the format written by this class
+     */
+    public static final int VERSION = 1;
+
+    private static final byte[] MAGIC = {'J', 'A', 'N', 'N'};
+
+    private final int generation;
+    private final String[] inputs;
+    private final String[] outputs;
+    private final int[] hiddenLayersSizes;
+    private final String[] activationFunctions;
+    private final String[] signalCollectors;
+    private final double[] parameters;
+
+    private NetworkCheckpoint(final int generation, final String[] inputs, final String[] outputs,
+                              final int[] hiddenLayersSizes, final String[] activationFunctions,
+                              final String[] signalCollectors, final double[] parameters) {
+        this.generation = generation;
+        this.inputs = inputs;
+        this.outputs = outputs;
+        this.hiddenLayersSizes = hiddenLayersSizes;
+        this.activationFunctions = activationFunctions;
+        this.signalCollectors = signalCollectors;
+        this.parameters = parameters;
+    }
+
+    /**
+     * Takes a snapshot of the given network.
+     *
+     * @param network    the network to save
+     * @param generation the generation of the given network
+     *
+     * @return a new checkpoint of the given network
+     * @throws NullPointerException     if {@code network} is {@code null}
+     * @throws IllegalArgumentException if the neurons of a layer don't share the same functions or a function is not
+     *                                  one of the built-in {@link ActivationFunctions} and {@link SignalCollectors}
+     */
+    public static NetworkCheckpoint of(final EnumNeuralNetwork<?, ?> network, final int generation) {
+        Objects.requireNonNull(network);
+
+        final List<List<? extends processingNeuronModel<?>>> layers = network.getProcessingLayers();
+        final String[] activationFunctions = new String[layers.size()];
+        final String[] signalCollectors = new String[layers.size()];
+
+        for (int layer = 0; layer < layers.size(); layer++) {
+            final List<? extends processingNeuronModel<?>> neurons = layers.get(layer);
+            final ActivationFunction activationFunction = neurons.get(0).getActivationFunction();
+            final SignalCollector signalCollector = neurons.get(0).getSignalCollector();
+
+            for (final processingNeuronModel<?> neuron : neurons)
+                if (neuron.getActivationFunction() != activationFunction || neuron.getSignalCollector() != signalCollector)
+                    throw new IllegalArgumentException("neurons of the processing layer #" + layer + " don't have the same functions");
+
+            if (!(activationFunction instanceof ActivationFunctions))
+                throw new IllegalArgumentException("only built-in activation functions can be saved, found: " + activationFunction);
+            if (!(signalCollector instanceof SignalCollectors))
+                throw new IllegalArgumentException("only built-in signal collectors can be saved, found: " + signalCollector);
+
+            activationFunctions[layer] = ((ActivationFunctions) activationFunction).name();
+            signalCollectors[layer] = ((SignalCollectors) signalCollector).name();
+        }
+
+        return new NetworkCheckpoint(generation, names(network.getInputProperties()), names(network.getOutputProperties()),
+                network.getHiddenLayersSizes(), activationFunctions, signalCollectors, network.getParameters());
+    }
+
+    private static String[] names(final Enum<?>[] properties) {
+        final String[] names = new String[properties.length];
+        for (int i = 0; i < properties.length; i++)
+            names[i] = properties[i].name();
+        return names;
+    }
+
+    /**
+     * Checks whether the given file starts with the magic number of this format (without reading the rest of it).
+     *
+     * @param file the file to check
+     *
+     * @return {@code true} if the file looks like a checkpoint
+     * @throws IOException if the file can't be read
+     */
+    public static boolean isCheckpoint(final Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            final ByteBuffer magic = ByteBuffer.allocate(MAGIC.length);
+            while (magic.hasRemaining())
+                if (channel.read(magic) < 0)
+                    return false;
+
+            return Arrays.equals(magic.array(), MAGIC);
+        }
+    }
+
+    /**
+     * Reads a checkpoint from the given file (the file is memory mapped).
+     *
+     * @param file the file to read
+     *
+     * @return the checkpoint stored in the given file
+     * @throws IOException if the file can't be read, is not a checkpoint, is truncated, has an unsupported version or
+     *                     its topology doesn't match its parameters count
+     */
+    public static NetworkCheckpoint read(final Path file) throws IOException {
+        Objects.requireNonNull(file);
+
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            final MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            buffer.order(ByteOrder.LITTLE_ENDIAN);
+            return read(buffer, file.toString());
+        }
+    }
+
+    private static NetworkCheckpoint read(final ByteBuffer buffer, final String source) throws IOException {
+        try {
+            final byte[] magic = new byte[MAGIC.length];
+            buffer.get(magic);
+            if (!Arrays.equals(magic, MAGIC))
+                throw new IOException("not a network checkpoint: " + source);
+
+            final int version = buffer.getInt();
+            if (version != VERSION)
+                throw new IOException("unsupported checkpoint version: " + version + " in: " + source);
+
+            final int generation = buffer.getInt();
+            final String[] inputs = readStrings(buffer);
+            final String[] outputs = readStrings(buffer);
+
+            final int[] hiddenLayersSizes = new int[readCount(buffer, Integer.BYTES)];
+            for (int i = 0; i < hiddenLayersSizes.length; i++) {
+                hiddenLayersSizes[i] = buffer.getInt();
+                if (hiddenLayersSizes[i] <= 0)
+                    throw new IOException("corrupted network checkpoint (hidden layer: " + i + " has size: " +
+                            hiddenLayersSizes[i] + ")");
+            }
+
+            final String[] activationFunctions = new String[hiddenLayersSizes.length + 1];
+            final String[] signalCollectors = new String[hiddenLayersSizes.length + 1];
+            for (int layer = 0; layer < activationFunctions.length; layer++) {
+                activationFunctions[layer] = readString(buffer);
+                signalCollectors[layer] = readString(buffer);
+            }
+
+            final double[] parameters = new double[readCount(buffer, Double.BYTES)];
+            buffer.asDoubleBuffer().get(parameters);
+
+            final long expectedCount = parametersCount(inputs.length, hiddenLayersSizes, outputs.length);
+            if (parameters.length != expectedCount)
+                throw new IOException("corrupted network checkpoint (parameters count: " + parameters.length +
+                        " but the topology has: " + expectedCount + " parameters)");
+
+            return new NetworkCheckpoint(generation, inputs, outputs, hiddenLayersSizes, activationFunctions, signalCollectors, parameters);
+        } catch (BufferUnderflowException e) {
+            throw new IOException("truncated network checkpoint: " + source, e);
+        }
+    }
+
+    /*
+     * the count of the weights and biases of a fully connected network with the given layers sizes
+     */
+    private static long parametersCount(final int inputsCount, final int[] hiddenLayersSizes, final int outputsCount) {
+        long count = 0;
+        int upperLayerSize = inputsCount;
+        for (final int hiddenLayerSize : hiddenLayersSizes) {
+            count += (upperLayerSize + 1L) * hiddenLayerSize;
+            upperLayerSize = hiddenLayerSize;
+        }
+        return count + (upperLayerSize + 1L) * outputsCount;
+    }
+
+    /*
+     * reads the count of the next elements, which must all fit in the rest of the buffer (so a corrupted count can't
+     * make the reader allocate more than the size of the file)
+     */
+    private static int readCount(final ByteBuffer buffer, final int elementSize) throws IOException {
+        final int count = buffer.getInt();
+        if (count < 0)
+            throw new IOException("corrupted network checkpoint (negative count: " + count + ")");
+        if (count > buffer.remaining() / elementSize)
+            throw new IOException("corrupted network checkpoint (count: " + count + " exceeds the remaining " +
+                    buffer.remaining() + " bytes)");
+        return count;
+    }
+
+    private static String[] readStrings(final ByteBuffer buffer) throws IOException {
+        final String[] strings = new String[readCount(buffer, Short.BYTES)];
+        for (int i = 0; i < strings.length; i++)
+            strings[i] = readString(buffer);
+        return strings;
+    }
+
+    private static String readString(final ByteBuffer buffer) {
+        final byte[] bytes = new byte[buffer.getShort() & 0xFFFF];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Writes this checkpoint to the given file (replacing it if it already exists).
+     *
+     * @param file where this checkpoint will be written
+     *
+     * @throws IOException if the file can't be written
+     */
+    public void write(final Path file) throws IOException {
+        Objects.requireNonNull(file);
+        final long t0 = System.nanoTime();
+        final ByteBuffer buffer = toBytes();
+
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            while (buffer.hasRemaining())
+                channel.write(buffer);
+        }
+        JannsMetrics.CHECKPOINT_WRITE.recordSince(t0);
+    }
+
+    /*
+     * encodes this checkpoint (the returned buffer is ready to be read)
+     */
+    private ByteBuffer toBytes() {
+        final byte[][] encodedInputs = encode(inputs);
+        final byte[][] encodedOutputs = encode(outputs);
+        final byte[][] encodedActivations = encode(activationFunctions);
+        final byte[][] encodedCollectors = encode(signalCollectors);
+
+        final int size = MAGIC.length + 3 * Integer.BYTES
+                + Integer.BYTES + size(encodedInputs)
+                + Integer.BYTES + size(encodedOutputs)
+                + Integer.BYTES + hiddenLayersSizes.length * Integer.BYTES
+                + size(encodedActivations) + size(encodedCollectors)
+                + Integer.BYTES + parameters.length * Double.BYTES;
+
+        final ByteBuffer buffer = ByteBuffer.allocate(size).order(ByteOrder.LITTLE_ENDIAN);
+        buffer.put(MAGIC);
+        buffer.putInt(VERSION);
+        buffer.putInt(generation);
+        putStrings(buffer, encodedInputs);
+        putStrings(buffer, encodedOutputs);
+
+        buffer.putInt(hiddenLayersSizes.length);
+        for (final int hiddenLayerSize : hiddenLayersSizes)
+            buffer.putInt(hiddenLayerSize);
+
+        for (int layer = 0; layer < encodedActivations.length; layer++) {
+            putString(buffer, encodedActivations[layer]);
+            putString(buffer, encodedCollectors[layer]);
+        }
+
+        buffer.putInt(parameters.length);
+        buffer.asDoubleBuffer().put(parameters);
+        buffer.position(buffer.position() + parameters.length * Double.BYTES);
+
+        buffer.flip();
+        return buffer;
+    }
+
+    private static byte[][] encode(final String[] strings) {
+        final byte[][] encoded = new byte[strings.length][];
+        for (int i = 0; i < strings.length; i++) {
+            encoded[i] = strings[i].getBytes(StandardCharsets.UTF_8);
+            if (encoded[i].length > 0xFFFF)
+                throw new IllegalArgumentException("name too long to be saved: " + strings[i]);
+        }
+        return encoded;
+    }
+
+    private static int size(final byte[][] encodedStrings) {
+        int size = 0;
+        for (final byte[] encoded : encodedStrings)
+            size += Short.BYTES + encoded.length;
+        return size;
+    }
+
+    private static void putStrings(final ByteBuffer buffer, final byte[][] encodedStrings) {
+        buffer.putInt(encodedStrings.length);
+        for (final byte[] encoded : encodedStrings)
+            putString(buffer, encoded);
+    }
+
+    private static void putString(final ByteBuffer buffer, final byte[] encoded) {
+        buffer.putShort((short) encoded.length);
+        buffer.put(encoded);
+    }
+
+    /**
+     * Creates a new network from this checkpoint.
+     *
+     * @param inputType  the Enum type of the input properties
+     * @param outputType the Enum type of the output properties
+     * @param <I>        the Enum type that contains input properties
+     * @param <O>        the Enum type that contains output properties
+     *
+     * @return a new network with the topology, functions and parameters saved in this checkpoint
+     * @throws IllegalArgumentException if a saved property or function is not found or a saved parameter is outside
+     *                                  [-1, 1]
+     */
+    public <I extends Enum<I>, O extends Enum<O>> EnumNeuralNetwork<I, O> toNetwork(final Class<I> inputType, final Class<O> outputType) {
+        Objects.requireNonNull(inputType);
+        Objects.requireNonNull(outputType);
+
+        final EnumNeuralNetwork<I, O> network = new EnumNeuralNetwork<>(properties(inputType, inputs), properties(outputType, outputs));
+        for (final int hiddenLayerSize : hiddenLayersSizes)
+            network.addHiddenLayer(hiddenLayerSize);
+
+        final List<List<? extends processingNeuronModel<?>>> layers = network.getProcessingLayers();
+        for (int layer = 0; layer < layers.size(); layer++) {
+            final ActivationFunction activationFunction = ActivationFunctions.valueOf(activationFunctions[layer]);
+            final SignalCollector signalCollector = SignalCollectors.valueOf(signalCollectors[layer]);
+            for (final processingNeuronModel<?> neuron : layers.get(layer)) {
+                neuron.setActivationFunction(activationFunction);
+                neuron.setSignalCollector(signalCollector);
+            }
+        }
+
+        network.setParameters(parameters, 0);
+        return network;
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static <E extends Enum<E>> Enum<E>[] properties(final Class<E> type, final String[] names) {
+        final Enum<E>[] properties = new Enum[names.length];
+        for (int i = 0; i < names.length; i++)
+            properties[i] = Enum.valueOf(type, names[i]);
+        return properties;
+    }
+
+    /**
+     * Copies the parameters of this checkpoint to the given network.
+     *
+     * @param network a network with the same topology and functions as the saved one
+     *
+     * @throws IllegalArgumentException if the given network doesn't match the saved topology or functions or a saved
+     *                                  parameter is outside [-1, 1] (the network is left unchanged in both cases)
+     */
+    public void applyTo(final EnumNeuralNetwork<?, ?> network) {
+        final NetworkCheckpoint current = of(network, generation);
+        if (!Arrays.equals(current.inputs, inputs) || !Arrays.equals(current.outputs, outputs) ||
+                !Arrays.equals(current.hiddenLayersSizes, hiddenLayersSizes) ||
+                !Arrays.equals(current.activationFunctions, activationFunctions) ||
+                !Arrays.equals(current.signalCollectors, signalCollectors))
+            throw new IllegalArgumentException("the given network doesn't match the topology of this checkpoint");
+
+        network.setParameters(parameters, 0);
+    }
+
+    public int getGeneration() {
+        return generation;
+    }
+
+    /**
+     * @return a copy of the saved parameters
+     */
+    public double[] getParameters() {
+        return parameters.clone();
+    }
+
+    public String[] getInputs() {
+        return inputs.clone();
+    }
+
+    public String[] getOutputs() {
+        return outputs.clone();
+    }
+
+    public int[] getHiddenLayersSizes() {
+        return hiddenLayersSizes.clone();
+    }
+}
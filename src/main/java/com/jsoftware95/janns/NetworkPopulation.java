@@ -0,0 +1,254 @@
+/*
+ * Copyright 2017-2018 Youcef DEBBAH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.jsoftware95.janns;
+
+import com.jsoftware95.janns.api.ActivationFunction;
+import com.jsoftware95.toolkit.InputMappers;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * A group of neural networks sharing the same topology (layers sizes and neurons functions), stored as a struct of
+ * arrays so that the whole group can be evaluated in one pass.
+ * <p>
+ * The weights of all the candidates are kept in a single array, layer after layer, and within each layer as
+ * {@code [candidate][row][col]} (where a row holds the incoming weights of one neuron), the biases are stored the same
+ * way as {@code [candidate][row]}. The inner loops walk these arrays sequentially, and the dot products of the built-in
+ * {@link SignalCollectors} are computed inline (without a call per neuron) so the JIT compiler can unroll them.
+ * <p>
+ * A population is a snapshot: later changes to the networks it was created from are not reflected.
+ * <p>
+ * This class is not thread safe.
+ */
+public final class NetworkPopulation {
+
+    /*
+     * neurons count of each layer, the first one is the input layer
+     */
+    private final int[] sizes;
+
+    private final int candidates;
+
+    /*
+     * weights of all layers, layer by layer, each layer is laid out as [candidate][row][col]
+     */
+    private final double[] weights;
+
+    /*
+     * index of the first weight of each processing layer in weights
+     */
+    private final int[] weightsOffsets;
+
+    /*
+     * biases of all layers, layer by layer, each layer is laid out as [candidate][row]
+     */
+    private final double[] biases;
+
+    private final int[] biasesOffsets;
+
+    private final ActivationFunction[][] activationFunctions;
+
+    private final SignalCollectors[][] signalCollectors;
+
+    /*
+     * outputs of the hidden layers: [layer][candidate][neuron]
+     */
+    private final double[][][] hiddenOutputs;
+
+    private NetworkPopulation(final DenseNetwork model, final int candidates) {
+        this.candidates = candidates;
+
+        final int layers = model.getLayersCount() - 1;
+        sizes = new int[layers + 1];
+        for (int layer = 0; layer <= layers; layer++)
+            sizes[layer] = model.getSize(layer);
+
+        weightsOffsets = new int[layers];
+        biasesOffsets = new int[layers];
+        activationFunctions = new ActivationFunction[layers][];
+        signalCollectors = new SignalCollectors[layers][];
+        hiddenOutputs = new double[layers][][];
+
+        int weightsCount = 0;
+        int biasesCount = 0;
+        for (int layer = 0; layer < layers; layer++) {
+            weightsOffsets[layer] = weightsCount;
+            biasesOffsets[layer] = biasesCount;
+            weightsCount += candidates * sizes[layer + 1] * sizes[layer];
+            biasesCount += candidates * sizes[layer + 1];
+
+            activationFunctions[layer] = model.getActivationFunctions(layer).clone();
+            signalCollectors[layer] = model.getSignalCollectors(layer).clone();
+            if (layer < layers - 1)
+                hiddenOutputs[layer] = new double[candidates][sizes[layer + 1]];
+        }
+
+        weights = new double[weightsCount];
+        biases = new double[biasesCount];
+    }
+
+    /**
+     * Creates a population from the given networks, the candidate {@code i} of the population is a copy of
+     * {@code networks.get(i)}.
+     *
+     * @param networks networks that have the same inputs, outputs, hidden layers sizes and neurons functions
+     *
+     * @return a new population holding a copy of the given networks
+     * @throws NullPointerException     if {@code networks} is (or contains) {@code null}
+     * @throws IllegalArgumentException if {@code networks} is empty, the networks don't share the same topology or one
+     *                                  of them can't be represented densely (e.g. it uses a custom signal collector)
+     */
+    public static NetworkPopulation of(final List<? extends EnumNeuralNetwork<?, ?>> networks) {
+        Objects.requireNonNull(networks);
+        if (networks.isEmpty())
+            throw new IllegalArgumentException("a population needs at least one network");
+
+        final DenseNetwork model = getDenseNetwork(networks.get(0));
+        final NetworkPopulation population = new NetworkPopulation(model, networks.size());
+
+        for (int candidate = 0; candidate < networks.size(); candidate++) {
+            final DenseNetwork network = candidate == 0 ? model : getDenseNetwork(networks.get(candidate));
+            population.checkTopology(network, candidate);
+            population.copy(network, candidate);
+        }
+
+        return population;
+    }
+
+    private static DenseNetwork getDenseNetwork(final EnumNeuralNetwork<?, ?> network) {
+        Objects.requireNonNull(network);
+        final DenseNetwork dense = network.getEngine();
+        if (dense == null)
+            throw new IllegalArgumentException("network can't be represented densely: " + network);
+        return dense;
+    }
+
+    private void checkTopology(final DenseNetwork network, final int candidate) {
+        if (network.getLayersCount() != sizes.length)
+            throw new IllegalArgumentException("candidate " + candidate + " has a different number of layers");
+
+        for (int layer = 0; layer < sizes.length; layer++)
+            if (network.getSize(layer) != sizes[layer])
+                throw new IllegalArgumentException("candidate " + candidate + " has a different size at layer " + layer);
+
+        for (int layer = 0; layer < activationFunctions.length; layer++) {
+            if (!Arrays.equals(network.getActivationFunctions(layer), activationFunctions[layer]))
+                throw new IllegalArgumentException("candidate " + candidate + " has different activation functions at layer " + (layer + 1));
+            if (!Arrays.equals(network.getSignalCollectors(layer), signalCollectors[layer]))
+                throw new IllegalArgumentException("candidate " + candidate + " has different signal collectors at layer " + (layer + 1));
+        }
+    }
+
+    private void copy(final DenseNetwork network, final int candidate) {
+        for (int layer = 0; layer < activationFunctions.length; layer++) {
+            final double[] layerWeights = network.getWeights(layer);
+            final double[] layerBiases = network.getBiases(layer);
+            System.arraycopy(layerWeights, 0, weights, weightsOffsets[layer] + candidate * layerWeights.length, layerWeights.length);
+            System.arraycopy(layerBiases, 0, biases, biasesOffsets[layer] + candidate * layerBiases.length, layerBiases.length);
+        }
+    }
+
+    /**
+     * Evaluates every candidate with it's own input vector.
+     *
+     * @param inputs  an input vector for each candidate (values ordered like the input properties of the networks)
+     * @param outputs where the output vector of each candidate is written (ordered like the output properties)
+     *
+     * @throws NullPointerException     if one of the arguments or one of their vectors is {@code null}
+     * @throws IllegalArgumentException if the arrays don't have a row per candidate, a row has a wrong length or an
+     *                                  input value is outside [-1, 1] (the same inputs as
+     *                                  {@link EnumNeuralNetwork#forward(double[][], double[][])} are accepted)
+     */
+    public void forward(final double[][] inputs, final double[][] outputs) {
+        checkVectors(inputs, getInputsCount(), "input");
+        checkVectors(outputs, getOutputsCount(), "output");
+        for (int candidate = 0; candidate < candidates; candidate++)
+            for (final double value : inputs[candidate])
+                if (value < -1 || value > 1)
+                    throw new IllegalArgumentException("neuron input must be in [-1, 1] interval, got: " + value + " (candidate: " + candidate + ")");
+
+        JannsMetrics.FORWARD_PASSES.add(candidates);
+
+        final int lastLayer = activationFunctions.length - 1;
+        double[][] input = inputs;
+        for (int layer = 0; layer <= lastLayer; layer++) {
+            final double[][] output = layer == lastLayer ? outputs : hiddenOutputs[layer];
+            final SignalCollectors[] layerCollectors = signalCollectors[layer];
+            final ActivationFunction[] layerActivations = activationFunctions[layer];
+            final int rows = sizes[layer + 1];
+            final int cols = sizes[layer];
+
+            int weightsOffset = weightsOffsets[layer];
+            int biasOffset = biasesOffsets[layer];
+            for (int candidate = 0; candidate < candidates; candidate++) {
+                final double[] candidateInput = input[candidate];
+                final double[] candidateOutput = output[candidate];
+
+                for (int j = 0; j < rows; j++) {
+                    final SignalCollectors collector = layerCollectors[j];
+                    double sum;
+                    if (collector == SignalCollectors.WEIGHTED_INPUT_SUM || collector == SignalCollectors.WEIGHTED_INPUT_AVERAGE) {
+                        // the dot product of the built-in collectors is inlined so this loop has no call in it
+                        sum = 0;
+                        for (int i = 0; i < cols; i++)
+                            sum += candidateInput[i] * weights[weightsOffset + i];
+                        if (collector == SignalCollectors.WEIGHTED_INPUT_AVERAGE)
+                            sum = InputMappers.LINEAR.map(sum, -cols, cols, -1, 1);
+                    } else
+                        sum = collector.collect(candidateInput, weights, weightsOffset);
+
+                    candidateOutput[j] = layerActivations[j].applyAsDouble(sum + biases[biasOffset + j]);
+                    weightsOffset += cols;
+                }
+
+                biasOffset += rows;
+            }
+
+            input = output;
+        }
+    }
+
+    private void checkVectors(final double[][] vectors, final int length, final String type) {
+        Objects.requireNonNull(vectors);
+        if (vectors.length != candidates)
+            throw new IllegalArgumentException("expected an " + type + " vector per candidate (" + candidates + "), found: " + vectors.length);
+
+        for (int candidate = 0; candidate < candidates; candidate++) {
+            if (vectors[candidate] == null)
+                throw new NullPointerException(type + " vector is null for candidate: " + candidate);
+            if (vectors[candidate].length != length)
+                throw new IllegalArgumentException(type + " vector of candidate " + candidate + " has a wrong length (expected: " + length + ", found: " + vectors[candidate].length + ")");
+        }
+    }
+
+    /**
+     * @return the number of networks in this population
+     */
+    public int size() {
+        return candidates;
+    }
+
+    public int getInputsCount() {
+        return sizes[0];
+    }
+
+    public int getOutputsCount() {
+        return sizes[sizes.length - 1];
+    }
+}
@@ -18,6 +18,7 @@ package com.jsoftware95.janns;
 
 import com.jsoftware95.janns.api.Layer;
 import com.jsoftware95.janns.api.Neuron;
+import com.jsoftware95.toolkit.Tracing;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.jetbrains.annotations.NotNull;
@@ -58,7 +59,8 @@ public abstract class NeuronModel<T extends Neuron<T>> implements Neuron<T> {
     protected NeuronModel(final Layer<T> parentLayer) {
         Objects.requireNonNull(parentLayer);
         helpSettingParentLayer(parentLayer); // this will set a unique id within the parent layer scope implicitly
-        log.trace("new instance: " + this);
+        if (Tracing.isEnabled(log))
+            log.trace("new instance: {}", this);
     }
 
     /*
@@ -98,10 +100,10 @@ public abstract class NeuronModel<T extends Neuron<T>> implements Neuron<T> {
      * @throws IllegalArgumentException if the {@code parentLayer} is {@code null}
      */
     protected void setParentLayer(final Layer<T> parentLayer) {
-        Objects.requireNonNull(parentLayer, "parent layer must be no null for a neuron instance: " + toString());
+        Objects.requireNonNull(parentLayer, () -> "parent layer must be no null for a neuron instance: " + this);
 
         if (parentLayer.equals(this.parentLayer)) {
-            log.info("re-setting an already assigned parent layer was skipped for: " + this);
+            log.info("re-setting an already assigned parent layer was skipped for: {}", this);
             return;
         }
 
@@ -113,6 +115,14 @@ public abstract class NeuronModel<T extends Neuron<T>> implements Neuron<T> {
         helpSettingParentLayer(parentLayer);
     }
 
+    /*
+     * records a change of this neuron in it's parent layer
+     */
+    void modified() {
+        if (parentLayer instanceof LayerModel)
+            ((LayerModel<?>) parentLayer).modified();
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -22,7 +22,9 @@ import com.jsoftware95.toolkit.InputMappers;
 import org.jetbrains.annotations.Contract;
 
 import java.util.Collection;
+import java.util.List;
 import java.util.Objects;
+import java.util.RandomAccess;
 
 /**
  * Contains few implementations of a signal collectors (input summer)
@@ -35,16 +37,32 @@ public enum SignalCollectors implements SignalCollector {
      */
     WEIGHTED_INPUT_SUM {
         @Override
-        public Double apply(final Collection<WeightedConnection> weightedLinks) {
+        public double applyAsDouble(final Collection<WeightedConnection> weightedLinks) {
             Objects.requireNonNull(weightedLinks);
             double sum = 0;
 
-            for (final WeightedConnection weightedLink : weightedLinks) {
-                sum += weightedLink.getWeightedInput();
+            if (weightedLinks instanceof List && weightedLinks instanceof RandomAccess) {
+                final List<WeightedConnection> links = (List<WeightedConnection>) weightedLinks;
+                for (int i = 0; i < links.size(); i++)
+                    sum += links.get(i).getWeightedInput();
+            } else {
+                for (final WeightedConnection weightedLink : weightedLinks) {
+                    sum += weightedLink.getWeightedInput();
+                }
             }
 
             return sum;
         }
+
+        @Override
+        double collect(final double[] inputs, final double[] weights, final int offset) {
+            double sum = 0;
+
+            for (int i = 0; i < inputs.length; i++)
+                sum += inputs[i] * weights[offset + i];
+
+            return sum;
+        }
     },
 
     /**
@@ -61,10 +79,16 @@ public enum SignalCollectors implements SignalCollector {
      */
     WEIGHTED_INPUT_AVERAGE {
         @Override
-        public Double apply(final Collection<WeightedConnection> weightedLinks) {
-            final double sum = WEIGHTED_INPUT_SUM.apply(weightedLinks);
+        public double applyAsDouble(final Collection<WeightedConnection> weightedLinks) {
+            final double sum = WEIGHTED_INPUT_SUM.applyAsDouble(weightedLinks);
             return InputMappers.LINEAR.map(sum, -weightedLinks.size(), weightedLinks.size(), -1, 1);
         }
+
+        @Override
+        double collect(final double[] inputs, final double[] weights, final int offset) {
+            final double sum = WEIGHTED_INPUT_SUM.collect(inputs, weights, offset);
+            return InputMappers.LINEAR.map(sum, -inputs.length, inputs.length, -1, 1);
+        }
     };
 
     /**
@@ -72,5 +96,28 @@ public enum SignalCollectors implements SignalCollector {
      */
     @Override
     @Contract(value = "null -> fail;!null -> !null", pure = true)
-    public abstract Double apply(Collection<WeightedConnection> weightedLinks);
+    public Double apply(final Collection<WeightedConnection> weightedLinks) {
+        return applyAsDouble(weightedLinks);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    @Contract(value = "null -> fail", pure = true)
+    public abstract double applyAsDouble(Collection<WeightedConnection> weightedLinks);
+
+    /**
+     * Collects the signals of a neuron that is connected to every input with the given weights, the result is the same
+     * as {@link #apply(Collection)} for connections having the same inputs and weights (in the same order).
+     *
+     * @param inputs  the outputs of the neurons on the upper layer
+     * @param weights an array that contains the weights of the connections
+     * @param offset  the index of the weight of the first connection in {@code weights}, the following
+     *                {@code inputs.length - 1} weights are used for the rest of the connections
+     *
+     * @return total input for the neuron having this {@code inputs} and {@code weights}
+     */
+    @Contract(pure = true)
+    abstract double collect(double[] inputs, double[] weights, int offset);
 }
@@ -36,4 +36,16 @@ public interface ActivationFunction extends Function<Double, Double>, Serializab
     @Override
     Double apply(Double collectedInput);
 
+    /**
+     * Same as {@link #apply(Double)} but without boxing, implementations should override this method when they are
+     * used in hot paths.
+     *
+     * @param collectedInput collected signals (sum of inputs) from neurons on the upper layer
+     *
+     * @return the output of this neuron based on {@code collectedInput}
+     */
+    default double applyAsDouble(final double collectedInput) {
+        return apply(collectedInput);
+    }
+
 }
@@ -35,4 +35,16 @@ public interface SignalCollector extends Function<Collection<WeightedConnection>
      */
     @Override
     Double apply(Collection<WeightedConnection> weightedLinks);
+
+    /**
+     * Same as {@link #apply(Collection)} but without boxing, implementations should override this method when they
+     * are used in hot paths.
+     *
+     * @param weightedLinks links to neurons on the upper layer
+     *
+     * @return total input for the neuron having this {@code connections}
+     */
+    default double applyAsDouble(final Collection<WeightedConnection> weightedLinks) {
+        return apply(weightedLinks);
+    }
 }
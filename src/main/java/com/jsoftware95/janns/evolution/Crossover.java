@@ -0,0 +1,37 @@
+/*
+ * Copyright 2017-2018 Youcef DEBBAH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.jsoftware95.janns.evolution;
+
+import java.util.SplittableRandom;
+
+/**
+ * Represents the way the parameters of two parents are combined into the parameters of a child.
+ */
+@FunctionalInterface
+public interface Crossover {
+
+    /**
+     * Combines two parents.
+     *
+     * @param parent1 the parameters of the first parent (must not be modified)
+     * @param parent2 the parameters of the second parent, same length as {@code parent1} (must not be modified)
+     * @param random  the source of all the random decisions of this crossover
+     *
+     * @return the parameters of a new child (a new array)
+     */
+    double[] cross(double[] parent1, double[] parent2, SplittableRandom random);
+}
@@ -0,0 +1,64 @@
+/*
+ * Copyright 2017-2018 Youcef DEBBAH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.jsoftware95.janns.evolution;
+
+import java.util.SplittableRandom;
+
+/**
+ * Contains few implementations of crossovers.
+ */
+public enum Crossovers implements Crossover {
+
+    /**
+     * Each parameter of the child is taken from one of the parents with the same probability.
+     */
+    UNIFORM {
+        @Override
+        public double[] cross(final double[] parent1, final double[] parent2, final SplittableRandom random) {
+            checkLengths(parent1, parent2);
+            final double[] child = new double[parent1.length];
+
+            for (int i = 0; i < child.length; i++)
+                child[i] = random.nextBoolean() ? parent1[i] : parent2[i];
+
+            return child;
+        }
+    },
+
+    /**
+     * The child is a random point of the segment between the two parents: {@code a * parent1 + (1 - a) * parent2} with
+     * a single {@code a} drawn uniformly in [0, 1[ (so the child stays inside any box containing both parents).
+     */
+    ARITHMETIC {
+        @Override
+        public double[] cross(final double[] parent1, final double[] parent2, final SplittableRandom random) {
+            checkLengths(parent1, parent2);
+            final double[] child = new double[parent1.length];
+            final double a = random.nextDouble();
+
+            for (int i = 0; i < child.length; i++)
+                child[i] = a * parent1[i] + (1 - a) * parent2[i];
+
+            return child;
+        }
+    };
+
+    private static void checkLengths(final double[] parent1, final double[] parent2) {
+        if (parent1.length != parent2.length)
+            throw new IllegalArgumentException("parents of different lengths: " + parent1.length + " and " + parent2.length);
+    }
+}
@@ -0,0 +1,84 @@
+/*
+ * Copyright 2017-2018 Youcef DEBBAH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.jsoftware95.janns.evolution;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Represents the way the fitness of the individuals of a population is calculated. Evaluators get all the individuals
+ * to evaluate at once, so they are free to evaluate them in parallel, in batches or in races.
+ */
+@FunctionalInterface
+public interface FitnessEvaluator {
+
+    /**
+     * Sets the fitness of each one of the given individuals (see {@link Individual#setFitness(double)}).
+     *
+     * @param individuals the individuals to evaluate
+     *
+     * @throws InterruptedException if the calling thread was interrupted while evaluating
+     * @throws ExecutionException   if the evaluation of an individual failed
+     */
+    void evaluate(List<Individual> individuals) throws InterruptedException, ExecutionException;
+
+    /**
+     * @param fitnessFunction a function that returns the fitness of a parameters vector
+     *
+     * @return an evaluator that calls the given function for each individual on the calling thread
+     */
+    static FitnessEvaluator sequential(final ToDoubleFunction<double[]> fitnessFunction) {
+        Objects.requireNonNull(fitnessFunction);
+        return individuals -> {
+            for (final Individual individual : individuals)
+                individual.setFitness(fitnessFunction.applyAsDouble(individual.getParameters()));
+        };
+    }
+
+    /**
+     * @param fitnessFunction a thread-safe function that returns the fitness of a parameters vector
+     * @param executor        the executor running the evaluations
+     *
+     * @return an evaluator that evaluates each individual in a separate task of the given executor (the remaining
+     * tasks get cancelled if one of them fails or the calling thread gets interrupted)
+     */
+    static FitnessEvaluator parallel(final ToDoubleFunction<double[]> fitnessFunction, final ExecutorService executor) {
+        Objects.requireNonNull(fitnessFunction);
+        Objects.requireNonNull(executor);
+        return individuals -> {
+            final List<Future<Double>> futures = new ArrayList<>(individuals.size());
+            try {
+                for (final Individual individual : individuals) {
+                    final Callable<Double> task = () -> fitnessFunction.applyAsDouble(individual.getParameters());
+                    futures.add(executor.submit(task));
+                }
+
+                for (int i = 0; i < futures.size(); i++)
+                    individuals.get(i).setFitness(futures.get(i).get());
+            } finally {
+                for (final Future<Double> future : futures)
+                    future.cancel(true);
+            }
+        };
+    }
+}
@@ -0,0 +1,105 @@
+/*
+ * Copyright 2017-2018 Youcef DEBBAH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.jsoftware95.janns.evolution;
+
+import java.util.SplittableRandom;
+
+/**
+ * Adds a normally distributed noise to each parameter with a given probability, the mutated parameters are clamped to
+ * the bounds of this mutation.
+ */
+public final class GaussianMutation implements Mutation {
+
+    private final double rate;
+    private final double sigma;
+    private final double min;
+    private final double max;
+
+    /**
+     * Creates a mutation that keeps parameters in [-1, 1] (the range of the Neural Networks parameters).
+     *
+     * @param rate  the probability of mutating each parameter, in [0, 1]
+     * @param sigma the standard deviation of the noise
+     *
+     * @throws IllegalArgumentException if {@code rate} is outside [0, 1] or {@code sigma} is negative
+     */
+    public GaussianMutation(final double rate, final double sigma) {
+        this(rate, sigma, -1, 1);
+    }
+
+    /**
+     * @param rate  the probability of mutating each parameter, in [0, 1]
+     * @param sigma the standard deviation of the noise
+     * @param min   the minimum value of a mutated parameter
+     * @param max   the maximum value of a mutated parameter
+     *
+     * @throws IllegalArgumentException if {@code rate} is outside [0, 1], {@code sigma} is negative or
+     *                                  {@code min > max}
+     */
+    public GaussianMutation(final double rate, final double sigma, final double min, final double max) {
+        if (!(rate >= 0 && rate <= 1))
+            throw new IllegalArgumentException("rate must be in [0, 1]: " + rate);
+        if (!(sigma >= 0))
+            throw new IllegalArgumentException("sigma can't be negative: " + sigma);
+        if (!(min <= max))
+            throw new IllegalArgumentException("invalid bounds: [" + min + ", " + max + "]");
+
+        this.rate = rate;
+        this.sigma = sigma;
+        this.min = min;
+        this.max = max;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void mutate(final double[] parameters, final SplittableRandom random) {
+        for (int i = 0; i < parameters.length; i++)
+            if (random.nextDouble() < rate) {
+                final double value = parameters[i] + sigma * nextGaussian(random);
+                parameters[i] = value < min ? min : value > max ? max : value;
+            }
+    }
+
+    /*
+     * a standard normal value (Marsaglia polar method, SplittableRandom has no nextGaussian)
+     */
+    private static double nextGaussian(final SplittableRandom random) {
+        double x, y, s;
+        do {
+            x = 2 * random.nextDouble() - 1;
+            y = 2 * random.nextDouble() - 1;
+            s = x * x + y * y;
+        } while (s >= 1 || s == 0);
+
+        return x * Math.sqrt(-2 * Math.log(s) / s);
+    }
+
+    public double getRate() {
+        return rate;
+    }
+
+    public double getSigma() {
+        return sigma;
+    }
+
+    @Override
+    public String toString() {
+        return "GaussianMutation{rate: " + rate + ", sigma: " + sigma + ", bounds: [" + min + ", " + max + "]}";
+    }
+}
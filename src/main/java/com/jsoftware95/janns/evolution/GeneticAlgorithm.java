@@ -0,0 +1,285 @@
+/*
+ * Copyright 2017-2018 Youcef DEBBAH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.jsoftware95.janns.evolution;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * A generational genetic algorithm over a persistent population of parameters vectors of the same length.
+ * <p>
+ * Each call to {@link #evolve()} evaluates the individuals without a fitness, keeps the {@link #getElitism() elites}
+ * unchanged and fills the rest of the next generation with children: two parents are {@link Selection selected}, they
+ * are {@link Crossover crossed} (with the {@link #getCrossoverRate() crossover rate}, otherwise the child is a copy of
+ * the first parent) and the child is {@link Mutation mutated}. The population size is independent of the parameters
+ * count.
+ * <p>
+ * The population is always ranked from the best to the worst individual, individuals with the same fitness keep their
+ * relative order (none of them is lost). All the random decisions are taken from the source given at construction, so
+ * two instances created with the same seed, population and (deterministic) evaluator evolve the same way. Instances of
+ * this class are not thread-safe.
+ */
+public class GeneticAlgorithm {
+
+    private static final Logger log = LogManager.getLogger(GeneticAlgorithm.class);
+    private static final Comparator<Individual> BEST_FIRST = Comparator.comparingDouble(Individual::getFitness).reversed();
+
+    private final SplittableRandom random;
+    private final int parametersCount;
+    private List<Individual> population;
+    private FitnessEvaluator evaluator;
+    private Selection selection = new TournamentSelection(3);
+    private Crossover crossover = Crossovers.UNIFORM;
+    private Mutation mutation = new GaussianMutation(0.05, 0.1);
+    private double crossoverRate = 0.9;
+    private int elitism = 1;
+    private int generation;
+
+    /**
+     * @param initialPopulation the parameters of the first generation (copied), all of the same length
+     * @param evaluator         the evaluator of the individuals fitness
+     * @param random            the source of all the random decisions of this algorithm
+     *
+     * @throws NullPointerException     if one of the arguments is {@code null}
+     * @throws IllegalArgumentException if the initial population is empty or its vectors have different lengths
+     */
+    public GeneticAlgorithm(final List<double[]> initialPopulation, final FitnessEvaluator evaluator,
+                            final SplittableRandom random) {
+        Objects.requireNonNull(initialPopulation);
+        this.evaluator = Objects.requireNonNull(evaluator);
+        this.random = Objects.requireNonNull(random);
+        if (initialPopulation.isEmpty())
+            throw new IllegalArgumentException("the initial population can't be empty");
+
+        parametersCount = initialPopulation.get(0).length;
+        population = new ArrayList<>(initialPopulation.size());
+        for (final double[] parameters : initialPopulation) {
+            if (parameters.length != parametersCount)
+                throw new IllegalArgumentException("expected parameters vectors of length: " + parametersCount + ", found: " + parameters.length);
+            population.add(new Individual(parameters.clone()));
+        }
+    }
+
+    /**
+     * Creates a random initial population around the given parameters: the first individual is a copy of them and the
+     * others are mutated copies.
+     *
+     * @param parameters     the parameters of the ancestor of the population
+     * @param populationSize the count of individuals to create
+     * @param mutation       the mutation applied to the copies
+     * @param random         the source of the mutations
+     *
+     * @return the parameters of the new population
+     * @throws IllegalArgumentException if {@code populationSize} is not positive
+     */
+    public static List<double[]> populationAround(final double[] parameters, final int populationSize,
+                                                  final Mutation mutation, final SplittableRandom random) {
+        Objects.requireNonNull(parameters);
+        Objects.requireNonNull(mutation);
+        Objects.requireNonNull(random);
+        if (populationSize < 1)
+            throw new IllegalArgumentException("population size must be positive: " + populationSize);
+
+        final List<double[]> population = new ArrayList<>(populationSize);
+        population.add(parameters.clone());
+        for (int i = 1; i < populationSize; i++) {
+            final double[] copy = parameters.clone();
+            mutation.mutate(copy, random);
+            population.add(copy);
+        }
+        return population;
+    }
+
+    /**
+     * Produces the next generation and evaluates it.
+     *
+     * @throws InterruptedException if the calling thread was interrupted while evaluating (the population is left
+     *                              unchanged)
+     * @throws ExecutionException   if the evaluator failed (the population is left unchanged)
+     */
+    public void evolve() throws InterruptedException, ExecutionException {
+        evaluate(population);
+
+        final int size = population.size();
+        final List<Individual> next = new ArrayList<>(size);
+        for (int i = 0; i < Math.min(elitism, size); i++)
+            next.add(population.get(i));
+
+        final List<Individual> children = new ArrayList<>(size - next.size());
+        while (next.size() + children.size() < size) {
+            final Individual parent1 = selection.select(population, random);
+            final Individual parent2 = selection.select(population, random);
+
+            final double[] parameters;
+            if (random.nextDouble() < crossoverRate)
+                parameters = crossover.cross(parent1.getParameters(), parent2.getParameters(), random);
+            else
+                parameters = parent1.getParameters().clone();
+
+            mutation.mutate(parameters, random);
+            children.add(new Individual(parameters));
+        }
+
+        evaluate(children);
+        next.addAll(children);
+        next.sort(BEST_FIRST);
+        population = next;
+        generation++;
+
+        log.debug("generation: " + generation + " best fitness: " + getBest().getFitness());
+    }
+
+    /*
+     * evaluates the individuals without a fitness then ranks the population
+     */
+    private void evaluate(final List<Individual> individuals) throws InterruptedException, ExecutionException {
+        final List<Individual> unevaluated = new ArrayList<>();
+        for (final Individual individual : individuals)
+            if (!individual.isEvaluated())
+                unevaluated.add(individual);
+
+        if (!unevaluated.isEmpty()) {
+            evaluator.evaluate(Collections.unmodifiableList(unevaluated));
+            for (final Individual individual : unevaluated)
+                if (!individual.isEvaluated())
+                    throw new IllegalStateException("the evaluator didn't set the fitness of: " + individual);
+        }
+
+        if (individuals == population)
+            population.sort(BEST_FIRST);
+    }
+
+    /**
+     * Replaces the worst individuals of the current generation (but never the elites) by copies of the given
+     * parameters, they get evaluated by the next call to {@link #evolve()}.
+     *
+     * @param immigrants the parameters of the new individuals (if there is more immigrants than non-elite individuals
+     *                   the last ones are ignored)
+     *
+     * @throws IllegalArgumentException if an immigrant doesn't have the same parameters count as this population
+     */
+    public void immigrate(final List<double[]> immigrants) {
+        Objects.requireNonNull(immigrants);
+        for (final double[] parameters : immigrants)
+            if (parameters.length != parametersCount)
+                throw new IllegalArgumentException("expected parameters vectors of length: " + parametersCount + ", found: " + parameters.length);
+
+        final int count = Math.min(immigrants.size(), Math.max(0, population.size() - elitism));
+        final int first = population.size() - count;
+        for (int i = 0; i < count; i++)
+            population.set(first + i, new Individual(immigrants.get(i).clone()));
+    }
+
+    /**
+     * Forgets the fitness of all the individuals, so they all get evaluated again by the next call to
+     * {@link #evolve()} (to be used when the fitness function changed, e.g. a new opponent).
+     */
+    public void invalidate() {
+        for (final Individual individual : population)
+            individual.invalidate();
+    }
+
+    /**
+     * @return the best individual of the current generation (only meaningful once the population was evaluated)
+     */
+    public Individual getBest() {
+        return population.get(0);
+    }
+
+    /**
+     * @return the current generation ranked from the best to the worst individual (unmodifiable)
+     */
+    public List<Individual> getPopulation() {
+        return Collections.unmodifiableList(population);
+    }
+
+    public int getGeneration() {
+        return generation;
+    }
+
+    public int getParametersCount() {
+        return parametersCount;
+    }
+
+    public FitnessEvaluator getEvaluator() {
+        return evaluator;
+    }
+
+    public void setEvaluator(final FitnessEvaluator evaluator) {
+        this.evaluator = Objects.requireNonNull(evaluator);
+    }
+
+    public Selection getSelection() {
+        return selection;
+    }
+
+    public void setSelection(final Selection selection) {
+        this.selection = Objects.requireNonNull(selection);
+    }
+
+    public Crossover getCrossover() {
+        return crossover;
+    }
+
+    public void setCrossover(final Crossover crossover) {
+        this.crossover = Objects.requireNonNull(crossover);
+    }
+
+    public Mutation getMutation() {
+        return mutation;
+    }
+
+    public void setMutation(final Mutation mutation) {
+        this.mutation = Objects.requireNonNull(mutation);
+    }
+
+    public double getCrossoverRate() {
+        return crossoverRate;
+    }
+
+    /**
+     * @param crossoverRate the probability that a child is made by crossing its parents, in [0, 1] (0.9 by default)
+     * @throws IllegalArgumentException if {@code crossoverRate} is outside [0, 1]
+     */
+    public void setCrossoverRate(final double crossoverRate) {
+        if (!(crossoverRate >= 0 && crossoverRate <= 1))
+            throw new IllegalArgumentException("crossover rate must be in [0, 1]: " + crossoverRate);
+        this.crossoverRate = crossoverRate;
+    }
+
+    public int getElitism() {
+        return elitism;
+    }
+
+    /**
+     * @param elitism the count of the best individuals copied unchanged to the next generation (1 by default)
+     * @throws IllegalArgumentException if {@code elitism} is negative
+     */
+    public void setElitism(final int elitism) {
+        if (elitism < 0)
+            throw new IllegalArgumentException("elitism can't be negative: " + elitism);
+        this.elitism = elitism;
+    }
+}
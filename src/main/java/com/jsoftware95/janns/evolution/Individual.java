@@ -0,0 +1,80 @@
+/*
+ * Copyright 2017-2018 Youcef DEBBAH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.jsoftware95.janns.evolution;
+
+import java.util.Objects;
+
+/**
+ * A member of a {@link GeneticAlgorithm} population: a parameters vector and its fitness ({@code NaN} until it's
+ * evaluated).
+ * <p>
+ * The parameters array is not copied, it's owned by this individual and must not be modified once the individual is
+ * part of a population.
+ */
+public final class Individual {
+
+    private final double[] parameters;
+    private double fitness = Double.NaN;
+
+    /**
+     * @param parameters the parameters of the new individual (not copied)
+     *
+     * @throws NullPointerException if {@code parameters} is {@code null}
+     */
+    public Individual(final double[] parameters) {
+        this.parameters = Objects.requireNonNull(parameters);
+    }
+
+    /**
+     * @return the parameters of this individual (the returned array must not be modified)
+     */
+    public double[] getParameters() {
+        return parameters;
+    }
+
+    /**
+     * @return the fitness of this individual or {@code NaN} if it was not evaluated yet
+     */
+    public double getFitness() {
+        return fitness;
+    }
+
+    /**
+     * @throws IllegalArgumentException if {@code fitness} is NaN
+     */
+    public void setFitness(final double fitness) {
+        if (Double.isNaN(fitness))
+            throw new IllegalArgumentException("fitness can't be NaN");
+        this.fitness = fitness;
+    }
+
+    public boolean isEvaluated() {
+        return !Double.isNaN(fitness);
+    }
+
+    /*
+     * forgets the fitness (e.g. when the fitness function changed)
+     */
+    void invalidate() {
+        fitness = Double.NaN;
+    }
+
+    @Override
+    public String toString() {
+        return "Individual{parameters: " + parameters.length + ", fitness: " + fitness + "}";
+    }
+}
@@ -0,0 +1,176 @@
+/*
+ * Copyright 2017-2018 Youcef DEBBAH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.jsoftware95.janns.evolution;
+
+import com.jsoftware95.toolkit.Tracing;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Evolves several independent populations (islands) in parallel, each island on its own thread with its own fitness
+ * evaluator, and periodically migrates the best individuals of each island to the next one (a ring).
+ * <p>
+ * Every {@link #getMigrationInterval() migration interval} generations an island publishes its top individuals in its
+ * slot of a shared {@link AtomicReferenceArray} and takes the last ones published by the previous island (unless it
+ * already received them), so islands never wait for each other. Since the migrants an island receives depend on the
+ * threads progress, evolving islands is not reproducible even when each island is.
+ */
+public final class IslandModel {
+
+    private static final Logger log = LogManager.getLogger(IslandModel.class);
+
+    private final List<GeneticAlgorithm> islands;
+    private final int migrationInterval;
+    private final int migrantsCount;
+    private final AtomicReferenceArray<List<double[]>> emigrants;
+
+    // the last migrants received by each island (only used by the task of that island)
+    private final List<List<double[]>> received;
+
+    /**
+     * @param islands           the populations to evolve (a given algorithm must not be used by anything else while
+     *                          evolving)
+     * @param migrationInterval the count of generations between two migrations
+     * @param migrantsCount     the count of the best individuals sent by each island on each migration
+     *
+     * @throws IllegalArgumentException if there is no islands, the islands parameters count differ,
+     *                                  {@code migrationInterval} is not positive or {@code migrantsCount} is negative
+     */
+    public IslandModel(final List<GeneticAlgorithm> islands, final int migrationInterval, final int migrantsCount) {
+        Objects.requireNonNull(islands);
+        if (islands.isEmpty())
+            throw new IllegalArgumentException("no islands");
+        if (migrationInterval < 1)
+            throw new IllegalArgumentException("migration interval must be positive: " + migrationInterval);
+        if (migrantsCount < 0)
+            throw new IllegalArgumentException("migrants count can't be negative: " + migrantsCount);
+
+        final int parametersCount = islands.get(0).getParametersCount();
+        for (final GeneticAlgorithm island : islands)
+            if (island.getParametersCount() != parametersCount)
+                throw new IllegalArgumentException("all islands must have the same parameters count: " + parametersCount);
+
+        this.islands = new ArrayList<>(islands);
+        this.migrationInterval = migrationInterval;
+        this.migrantsCount = migrantsCount;
+        this.emigrants = new AtomicReferenceArray<>(islands.size());
+        this.received = new ArrayList<>(Collections.nCopies(islands.size(), null));
+    }
+
+    /**
+     * Evolves every island by the given count of generations, each island in a separate task of the given executor
+     * (which should have a thread per island). Returns once all the islands are done.
+     *
+     * @param generations the count of generations to evolve each island
+     * @param executor    the executor running the islands
+     *
+     * @throws InterruptedException if the calling thread was interrupted while waiting (the islands get cancelled)
+     * @throws ExecutionException   if an island failed (the other islands get cancelled)
+     * @throws IllegalArgumentException if {@code generations} is negative
+     */
+    public void evolve(final int generations, final ExecutorService executor) throws InterruptedException, ExecutionException {
+        Objects.requireNonNull(executor);
+        if (generations < 0)
+            throw new IllegalArgumentException("generations can't be negative: " + generations);
+
+        final List<Future<Void>> futures = new ArrayList<>(islands.size());
+        try {
+            for (int island = 0; island < islands.size(); island++)
+                futures.add(executor.submit(new IslandTask(island, generations)));
+
+            for (final Future<Void> future : futures)
+                future.get();
+        } finally {
+            for (final Future<Void> future : futures)
+                future.cancel(true);
+        }
+    }
+
+    /**
+     * @return the best individual of all the islands (only meaningful once they were evaluated)
+     */
+    public Individual getBest() {
+        Individual best = islands.get(0).getBest();
+        for (final GeneticAlgorithm island : islands)
+            if (island.getBest().getFitness() > best.getFitness())
+                best = island.getBest();
+        return best;
+    }
+
+    public List<GeneticAlgorithm> getIslands() {
+        return Collections.unmodifiableList(islands);
+    }
+
+    public int getMigrationInterval() {
+        return migrationInterval;
+    }
+
+    public int getMigrantsCount() {
+        return migrantsCount;
+    }
+
+    private final class IslandTask implements Callable<Void> {
+        private final int index;
+        private final int generations;
+
+        private IslandTask(final int index, final int generations) {
+            this.index = index;
+            this.generations = generations;
+        }
+
+        @Override
+        public Void call() throws InterruptedException, ExecutionException {
+            final GeneticAlgorithm island = islands.get(index);
+            final int source = (index + islands.size() - 1) % islands.size();
+
+            for (int generation = 1; generation <= generations; generation++) {
+                if (Thread.interrupted())
+                    throw new InterruptedException("island " + index + " interrupted");
+
+                island.evolve();
+                if (generation % migrationInterval != 0 || migrantsCount == 0 || islands.size() == 1)
+                    continue;
+
+                // individuals parameters are never modified, so the arrays can be shared between islands
+                final List<Individual> population = island.getPopulation();
+                final List<double[]> elites = new ArrayList<>(migrantsCount);
+                for (int i = 0; i < Math.min(migrantsCount, population.size()); i++)
+                    elites.add(population.get(i).getParameters());
+                emigrants.set(index, elites);
+
+                final List<double[]> immigrants = emigrants.get(source);
+                if (immigrants != null && immigrants != received.get(index)) {
+                    island.immigrate(immigrants);
+                    received.set(index, immigrants);
+                    Tracing.trace(log, () -> "island " + index + " received " + immigrants.size() + " immigrants from island " + source);
+                }
+            }
+
+            return null;
+        }
+    }
+}
@@ -0,0 +1,34 @@
+/*
+ * Copyright 2017-2018 Youcef DEBBAH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.jsoftware95.janns.evolution;
+
+import java.util.SplittableRandom;
+
+/**
+ * Represents the random changes applied to the parameters of a new child.
+ */
+@FunctionalInterface
+public interface Mutation {
+
+    /**
+     * Mutates the given parameters in place.
+     *
+     * @param parameters the parameters of a new child
+     * @param random     the source of all the random decisions of this mutation
+     */
+    void mutate(double[] parameters, SplittableRandom random);
+}
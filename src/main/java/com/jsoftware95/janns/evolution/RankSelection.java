@@ -0,0 +1,71 @@
+/*
+ * Copyright 2017-2018 Youcef DEBBAH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.jsoftware95.janns.evolution;
+
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Linear ranking selection: the probability of selecting an individual only depends on its rank, it decreases linearly
+ * from {@code pressure / n} for the best individual to {@code (2 - pressure) / n} for the worst one.
+ */
+public final class RankSelection implements Selection {
+
+    private final double pressure;
+
+    /**
+     * @param pressure the expected count of children of the best individual per generation, in [1, 2] ({@code 1} means
+     *                 no selection pressure at all)
+     *
+     * @throws IllegalArgumentException if {@code pressure} is outside [1, 2]
+     */
+    public RankSelection(final double pressure) {
+        if (!(pressure >= 1 && pressure <= 2))
+            throw new IllegalArgumentException("pressure must be in [1, 2]: " + pressure);
+        this.pressure = pressure;
+    }
+
+    public double getPressure() {
+        return pressure;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Individual select(final List<Individual> population, final SplittableRandom random) {
+        final int n = population.size();
+        if (n == 1)
+            return population.get(0);
+
+        // inverse of the cumulative distribution of the ranks (rank 0 is the best), solved for a uniform u in [0, 1[
+        final double slope = 2 * (pressure - 1);
+        final double u = random.nextDouble();
+        final double rank;
+        if (slope == 0)
+            rank = u * n;
+        else
+            rank = n * (pressure - Math.sqrt(pressure * pressure - 2 * slope * u)) / slope;
+
+        return population.get(Math.min(n - 1, (int) rank));
+    }
+
+    @Override
+    public String toString() {
+        return "RankSelection{pressure: " + pressure + "}";
+    }
+}
@@ -0,0 +1,37 @@
+/*
+ * Copyright 2017-2018 Youcef DEBBAH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.jsoftware95.janns.evolution;
+
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Represents the way parents are chosen from a ranked population.
+ */
+@FunctionalInterface
+public interface Selection {
+
+    /**
+     * Chooses a parent.
+     *
+     * @param population the evaluated population sorted from the best to the worst individual (never empty)
+     * @param random     the source of all the random decisions of this selection
+     *
+     * @return the chosen individual (a member of {@code population})
+     */
+    Individual select(List<Individual> population, SplittableRandom random);
+}
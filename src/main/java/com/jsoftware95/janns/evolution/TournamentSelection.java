@@ -0,0 +1,62 @@
+/*
+ * Copyright 2017-2018 Youcef DEBBAH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.jsoftware95.janns.evolution;
+
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Picks a fixed count of individuals uniformly (with replacement) and selects the best of them, the bigger the
+ * tournament the higher the selection pressure.
+ */
+public final class TournamentSelection implements Selection {
+
+    private final int size;
+
+    /**
+     * @param size the count of individuals competing in each tournament
+     *
+     * @throws IllegalArgumentException if {@code size} is not positive
+     */
+    public TournamentSelection(final int size) {
+        if (size < 1)
+            throw new IllegalArgumentException("tournament size must be positive: " + size);
+        this.size = size;
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Individual select(final List<Individual> population, final SplittableRandom random) {
+        // the population is ranked, so the best competitor is the one with the lowest index
+        int best = random.nextInt(population.size());
+        for (int i = 1; i < size; i++)
+            best = Math.min(best, random.nextInt(population.size()));
+
+        return population.get(best);
+    }
+
+    @Override
+    public String toString() {
+        return "TournamentSelection{size: " + size + "}";
+    }
+}
@@ -26,6 +26,7 @@ import org.apache.logging.log4j.Logger;
 
 import java.util.Collection;
 import java.util.Objects;
+import java.util.concurrent.ThreadLocalRandom;
 
 /**
  * This class implements the base functionality of a {@link ProcessingNeuron}.
@@ -123,7 +124,7 @@ public abstract class processingNeuronModel<T extends processingNeuronModel<T>>
      * A helper method that generate a new bias
      */
     private double getNewBias() {
-        return (1 - Math.random()) * 2 - 1;
+        return (1 - ThreadLocalRandom.current().nextDouble()) * 2 - 1;
     }
 
     /*
@@ -131,6 +132,7 @@ public abstract class processingNeuronModel<T extends processingNeuronModel<T>>
      */
     private void helpSettingInputConnections(final Collection<WeightedConnection> connections) {
         this.connections = connections;
+        modified();
         processInput();
     }
 
@@ -139,7 +141,7 @@ public abstract class processingNeuronModel<T extends processingNeuronModel<T>>
      */
     @Override
     public double processInput() {
-        return output = activationFunction.apply(signalCollector.apply(connections) + bias);
+        return output = activationFunction.applyAsDouble(signalCollector.applyAsDouble(connections) + bias);
     }
 
     /**
@@ -150,12 +152,20 @@ public abstract class processingNeuronModel<T extends processingNeuronModel<T>>
         return output;
     }
 
+    /*
+     * used by the network when the output of this neuron was calculated elsewhere (e.g. by a DenseNetwork)
+     */
+    void setOutput(final double output) {
+        this.output = output;
+    }
+
     /**
      * {@inheritDoc}
      */
     @Override
     public void updateBias() {
         bias = getNewBias();
+        modified();
     }
 
     /**
@@ -172,6 +182,7 @@ public abstract class processingNeuronModel<T extends processingNeuronModel<T>>
     @Override
     public void setSignalCollector(final SignalCollector signalCollector) {
         this.signalCollector = Objects.requireNonNull(signalCollector);
+        modified();
     }
 
     /**
@@ -188,6 +199,7 @@ public abstract class processingNeuronModel<T extends processingNeuronModel<T>>
     @Override
     public void setActivationFunction(final ActivationFunction activationFunction) {
         this.activationFunction = Objects.requireNonNull(activationFunction);
+        modified();
     }
 
     /**
@@ -229,5 +241,6 @@ public abstract class processingNeuronModel<T extends processingNeuronModel<T>>
         if (bias < -1 || bias > 1)
             throw new IllegalArgumentException("bias must be in [-1, 1], found: " + bias);
         this.bias = bias;
+        modified();
     }
 }
\ No newline at end of file
@@ -0,0 +1,86 @@
+/*
+ * Copyright 2017-2018 Youcef DEBBAH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.jsoftware95.jpanzer.agents;
+
+import com.jsoftware95.jpanzer.game.Context;
+import com.jsoftware95.jpanzer.game.Orders;
+import com.jsoftware95.jpanzer.game.Tank;
+import com.jsoftware95.jpanzer.game.TankClient;
+import com.jsoftware95.toolkit.InputMappers;
+
+/**
+ * Translates what a tank sees into the input vector of a player brain (indexed by {@link Inputs} ordinals) and the
+ * output vector of that brain (indexed by {@link Outputs} ordinals) into orders.
+ */
+final class BrainCodec {
+
+    static final int INPUTS_COUNT = Inputs.values().length;
+    static final int OUTPUTS_COUNT = Outputs.values().length;
+
+    private static final int minDistanceY = -TankClient.Fram_length;
+    private static final int maxDistanceY = TankClient.Fram_length;
+
+    private BrainCodec() {
+    }
+
+    /**
+     * Writes the inputs of the brain that controls the tank of the given context.
+     *
+     * @param context what the tank sees
+     * @param inputs  a vector of {@link #INPUTS_COUNT} values in [-1, 1]
+     */
+    static void encode(final Context context, final double[] inputs) {
+        final double speedX = InputMappers.LINEAR.map(context.getSpeedX(), -Tank.MAX_SPEED_X, Tank.MAX_SPEED_X);
+        final double speedY = InputMappers.LINEAR.map(context.getSpeedY(), -Tank.MAX_SPEED_Y, Tank.MAX_SPEED_Y);
+
+        final double speed = speedX + speedY;
+        final double axis;
+        if (speedX != 0 && speedY == 0)
+            axis = -1.0;
+        else if (speedX == 0 && speedY != 0)
+            axis = 1.0;
+        else
+            axis = 0.0;
+
+        inputs[Inputs.SPEED.ordinal()] = InputMappers.LINEAR.map(speed, -1, 1);
+        inputs[Inputs.AXIS.ordinal()] = axis;
+        inputs[Inputs.IS_LOADED.ordinal()] = context.isLoaded() ? 1 : 0;
+        inputs[Inputs.IS_ENEMY_LOADED.ordinal()] = context.isEnemyLoaded() ? 1 : 0;
+        inputs[Inputs.ENEMY_SPEED_Y.ordinal()] = InputMappers.LINEAR.map(context.getEnemySpeedY(), -Tank.MAX_SPEED_Y, Tank.MAX_SPEED_Y);
+        inputs[Inputs.DISTANCE_FROM_ENEMY_Y.ordinal()] = InputMappers.LINEAR.map(context.getDistanceFromEnemyY(), minDistanceY, maxDistanceY);
+    }
+
+    /**
+     * Sets all the fields of the given orders from the outputs of a brain.
+     *
+     * @param outputs a vector of {@link #OUTPUTS_COUNT} values
+     * @param orders  the orders to overwrite
+     *
+     * @return the given orders
+     */
+    static Orders decode(final double[] outputs, final Orders orders) {
+        final double speed = outputs[Outputs.SPEED.ordinal()];
+        final double axis = outputs[Outputs.AXIS.ordinal()];
+
+        orders.setMoveDown(speed > 0 && axis > 0);
+        orders.setMoveRight(speed > 0 && axis < 0);
+        orders.setMoveUp(speed < 0 && axis > 0);
+        orders.setMoveLeft(speed < 0 && axis < 0);
+        orders.setFire(outputs[Outputs.FIRE.ordinal()] > 0);
+        return orders;
+    }
+}
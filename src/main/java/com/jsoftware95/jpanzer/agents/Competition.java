@@ -17,6 +17,7 @@
 package com.jsoftware95.jpanzer.agents;
 
 import com.jsoftware95.jpanzer.game.TankClient;
+import com.jsoftware95.toolkit.Tracing;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
@@ -67,7 +68,7 @@ public class Competition {
 
     private void waitForThem() {
         try {
-            log.trace("thread waiting for players to evolve: " + Thread.currentThread().getName());
+            Tracing.trace(log, () -> "thread waiting for players to evolve: " + Thread.currentThread().getName());
             Thread.sleep(10);
         } catch (final InterruptedException ignored) {
             Thread.currentThread().interrupt();
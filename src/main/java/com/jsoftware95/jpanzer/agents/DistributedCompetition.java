@@ -0,0 +1,144 @@
+/*
+ * Copyright 2017-2018 Youcef DEBBAH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.jsoftware95.jpanzer.agents;
+
+import com.jsoftware95.janns.EnumNeuralNetwork;
+import com.jsoftware95.janns.evolution.GaussianMutation;
+import com.jsoftware95.janns.evolution.GeneticAlgorithm;
+import com.jsoftware95.janns.evolution.Individual;
+import com.jsoftware95.jpanzer.remote.Coordinator;
+import com.jsoftware95.jpanzer.remote.Worker;
+import com.jsoftware95.toolkit.metrics.MetricsReporter;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.Objects;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Evolves the brain of a player against a fixed opponent, the fitness of each generation being computed by the
+ * {@link Worker}s connected to a {@link Coordinator}. Each generation is played in its own worlds, drawn from the seed
+ * of the player.
+ * <p>
+ * The population keeps evolving until {@link #end()} is called, at the end of each generation its best brain becomes the
+ * brain of the player (and gets archived).
+ */
+public class DistributedCompetition {
+
+    private static final Logger log = LogManager.getLogger(DistributedCompetition.class);
+    private static final int POPULATION_SIZE = 64;
+    private static final int ROUNDS = 8;
+
+    private final ExecutorService executor = Executors.newSingleThreadExecutor();
+    private final Player player;
+    private final EnumNeuralNetwork<Inputs, Outputs> opponent;
+    private final Coordinator coordinator;
+    private final SplittableRandom random;
+    private final GeneticAlgorithm evolution;
+    private volatile boolean running;
+
+    /**
+     * @param player      the player to evolve (its current brain is the ancestor of the population)
+     * @param opponent    the player whose current brain is the opponent in all the fitness rounds
+     * @param coordinator the coordinator of the workers computing the fitness
+     */
+    public DistributedCompetition(final Player player, final Player opponent, final Coordinator coordinator) {
+        this.player = Objects.requireNonNull(player);
+        this.opponent = Objects.requireNonNull(opponent).brain.massClone(1, null).get(0);
+        this.coordinator = Objects.requireNonNull(coordinator);
+
+        random = new SplittableRandom(player.getSeed());
+        final List<double[]> population = GeneticAlgorithm.populationAround(player.brain.getParameters(),
+                POPULATION_SIZE, new GaussianMutation(1, 0.25), random);
+        evolution = new GeneticAlgorithm(population,
+                coordinator.evaluatorAgainst(this.opponent, ROUNDS, random.nextLong()), random.split());
+    }
+
+    /**
+     * Usage: {@code DistributedCompetition <port> [<player checkpoint> <opponent checkpoint>]}, the checkpoints are
+     * loaded from the {@code bestPlayers} folder, then workers can be started with:
+     * {@code Worker <coordinator host> <port>}
+     */
+    public static void main(final String... args) throws IOException {
+        if (args.length != 1 && args.length != 3)
+            throw new IllegalArgumentException("usage: DistributedCompetition <port> [<player checkpoint> <opponent checkpoint>]");
+
+        MetricsReporter.startDefault(Paths.get("metrics.csv"));
+
+        final Player alpha = new Player("Alpha");
+        final Player beta = new Player("Beta");
+        if (args.length == 3) {
+            alpha.loadData(args[1]);
+            beta.loadData(args[2]);
+        }
+
+        final Coordinator coordinator = new Coordinator(Integer.parseInt(args[0]));
+        final DistributedCompetition competition = new DistributedCompetition(alpha, beta, coordinator);
+        Runtime.getRuntime().addShutdownHook(new Thread(competition::end));
+        competition.start();
+    }
+
+    public void start() {
+        running = true;
+        executor.execute(this::keepEvolving);
+    }
+
+    private void keepEvolving() {
+        if (!running)
+            return;
+
+        final long t0 = System.nanoTime();
+        final long roundsSeed = random.nextLong();
+        evolution.setEvaluator(coordinator.evaluatorAgainst(opponent, ROUNDS, roundsSeed));
+        evolution.invalidate();
+        try {
+            evolution.evolve();
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        } catch (final ExecutionException e) {
+            log.error("distributed evolution failed", e);
+            end();
+            return;
+        }
+
+        final Individual best = evolution.getBest();
+        final EnumNeuralNetwork<Inputs, Outputs> brain = player.brain.massClone(1, null).get(0);
+        brain.setParameters(best.getParameters(), 0);
+        player.adopt(brain, 1, best.getFitness());
+
+        log.debug(player.getFullName() + " evolved on " + coordinator.getWorkersCount() + " workers (rounds seed: " +
+                roundsSeed + ") in: " + (System.nanoTime() - t0) / 1_000_000_000.0 + " sec, best fitness: " + best.getFitness());
+        executor.execute(this::keepEvolving);
+    }
+
+    public void end() {
+        running = false;
+        executor.shutdownNow();
+        try {
+            coordinator.close();
+        } catch (final IOException e) {
+            log.warn("could not close the coordinator", e);
+        }
+    }
+}
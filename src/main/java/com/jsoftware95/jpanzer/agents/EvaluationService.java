@@ -0,0 +1,163 @@
+/*
+ * Copyright 2017-2018 Youcef DEBBAH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.jsoftware95.jpanzer.agents;
+
+import com.jsoftware95.toolkit.metrics.MetricsRegistry;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+/**
+ * Runs CPU bound evaluations (e.g. fitness tests) on a work-stealing pool.
+ * <p>
+ * The shared instance is sized to the available processors and reused by all the players, so the pool threads are
+ * created once and stay busy as long as there are candidates to evaluate.
+ */
+public final class EvaluationService {
+
+    private static final EvaluationService SHARED = new EvaluationService(Runtime.getRuntime().availableProcessors());
+    private static final EvaluationService CALLER_RUNS = new EvaluationService();
+
+    static {
+        MetricsRegistry.getDefault().gauge("jpanzer.evaluationQueueDepth", SHARED::getQueueDepth);
+    }
+
+    /*
+     * null for the service that runs the evaluations on the calling thread
+     */
+    private final ForkJoinPool pool;
+
+    /**
+     * @param parallelism the number of worker threads
+     * @throws IllegalArgumentException if parallelism is not positive
+     */
+    public EvaluationService(final int parallelism) {
+        if (parallelism < 1)
+            throw new IllegalArgumentException("parallelism must be positive: " + parallelism);
+
+        pool = new ForkJoinPool(parallelism);
+    }
+
+    private EvaluationService() {
+        pool = null;
+    }
+
+    /**
+     * @return a service shared by the whole JVM, with one worker thread per available processor
+     */
+    public static EvaluationService getShared() {
+        return SHARED;
+    }
+
+    /**
+     * @return a service that runs the evaluations on the calling thread one after the other, for callers that already
+     * have a thread per core (e.g. the islands of an island model)
+     */
+    public static EvaluationService getCallerRuns() {
+        return CALLER_RUNS;
+    }
+
+    /**
+     * Schedules all the given tasks then waits for every one of them to complete.
+     *
+     * @param tasks the evaluations to run
+     * @param <T>   the result type
+     * @return the results in the same order as the given tasks
+     * @throws InterruptedException if the calling thread was interrupted while waiting (remaining tasks get cancelled)
+     * @throws ExecutionException   if any task failed (remaining tasks get cancelled)
+     */
+    public <T> List<T> evaluateAll(final Collection<? extends Callable<T>> tasks)
+            throws InterruptedException, ExecutionException {
+        Objects.requireNonNull(tasks);
+        if (pool == null)
+            return runAll(tasks);
+
+        final List<Future<T>> futures = new ArrayList<>(tasks.size());
+        for (final Callable<T> task : tasks)
+            futures.add(pool.submit(Objects.requireNonNull(task)));
+
+        final List<T> results = new ArrayList<>(futures.size());
+        try {
+            for (final Future<T> future : futures)
+                results.add(future.get());
+        } finally {
+            if (results.size() < futures.size())
+                for (final Future<T> future : futures)
+                    future.cancel(true);
+        }
+
+        return results;
+    }
+
+    /*
+     * runs the tasks on the calling thread, stopping at the first one that fails or once the thread gets interrupted
+     */
+    private static <T> List<T> runAll(final Collection<? extends Callable<T>> tasks)
+            throws InterruptedException, ExecutionException {
+        for (final Callable<T> task : tasks)
+            Objects.requireNonNull(task);
+
+        final List<T> results = new ArrayList<>(tasks.size());
+        for (final Callable<T> task : tasks) {
+            if (Thread.interrupted())
+                throw new InterruptedException();
+
+            try {
+                results.add(task.call());
+            } catch (final InterruptedException e) {
+                throw e;
+            } catch (final Exception e) {
+                throw new ExecutionException(e);
+            }
+        }
+
+        // like a pool, a task cut short by an interruption doesn't make a result
+        if (Thread.interrupted())
+            throw new InterruptedException();
+
+        return results;
+    }
+
+    /**
+     * @return an estimate of the count of evaluations waiting for a worker thread
+     */
+    public long getQueueDepth() {
+        if (pool == null)
+            return 0;
+        return pool.getQueuedSubmissionCount() + pool.getQueuedTaskCount();
+    }
+
+    public int getParallelism() {
+        return pool == null ? 1 : pool.getParallelism();
+    }
+
+    /**
+     * Stops accepting new evaluations, must not be called on the shared instances.
+     */
+    public void shutdown() {
+        if (this == SHARED || this == CALLER_RUNS)
+            throw new IllegalStateException("the shared evaluation services can't be shut down");
+
+        pool.shutdownNow();
+    }
+}
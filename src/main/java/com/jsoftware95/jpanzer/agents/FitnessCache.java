@@ -0,0 +1,124 @@
+/*
+ * Copyright 2017-2018 Youcef DEBBAH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.jsoftware95.jpanzer.agents;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * A bounded cache of fitness results keyed by (candidate parameters, opponent parameters, world seed): the rounds are
+ * deterministic, so a triple that was already played always gets the same fitness and never needs to be simulated
+ * again. When the cache is full the least recently used result is evicted.
+ * <p>
+ * The parameters arrays are kept as they are (not copied), they must not be modified after being passed to
+ * {@link #put(double[], double[], long, double)}. Instances of this class are thread-safe.
+ */
+public final class FitnessCache {
+
+    private final Map<Key, Double> results;
+    private long hits;
+    private long misses;
+
+    /**
+     * @param capacity the maximum count of cached results
+     *
+     * @throws IllegalArgumentException if {@code capacity} is not positive
+     */
+    public FitnessCache(final int capacity) {
+        if (capacity <= 0)
+            throw new IllegalArgumentException("capacity must be positive: " + capacity);
+
+        results = new LinkedHashMap<Key, Double>(16, 0.75f, true) {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected boolean removeEldestEntry(final Map.Entry<Key, Double> eldest) {
+                return size() > capacity;
+            }
+        };
+    }
+
+    /**
+     * @return the cached fitness of the given round, or {@code null} if it's not cached
+     * @throws NullPointerException if one of the arrays is {@code null}
+     */
+    public synchronized Double get(final double[] candidate, final double[] opponent, final long seed) {
+        final Double fitness = results.get(new Key(candidate, opponent, seed));
+        if (fitness != null)
+            hits++;
+        else
+            misses++;
+        return fitness;
+    }
+
+    /**
+     * Caches the fitness of a round, evicting the least recently used result if this cache is full.
+     *
+     * @throws NullPointerException if one of the arrays is {@code null}
+     */
+    public synchronized void put(final double[] candidate, final double[] opponent, final long seed, final double fitness) {
+        results.put(new Key(candidate, opponent, seed), fitness);
+    }
+
+    public synchronized int size() {
+        return results.size();
+    }
+
+    public synchronized long getHits() {
+        return hits;
+    }
+
+    public synchronized long getMisses() {
+        return misses;
+    }
+
+    public synchronized void clear() {
+        results.clear();
+    }
+
+    private static final class Key {
+        private final double[] candidate;
+        private final double[] opponent;
+        private final long seed;
+        private final int hash;
+
+        private Key(final double[] candidate, final double[] opponent, final long seed) {
+            this.candidate = Objects.requireNonNull(candidate);
+            this.opponent = Objects.requireNonNull(opponent);
+            this.seed = seed;
+            this.hash = (Arrays.hashCode(candidate) * 31 + Arrays.hashCode(opponent)) * 31 + Long.hashCode(seed);
+        }
+
+        @Override
+        public boolean equals(final Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Key)) return false;
+
+            final Key key = (Key) o;
+            return hash == key.hash && seed == key.seed &&
+                    Arrays.equals(candidate, key.candidate) &&
+                    Arrays.equals(opponent, key.opponent);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+}
@@ -0,0 +1,166 @@
+/*
+ * Copyright 2017-2018 Youcef DEBBAH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.jsoftware95.jpanzer.agents;
+
+import com.jsoftware95.janns.EnumNeuralNetwork;
+import com.jsoftware95.janns.evolution.FitnessEvaluator;
+import com.jsoftware95.janns.evolution.GaussianMutation;
+import com.jsoftware95.janns.evolution.GeneticAlgorithm;
+import com.jsoftware95.janns.evolution.Individual;
+import com.jsoftware95.janns.evolution.IslandModel;
+import com.jsoftware95.toolkit.metrics.MetricsReporter;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Evolves the brain of a player against a fixed opponent with an island model: one population per core, each one
+ * racing its candidates on its own thread, with the best individuals migrating between islands every few generations.
+ * <p>
+ * The islands keep evolving by epochs until {@link #end()} is called, at the end of each epoch the best brain of all
+ * the islands becomes the brain of the player (and gets archived). All the islands race their candidates in the same
+ * worlds during an epoch (drawn from the seed of the player at its start), so their best fitness values are comparable.
+ */
+public class IslandCompetition {
+
+    private static final Logger log = LogManager.getLogger(IslandCompetition.class);
+    private static final int POPULATION_SIZE = 32;
+    private static final int MIGRATION_INTERVAL = 5;
+    private static final int MIGRANTS_COUNT = 2;
+    private static final int EPOCH_GENERATIONS = 20;
+    private static final int FITNESS_CACHE_CAPACITY = 4096;
+
+    private final ExecutorService executor = Executors.newSingleThreadExecutor();
+    private final ExecutorService islandsExecutor;
+    private final Player player;
+    private final IslandModel model;
+    private final SplittableRandom random;
+    private volatile long roundsSeed;
+    private volatile boolean running;
+
+    /**
+     * @param player       the player to evolve (its current brain is the ancestor of all the islands)
+     * @param opponent     the player whose current brain is the opponent in all the fitness rounds
+     * @param islandsCount the count of islands (typically the count of available processors)
+     *
+     * @throws IllegalArgumentException if {@code islandsCount} is not positive
+     */
+    public IslandCompetition(final Player player, final Player opponent, final int islandsCount) {
+        this.player = Objects.requireNonNull(player);
+        Objects.requireNonNull(opponent);
+        if (islandsCount < 1)
+            throw new IllegalArgumentException("islands count must be positive: " + islandsCount);
+
+        random = new SplittableRandom(player.getSeed());
+        // each island gets its own copies of the networks (they are not thread-safe)
+        final List<EnumNeuralNetwork<Inputs, Outputs>> ancestors = player.brain.massClone(islandsCount, null);
+        final List<EnumNeuralNetwork<Inputs, Outputs>> opponents = opponent.brain.massClone(islandsCount, null);
+
+        final List<GeneticAlgorithm> islands = new ArrayList<>(islandsCount);
+        for (int island = 0; island < islandsCount; island++) {
+            final SplittableRandom islandRandom = random.split();
+            final List<double[]> population = GeneticAlgorithm.populationAround(ancestors.get(island).getParameters(),
+                    POPULATION_SIZE, new GaussianMutation(1, 0.25), islandRandom);
+            final FitnessEvaluator evaluator = newIslandEvaluator(island, ancestors.get(island), opponents.get(island));
+            islands.add(new GeneticAlgorithm(population, evaluator, islandRandom.split()));
+        }
+
+        model = new IslandModel(islands, MIGRATION_INTERVAL, MIGRANTS_COUNT);
+        islandsExecutor = Executors.newFixedThreadPool(islandsCount);
+    }
+
+    /*
+     * each island races its candidates on its own thread (the one running its generations), in the worlds of the
+     * current epoch
+     */
+    private FitnessEvaluator newIslandEvaluator(final int island, final EnumNeuralNetwork<Inputs, Outputs> ancestor,
+                                                final EnumNeuralNetwork<Inputs, Outputs> opponent) {
+        final RacingEvaluator racer = new RacingEvaluator(EvaluationService.getCallerRuns(), new FitnessCache(FITNESS_CACHE_CAPACITY));
+        final String name = "island " + (island + 1) + " of: " + player.getPlayerName();
+
+        return individuals -> {
+            final List<EnumNeuralNetwork<Inputs, Outputs>> candidates = ancestor.massClone(individuals.size(), null);
+            for (int i = 0; i < individuals.size(); i++)
+                candidates.get(i).setParameters(individuals.get(i).getParameters(), 0);
+
+            final RacingEvaluator.Race race = racer.race(name, candidates, opponent, roundsSeed);
+            for (int i = 0; i < individuals.size(); i++)
+                individuals.get(i).setFitness(race.getMean(i));
+        };
+    }
+
+    public static void main(final String... args) throws IOException {
+        MetricsReporter.startDefault(Paths.get("metrics.csv"));
+
+        final Player alpha = new Player("Alpha");
+        final Player beta = new Player("Beta");
+
+        final IslandCompetition competition = new IslandCompetition(alpha, beta, Runtime.getRuntime().availableProcessors());
+        competition.start();
+    }
+
+    public void start() {
+        running = true;
+        executor.execute(this::keepEvolving);
+    }
+
+    private void keepEvolving() {
+        if (!running)
+            return;
+
+        final long t0 = System.nanoTime();
+        // the fitness values of the last epoch were measured in other worlds
+        roundsSeed = random.nextLong();
+        for (final GeneticAlgorithm island : model.getIslands())
+            island.invalidate();
+
+        try {
+            model.evolve(EPOCH_GENERATIONS, islandsExecutor);
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        } catch (final ExecutionException e) {
+            log.error("islands evolution failed", e);
+            end();
+            return;
+        }
+
+        final Individual best = model.getBest();
+        final EnumNeuralNetwork<Inputs, Outputs> brain = player.brain.massClone(1, null).get(0);
+        brain.setParameters(best.getParameters(), 0);
+        player.adopt(brain, EPOCH_GENERATIONS, best.getFitness());
+
+        log.debug(player.getFullName() + " evolved on " + model.getIslands().size() + " islands in: " +
+                (System.nanoTime() - t0) / 1_000_000_000.0 + " sec (rounds seed: " + roundsSeed + "), best fitness: " + best.getFitness());
+        executor.execute(this::keepEvolving);
+    }
+
+    public void end() {
+        running = false;
+        executor.shutdownNow();
+        islandsExecutor.shutdownNow();
+    }
+}
@@ -16,8 +16,15 @@
 
 package com.jsoftware95.jpanzer.agents;
 
+import com.jsoftware95.toolkit.metrics.MetricsReporter;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+
 public class Main {
-    public static void main(final String... args) {
+    public static void main(final String... args) throws IOException {
+        MetricsReporter.startDefault(Paths.get("metrics.csv"));
+
         final Player alpha = new Player("Alpha");
         final Player beta = new Player("Beta");
 
@@ -16,65 +16,68 @@
 
 package com.jsoftware95.jpanzer.agents;
 
+import com.jsoftware95.janns.CheckpointArchive;
 import com.jsoftware95.janns.EnumNeuralNetwork;
-import com.jsoftware95.janns.api.DataMapper;
+import com.jsoftware95.janns.NetworkCheckpoint;
+import com.jsoftware95.janns.evolution.FitnessEvaluator;
+import com.jsoftware95.janns.evolution.GaussianMutation;
+import com.jsoftware95.janns.evolution.GeneticAlgorithm;
+import com.jsoftware95.janns.evolution.Individual;
+import com.jsoftware95.janns.evolution.Mutation;
 import com.jsoftware95.jpanzer.game.Context;
+import com.jsoftware95.jpanzer.game.GameAgent;
 import com.jsoftware95.jpanzer.game.GameClientConnection;
-import com.jsoftware95.jpanzer.game.GameListener;
 import com.jsoftware95.jpanzer.game.Orders;
-import com.jsoftware95.jpanzer.game.ScoreListener;
-import com.jsoftware95.jpanzer.game.Tank;
-import com.jsoftware95.jpanzer.game.TankClient;
-import com.jsoftware95.toolkit.InputMappers;
+import com.jsoftware95.toolkit.Tracing;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
 import java.io.File;
 import java.io.FileInputStream;
-import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.ObjectInputStream;
-import java.io.ObjectOutputStream;
-import java.time.LocalTime;
+import java.io.InputStream;
+import java.io.InvalidClassException;
+import java.io.ObjectStreamClass;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
-import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Deque;
 import java.util.List;
-import java.util.NavigableMap;
 import java.util.Objects;
-import java.util.TreeMap;
-import java.util.concurrent.Callable;
+import java.util.SplittableRandom;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
-import java.util.concurrent.Future;
-import java.util.concurrent.TimeUnit;
-import java.util.concurrent.TimeoutException;
+import java.util.concurrent.ThreadLocalRandom;
 
 @SuppressWarnings("ALL")
 public class Player {
-    public static final int DELAY_BETWEEN_GAMES = 750;
     private static final Logger log = LogManager.getLogger(Player.class);
-    private static final int THREADS_COUNT = 10;
-    private static final int TIME_BETWEEN_ORDERS = 20;
-    private static final DateTimeFormatter formatter = DateTimeFormatter.ofPattern("HH-mm-ss");
+    private static final DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd_HH-mm-ss");
     private static final String FOLDER = "players/";
-    private static final DataMapper NEW_BRAIN_DATA = (value, cloneIndex, valueIndex) -> cloneIndex != valueIndex ? value : Double.NaN;
-    private static final DataMapper IDENTITY_DATA = (value, cloneIndex, valueIndex) -> value;
+    private static final String BEST_PLAYERS_FOLDER = "bestPlayers/";
+    private static final String ARCHIVE_NAME = "run_" + formatter.format(LocalDateTime.now()) + ".archive";
+    private static final int POPULATION_SIZE = 64;
+    private static final Mutation INITIAL_MUTATION = new GaussianMutation(1, 0.25);
+    private static final int FITNESS_CACHE_CAPACITY = 8192;
 
-    static {
-        File folder = new File(FOLDER);
-        for (File file : folder.listFiles())
-            if (!file.isDirectory())
-                file.delete();
-    }
+    private static CheckpointArchive archive;
+    private static boolean archiveClosedOnShutdown;
 
     private final ExecutorService EVOLVER = Executors.newSingleThreadExecutor();
 
-    private final FintessCalculator calculator = new FintessCalculator();
+    private final RacingEvaluator racer = new RacingEvaluator(EvaluationService.getShared(), new FitnessCache(FITNESS_CACHE_CAPACITY));
     private final String name;
+    private final long seed;
+    private final SplittableRandom random;
+    private volatile GeneticAlgorithm evolution;
     protected volatile EnumNeuralNetwork<Inputs, Outputs> brain;
     private int generation;
+    private double fitness;
     private PlayingTask currentPlayingTask;
     private volatile boolean isEvolving;
     private boolean alwaysEvolve;
@@ -84,22 +87,51 @@ public class Player {
     }
 
     public Player(final String name, final boolean alwaysEvolve) {
+        this(name, alwaysEvolve, ThreadLocalRandom.current().nextLong());
+    }
+
+    /**
+     * @param seed the seed of all the random decisions of this player (initial brain, mutations and fitness rounds), two
+     *             players created with the same seed evolve the same way against the same opponents
+     */
+    public Player(final String name, final boolean alwaysEvolve, final long seed) {
         if (name == null || name.isEmpty())
             throw new IllegalArgumentException("Player name can't be null or empty");
 
         this.name = name;
         this.alwaysEvolve = alwaysEvolve;
+        this.seed = seed;
+        this.random = new SplittableRandom(seed);
 
-        brain = new EnumNeuralNetwork<>(Inputs.values(), Outputs.values());
-        brain.addHiddenLayer(Inputs.values().length * 2);
+        brain = newBrain();
+        brain.setRandom(random.split());
+        brain.randomize();
+        log.info("new player: " + name + " with seed: " + seed);
     }
 
     private Player(final String name, final EnumNeuralNetwork<Inputs, Outputs> brain) {
         this.name = Objects.requireNonNull(name);
         this.brain = Objects.requireNonNull(brain);
+        this.seed = ThreadLocalRandom.current().nextLong();
+        this.random = new SplittableRandom(seed);
     }
 
-    public static void main(final String... args) {
+    /**
+     * With {@code <archive> <player> <generation>} as arguments, exports that generation of a run archive to a new
+     * checkpoint of the {@code bestPlayers} folder and prints its name.
+     */
+    public static void main(final String... args) throws IOException {
+        if (args.length == 3) {
+            try (CheckpointArchive archive = CheckpointArchive.open(Paths.get(args[0]))) {
+                final String fileName = "Player-" + args[1].replaceAll("\\W+", "_") + "_g-" + args[2] + "_at_" +
+                        formatter.format(LocalDateTime.now());
+                final Path folder = Files.createDirectories(Paths.get(BEST_PLAYERS_FOLDER));
+                exportCheckpoint(archive, args[1], Integer.parseInt(args[2]), folder.resolve(fileName));
+                System.out.println(fileName);
+            }
+            return;
+        }
+
         final Player player = new Player("alpha");
         player.loadData("Player-Beta_g-337_at_21-13-27");
 
@@ -114,6 +146,10 @@ public class Player {
         return generation;
     }
 
+    public long getSeed() {
+        return seed;
+    }
+
     public void prepare(final GameClientConnection connection) {
         if (currentPlayingTask != null)
             currentPlayingTask.end();
@@ -141,6 +177,7 @@ public class Player {
         if (currentPlayingTask != null)
             currentPlayingTask.end();
         EVOLVER.shutdownNow();
+        closeArchive();
     }
 
     public boolean stillPlaying() {
@@ -150,121 +187,161 @@ public class Player {
             return currentPlayingTask.stillPlaying() && !EVOLVER.isTerminated();
     }
 
-    private EnumNeuralNetwork<Inputs, Outputs> evolveBrain(EnumNeuralNetwork<Inputs, Outputs> opponent) {
+    /*
+     * evolves the population of this player by one generation and returns its best brain (without making it the brain
+     * of this player), on failure the current brain is returned
+     */
+    EnumNeuralNetwork<Inputs, Outputs> evolveBrain(EnumNeuralNetwork<Inputs, Outputs> opponent) {
         long t0 = System.nanoTime();
         generation++;
 
-        final Deque<Double> data = brain.getData();
-        final List<EnumNeuralNetwork<Inputs, Outputs>> brains = brain.massClone(data.size(), NEW_BRAIN_DATA);
-        final List<EnumNeuralNetwork<Inputs, Outputs>> originalBrains = opponent.massClone(data.size(), IDENTITY_DATA);
-
-        final ExecutorService THREAD_POOL = Executors.newFixedThreadPool(THREADS_COUNT);
+        // each generation is raced in its own worlds, so the brains are not trained on a fixed set of worlds
+        final long roundsSeed = random.nextLong();
 
-        for (int i = 1; i <= THREADS_COUNT; i++) {
-            int blockTime = i * DELAY_BETWEEN_GAMES;
-            THREAD_POOL.submit(() -> {
-                try {
-                    Thread.sleep(blockTime);
-                } catch (InterruptedException ignored) {}
-            });
-        }
-
-        int total = brains.size();
-        int i = 0;
-        List<Future<TestResult>> results = new ArrayList<>(brains.size());
-        for (final EnumNeuralNetwork<Inputs, Outputs> newBrain : brains) {
-            if (Thread.interrupted()) {
-                generation--;
-                THREAD_POOL.shutdownNow();
-                return brain;
-            }
-            EnumNeuralNetwork<Inputs, Outputs> originalBrain = originalBrains.get(i);
-            final FitnessTest fitnessTest = new FitnessTest(this, originalBrain, newBrain, String.format("%03d/%03d", i + 1, total));
-            results.add(THREAD_POOL.submit(fitnessTest));
-            i++;
+        GeneticAlgorithm evolution = this.evolution;
+        if (evolution == null) {
+            final List<double[]> population = GeneticAlgorithm.populationAround(brain.getParameters(), POPULATION_SIZE,
+                    INITIAL_MUTATION, random);
+            evolution = new GeneticAlgorithm(population, fitnessAgainst(opponent, roundsSeed), random.split());
+            this.evolution = evolution;
         }
 
-        THREAD_POOL.shutdown();
+        // the opponent and the worlds changed since the last generation
+        evolution.setEvaluator(fitnessAgainst(opponent, roundsSeed));
+        evolution.invalidate();
 
-        NavigableMap<Double, EnumNeuralNetwork<Inputs, Outputs>> testedBrains = new TreeMap<>();
-        for (final Future<TestResult> result : results) {
-            if (Thread.interrupted()) {
-                generation--;
-                return brain;
-            }
-            try {
-                TestResult testResult;
-                if (THREADS_COUNT > 1) {
-                    testResult = result.get((THREADS_COUNT - 1) * DELAY_BETWEEN_GAMES, TimeUnit.MILLISECONDS);
-                } else {
-                    testResult = result.get();
-                }
-                testedBrains.put(testResult.getFitness(), testResult.getTestSubject());
-            } catch (TimeoutException e) {
-                log.error("evolution timeout (candidate excluded)", e);
-            } catch (InterruptedException | ExecutionException e) {
-                log.error("could not calc fitness (candidate excluded)", e);
-            }
+        try {
+            evolution.evolve();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            generation--;
+            return brain;
+        } catch (ExecutionException e) {
+            log.error("could not calc fitness (generation skipped)", e);
+            generation--;
+            return brain;
         }
 
-        log.debug("generation: " + generation + " evolved in: " + (System.nanoTime() - t0) / 1_000_000_000.0 + " sec");
-        return testedBrains.lastEntry().getValue();
-    }
+        final Individual best = evolution.getBest();
+        final EnumNeuralNetwork<Inputs, Outputs> bestBrain = brain.massClone(1, null).get(0);
+        bestBrain.setParameters(best.getParameters(), 0);
 
-    private double calcFitness(EnumNeuralNetwork<Inputs, Outputs> brain, EnumNeuralNetwork<Inputs, Outputs> newBrain, String title) {
-        TankClient game = new TankClient("fitness test: " + title + " for: " + getFullName(), false);
+        log.debug("generation: " + generation + " (rounds seed: " + roundsSeed + ") evolved in: " + (System.nanoTime() - t0) / 1_000_000_000.0 + " sec");
+        fitness = best.getFitness();
+        return bestBrain;
+    }
 
-        Player newPlayer = new Player("test subject: " + title, newBrain);
-        Player originalPlayer = new Player(getPlayerName() + " clone: " + title, brain);
+    /*
+     * the fitness of an individual is its mean score in a race against the given opponent, all the races of a generation
+     * use the same rounds (so the candidates played more than once in a generation, like the copies of their parents, are
+     * served from the cache)
+     */
+    private FitnessEvaluator fitnessAgainst(final EnumNeuralNetwork<Inputs, Outputs> opponent, final long roundsSeed) {
+        return individuals -> {
+            final List<EnumNeuralNetwork<Inputs, Outputs>> candidates = brain.massClone(individuals.size(), null);
+            for (int i = 0; i < individuals.size(); i++)
+                candidates.get(i).setParameters(individuals.get(i).getParameters(), 0);
+
+            final RacingEvaluator.Race race = racer.race("fitness tests for: " + getFullName(), candidates, opponent, roundsSeed);
+            log.debug(getFullName() + " " + race);
+            for (int i = 0; i < individuals.size(); i++)
+                individuals.get(i).setFitness(race.getMean(i));
+        };
+    }
 
-        newPlayer.prepare(game.getConnectionToTank1());
-        originalPlayer.prepare(game.getConnectionToTank2());
+    /*
+     * all the players of the same run share one archive in the players folder (reopened if it was closed by a player
+     * that stopped playing)
+     */
+    private static synchronized void appendToArchive(String player, int generation, double fitness, double[] parameters) throws IOException {
+        if (archive == null) {
+            Path file = Files.createDirectories(Paths.get(FOLDER)).resolve(ARCHIVE_NAME);
+            archive = Files.exists(file) ? CheckpointArchive.open(file) : CheckpointArchive.create(file, parameters.length);
+            if (!archiveClosedOnShutdown) {
+                Runtime.getRuntime().addShutdownHook(new Thread(Player::closeArchive));
+                archiveClosedOnShutdown = true;
+            }
+        }
+        archive.append(player, generation, fitness, parameters);
+    }
 
-        game.addListener(new Cleaner(newPlayer, originalPlayer));
-        game.addScoreListener(calculator);
+    private void archive(EnumNeuralNetwork<Inputs, Outputs> brain, int generation, double fitness) {
+        try {
+            appendToArchive(getPlayerName(), generation, fitness, brain.getParameters());
+        } catch (IOException | IllegalArgumentException | IllegalStateException e) {
+            log.error("could not archive generation: " + generation + " of: " + getPlayerName(), e);
+        }
+    }
 
-        newPlayer.startPlaying();
-        originalPlayer.startPlaying();
+    /**
+     * Forces the generations archived so far by the players of this run to the disk and closes their archive, it's
+     * reopened if another generation gets archived later.
+     */
+    public static synchronized void closeArchive() {
+        if (archive == null)
+            return;
 
-        while (!Thread.currentThread().isInterrupted() &&
-                (calculator.resultNotReady() || newPlayer.stillPlaying() || originalPlayer.stillPlaying()))
-            waitForResult();
+        try {
+            archive.force();
+            archive.close();
+        } catch (IOException | IllegalStateException e) {
+            log.error("could not close the archive: " + ARCHIVE_NAME, e);
+        } finally {
+            archive = null;
+        }
+    }
 
-        if (Thread.currentThread().isInterrupted())
-            return 0.0;
-        else
-            return calculator.getResult();
+    /**
+     * Writes the brain saved for the given generation of a player in a run archive to a checkpoint file, which can
+     * then be loaded with {@link #loadData(String)} once placed in the {@code bestPlayers} folder.
+     *
+     * @throws IllegalArgumentException if the archive has no such generation or its records don't fit the brain of a
+     *                                  player
+     * @throws IOException              if the checkpoint can't be written
+     */
+    public static void exportCheckpoint(CheckpointArchive archive, String playerName, int generation, Path file) throws IOException {
+        Objects.requireNonNull(file);
+        EnumNeuralNetwork<Inputs, Outputs> brain = newBrain();
+        brain.setParameters(archive.getParameters(findRecord(archive, playerName, generation, brain)), 0);
+        NetworkCheckpoint.of(brain, generation).write(file);
     }
 
-    private void waitForResult() {
-        try {
-            log.trace("thread waiting for result: " + Thread.currentThread().getName());
-            Thread.sleep(10);
-        } catch (InterruptedException e) {
-            Thread.currentThread().interrupt();
-        }
+    /*
+     * a brain with the topology of every player and no parameters set
+     */
+    private static EnumNeuralNetwork<Inputs, Outputs> newBrain() {
+        EnumNeuralNetwork<Inputs, Outputs> brain = new EnumNeuralNetwork<>(Inputs.values(), Outputs.values());
+        brain.addHiddenLayer(Inputs.values().length * 2);
+        return brain;
     }
 
-    private String getFileName() {
-        return "Player-" + getPlayerName().replaceAll("\\W+", "_") +
-                "_g-" + generation + "_at_" + formatter.format(LocalTime.now());
+    /*
+     * the record of the given generation of a player in a run archive, checked to fit the given brain
+     */
+    private static int findRecord(CheckpointArchive archive, String playerName, int generation,
+                                  EnumNeuralNetwork<Inputs, Outputs> brain) {
+        Objects.requireNonNull(archive);
+        Objects.requireNonNull(playerName);
+
+        int record = archive.indexOf(playerName, generation);
+        if (record < 0)
+            throw new IllegalArgumentException("generation: " + generation + " of: " + playerName + " not found in the archive");
+        if (archive.getParametersCount() != brain.getParametersCount())
+            throw new IllegalArgumentException("the archive records have: " + archive.getParametersCount()
+                    + " parameters but the brain has: " + brain.getParametersCount());
+
+        return record;
     }
 
-    private void save(Deque<Double> data, String fileName) {
-        File file = new File(FOLDER + fileName);
-        try {
-            file.createNewFile();
-        } catch (IOException e) {
-            log.error("could not create file: " + file.getAbsolutePath());
-            return;
-        }
+    double getFitness() {
+        return fitness;
+    }
 
-        try (ObjectOutputStream out = new ObjectOutputStream(new FileOutputStream(file))) {
-            out.writeInt(generation);
-            out.writeObject(data);
-        } catch (IOException e) {
-            log.error("could not save data: " + fileName, e);
-        }
+    /*
+     * the count of rounds simulated by the fitness races of this player so far
+     */
+    long getPlayedRounds() {
+        return racer.getPlayedRounds();
     }
 
     public String getFullName() {
@@ -274,15 +351,47 @@ public class Player {
     public void loadData(String fileName) {
         Objects.requireNonNull(fileName);
 
-        Deque<Double> oldData = getBrain().getData();
-        File file = new File("bestPlayers/" + fileName);
+        double[] oldParameters = getBrain().getParameters();
+        File file = new File(BEST_PLAYERS_FOLDER + fileName);
 
-        try (ObjectInputStream input = new ObjectInputStream(new FileInputStream(file))) {
-            this.generation = input.readInt();
-            brain.setData((Deque<Double>) input.readObject());
-        } catch (IOException | ClassNotFoundException e) {
+        try {
+            if (NetworkCheckpoint.isCheckpoint(file.toPath())) {
+                NetworkCheckpoint checkpoint = NetworkCheckpoint.read(file.toPath());
+                checkpoint.applyTo(brain);
+                this.generation = checkpoint.getGeneration();
+            } else
+                loadLegacyData(file);
+            evolution = null;
+        } catch (IOException | ClassNotFoundException | RuntimeException e) {
             log.error("loading player failed: " + fileName, e);
-            getBrain().setData(oldData);
+            getBrain().setParameters(oldParameters, 0);
+        }
+    }
+
+    /**
+     * Loads the brain saved for the given generation of a player in a run archive.
+     *
+     * @throws IllegalArgumentException if the archive has no such generation, its records don't have as many
+     *                                  parameters as the brain of this player or a parameter is outside [-1, 1], the
+     *                                  brain is left unchanged in that case
+     */
+    public void loadData(CheckpointArchive archive, String playerName, int generation) {
+        int record = findRecord(archive, playerName, generation, brain);
+        brain.setParameters(archive.getParameters(record), 0);
+        this.generation = generation;
+        this.fitness = archive.getFitness(record);
+        this.evolution = null;
+    }
+
+    /*
+     * players saved before the binary checkpoint format are a serialized generation followed by a LinkedList<Double>,
+     * only the classes of that exact shape are allowed to be deserialized
+     */
+    private void loadLegacyData(File file) throws IOException, ClassNotFoundException {
+        try (ObjectInputStream input = new LegacyDataInputStream(new FileInputStream(file))) {
+            int generation = input.readInt();
+            brain.setData((Deque<Double>) input.readObject());
+            this.generation = generation;
         }
     }
 
@@ -294,6 +403,17 @@ public class Player {
         this.brain = brain;
     }
 
+    /*
+     * makes a brain evolved elsewhere (e.g. by an island model) the brain of this player and archives it
+     */
+    void adopt(EnumNeuralNetwork<Inputs, Outputs> brain, int generations, double fitness) {
+        this.brain = Objects.requireNonNull(brain);
+        this.generation += generations;
+        this.fitness = fitness;
+        this.evolution = null;
+        archive(brain, generation, fitness);
+    }
+
     public boolean isEvolving() {
         return isEvolving;
     }
@@ -302,100 +422,6 @@ public class Player {
         isEvolving = evolving;
     }
 
-    private static final class FintessCalculator implements ScoreListener {
-
-        private int result;
-        private volatile boolean resultReady;
-
-        @Override
-        public void roundEndedWithScore(final int newPlayer, final int originalPlayer) {
-            result = newPlayer;
-            resultReady = true;
-        }
-
-        public boolean resultNotReady() {
-            return !resultReady;
-        }
-
-        public int getResult() {
-            resultReady = false;
-            return result;
-        }
-    }
-
-    private static final class Cleaner implements GameListener {
-
-        private Player p1;
-        private Player p2;
-
-        private Cleaner(Player p1, Player p2) {
-            this.p1 = p1;
-            this.p2 = p2;
-        }
-
-        @Override
-        public void roundEnded(boolean p1Won, boolean p2Won) {
-            if (p1 != null) {
-                p1.stopPlaying();
-                p1 = null;
-            }
-
-            if (p2 != null) {
-                p2.stopPlaying();
-                p2 = null;
-            }
-        }
-    }
-
-    private static final class FitnessTest implements Callable<TestResult> {
-
-        private Player player;
-        private EnumNeuralNetwork<Inputs, Outputs> originalBrain;
-        private EnumNeuralNetwork<Inputs, Outputs> newBrain;
-        private String title;
-        private TestResult testResult;
-
-        public FitnessTest(Player player, EnumNeuralNetwork<Inputs, Outputs> originalBrain,
-                           EnumNeuralNetwork<Inputs, Outputs> newBrain, String title) {
-            this.player = Objects.requireNonNull(player);
-            this.originalBrain = Objects.requireNonNull(originalBrain);
-            this.newBrain = Objects.requireNonNull(newBrain);
-            this.title = title;
-        }
-
-        @Override
-        public TestResult call() throws Exception {
-            if (testResult == null) {
-                testResult = new TestResult(player.calcFitness(originalBrain, newBrain, title), newBrain);
-                player = null;
-                originalBrain = null;
-                newBrain = null;
-            }
-            return testResult;
-        }
-    }
-
-    private static final class TestResult {
-        private double fitness;
-        private EnumNeuralNetwork<Inputs, Outputs> testSubject;
-
-        public TestResult(double fitness, EnumNeuralNetwork<Inputs, Outputs> testSubject) {
-            this.fitness = Objects.requireNonNull(fitness);
-            this.testSubject = Objects.requireNonNull(testSubject);
-        }
-
-        public double getFitness() {
-            return fitness;
-        }
-
-        public EnumNeuralNetwork<Inputs, Outputs> getTestSubject() {
-            EnumNeuralNetwork<Inputs, Outputs> result = testSubject;
-            testSubject = null;
-            return result;
-        }
-
-    }
-
     private static final class Evolver implements Runnable, AutoCloseable {
 
         private Player player;
@@ -419,9 +445,8 @@ public class Player {
                 return;
             }
 
-            Deque<Double> data = player.getBrain().getData();
             log.debug("Player: " + player.getPlayerName() + " has just evolved!");
-            player.save(data, player.getFileName());
+            player.archive(player.getBrain(), player.getGeneration(), player.fitness);
 
             player.setEvolving(false);
             close();
@@ -442,15 +467,14 @@ public class Player {
         }
     }
 
-    private static final class PlayingTask implements Runnable {
-        private static final int minDistanceX = -TankClient.Fram_width;
-        private static final int maxDistanceX = TankClient.Fram_width;
-        private static final int minDistanceY = -TankClient.Fram_length;
-        private static final int maxDistanceY = TankClient.Fram_length;
+    private static final class PlayingTask implements GameAgent {
+        private static final Inputs[] INPUTS = Inputs.values();
+        private static final Outputs[] OUTPUTS = Outputs.values();
 
-        private final ExecutorService MAIN_WORKER = Executors.newSingleThreadExecutor();
         private final String playerName;
         private final GameClientConnection connection;
+        private final double[] inputs = new double[BrainCodec.INPUTS_COUNT];
+        private final double[] outputs = new double[BrainCodec.OUTPUTS_COUNT];
         private EnumNeuralNetwork<Inputs, Outputs> brain;
 
         private PlayingTask(final String playerName, final GameClientConnection connection, final EnumNeuralNetwork<Inputs, Outputs> brain) {
@@ -459,93 +483,53 @@ public class Player {
             this.brain = Objects.requireNonNull(brain);
         }
 
-        public void run() {
-            try {
-                while (!Thread.interrupted()) {
-                    sendInputsToBrain(connection.getContext());
-                    brain.processInput();
-                    connection.sendOrders(getOrdersFromBrain());
-
-                    try {
-                        Thread.sleep(TIME_BETWEEN_ORDERS);
-                    } catch (final InterruptedException ignored) {
-                        Thread.currentThread().interrupt();
-                    }
-
-                }
-            } finally {
-                connection.close();
-            }
-        }
+        @Override
+        public Orders decide(final Context context) {
+            BrainCodec.encode(context, inputs);
+            for (final Inputs input : INPUTS)
+                brain.setInput(input, inputs[input.ordinal()]);
 
-        private void sendInputsToBrain(final Context context) {
-            final int rawSpeedX = context.getSpeedX();
-            final int rawSpeedY = context.getSpeedY();
-            final double speedX = InputMappers.LINEAR.map(rawSpeedX, -Tank.MAX_SPEED_X, Tank.MAX_SPEED_X);
-            final double speedY = InputMappers.LINEAR.map(rawSpeedY, -Tank.MAX_SPEED_Y, Tank.MAX_SPEED_Y);
-
-            //System.out.println("# " + playerName + " (rawX=" + rawSpeedX + ", rawY=" + rawSpeedY + ") -> (x=" + speedX + ", y=" + speedY + ")");
-            double speed = speedX + speedY;
-            double axis;
-            if (speedX != 0 && speedY == 0)
-                axis = -1.0;
-            else if (speedX == 0 && speedY != 0)
-                axis = 1.0;
-            else
-                axis = 0.0;
-
-            brain.setInput(Inputs.SPEED, InputMappers.LINEAR.map(speed, -1, 1));
-            brain.setInput(Inputs.AXIS, axis);
-
-            final boolean loaded = context.isLoaded();
-            final boolean enemyLoaded = context.isEnemyLoaded();
-            final int enemySpeedY = context.getEnemySpeedY();
-            final int distanceFromEnemyY = context.getDistanceFromEnemyY();
-
-            brain.setInput(Inputs.IS_LOADED, loaded);
-            brain.setInput(Inputs.IS_ENEMY_LOADED, enemyLoaded);
-            brain.setInput(Inputs.ENEMY_SPEED_Y, enemySpeedY, -Tank.MAX_SPEED_Y, Tank.MAX_SPEED_Y);
-            brain.setInput(Inputs.DISTANCE_FROM_ENEMY_Y, distanceFromEnemyY, minDistanceY, maxDistanceY);
-
-            log.trace(String.format("%s inputs: { speed=%.2f, axis=%.2f, loaded=%b, enemyLoaded=%b, enemySpeedY=%d, distance=%d }",
-                    playerName, speed, axis, loaded, enemyLoaded, enemySpeedY, distanceFromEnemyY));
-        }
+            brain.processInput();
 
-        private Orders getOrdersFromBrain() {
-            final Orders orders = new Orders();
-
-            double speed = brain.getOutput(Outputs.SPEED);
-            double axis = brain.getOutput(Outputs.AXIS);
-
-            if (speed > 0) {
-                if (axis > 0)
-                    orders.setMoveDown(true);
-                else if (axis < 0)
-                    orders.setMoveRight(true);
-            } else if (speed < 0) {
-                if (axis > 0)
-                    orders.setMoveUp(true);
-                else if (axis < 0)
-                    orders.setMoveLeft(true);
-            }
-
-            orders.setFire(brain.getOutputAsBoolean(Outputs.FIRE));
-            log.trace(playerName + " orders: " + orders);
+            for (final Outputs output : OUTPUTS)
+                outputs[output.ordinal()] = brain.getOutput(output);
 
+            final Orders orders = BrainCodec.decode(outputs, new Orders());
+            if (Tracing.isEnabled(log))
+                log.trace("{} inputs: {} orders: {}", playerName, Arrays.toString(inputs), orders);
             return orders;
         }
 
         public void end() {
-            MAIN_WORKER.shutdownNow();
+            connection.close();
         }
 
         public void start() {
-            MAIN_WORKER.execute(this);
+            connection.attach(this);
         }
 
         public boolean stillPlaying() {
-            return !MAIN_WORKER.isTerminated();
+            return !connection.isClosed();
         }
     }
 
+
+    private static final class LegacyDataInputStream extends ObjectInputStream {
+
+        private LegacyDataInputStream(InputStream in) throws IOException {
+            super(in);
+        }
+
+        @Override
+        protected Class<?> resolveClass(ObjectStreamClass desc) throws IOException, ClassNotFoundException {
+            switch (desc.getName()) {
+                case "java.util.LinkedList":
+                case "java.lang.Double":
+                case "java.lang.Number":
+                    return super.resolveClass(desc);
+                default:
+                    throw new InvalidClassException(desc.getName(), "not allowed in a saved player");
+            }
+        }
+    }
 }
@@ -0,0 +1,373 @@
+/*
+ * Copyright 2017-2018 Youcef DEBBAH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.jsoftware95.jpanzer.agents;
+
+import com.jsoftware95.janns.EnumNeuralNetwork;
+import com.jsoftware95.toolkit.metrics.Counter;
+import com.jsoftware95.toolkit.metrics.LatencyRecorder;
+import com.jsoftware95.toolkit.metrics.MetricsRegistry;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.SplittableRandom;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Estimates the fitness of many candidates (their average score over several rounds against the same opponent) by
+ * racing them: every round is played by all the candidates still in the race (in parallel batches), and after each
+ * round the candidates whose Hoeffding confidence interval lies entirely below the interval of the best candidate are
+ * eliminated. Most of the rounds are therefore played by the real contenders.
+ * <p>
+ * The rounds of the same index are played in the same world (same seed) by all the candidates, and the range of the
+ * scores used by the bound is the range observed so far. If a {@link FitnessCache} is given, rounds that were already
+ * played are not simulated again.
+ */
+public final class RacingEvaluator {
+
+    private static final LatencyRecorder RACE_TIME = MetricsRegistry.getDefault().latency("jpanzer.fitnessEvaluation");
+    private static final Counter ROUNDS = MetricsRegistry.getDefault().counter("jpanzer.fitnessRounds");
+
+    private final EvaluationService service;
+    private final FitnessCache cache;
+    private final Rounds rounds;
+    private final AtomicLong playedRounds = new AtomicLong();
+    private int minRounds = 4;
+    private int maxRounds = 32;
+    private double delta = 0.05;
+
+    /**
+     * @param service the service running the rounds
+     * @param cache   the cache of the rounds results (can be {@code null})
+     */
+    public RacingEvaluator(final EvaluationService service, final FitnessCache cache) {
+        this(service, cache, RacingEvaluator::playWorlds);
+    }
+
+    /*
+     * the rounds are played by the given function instead of simulated worlds (used to script the scores in tests)
+     */
+    RacingEvaluator(final EvaluationService service, final FitnessCache cache, final Rounds rounds) {
+        this.service = Objects.requireNonNull(service);
+        this.cache = cache;
+        this.rounds = Objects.requireNonNull(rounds);
+    }
+
+    /**
+     * @return the count of rounds simulated by this evaluator so far (the rounds served from the cache are not counted)
+     */
+    public long getPlayedRounds() {
+        return playedRounds.get();
+    }
+
+    public int getMinRounds() {
+        return minRounds;
+    }
+
+    /**
+     * @param minRounds the rounds every candidate plays before any elimination (4 by default)
+     * @throws IllegalArgumentException if {@code minRounds} is not positive
+     */
+    public void setMinRounds(final int minRounds) {
+        if (minRounds < 1)
+            throw new IllegalArgumentException("min rounds must be positive: " + minRounds);
+        this.minRounds = minRounds;
+    }
+
+    public int getMaxRounds() {
+        return maxRounds;
+    }
+
+    /**
+     * @param maxRounds the rounds played by the candidates that are never eliminated (32 by default)
+     * @throws IllegalArgumentException if {@code maxRounds} is not positive
+     */
+    public void setMaxRounds(final int maxRounds) {
+        if (maxRounds < 1)
+            throw new IllegalArgumentException("max rounds must be positive: " + maxRounds);
+        this.maxRounds = maxRounds;
+    }
+
+    public double getDelta() {
+        return delta;
+    }
+
+    /**
+     * @param delta the probability that the best candidate gets eliminated by mistake during a race (0.05 by default)
+     * @throws IllegalArgumentException if {@code delta} is not in ]0, 1[
+     */
+    public void setDelta(final double delta) {
+        if (!(delta > 0 && delta < 1))
+            throw new IllegalArgumentException("delta must be in ]0, 1[: " + delta);
+        this.delta = delta;
+    }
+
+    /**
+     * Races the given candidates against the given opponent until only one is left or all the remaining ones played
+     * {@link #getMaxRounds()} rounds.
+     *
+     * @param name       the name of the rounds (used for logging)
+     * @param candidates the brains to evaluate (they control the first tank)
+     * @param opponent   the brain controlling the second tank in all the rounds
+     * @param seed       the seed from which the seed of each round is derived
+     *
+     * @return the result of the race
+     * @throws InterruptedException     if the calling thread was interrupted while waiting for a round
+     * @throws ExecutionException       if a round failed
+     * @throws IllegalArgumentException if there is no candidates
+     */
+    public Race race(final String name, final List<EnumNeuralNetwork<Inputs, Outputs>> candidates,
+                     final EnumNeuralNetwork<Inputs, Outputs> opponent, final long seed)
+            throws InterruptedException, ExecutionException {
+        Objects.requireNonNull(name);
+        Objects.requireNonNull(candidates);
+        Objects.requireNonNull(opponent);
+        if (candidates.isEmpty())
+            throw new IllegalArgumentException("no candidates to race");
+
+        final long t0 = System.nanoTime();
+        final int count = candidates.size();
+        final Race race = new Race(count);
+        final double[][] parameters = new double[count][];
+        for (int i = 0; i < count; i++)
+            parameters[i] = candidates.get(i).getParameters();
+
+        // each candidate plays against its own copy of the opponent (networks are not thread-safe)
+        final double[] opponentParameters = opponent.getParameters();
+        final List<EnumNeuralNetwork<Inputs, Outputs>> opponents = opponent.massClone(count, null);
+
+        final SplittableRandom seeds = new SplittableRandom(seed);
+        final int[] alive = new int[count];
+        for (int i = 0; i < count; i++)
+            alive[i] = i;
+        int aliveCount = count;
+
+        for (int round = 0; round < maxRounds && aliveCount > 1; round++) {
+            final long roundSeed = seeds.nextLong();
+            playRound(name + " round " + (round + 1), race, candidates, opponents, parameters, opponentParameters,
+                    alive, aliveCount, roundSeed);
+            race.roundsCount++;
+
+            if (round + 1 >= minRounds)
+                aliveCount = eliminate(race, alive, aliveCount);
+        }
+
+        // a single candidate is not raced but still gets a fitness
+        if (race.roundsCount == 0) {
+            playRound(name, race, candidates, opponents, parameters, opponentParameters, alive, 1, seeds.nextLong());
+            race.roundsCount++;
+        }
+
+        race.best = alive[0];
+        for (int i = 1; i < aliveCount; i++)
+            if (race.getMean(alive[i]) > race.getMean(race.best))
+                race.best = alive[i];
+
+        RACE_TIME.recordSince(t0);
+        return race;
+    }
+
+    private void playRound(final String name, final Race race, final List<EnumNeuralNetwork<Inputs, Outputs>> candidates,
+                           final List<EnumNeuralNetwork<Inputs, Outputs>> opponents, final double[][] parameters,
+                           final double[] opponentParameters, final int[] alive, final int aliveCount,
+                           final long roundSeed) throws InterruptedException, ExecutionException {
+        final List<Integer> unplayed = new ArrayList<>(aliveCount);
+        for (int i = 0; i < aliveCount; i++) {
+            final int candidate = alive[i];
+            final Double score = cache == null ? null : cache.get(parameters[candidate], opponentParameters, roundSeed);
+            if (score != null)
+                race.add(candidate, score);
+            else
+                unplayed.add(candidate);
+        }
+
+        // one batch of rounds per evaluator thread, each batch plays all its rounds on a single core
+        final int total = unplayed.size();
+        final int batchesCount = Math.min(total, service.getParallelism());
+        final List<Callable<int[]>> batches = new ArrayList<>(batchesCount);
+        for (int batch = 0; batch < batchesCount; batch++) {
+            final List<Integer> indexes = unplayed.subList(batch * total / batchesCount, (batch + 1) * total / batchesCount);
+            final List<EnumNeuralNetwork<Inputs, Outputs>> brains1 = new ArrayList<>(indexes.size());
+            final List<EnumNeuralNetwork<Inputs, Outputs>> brains2 = new ArrayList<>(indexes.size());
+            for (final int candidate : indexes) {
+                brains1.add(candidates.get(candidate));
+                brains2.add(opponents.get(candidate));
+            }
+            batches.add(() -> rounds.play(name, brains1, brains2, roundSeed));
+        }
+
+        int played = 0;
+        for (final int[] scores : service.evaluateAll(batches)) {
+            playedRounds.addAndGet(scores.length);
+            ROUNDS.add(scores.length);
+            for (final int score : scores) {
+                final int candidate = unplayed.get(played++);
+                race.add(candidate, score);
+                if (cache != null)
+                    cache.put(parameters[candidate], opponentParameters, roundSeed, score);
+            }
+        }
+    }
+
+    /*
+     * removes from the alive candidates (in place) the ones whose upper bound is below the best lower bound
+     */
+    private int eliminate(final Race race, final int[] alive, final int aliveCount) {
+        final double range = race.maxScore - race.minScore;
+        final double log = Math.log(2.0 * race.size() * maxRounds / delta);
+
+        double bestLowerBound = Double.NEGATIVE_INFINITY;
+        for (int i = 0; i < aliveCount; i++) {
+            final int candidate = alive[i];
+            bestLowerBound = Math.max(bestLowerBound, race.getMean(candidate) - bound(range, log, race.getRounds(candidate)));
+        }
+
+        int kept = 0;
+        for (int i = 0; i < aliveCount; i++) {
+            final int candidate = alive[i];
+            if (race.getMean(candidate) + bound(range, log, race.getRounds(candidate)) >= bestLowerBound)
+                alive[kept++] = candidate;
+            else
+                race.eliminated[candidate] = true;
+        }
+
+        return kept;
+    }
+
+    /*
+     * the half width of the Hoeffding confidence interval of a mean of n samples in a given range
+     */
+    private static double bound(final double range, final double log, final int n) {
+        return range * Math.sqrt(log / (2.0 * n));
+    }
+
+    /**
+     * The result of a race: the mean score of every candidate over the rounds it played.
+     */
+    public static final class Race {
+        private final double[] sums;
+        private final int[] rounds;
+        private final boolean[] eliminated;
+        private double minScore = Double.POSITIVE_INFINITY;
+        private double maxScore = Double.NEGATIVE_INFINITY;
+        private int best;
+        private int roundsCount;
+
+        private Race(final int size) {
+            sums = new double[size];
+            rounds = new int[size];
+            eliminated = new boolean[size];
+        }
+
+        private void add(final int candidate, final double score) {
+            sums[candidate] += score;
+            rounds[candidate]++;
+            minScore = Math.min(minScore, score);
+            maxScore = Math.max(maxScore, score);
+        }
+
+        /**
+         * @return the count of candidates
+         */
+        public int size() {
+            return sums.length;
+        }
+
+        /**
+         * @return the index of the candidate with the best mean among the ones that were not eliminated
+         */
+        public int getBest() {
+            return best;
+        }
+
+        public double getMean(final int candidate) {
+            return sums[candidate] / rounds[candidate];
+        }
+
+        public int getRounds(final int candidate) {
+            return rounds[candidate];
+        }
+
+        public boolean isEliminated(final int candidate) {
+            return eliminated[candidate];
+        }
+
+        /**
+         * @return the count of rounds played by all the candidates together
+         */
+        public int getTotalRounds() {
+            int total = 0;
+            for (final int candidateRounds : rounds)
+                total += candidateRounds;
+            return total;
+        }
+
+        /**
+         * @return the count of race steps (the rounds played by the candidates that were never eliminated)
+         */
+        public int getRoundsCount() {
+            return roundsCount;
+        }
+
+        public int getEliminatedCount() {
+            int count = 0;
+            for (final boolean candidateEliminated : eliminated)
+                if (candidateEliminated)
+                    count++;
+            return count;
+        }
+
+        @Override
+        public String toString() {
+            return "Race{candidates: " + size() + ", best: " + best + " (mean: " + getMean(best) + "), steps: " +
+                    roundsCount + ", rounds: " + getTotalRounds() + ", eliminated: " + getEliminatedCount() + "}";
+        }
+    }
+
+    /*
+     * plays a batch of rounds in the same world on one thread, returns the scores of the candidates
+     */
+    private static int[] playWorlds(final String name, final List<EnumNeuralNetwork<Inputs, Outputs>> brains1,
+                                    final List<EnumNeuralNetwork<Inputs, Outputs>> brains2, final long seed)
+            throws InterruptedException {
+        final long[] seeds = new long[brains1.size()];
+        Arrays.fill(seeds, seed);
+
+        final WorldBatch batch = new WorldBatch(name, brains1, brains2, seeds);
+        batch.play();
+        if (Thread.currentThread().isInterrupted())
+            throw new InterruptedException("rounds interrupted: " + name);
+
+        final int[] scores = new int[batch.size()];
+        for (int i = 0; i < scores.length; i++)
+            scores[i] = batch.getPlayer1Score(i);
+        return scores;
+    }
+
+    /*
+     * plays one round for each pair of brains (all in the world of the given seed) and returns the scores of the first
+     * brains, called by the evaluator threads (one batch per thread)
+     */
+    @FunctionalInterface
+    interface Rounds {
+        int[] play(String name, List<EnumNeuralNetwork<Inputs, Outputs>> brains1,
+                   List<EnumNeuralNetwork<Inputs, Outputs>> brains2, long seed) throws InterruptedException;
+    }
+}
@@ -18,21 +18,11 @@ package com.jsoftware95.jpanzer.agents;
 
 import com.jsoftware95.jpanzer.game.GameClientConnection;
 
-import java.util.Deque;
-import java.util.LinkedList;
-
 public class TrainingDummy extends Player {
     public TrainingDummy(final String name) {
         super(name, false);
 
-        final Deque<Double> newData = new LinkedList<>();
-
-        final int size = brain.getData().size();
-        for (int i = 0; i < size; i++) {
-            newData.add(0.0);
-        }
-
-        brain.setData(newData);
+        brain.setParameters(new double[brain.getParametersCount()], 0);
         super.stopPlaying();
     }
 
@@ -0,0 +1,237 @@
+/*
+ * Copyright 2017-2018 Youcef DEBBAH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.jsoftware95.jpanzer.agents;
+
+import com.jsoftware95.janns.EnumNeuralNetwork;
+import com.jsoftware95.janns.NetworkPopulation;
+import com.jsoftware95.jpanzer.game.GameClientConnection;
+import com.jsoftware95.jpanzer.game.GameSimulation;
+import com.jsoftware95.jpanzer.game.Orders;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.SplittableRandom;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Plays K independent rounds (one per pair of brains) on the calling thread, all the rounds are stepped together and
+ * the brains of each side decide with one batched forward pass per tick instead of one network evaluation per tank.
+ * <p>
+ * The observations, outputs and orders of the K rounds live in packed arrays reused on every tick. Instances of this
+ * class are not thread-safe, but any number of batches can be played concurrently on different threads.
+ */
+public final class WorldBatch {
+
+    private final GameSimulation[] worlds;
+    private final GameClientConnection[][] connections;
+    private final Side[] sides;
+    private boolean played;
+
+    /**
+     * @param name    the name of the rounds (used for logging)
+     * @param brains1 the brains that control the first tank of each round
+     * @param brains2 the brains that control the second tank of each round
+     *
+     * @throws IllegalArgumentException if the lists are empty or don't have the same size
+     */
+    public WorldBatch(final String name, final List<EnumNeuralNetwork<Inputs, Outputs>> brains1,
+                      final List<EnumNeuralNetwork<Inputs, Outputs>> brains2) {
+        this(name, brains1, brains2, ThreadLocalRandom.current().nextLong());
+    }
+
+    /**
+     * @param name    the name of the rounds (used for logging)
+     * @param brains1 the brains that control the first tank of each round
+     * @param brains2 the brains that control the second tank of each round
+     * @param seed    the seed from which the seed of each round is derived (a batch created with the same seed and
+     *                brains always has the same scores)
+     *
+     * @throws IllegalArgumentException if the lists are empty or don't have the same size
+     */
+    public WorldBatch(final String name, final List<EnumNeuralNetwork<Inputs, Outputs>> brains1,
+                      final List<EnumNeuralNetwork<Inputs, Outputs>> brains2, final long seed) {
+        this(name, brains1, brains2, roundsSeeds(seed, brains1.size()));
+    }
+
+    /**
+     * @param name    the name of the rounds (used for logging)
+     * @param brains1 the brains that control the first tank of each round
+     * @param brains2 the brains that control the second tank of each round
+     * @param seeds   the seed of the world of each round
+     *
+     * @throws IllegalArgumentException if the lists are empty or the lists and the seeds don't have the same size
+     */
+    public WorldBatch(final String name, final List<EnumNeuralNetwork<Inputs, Outputs>> brains1,
+                      final List<EnumNeuralNetwork<Inputs, Outputs>> brains2, final long[] seeds) {
+        this(newWorlds(name, seeds), brains1, brains2);
+    }
+
+    /*
+     * plays the given worlds (used by tests to observe the worlds while they are played)
+     */
+    WorldBatch(final GameSimulation[] worlds, final List<EnumNeuralNetwork<Inputs, Outputs>> brains1,
+               final List<EnumNeuralNetwork<Inputs, Outputs>> brains2) {
+        Objects.requireNonNull(worlds);
+        Objects.requireNonNull(brains1);
+        Objects.requireNonNull(brains2);
+        if (brains1.isEmpty() || brains1.size() != brains2.size() || brains1.size() != worlds.length)
+            throw new IllegalArgumentException("expected non empty lists and seeds of the same size, found: " +
+                    brains1.size() + ", " + brains2.size() + " and " + worlds.length);
+
+        final int size = brains1.size();
+        this.worlds = worlds;
+        connections = new GameClientConnection[2][size];
+        for (int world = 0; world < size; world++) {
+            connections[0][world] = worlds[world].getConnectionToTank1();
+            connections[1][world] = worlds[world].getConnectionToTank2();
+        }
+
+        sides = new Side[]{new Side(brains1), new Side(brains2)};
+    }
+
+    private static GameSimulation[] newWorlds(final String name, final long[] seeds) {
+        Objects.requireNonNull(name);
+        Objects.requireNonNull(seeds);
+        final GameSimulation[] worlds = new GameSimulation[seeds.length];
+        for (int world = 0; world < seeds.length; world++)
+            worlds[world] = new GameSimulation(name + " " + (world + 1) + "/" + seeds.length, false, seeds[world]);
+        return worlds;
+    }
+
+    private static long[] roundsSeeds(final long seed, final int count) {
+        final SplittableRandom random = new SplittableRandom(seed);
+        final long[] seeds = new long[count];
+        for (int i = 0; i < count; i++)
+            seeds[i] = random.nextLong();
+        return seeds;
+    }
+
+    /**
+     * Plays all the rounds of this batch until they all end (or the calling thread gets interrupted, in which case the
+     * remaining rounds end early).
+     *
+     * @throws IllegalStateException if this batch was already played
+     */
+    public void play() {
+        if (played)
+            throw new IllegalStateException("this batch was already played");
+        played = true;
+
+        try {
+            int running = worlds.length;
+            while (running > 0 && !Thread.currentThread().isInterrupted())
+                running = step();
+        } finally {
+            for (final GameSimulation world : worlds)
+                world.endRound();
+
+            for (final GameClientConnection[] sideConnections : connections)
+                for (final GameClientConnection connection : sideConnections)
+                    connection.close();
+        }
+    }
+
+    /* one tick of all the rounds that are still running, returns the count of rounds still running after it */
+    private int step() {
+        for (int side = 0; side < sides.length; side++)
+            sides[side].decide(worlds, connections[side]);
+
+        int running = 0;
+        for (int world = 0; world < worlds.length; world++) {
+            if (worlds[world].isRoundEnded())
+                continue;
+
+            for (int side = 0; side < sides.length; side++)
+                connections[side][world].sendOrders(sides[side].orders[world]);
+
+            worlds[world].step();
+            if (!worlds[world].isRoundEnded())
+                running++;
+        }
+
+        return running;
+    }
+
+    public int size() {
+        return worlds.length;
+    }
+
+    public int getPlayer1Score(final int world) {
+        return worlds[world].getPlayer1Score();
+    }
+
+    public int getPlayer2Score(final int world) {
+        return worlds[world].getPlayer2Score();
+    }
+
+    /*
+     * the brains that control the same tank of every round
+     */
+    private static final class Side {
+        private final List<EnumNeuralNetwork<Inputs, Outputs>> brains;
+        private final NetworkPopulation population;
+        private final double[][] inputs;
+        private final double[][] outputs;
+        private final double[][][] inputRows;
+        private final double[][][] outputRows;
+        private final Orders[] orders;
+
+        private Side(final List<EnumNeuralNetwork<Inputs, Outputs>> brains) {
+            this.brains = brains;
+            this.population = populationOf(brains);
+            this.inputs = new double[brains.size()][BrainCodec.INPUTS_COUNT];
+            this.outputs = new double[brains.size()][BrainCodec.OUTPUTS_COUNT];
+            this.orders = new Orders[brains.size()];
+            for (int world = 0; world < orders.length; world++)
+                orders[world] = new Orders();
+
+            // one-row batches that share the rows of inputs and outputs (used when the brains are evaluated one by one)
+            this.inputRows = population == null ? new double[brains.size()][][] : null;
+            this.outputRows = population == null ? new double[brains.size()][][] : null;
+            if (population == null)
+                for (int world = 0; world < brains.size(); world++) {
+                    inputRows[world] = new double[][]{inputs[world]};
+                    outputRows[world] = new double[][]{outputs[world]};
+                }
+        }
+
+        /* brains that can't be packed together are evaluated one by one */
+        private static NetworkPopulation populationOf(final List<EnumNeuralNetwork<Inputs, Outputs>> brains) {
+            try {
+                return NetworkPopulation.of(brains);
+            } catch (IllegalArgumentException e) {
+                return null;
+            }
+        }
+
+        /* the inputs of the rounds that already ended are left as they are, their outputs are ignored */
+        private void decide(final GameSimulation[] worlds, final GameClientConnection[] connections) {
+            for (int world = 0; world < worlds.length; world++)
+                if (!worlds[world].isRoundEnded())
+                    BrainCodec.encode(connections[world].getContext(), inputs[world]);
+
+            if (population != null)
+                population.forward(inputs, outputs);
+            else
+                for (int world = 0; world < worlds.length; world++)
+                    brains.get(world).forward(inputRows[world], outputRows[world]);
+
+            for (int world = 0; world < orders.length; world++)
+                BrainCodec.decode(outputs[world], orders[world]);
+        }
+    }
+}
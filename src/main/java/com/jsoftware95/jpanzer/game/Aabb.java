@@ -0,0 +1,89 @@
+package com.jsoftware95.jpanzer.game;
+
+import java.awt.Rectangle;
+import java.awt.geom.Line2D;
+
+/**
+ * Axis aligned bounding boxes math on primitive coordinates, so collision checks don't need a {@link Rectangle} or a
+ * {@link Line2D} per test. The results are exactly the ones of the equivalent {@code java.awt} methods.
+ */
+final class Aabb {
+
+    private static final int OUT_LEFT = 1;
+    private static final int OUT_TOP = 2;
+    private static final int OUT_RIGHT = 4;
+    private static final int OUT_BOTTOM = 8;
+
+    private Aabb() {
+    }
+
+    /**
+     * Same as {@code new Rectangle(x1, y1, width1, height1).intersects(new Rectangle(x2, y2, width2, height2))}.
+     */
+    static boolean intersects(int x1, int y1, int width1, int height1, int x2, int y2, int width2, int height2) {
+        if (width1 <= 0 || height1 <= 0 || width2 <= 0 || height2 <= 0)
+            return false;
+
+        final int right1 = x1 + width1;
+        final int bottom1 = y1 + height1;
+        final int right2 = x2 + width2;
+        final int bottom2 = y2 + height2;
+
+        // each side either overflowed or is past the opposite side of the other box
+        return (right2 < x2 || right2 > x1) &&
+                (bottom2 < y2 || bottom2 > y1) &&
+                (right1 < x1 || right1 > x2) &&
+                (bottom1 < y1 || bottom1 > y2);
+    }
+
+    /**
+     * Same as {@code new Rectangle(x, y, width, height).intersectsLine(x1, y1, x2, y2)} (Cohen-Sutherland clipping).
+     */
+    static boolean intersectsSegment(int x, int y, int width, int height, double x1, double y1, double x2, double y2) {
+        final int out2 = outcode(x, y, width, height, x2, y2);
+        if (out2 == 0)
+            return true;
+
+        int out1;
+        while ((out1 = outcode(x, y, width, height, x1, y1)) != 0) {
+            if ((out1 & out2) != 0)
+                return false;
+
+            if ((out1 & (OUT_LEFT | OUT_RIGHT)) != 0) {
+                double edgeX = x;
+                if ((out1 & OUT_RIGHT) != 0)
+                    edgeX += width;
+                y1 = y1 + (edgeX - x1) * (y2 - y1) / (x2 - x1);
+                x1 = edgeX;
+            } else {
+                double edgeY = y;
+                if ((out1 & OUT_BOTTOM) != 0)
+                    edgeY += height;
+                x1 = x1 + (edgeY - y1) * (x2 - x1) / (y2 - y1);
+                y1 = edgeY;
+            }
+        }
+
+        return true;
+    }
+
+    private static int outcode(int x, int y, int width, int height, double px, double py) {
+        int out = 0;
+
+        if (width <= 0)
+            out |= OUT_LEFT | OUT_RIGHT;
+        else if (px < x)
+            out |= OUT_LEFT;
+        else if (px > x + (double) width)
+            out |= OUT_RIGHT;
+
+        if (height <= 0)
+            out |= OUT_TOP | OUT_BOTTOM;
+        else if (py < y)
+            out |= OUT_TOP;
+        else if (py > y + (double) height)
+            out |= OUT_BOTTOM;
+
+        return out;
+    }
+}
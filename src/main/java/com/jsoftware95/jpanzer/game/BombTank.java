@@ -30,20 +30,20 @@ public class BombTank {
                     "images/10.gif")),};
     private final int x;
     private final int y;
-    private final TankClient tc;
+    private final GameSimulation world;
     int step;
     private boolean live = true;
 
-    public BombTank(final int x, final int y, final TankClient tc) {
+    public BombTank(final int x, final int y, final GameSimulation world) {
         this.x = x;
         this.y = y;
-        this.tc = tc;
+        this.world = world;
     }
 
     public void draw(final Graphics g) {
 
         if (!live) {
-            tc.bombTanks.remove(this);
+            world.bombTanks.remove(this);
             return;
         }
         if (step == imgs.length) {
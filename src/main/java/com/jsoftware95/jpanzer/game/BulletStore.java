@@ -0,0 +1,172 @@
+package com.jsoftware95.jpanzer.game;
+
+import java.util.Arrays;
+
+/**
+ * The bullets of a world stored as parallel primitive arrays (structure of arrays): the bullet at a given slot has its
+ * position, direction, owner and state at the same index of each array, the slots {@code [0, size())} are all used.
+ * <p>
+ * A bullet also has an id that doesn't change during its life (its slot does: {@link #removeDead()} fills the slot of
+ * a dead bullet with the last one), ids of removed bullets are recycled through a free list.
+ */
+final class BulletStore {
+
+    private static final Direction[] DIRECTIONS = Direction.values();
+
+    private int[] x;
+    private int[] y;
+    private int[] dir;
+    private int[] owner;
+    private int[] id;
+    private boolean[] live;
+    private int size;
+
+    // slot of each id (-1 for unused ids) and the stack of unused ids
+    private int[] slotOfId;
+    private int[] freeIds;
+    private int freeIdsCount;
+    private int nextId;
+
+    BulletStore(final int initialCapacity) {
+        if (initialCapacity <= 0)
+            throw new IllegalArgumentException("initial capacity must be positive: " + initialCapacity);
+
+        x = new int[initialCapacity];
+        y = new int[initialCapacity];
+        dir = new int[initialCapacity];
+        owner = new int[initialCapacity];
+        id = new int[initialCapacity];
+        live = new boolean[initialCapacity];
+        slotOfId = new int[initialCapacity];
+        freeIds = new int[initialCapacity];
+        Arrays.fill(slotOfId, -1);
+    }
+
+    /**
+     * Adds a live bullet.
+     *
+     * @param owner the id of the tank that fired the bullet
+     *
+     * @return the id of the added bullet
+     */
+    int add(final int x, final int y, final Direction direction, final int owner) {
+        if (size == this.x.length)
+            grow();
+
+        final int bulletId = freeIdsCount > 0 ? freeIds[--freeIdsCount] : newId();
+        final int slot = size++;
+
+        this.x[slot] = x;
+        this.y[slot] = y;
+        this.dir[slot] = direction.ordinal();
+        this.owner[slot] = owner;
+        this.id[slot] = bulletId;
+        this.live[slot] = true;
+        slotOfId[bulletId] = slot;
+        return bulletId;
+    }
+
+    private int newId() {
+        if (nextId == slotOfId.length) {
+            final int oldLength = slotOfId.length;
+            slotOfId = Arrays.copyOf(slotOfId, oldLength * 2);
+            Arrays.fill(slotOfId, oldLength, slotOfId.length, -1);
+            freeIds = Arrays.copyOf(freeIds, oldLength * 2);
+        }
+        return nextId++;
+    }
+
+    private void grow() {
+        final int newCapacity = x.length * 2;
+        x = Arrays.copyOf(x, newCapacity);
+        y = Arrays.copyOf(y, newCapacity);
+        dir = Arrays.copyOf(dir, newCapacity);
+        owner = Arrays.copyOf(owner, newCapacity);
+        id = Arrays.copyOf(id, newCapacity);
+        live = Arrays.copyOf(live, newCapacity);
+    }
+
+    /**
+     * Removes all the dead bullets, each one is replaced by the last bullet (so slots are not stable across calls of
+     * this method).
+     */
+    void removeDead() {
+        int slot = 0;
+        while (slot < size) {
+            if (live[slot]) {
+                slot++;
+                continue;
+            }
+
+            release(id[slot]);
+            final int last = --size;
+            if (slot != last) {
+                x[slot] = x[last];
+                y[slot] = y[last];
+                dir[slot] = dir[last];
+                owner[slot] = owner[last];
+                id[slot] = id[last];
+                live[slot] = live[last];
+                slotOfId[id[slot]] = slot;
+            }
+        }
+    }
+
+    /**
+     * Removes all the bullets.
+     */
+    void clear() {
+        for (int slot = 0; slot < size; slot++)
+            release(id[slot]);
+        size = 0;
+    }
+
+    private void release(final int bulletId) {
+        slotOfId[bulletId] = -1;
+        freeIds[freeIdsCount++] = bulletId;
+    }
+
+    int size() {
+        return size;
+    }
+
+    /**
+     * @return the current slot of the bullet with the given id, or {@code -1} if there is no such bullet
+     */
+    int slotOf(final int bulletId) {
+        return bulletId >= 0 && bulletId < nextId ? slotOfId[bulletId] : -1;
+    }
+
+    int getId(final int slot) {
+        return id[slot];
+    }
+
+    int getX(final int slot) {
+        return x[slot];
+    }
+
+    int getY(final int slot) {
+        return y[slot];
+    }
+
+    void moveBy(final int slot, final int dx, final int dy) {
+        x[slot] += dx;
+        y[slot] += dy;
+    }
+
+    Direction getDirection(final int slot) {
+        return DIRECTIONS[dir[slot]];
+    }
+
+    int getOwner(final int slot) {
+        return owner[slot];
+    }
+
+    boolean isLive(final int slot) {
+        return live[slot];
+    }
+
+    void kill(final int slot) {
+        live[slot] = false;
+    }
+}
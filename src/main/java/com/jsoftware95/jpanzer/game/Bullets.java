@@ -2,13 +2,12 @@ package com.jsoftware95.jpanzer.game;
 
 import java.awt.Graphics;
 import java.awt.Image;
-import java.awt.Rectangle;
 import java.awt.Toolkit;
 import java.util.HashMap;
 import java.util.Map;
 
 @SuppressWarnings({"ClassWithTooManyFields", "StaticNonFinalField", "InstanceVariableOfConcreteClass", "MethodParameterOfConcreteClass", "FeatureEnvy", "OverlyComplexBooleanExpression", "UnusedReturnValue", "Duplicates"})
-public class Bullets {
+public final class Bullets {
     public static final int width = 10;
     public static final int length = 10;
     public static final int INIT_SPEED = 36;
@@ -45,43 +44,32 @@ public class Bullets {
 
     }
 
-    Direction diretion;
-    private int x, y;
-    private boolean good;
-    private boolean live = true;
-    private Tank owner;
-    private TankClient tc;
-
-    public Bullets(final int x, final int y, final Direction dir, Tank owner) {
-        this.x = x;
-        this.y = y;
-        this.diretion = dir;
-        this.owner = owner;
+    private Bullets() {
     }
 
-    public Bullets(final int x, final int y, final boolean good, final Direction dir, final TankClient tc, Tank owner) {
-        this(x, y, dir, owner);
-        this.good = good;
-        this.tc = tc;
-    }
-
-    private void move() {
+    /**
+     * Moves the bullet at the given slot of the world store, a bullet that leaves the map dies.
+     */
+    static void update(final GameSimulation world, final int bullet) {
+        final BulletStore bullets = world.bullets;
+        if (!bullets.isLive(bullet))
+            return;
 
-        switch (diretion) {
+        switch (bullets.getDirection(bullet)) {
             case L:
-                x -= speedX;
+                bullets.moveBy(bullet, -speedX, 0);
                 break;
 
             case U:
-                y -= speedY;
+                bullets.moveBy(bullet, 0, -speedY);
                 break;
 
             case R:
-                x += speedX;
+                bullets.moveBy(bullet, speedX, 0);
                 break;
 
             case D:
-                y += speedY;
+                bullets.moveBy(bullet, 0, speedY);
                 break;
 
             case STOP:
@@ -89,19 +77,21 @@ public class Bullets {
 
         }
 
+        final int x = bullets.getX(bullet);
+        final int y = bullets.getY(bullet);
         if (x < 0 || y < 0 || x > TankClient.Fram_width
                 || y > TankClient.Fram_length) {
-            live = false;
+            bullets.kill(bullet);
         }
     }
 
-    public void draw(final Graphics g) {
-        if (!live) {
-            tc.bullets.remove(this);
+    static void draw(final Graphics g, final BulletStore bullets, final int bullet) {
+        if (!bullets.isLive(bullet))
             return;
-        }
 
-        switch (diretion) {
+        final int x = bullets.getX(bullet);
+        final int y = bullets.getY(bullet);
+        switch (bullets.getDirection(bullet)) {
             case L:
                 g.drawImage(imgs.get("L"), x, y, null);
                 break;
@@ -121,75 +111,66 @@ public class Bullets {
             default:
                 assert false;
         }
-
-        move();
     }
 
-    public boolean isLive() {
-        return live;
+    private static boolean intersects(final BulletStore bullets, final int bullet, final int x, final int y, final int width, final int length) {
+        return Aabb.intersects(bullets.getX(bullet), bullets.getY(bullet), Bullets.width, Bullets.length, x, y, width, length);
     }
 
-    public Rectangle getRect() {
-        return new Rectangle(x, y, width, length);
-    }
-
-    public void hitTanks(final Iterable<Tank> tanks) {
-        for (final Tank tank : tanks) {
-            if (hitTank(tank)) {
-                return;
-            }
-        }
-    }
-
-    public boolean hitTank(final Tank t) {
-
-        if (this.owner != t && this.live && this.getRect().intersects(t.getRect()) && t.isLive()) {
+    static boolean hitTank(final GameSimulation world, final int bullet, final Tank t) {
+        final BulletStore bullets = world.bullets;
+        if (bullets.getOwner(bullet) != t.getId() && bullets.isLive(bullet) &&
+                intersects(bullets, bullet, t.getX(), t.getY(), Tank.width, Tank.length) && t.isLive()) {
 
-            final BombTank e = new BombTank(t.getX(), t.getY(), tc);
-            tc.bombTanks.add(e);
+            final BombTank e = new BombTank(t.getX(), t.getY(), world);
+            world.bombTanks.add(e);
 
             t.setLife(t.getLife() - HP_PER_HIT);
             if (t.getLife() <= 0)
                 t.setLive(false);
 
-            this.live = false;
+            bullets.kill(bullet);
 
             return true;
         }
         return false;
     }
 
-    public boolean hitWall(final CommonWall w) {
-        if (this.live && this.getRect().intersects(w.getRect())) {
-            this.live = false;
-            this.tc.otherWall.remove(w);
-            this.tc.homeWall.remove(w);
+    static boolean hitWall(final GameSimulation world, final int bullet, final CommonWall w) {
+        final BulletStore bullets = world.bullets;
+        if (bullets.isLive(bullet) && intersects(bullets, bullet, w.getX(), w.getY(), CommonWall.width, CommonWall.length)) {
+            bullets.kill(bullet);
+            world.removeWall(w);
             return true;
         }
         return false;
     }
 
-    public boolean hitBullet(final Bullets w) {
-        if (this.live && this.getRect().intersects(w.getRect())) {
-            this.live = false;
-            this.tc.bullets.remove(w);
+    static boolean hitBullet(final GameSimulation world, final int bullet, final int other) {
+        final BulletStore bullets = world.bullets;
+        if (bullets.isLive(bullet) && bullets.isLive(other) &&
+                intersects(bullets, bullet, bullets.getX(other), bullets.getY(other), width, length)) {
+            bullets.kill(bullet);
+            bullets.kill(other);
             return true;
         }
         return false;
     }
 
-    public boolean hitWall(final MetalWall w) {
-        if (this.live && this.getRect().intersects(w.getRect())) {
-            this.live = false;
+    static boolean hitWall(final GameSimulation world, final int bullet, final MetalWall w) {
+        final BulletStore bullets = world.bullets;
+        if (bullets.isLive(bullet) && intersects(bullets, bullet, w.getX(), w.getY(), MetalWall.width, MetalWall.length)) {
+            bullets.kill(bullet);
             return true;
         }
         return false;
     }
 
-    public boolean hitHome() {
-        if (this.live && this.getRect().intersects(tc.home.getRect())) {
-            this.live = false;
-            this.tc.home.setLive(false);
+    static boolean hitHome(final GameSimulation world, final int bullet) {
+        final BulletStore bullets = world.bullets;
+        if (bullets.isLive(bullet) && intersects(bullets, bullet, world.home.getX(), world.home.getY(), Home.width, Home.length)) {
+            bullets.kill(bullet);
+            world.home.setLive(false);
             return true;
         }
         return false;
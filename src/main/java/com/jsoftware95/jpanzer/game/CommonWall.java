@@ -17,18 +17,26 @@ public class CommonWall {
     }
 
     int x, y;
-    TankClient tc;
+    GameSimulation world;
 
-    public CommonWall(final int x, final int y, final TankClient tc) {
+    public CommonWall(final int x, final int y, final GameSimulation world) {
         this.x = x;
         this.y = y;
-        this.tc = tc;
+        this.world = world;
     }
 
     public void draw(final Graphics g) {
         g.drawImage(wallImages[0], x, y, null);
     }
 
+    int getX() {
+        return x;
+    }
+
+    int getY() {
+        return y;
+    }
+
     public Rectangle getRect() {
         return new Rectangle(x, y, width, length);
     }
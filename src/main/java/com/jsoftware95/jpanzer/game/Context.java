@@ -21,13 +21,13 @@ import java.util.Objects;
 @SuppressWarnings({"MethodParameterOfConcreteClass", "InstanceVariableOfConcreteClass"})
 public class Context implements AutoCloseable {
 
-    private TankClient tankClient;
+    private GameSimulation world;
     private Tank tank;
     private Tank enemy;
     private boolean isClosed;
 
-    public Context(final TankClient tankClient, final Tank tank, final Tank enemy) {
-        this.tankClient = Objects.requireNonNull(tankClient);
+    public Context(final GameSimulation world, final Tank tank, final Tank enemy) {
+        this.world = Objects.requireNonNull(world);
         this.tank = Objects.requireNonNull(tank);
         this.enemy = Objects.requireNonNull(enemy);
     }
@@ -105,7 +105,7 @@ public class Context implements AutoCloseable {
     @Override
     public void close() {
         isClosed = true;
-        tankClient = null;
+        world = null;
         tank = null;
         enemy = null;
     }
@@ -0,0 +1,35 @@
+/*
+ * Copyright 2017-2018 Youcef DEBBAH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.jsoftware95.jpanzer.game;
+
+/**
+ * An agent that controls a tank by deciding new orders once per simulation step.
+ *
+ * @see GameClientConnection#attach(GameAgent)
+ */
+@FunctionalInterface
+public interface GameAgent {
+
+    /**
+     * Called by the simulation at the beginning of each step, before any orders is applied to the world.
+     *
+     * @param context a view of the world from the controlled tank point of view
+     * @return the orders to apply to the controlled tank for this step
+     */
+    Orders decide(Context context);
+
+}
@@ -23,6 +23,14 @@ public interface GameClientConnection extends AutoCloseable {
 
     Context getContext();
 
+    /**
+     * Lets the given agent control the tank of this connection, the agent will be asked for orders at each step of
+     * the simulation (on the simulation thread) until this connection is closed.
+     *
+     * @param agent the agent controlling the tank
+     */
+    void attach(GameAgent agent);
+
     void close();
 
     boolean isClosed();
@@ -0,0 +1,569 @@
+package com.jsoftware95.jpanzer.game;
+
+import com.jsoftware95.toolkit.metrics.Counter;
+import com.jsoftware95.toolkit.metrics.LatencyRecorder;
+import com.jsoftware95.toolkit.metrics.MetricsRegistry;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.ArrayList;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Objects;
+import java.util.SplittableRandom;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Predicate;
+
+/**
+ * The world of a jpanzer round: tanks, bullets, walls and the rules that move them.
+ * <p>
+ * A simulation has no notion of wall-clock time, the world only advances when {@link #step()} is called, so it can be
+ * driven by a {@link TankClient} (one step per painted frame) or run headless as fast as the CPU allows.
+ */
+public class GameSimulation {
+
+    public static final int MAX_TIME = 300;
+    private static final int GRID_CELL_SIZE = 64;
+    private static final Logger log = LogManager.getLogger(GameSimulation.class);
+    private static final Counter TICKS = MetricsRegistry.getDefault().counter("jpanzer.ticks");
+    private static final LatencyRecorder GAME_DURATION = MetricsRegistry.getDefault().latency("jpanzer.gameDuration");
+
+    private final String name;
+    private final boolean manualControls;
+    private final long upTime;
+    private final SplittableRandom random;
+
+    Tank homeTank;
+    Tank homeTank2;
+    Boolean Player2 = true;
+    GetBlood blood = new GetBlood();
+    Home home = new Home(-100, -100, this);
+    Boolean win = false, lose = false;
+    boolean roundEnded, p1Won, p2Won;
+    List<River> theRiver = new ArrayList<River>();
+    List<Tank> tanks = new ArrayList<Tank>();
+    List<BombTank> bombTanks = new ArrayList<BombTank>();
+    final BulletStore bullets = new BulletStore(16);
+    List<Tree> trees = new ArrayList<Tree>();
+    List<CommonWall> homeWall = new ArrayList<CommonWall>();
+    List<CommonWall> otherWall = new ArrayList<CommonWall>();
+    List<MetalWall> metalWall = new ArrayList<MetalWall>();
+    volatile int currentTime;
+    List<GameListener> gameListeners = new LinkedList<>();
+    List<ScoreListener> scoreListeners = new LinkedList<>();
+    private final List<TankConnection> agents = new ArrayList<>(2);
+
+    private final SpatialGrid obstaclesGrid = new SpatialGrid(TankClient.Fram_width, TankClient.Fram_length, GRID_CELL_SIZE);
+    private final SpatialGrid tanksGrid = new SpatialGrid(TankClient.Fram_width, TankClient.Fram_length, GRID_CELL_SIZE);
+    private final SpatialGrid bulletsGrid = new SpatialGrid(TankClient.Fram_width, TankClient.Fram_length, GRID_CELL_SIZE);
+    private Object[] obstacles = new Object[0];
+    private int firstOtherWall, firstHomeWall, firstRiver;
+    private boolean obstaclesChanged = true;
+    private int tanksCount;
+
+    /**
+     * Creates a new two players round with the default map and random spawn positions.
+     *
+     * @param name           the name of this round (used for logging)
+     * @param manualControls if {@code true} the round has no time limit
+     */
+    public GameSimulation(final String name, final boolean manualControls) {
+        this(name, manualControls, ThreadLocalRandom.current().nextLong());
+    }
+
+    /**
+     * Creates a new two players round with the default map, all the random decisions of this round (spawn positions
+     * and AI tanks moves) are taken from a generator created with the given seed, so two rounds with the same seed
+     * played by the same agents have the same result.
+     *
+     * @param name           the name of this round (used for logging)
+     * @param manualControls if {@code true} the round has no time limit
+     * @param seed           the seed of this round
+     */
+    public GameSimulation(final String name, final boolean manualControls, final long seed) {
+        this.name = Objects.requireNonNull(name);
+        this.manualControls = manualControls;
+        this.upTime = System.nanoTime();
+        this.random = new SplittableRandom(seed);
+
+        final int length = Math.max(Tank.length, Tank.width);
+        final double initY1 = 3 * length + (TankClient.Fram_length - 5 * length) * random.nextDouble();
+        double initY2 = 3 * length + (TankClient.Fram_length - 5 * length) * random.nextDouble();
+
+        while (Math.abs(initY1 - initY2) < (2 * length))
+            initY2 = 3 * length + (TankClient.Fram_length - 5 * length) * random.nextDouble();
+
+        homeTank = new Tank(150, (int) initY1, true, Direction.STOP, this, 1);
+        homeTank2 = new Tank(TankClient.Fram_width - 150, (int) initY2, true, Direction.STOP, this, 2);
+
+        theRiver.add(new River((TankClient.Fram_width - River.riverWidth) / 2, 0, this));
+    }
+
+    /**
+     * Advances the world by one frame: asks the attached agents for their orders, moves tanks and bullets, resolves
+     * collisions, updates the scores and ends the round when a tank dies or the time is over. Calling this method after
+     * the round ended has no effect.
+     */
+    public synchronized void step() {
+        if (roundEnded)
+            return;
+
+        TICKS.increment();
+        // a destroyed home clears the map, so it's checked before the obstacles get indexed for this step
+        home.update();
+        updateObstacles();
+        runAgents();
+        currentTime++;
+
+        collideWithObstacles(homeTank, firstRiver, obstacles.length);
+        if (Player2) collideWithObstacles(homeTank2, firstRiver, obstacles.length);
+
+        homeTank.updateAimLine();
+        if (Player2)
+            homeTank2.updateAimLine();
+
+        homeTank.update();
+        homeTank.eat(blood);
+        if (Player2) {
+            homeTank2.update();
+            homeTank2.eat(blood);
+        }
+
+        bullets.removeDead();
+        removeIf(tanks, tank -> !tank.isLive());
+        indexTanks();
+        indexBullets();
+
+        for (int i = 0; i < bullets.size(); i++) {
+            if (!bullets.isLive(i))
+                continue;
+
+            hitTanks(i);
+            Bullets.hitTank(this, i, homeTank);
+            Bullets.hitTank(this, i, homeTank2);
+            Bullets.hitHome(this, i);
+            hitBullets(i);
+            hitWalls(i);
+
+            Bullets.update(this, i);
+            if (bullets.isLive(i))
+                bulletsGrid.insert(i, bullets.getX(i), bullets.getY(i), Bullets.width, Bullets.length);
+            else
+                bulletsGrid.remove(i);
+        }
+
+        bullets.removeDead();
+
+        for (int i = 0; i < tanks.size(); i++) {
+            Tank t = tanks.get(i);
+            if (!t.isLive())
+                continue;
+
+            queryObstacles(t);
+            collideWithQueriedObstacles(t, firstHomeWall, firstRiver);
+            collideWithQueriedObstacles(t, firstOtherWall, firstHomeWall);
+            collideWithQueriedObstacles(t, 0, firstOtherWall);
+            collideWithQueriedObstacles(t, firstRiver, obstacles.length);
+
+            collideWithTanks(t, i);
+            t.collideHome(home);
+
+            t.update();
+            tanksGrid.insert(i, t.getX(), t.getY(), Tank.width, Tank.length);
+        }
+
+        collideWithTanks(homeTank, -1);
+        homeTank.collideHome(home);
+        if (Player2) {
+            collideWithTanks(homeTank2, -1);
+            homeTank2.collideHome(home);
+            homeTank2.collideWithPlayer(homeTank);
+            homeTank.collideWithPlayer(homeTank2);
+        }
+
+        collideWithObstacles(homeTank, 0, firstRiver);
+        if (Player2) collideWithObstacles(homeTank2, 0, firstRiver);
+
+        if (!Player2) {
+            if (tanks.size() == 0 && home.isLive() && homeTank.isLive() && lose == false) {
+                this.otherWall.clear();
+                mapChanged();
+                win = true;
+            }
+
+            if (homeTank.isLive() == false && win == false) {
+                tanks.clear();
+                bullets.clear();
+                lose = true;
+            }
+        } else {
+            if (homeTank.isLive() && !homeTank2.isLive()) {
+                p1Won = true;
+                endRound();
+            }
+
+            if (!roundEnded && homeTank2.isLive() && !homeTank.isLive()) {
+                p2Won = true;
+                endRound();
+            }
+
+            if (!roundEnded && isTimeOut())
+                endRound();
+        }
+    }
+
+    int nextTankId() {
+        return tanksCount++;
+    }
+
+    /*
+     * the source of all the random decisions of this round, only used while stepping (or building) the world
+     */
+    SplittableRandom getRandom() {
+        return random;
+    }
+
+    /**
+     * Must be called after the walls or the rivers lists are modified (other than by {@link #removeWall(CommonWall)}),
+     * so they get indexed again before the next collisions check.
+     */
+    void mapChanged() {
+        obstaclesChanged = true;
+    }
+
+    /**
+     * Removes a destroyed wall from the map.
+     */
+    void removeWall(CommonWall wall) {
+        otherWall.remove(wall);
+        homeWall.remove(wall);
+
+        for (int id = firstOtherWall; id < firstRiver; id++)
+            if (obstacles[id] == wall) {
+                obstacles[id] = null;
+                obstaclesGrid.remove(id);
+            }
+    }
+
+    /*
+     * walls and rivers don't move, they are indexed once per map with ids following the order in which they used to be
+     * checked: metal walls, other walls, home walls then rivers
+     */
+    private void updateObstacles() {
+        if (!obstaclesChanged)
+            return;
+
+        obstaclesChanged = false;
+        firstOtherWall = metalWall.size();
+        firstHomeWall = firstOtherWall + otherWall.size();
+        firstRiver = firstHomeWall + homeWall.size();
+        obstacles = new Object[firstRiver + theRiver.size()];
+
+        obstaclesGrid.clear();
+        for (int i = 0; i < metalWall.size(); i++)
+            addObstacle(i, metalWall.get(i), metalWall.get(i).getX(), metalWall.get(i).getY(), MetalWall.width, MetalWall.length);
+        for (int i = 0; i < otherWall.size(); i++)
+            addObstacle(firstOtherWall + i, otherWall.get(i), otherWall.get(i).getX(), otherWall.get(i).getY(), CommonWall.width, CommonWall.length);
+        for (int i = 0; i < homeWall.size(); i++)
+            addObstacle(firstHomeWall + i, homeWall.get(i), homeWall.get(i).getX(), homeWall.get(i).getY(), CommonWall.width, CommonWall.length);
+        for (int i = 0; i < theRiver.size(); i++)
+            addObstacle(firstRiver + i, theRiver.get(i), theRiver.get(i).getX(), theRiver.get(i).getY(), River.riverWidth, River.riverLength);
+    }
+
+    private void addObstacle(int id, Object obstacle, int x, int y, int width, int height) {
+        obstacles[id] = obstacle;
+        obstaclesGrid.insert(id, x, y, width, height);
+    }
+
+    private void indexTanks() {
+        tanksGrid.clear();
+        for (int i = 0; i < tanks.size(); i++)
+            tanksGrid.insert(i, tanks.get(i).getX(), tanks.get(i).getY(), Tank.width, Tank.length);
+    }
+
+    private void indexBullets() {
+        bulletsGrid.clear();
+        for (int i = 0; i < bullets.size(); i++)
+            bulletsGrid.insert(i, bullets.getX(i), bullets.getY(i), Bullets.width, Bullets.length);
+    }
+
+    private void hitTanks(int bullet) {
+        int candidates = tanksGrid.query(bullets.getX(bullet), bullets.getY(bullet), Bullets.width, Bullets.length);
+        for (int k = 0; k < candidates; k++)
+            if (Bullets.hitTank(this, bullet, tanks.get(tanksGrid.getResult(k))))
+                return;
+    }
+
+    private void hitBullets(int bullet) {
+        int candidates = bulletsGrid.query(bullets.getX(bullet), bullets.getY(bullet), Bullets.width, Bullets.length);
+        for (int k = 0; k < candidates; k++) {
+            int other = bulletsGrid.getResult(k);
+            if (other != bullet && Bullets.hitBullet(this, bullet, other)) {
+                bulletsGrid.remove(other);
+                return;
+            }
+        }
+    }
+
+    private void hitWalls(int bullet) {
+        int candidates = obstaclesGrid.query(bullets.getX(bullet), bullets.getY(bullet), Bullets.width, Bullets.length);
+        for (int k = 0; k < candidates && bullets.isLive(bullet); k++) {
+            int id = obstaclesGrid.getResult(k);
+            if (id < firstOtherWall)
+                Bullets.hitWall(this, bullet, (MetalWall) obstacles[id]);
+            else if (id < firstRiver)
+                Bullets.hitWall(this, bullet, (CommonWall) obstacles[id]);
+        }
+    }
+
+    /*
+     * checks the tank against the obstacles with ids in [from, to) found by a fresh query
+     */
+    private void collideWithObstacles(Tank tank, int from, int to) {
+        if (from == to)
+            return;
+
+        queryObstacles(tank);
+        collideWithQueriedObstacles(tank, from, to);
+    }
+
+    /*
+     * a collision moves a tank back to its previous position, so the query covers both positions
+     */
+    private void queryObstacles(Tank tank) {
+        int minX = Math.min(tank.getX(), tank.getOldX());
+        int minY = Math.min(tank.getY(), tank.getOldY());
+        int width = Math.max(tank.getX(), tank.getOldX()) - minX + Tank.width;
+        int height = Math.max(tank.getY(), tank.getOldY()) - minY + Tank.length;
+        obstaclesGrid.query(minX, minY, width, height);
+    }
+
+    private void collideWithQueriedObstacles(Tank tank, int from, int to) {
+        int candidates = obstaclesGrid.getResultsCount();
+        for (int k = 0; k < candidates; k++) {
+            int id = obstaclesGrid.getResult(k);
+            if (id < from || id >= to)
+                continue;
+
+            Object obstacle = obstacles[id];
+            if (obstacle instanceof MetalWall)
+                tank.collideWithWall((MetalWall) obstacle);
+            else if (obstacle instanceof CommonWall)
+                tank.collideWithWall((CommonWall) obstacle);
+            else if (obstacle instanceof River)
+                tank.collideRiver((River) obstacle);
+        }
+    }
+
+    /*
+     * the tank and the first live tank it overlaps (in the tanks list order) go back to their previous positions
+     */
+    private void collideWithTanks(Tank tank, int index) {
+        int candidates = tanksGrid.query(tank.getX(), tank.getY(), Tank.width, Tank.length);
+        for (int k = 0; k < candidates; k++) {
+            int other = tanksGrid.getResult(k);
+            if (other != index && tank.collideWithPlayer(tanks.get(other))) {
+                tanksGrid.insert(other, tanks.get(other).getX(), tanks.get(other).getY(), Tank.width, Tank.length);
+                if (index >= 0)
+                    tanksGrid.insert(index, tank.getX(), tank.getY(), Tank.width, Tank.length);
+                return;
+            }
+        }
+    }
+
+    /* all the agents decide on the same world state before any of their orders get applied */
+    private void runAgents() {
+        removeIf(agents, TankConnection::isClosed);
+
+        for (int i = 0; i < agents.size(); i++)
+            agents.get(i).decide();
+
+        for (int i = 0; i < agents.size(); i++)
+            agents.get(i).applyOrders();
+    }
+
+    /* same as ArrayList.removeIf without allocating a BitSet on every call */
+    private static <T> void removeIf(List<T> list, Predicate<? super T> filter) {
+        int kept = 0;
+        for (int i = 0; i < list.size(); i++) {
+            T element = list.get(i);
+            if (!filter.test(element))
+                list.set(kept++, element);
+        }
+
+        while (list.size() > kept)
+            list.remove(list.size() - 1);
+    }
+
+    /**
+     * Keeps stepping this world until the round ends.
+     */
+    public void play() {
+        while (!roundEnded && !Thread.currentThread().isInterrupted())
+            step();
+
+        if (!roundEnded)
+            endRound();
+    }
+
+    /**
+     * Ends the current round (if not already ended) and notify the listeners with the result.
+     */
+    public synchronized void endRound() {
+        if (roundEnded)
+            return;
+
+        roundEnded = true;
+        GAME_DURATION.recordSince(upTime);
+
+        int score1 = getPlayer1Score();
+        int score2 = getPlayer2Score();
+
+        log.debug("round ended: " + name +
+                " (took " + getCurrentDurration() + ") " +
+                (this.p1Won ? "player1 won " : "") +
+                (this.p2Won ? "player2 won " : "") +
+                "p1 score: " + score1 + ", p2 score: " + score2);
+
+        for (GameListener listener : this.gameListeners) {
+            listener.roundEnded(this.p1Won, this.p2Won);
+        }
+
+        this.gameListeners.clear();
+
+        for (ScoreListener listener : this.scoreListeners) {
+            listener.roundEndedWithScore(score1, score2);
+        }
+
+        this.scoreListeners.clear();
+    }
+
+    public boolean isTimeOut() {
+        return !manualControls && currentTime > MAX_TIME;
+    }
+
+    public boolean isRoundEnded() {
+        return roundEnded;
+    }
+
+    public int getCurrentTime() {
+        return currentTime;
+    }
+
+    public int getPlayer1Score() {
+        return homeTank.getScore(homeTank2);
+    }
+
+    public int getPlayer2Score() {
+        return homeTank2.getScore(homeTank);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public boolean isManualControls() {
+        return manualControls;
+    }
+
+    public GameClientConnection getConnectionToTank1() {
+        return new TankConnection(this, homeTank, homeTank2);
+    }
+
+    public GameClientConnection getConnectionToTank2() {
+        return new TankConnection(this, homeTank2, homeTank);
+    }
+
+    public synchronized void addListener(GameListener listener) {
+        gameListeners.add(listener);
+    }
+
+    public synchronized void removeListener(GameListener listener) {
+        gameListeners.remove(listener);
+    }
+
+    public synchronized void addScoreListener(ScoreListener listener) {
+        scoreListeners.add(listener);
+    }
+
+    public synchronized void removeScoreListener(ScoreListener listener) {
+        scoreListeners.remove(listener);
+    }
+
+    public String getCurrentDurration() {
+        long duration = System.nanoTime() - upTime;
+        return String.format("%.2f sec", duration / 1_000_000_000.0);
+    }
+
+    private static final class TankConnection implements GameClientConnection {
+
+        private final GameSimulation world;
+        private Tank tank;
+        private Context context;
+        private GameAgent agent;
+        private Orders pendingOrders;
+
+        private TankConnection(GameSimulation world, Tank tank, Tank enemy) {
+            this.world = Objects.requireNonNull(world);
+            this.tank = Objects.requireNonNull(tank);
+            context = new Context(world, tank, enemy);
+        }
+
+        @Override
+        public void sendOrders(Orders orders) {
+            synchronized (world) {
+                ensureOpen();
+                tank.receiveOrders(orders);
+            }
+        }
+
+        @Override
+        public Context getContext() {
+            ensureOpen();
+            return context;
+        }
+
+        @Override
+        public void attach(GameAgent agent) {
+            synchronized (world) {
+                ensureOpen();
+                if (this.agent != null)
+                    throw new IllegalStateException("an agent is already attached to this connection");
+
+                this.agent = Objects.requireNonNull(agent);
+                world.agents.add(this);
+            }
+        }
+
+        private void decide() {
+            pendingOrders = agent.decide(context);
+        }
+
+        private void applyOrders() {
+            if (pendingOrders != null && !isClosed())
+                tank.receiveOrders(pendingOrders);
+
+            pendingOrders = null;
+        }
+
+        @Override
+        public void close() {
+            synchronized (world) {
+                tank = null;
+                agent = null;
+                pendingOrders = null;
+                context.close();
+            }
+        }
+
+        @Override
+        public boolean isClosed() {
+            return context.isClosed();
+        }
+
+        private void ensureOpen() {
+            if (context.isClosed())
+                throw new IllegalStateException("connection is already closed");
+        }
+    }
+}
@@ -4,7 +4,7 @@ import java.awt.Graphics;
 import java.awt.Image;
 import java.awt.Rectangle;
 import java.awt.Toolkit;
-import java.util.Random;
+import java.util.concurrent.ThreadLocalRandom;
 
 @SuppressWarnings("InstanceVariableOfConcreteClass")
 public class GetBlood {
@@ -12,7 +12,6 @@ public class GetBlood {
     public static final int width = 34;
     public static final int length = 30;
     public static final int BOUND = 98;
-    private static final Random r = new Random();
     private static final Toolkit tk = Toolkit.getDefaultToolkit();
     private static final Image[] bloodImages;
 
@@ -23,13 +22,13 @@ public class GetBlood {
 
     private final int[][] position = {{700, 196}, {500, 58}, {80, 300},
             {600, 321}, {345, 456}, {123, 321}, {258, 413}};
-    TankClient tc;
+    GameSimulation world;
     int step;
     private int x, y;
     private boolean live;
 
     public void draw(final Graphics g) {
-        if (r.nextInt(100) > BOUND) {
+        if (ThreadLocalRandom.current().nextInt(100) > BOUND) {
             this.live = true;
             move();
         }
@@ -48,6 +47,14 @@ public class GetBlood {
         y = position[step][1];
     }
 
+    int getX() {
+        return x;
+    }
+
+    int getY() {
+        return y;
+    }
+
     public Rectangle getRect() {
         return new Rectangle(x, y, width, length);
     }
@@ -1,7 +1,5 @@
 package com.jsoftware95.jpanzer.game;
 
-import java.awt.Color;
-import java.awt.Font;
 import java.awt.Graphics;
 import java.awt.Image;
 import java.awt.Rectangle;
@@ -9,7 +7,6 @@ import java.awt.Toolkit;
 
 @SuppressWarnings({"InstanceVariableOfConcreteClass", "MethodParameterOfConcreteClass"})
 public class Home {
-    public static final int FONT_SIZE = 40;
     public static final int width = 43, length = 43;
     private static final Toolkit tk = Toolkit.getDefaultToolkit();
     private static Image[] homeImages;
@@ -20,32 +17,31 @@ public class Home {
     }
 
     private final int x, y;
-    private final TankClient tc;
+    private final GameSimulation world;
     private boolean live = true;
 
-    public Home(final int x, final int y, final TankClient tc) {
+    public Home(final int x, final int y, final GameSimulation world) {
         this.x = x;
         this.y = y;
-        this.tc = tc;
+        this.world = world;
     }
 
-    public void gameOver(final Graphics g) {
-
-        tc.tanks.clear();
-        tc.metalWall.clear();
-        tc.otherWall.clear();
-        tc.bombTanks.clear();
-        tc.theRiver.clear();
-        tc.trees.clear();
-        tc.bullets.clear();
-        tc.homeTank.setLive(false);
-        final Color color = g.getColor();
-        g.setColor(Color.green);
-        final Font font = g.getFont();
-        g.setFont(new Font(" ", Font.PLAIN, FONT_SIZE));
-        g.setFont(font);
-        g.setColor(color);
+    void update() {
+        if (!live)
+            gameOver();
+    }
 
+    public void gameOver() {
+
+        world.tanks.clear();
+        world.metalWall.clear();
+        world.otherWall.clear();
+        world.bombTanks.clear();
+        world.theRiver.clear();
+        world.trees.clear();
+        world.bullets.clear();
+        world.homeTank.setLive(false);
+        world.mapChanged();
     }
 
     public void draw(final Graphics g) {
@@ -53,13 +49,10 @@ public class Home {
         if (live) {
             g.drawImage(homeImages[0], x, y, null);
 
-            for (int i = 0; i < tc.homeWall.size(); i++) {
-                final CommonWall w = tc.homeWall.get(i);
+            for (int i = 0; i < world.homeWall.size(); i++) {
+                final CommonWall w = world.homeWall.get(i);
                 w.draw(g);
             }
-        } else {
-            gameOver(g);
-
         }
     }
 
@@ -71,6 +64,14 @@ public class Home {
         this.live = live;
     }
 
+    int getX() {
+        return x;
+    }
+
+    int getY() {
+        return y;
+    }
+
     public Rectangle getRect() {
         return new Rectangle(x, y, width, length);
     }
@@ -30,14 +30,14 @@ public class River {
                 data[0], data[0]};
     }
 
-    TankClient tc;
+    GameSimulation world;
     private int x, y;
     private volatile int currentTime;
 
-    public River(final int x, final int y, final TankClient tc) {
+    public River(final int x, final int y, final GameSimulation world) {
         this.x = x;
         this.y = y;
-        this.tc = tc;
+        this.world = world;
     }
 
     public static int getRiverWidth() {
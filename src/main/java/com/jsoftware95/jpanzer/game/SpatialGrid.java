@@ -0,0 +1,203 @@
+package com.jsoftware95.jpanzer.game;
+
+import java.util.Arrays;
+
+/**
+ * A uniform grid broadphase: every item is bucketed (by its integer id) in all the cells its bounds overlap, so a
+ * query only visits the items stored in the cells overlapped by the query area.
+ * <p>
+ * Queries only return candidates, the exact (narrow-phase) intersection test is left to the caller. Two rectangles
+ * that intersect in the {@link Aabb#intersects} sense always share at least one cell, items out of the
+ * grid bounds are stored in the nearest border cells.
+ */
+final class SpatialGrid {
+
+    private final int cellSize;
+    private final int columns;
+    private final int rows;
+    private final int[][] cells;
+    private final int[] cellsSizes;
+
+    // bounds (in cells) of every inserted item, indexed by id, minColumn is -1 for absent items
+    private int[] minColumns = new int[0];
+    private int[] minRows = new int[0];
+    private int[] maxColumns = new int[0];
+    private int[] maxRows = new int[0];
+
+    private int[] stamps = new int[0];
+    private int stamp;
+
+    private int[] result = new int[16];
+    private int resultSize;
+
+    /**
+     * @param width    the width of the covered area
+     * @param height   the height of the covered area
+     * @param cellSize the width and height of each cell
+     */
+    SpatialGrid(final int width, final int height, final int cellSize) {
+        if (width <= 0 || height <= 0 || cellSize <= 0)
+            throw new IllegalArgumentException("invalid grid dimensions: " + width + "x" + height + " / " + cellSize);
+
+        this.cellSize = cellSize;
+        this.columns = (width + cellSize - 1) / cellSize;
+        this.rows = (height + cellSize - 1) / cellSize;
+        this.cells = new int[columns * rows][];
+        this.cellsSizes = new int[columns * rows];
+    }
+
+    /**
+     * Adds an item to this grid, or moves it if it's already inserted.
+     */
+    void insert(final int id, final int x, final int y, final int width, final int height) {
+        if (id < 0)
+            throw new IllegalArgumentException("negative id: " + id);
+
+        ensureCapacity(id + 1);
+        if (minColumns[id] >= 0)
+            remove(id);
+
+        final int minColumn = column(x);
+        final int minRow = row(y);
+        final int maxColumn = width > 0 ? column(x + (width - 1)) : minColumn;
+        final int maxRow = height > 0 ? row(y + (height - 1)) : minRow;
+
+        minColumns[id] = minColumn;
+        minRows[id] = minRow;
+        maxColumns[id] = maxColumn;
+        maxRows[id] = maxRow;
+
+        for (int row = minRow; row <= maxRow; row++)
+            for (int column = minColumn; column <= maxColumn; column++)
+                add(row * columns + column, id);
+    }
+
+    /**
+     * Removes an item from this grid (does nothing if it's not inserted).
+     */
+    void remove(final int id) {
+        if (id < 0 || id >= minColumns.length || minColumns[id] < 0)
+            return;
+
+        for (int row = minRows[id]; row <= maxRows[id]; row++)
+            for (int column = minColumns[id]; column <= maxColumns[id]; column++)
+                delete(row * columns + column, id);
+
+        minColumns[id] = -1;
+    }
+
+    /**
+     * Removes all the items from this grid.
+     */
+    void clear() {
+        Arrays.fill(cellsSizes, 0);
+        Arrays.fill(minColumns, -1);
+    }
+
+    /**
+     * Finds the items stored in the cells overlapped by the given area, the found ids can be read using
+     * {@link #getResult(int)} (in ascending order) until the next query.
+     *
+     * @return the count of found items
+     */
+    int query(final int x, final int y, final int width, final int height) {
+        resultSize = 0;
+        if (++stamp == 0) {
+            Arrays.fill(stamps, 0);
+            stamp = 1;
+        }
+
+        final int minColumn = column(x);
+        final int minRow = row(y);
+        final int maxColumn = width > 0 ? column(x + (width - 1)) : minColumn;
+        final int maxRow = height > 0 ? row(y + (height - 1)) : minRow;
+
+        for (int row = minRow; row <= maxRow; row++)
+            for (int column = minColumn; column <= maxColumn; column++) {
+                final int cell = row * columns + column;
+                final int[] ids = cells[cell];
+                for (int i = 0; i < cellsSizes[cell]; i++) {
+                    final int id = ids[i];
+                    if (stamps[id] != stamp) {
+                        stamps[id] = stamp;
+                        addResult(id);
+                    }
+                }
+            }
+
+        return resultSize;
+    }
+
+    /**
+     * @return the count of items found by the last query
+     */
+    int getResultsCount() {
+        return resultSize;
+    }
+
+    int getResult(final int index) {
+        if (index < 0 || index >= resultSize)
+            throw new IndexOutOfBoundsException("index: " + index + ", size: " + resultSize);
+        return result[index];
+    }
+
+    /* keeps the result sorted so callers see the items in the same order as their lists (results are small) */
+    private void addResult(final int id) {
+        if (resultSize == result.length)
+            result = Arrays.copyOf(result, resultSize * 2);
+
+        int i = resultSize++;
+        while (i > 0 && result[i - 1] > id) {
+            result[i] = result[i - 1];
+            i--;
+        }
+        result[i] = id;
+    }
+
+    private void add(final int cell, final int id) {
+        int[] ids = cells[cell];
+        if (ids == null)
+            ids = cells[cell] = new int[4];
+        else if (cellsSizes[cell] == ids.length)
+            ids = cells[cell] = Arrays.copyOf(ids, ids.length * 2);
+
+        ids[cellsSizes[cell]++] = id;
+    }
+
+    private void delete(final int cell, final int id) {
+        final int[] ids = cells[cell];
+        final int size = cellsSizes[cell];
+        for (int i = 0; i < size; i++)
+            if (ids[i] == id) {
+                ids[i] = ids[size - 1];
+                cellsSizes[cell] = size - 1;
+                return;
+            }
+    }
+
+    private void ensureCapacity(final int capacity) {
+        final int oldCapacity = minColumns.length;
+        if (capacity <= oldCapacity)
+            return;
+
+        final int newCapacity = Math.max(capacity, oldCapacity * 2);
+        minColumns = Arrays.copyOf(minColumns, newCapacity);
+        Arrays.fill(minColumns, oldCapacity, newCapacity, -1);
+        minRows = Arrays.copyOf(minRows, newCapacity);
+        maxColumns = Arrays.copyOf(maxColumns, newCapacity);
+        maxRows = Arrays.copyOf(maxRows, newCapacity);
+        stamps = Arrays.copyOf(stamps, newCapacity);
+    }
+
+    private int column(final int x) {
+        return clamp(Math.floorDiv(x, cellSize), columns);
+    }
+
+    private int row(final int y) {
+        return clamp(Math.floorDiv(y, cellSize), rows);
+    }
+
+    private static int clamp(final int index, final int count) {
+        return index < 0 ? 0 : index >= count ? count - 1 : index;
+    }
+}
@@ -6,8 +6,8 @@ import java.awt.Image;
 import java.awt.Rectangle;
 import java.awt.Toolkit;
 import java.awt.event.KeyEvent;
-import java.awt.geom.Line2D;
-import java.util.Random;
+import java.util.SplittableRandom;
+import java.util.concurrent.ThreadLocalRandom;
 
 @SuppressWarnings("ALL")
 public class Tank {
@@ -15,7 +15,6 @@ public class Tank {
     public static final int INIT_LIFE = 150;
     public static final int width = 35, length = 35;
     public static final int RELOAD_TIME = 100;
-    private static final Random r = new Random();
     private static final Toolkit tk = Toolkit.getDefaultToolkit();
     private static final Image[] tankImags;
     public static int speedX = 6, speedY = 6;
@@ -42,21 +41,24 @@ public class Tank {
 
     private final boolean good;
     public volatile int score;
-    TankClient tc;
+    GameSimulation world;
     private boolean blockedBefore;
     private volatile Direction direction = Direction.STOP;
     private volatile Direction Kdirection = Direction.U;
     private int player;
+    private int id = -1;
     private int x, y;
     private int oldX, oldY;
     private boolean live = true;
     private int life = INIT_LIFE;
     private int rate = 1;
-    private int step = r.nextInt(10) + 5;
+    private int step = ThreadLocalRandom.current().nextInt(10) + 5;
     private volatile boolean bL, bU, bR, bD;
     private long lastReloadTime = -1;
     private int lastPositionX = -1;
     private int lastPositionY = -1;
+    private boolean aiming;
+    private float aimX1, aimY1, aimX2, aimY2;
 
     public Tank(final int x, final int y, final boolean good) {
 
@@ -75,11 +77,13 @@ public class Tank {
         this.good = good;
     }
 
-    public Tank(final int x, final int y, final boolean good, final Direction dir, final TankClient tc, final int player) {
+    public Tank(final int x, final int y, final boolean good, final Direction dir, final GameSimulation world, final int player) {
         this(x, y, good);
         this.direction = dir;
-        this.tc = tc;
+        this.world = world;
         this.player = player;
+        this.id = world.nextTankId();
+        this.step = world.getRandom().nextInt(10) + 5;
         if (player == 1)
             Kdirection = Direction.U;
 
@@ -88,15 +92,9 @@ public class Tank {
 
     }
 
-    public void draw(final Graphics g) {
-        if (!live) {
-            if (!good) {
-                tc.tanks.remove(this);
-            }
+    void update() {
+        if (!live)
             return;
-        }
-        //if (good)
-        //new DrawBloodbBar().draw(g);
 
         if (lastPositionX < 0)
             lastPositionX = x;
@@ -105,7 +103,7 @@ public class Tank {
             lastPositionY = y;
 
         int movedY = y - lastPositionY;
-        int diff = Math.abs(tc.homeTank.y - tc.homeTank2.y);
+        int diff = Math.abs(world.homeTank.y - world.homeTank2.y);
         if (diff < 200)
             diff = 0;
         else if (diff < 400)
@@ -113,25 +111,25 @@ public class Tank {
         else
             diff = 6;
 
-        if (this == tc.homeTank) {
-            if (tc.homeTank.y > tc.homeTank2.y) {
+        if (this == world.homeTank) {
+            if (world.homeTank.y > world.homeTank2.y) {
                 if (movedY > 0)
                     score -= movedY * diff;
                 else
                     score += Math.abs(movedY) * (blockedBefore ? 3 : 1);
-            } else if (tc.homeTank.y < tc.homeTank2.y) {
+            } else if (world.homeTank.y < world.homeTank2.y) {
                 if (movedY > 0)
                     score += movedY * (blockedBefore ? 3 : 1);
                 else
                     score -= Math.abs(movedY) * diff;
             }
-        } else if (this == tc.homeTank2) {
-            if (tc.homeTank2.y > tc.homeTank.y) {
+        } else if (this == world.homeTank2) {
+            if (world.homeTank2.y > world.homeTank.y) {
                 if (movedY > 0)
                     score -= movedY * diff;
                 else
                     score += Math.abs(movedY) * (blockedBefore ? 3 : 1);
-            } else if (tc.homeTank2.y < tc.homeTank.y) {
+            } else if (world.homeTank2.y < world.homeTank.y) {
                 if (movedY > 0)
                     score += movedY * (blockedBefore ? 3 : 1);
                 else
@@ -142,12 +140,21 @@ public class Tank {
         lastPositionX = x;
         lastPositionY = y;
 
+        move();
+    }
+
+    public void draw(final Graphics g) {
+        if (!live)
+            return;
+        //if (good)
+        //new DrawBloodbBar().draw(g);
+
         switch (Kdirection) {
 
             case D:
                 if (player == 1) {
                     g.drawImage(tankImags[4], x, y, null);
-                } else if (tc.Player2 && player == 2) {
+                } else if (world.Player2 && player == 2) {
                     g.drawImage(tankImags[8], x, y, null);
                 } else {
                     g.drawImage(tankImags[0], x, y, null);
@@ -157,7 +164,7 @@ public class Tank {
             case U:
                 if (player == 1) {
                     g.drawImage(tankImags[5], x, y, null);
-                } else if (tc.Player2 && player == 2) {
+                } else if (world.Player2 && player == 2) {
                     g.drawImage(tankImags[9], x, y, null);
                 } else {
                     g.drawImage(tankImags[1], x, y, null);
@@ -166,7 +173,7 @@ public class Tank {
             case L:
                 if (player == 1) {
                     g.drawImage(tankImags[6], x, y, null);
-                } else if (tc.Player2 && player == 2) {
+                } else if (world.Player2 && player == 2) {
                     g.drawImage(tankImags[10], x, y, null);
                 } else {
                     g.drawImage(tankImags[2], x, y, null);
@@ -176,7 +183,7 @@ public class Tank {
             case R:
                 if (player == 1) {
                     g.drawImage(tankImags[7], x, y, null);
-                } else if (tc.Player2 && player == 2) {
+                } else if (world.Player2 && player == 2) {
                     g.drawImage(tankImags[11], x, y, null);
                 } else {
                     g.drawImage(tankImags[3], x, y, null);
@@ -184,120 +191,108 @@ public class Tank {
                 break;
 
         }
-
-        move();
     }
 
-    public void drawAimLine(final Graphics g) {
+    void updateAimLine() {
         if (!live) {
-            if (!good) {
-                tc.tanks.remove(this);
-            }
+            aiming = false;
             return;
         }
 
-        Line2D line = null;
         switch (Kdirection) {
             case D:
-                line = getAimlineToDown();
+                aimDown();
                 break;
             case U:
-                line = getAimlineToUp();
+                aimUp();
                 break;
             case L:
-                line = getAimlineToLeft();
+                aimLeft();
                 break;
             case R:
-                line = getAimlineToRight();
+                aimRight();
                 break;
+            default:
+                aiming = false;
         }
+    }
+
+    public void drawAimLine(final Graphics g) {
+        if (!live)
+            return;
 
-        if (line != null && isLoaded()) {
+        if (aiming && isLoaded()) {
             Color oldColor = g.getColor();
             g.setColor(AIMING_LINE_COLOR);
-            g.drawLine((int) line.getX1(), (int) line.getY1(), (int) line.getX2(), (int) line.getY2());
+            g.drawLine((int) aimX1, (int) aimY1, (int) aimX2, (int) aimY2);
             g.setColor(oldColor);
         }
     }
 
-    private Line2D getAimlineToRight() {
+    private void aimRight() {
         final int gunX = x + length;
         final int gunY = y + width / 2;
-        Line2D line = new Line2D.Float(gunX, gunY, gunX + TankClient.Fram_width, gunY);
+        setAimLine(gunX, gunY, gunX + TankClient.Fram_width, gunY);
 
-        if (this != tc.homeTank) {
-            if (tc.homeTank.isLive() && line.intersects(tc.homeTank.getRect())) {
-                tc.homeTank2.score++;
-                line.setLine(line.getX1(), line.getY1(), tc.homeTank.x + Tank.length / 2, line.getY2());
-            }
-        } else {
-            if (tc.homeTank2.isLive() && line.intersects(tc.homeTank2.getRect())) {
-                tc.homeTank.score++;
-                line.setLine(line.getX1(), line.getY1(), tc.homeTank2.x + Tank.length / 2, line.getY2());
-            }
-        }
-
-        return line;
+        final Tank target = getAimTarget();
+        if (isAimingAt(target))
+            aimX2 = target.x + Tank.length / 2;
     }
 
-    private Line2D getAimlineToLeft() {
+    private void aimLeft() {
         final int gunX = x;
         final int gunY = y + width / 2;
-        Line2D line = new Line2D.Float(gunX, gunY, gunX - TankClient.Fram_width, gunY);
+        setAimLine(gunX, gunY, gunX - TankClient.Fram_width, gunY);
 
-        if (this != tc.homeTank) {
-            if (tc.homeTank.isLive() && line.intersects(tc.homeTank.getRect())) {
-                tc.homeTank2.score++;
-                line.setLine(line.getX1(), line.getY1(), tc.homeTank.x + Tank.length / 2, line.getY2());
-            }
-        } else {
-            if (tc.homeTank2.isLive() && line.intersects(tc.homeTank2.getRect())) {
-                tc.homeTank.score++;
-                line.setLine(line.getX1(), line.getY1(), tc.homeTank2.x + Tank.length / 2, line.getY2());
-            }
-        }
-
-        return line;
+        final Tank target = getAimTarget();
+        if (isAimingAt(target))
+            aimX2 = target.x + Tank.length / 2;
     }
 
-    private Line2D getAimlineToUp() {
+    private void aimUp() {
         final int gunX = x + width / 2;
         final int gunY = y;
-        Line2D line = new Line2D.Float(gunX, gunY, gunX, gunY - TankClient.Fram_length);
+        setAimLine(gunX, gunY, gunX, gunY - TankClient.Fram_length);
 
-        if (this != tc.homeTank) {
-            if (tc.homeTank.isLive() && line.intersects(tc.homeTank.getRect())) {
-                tc.homeTank2.score++;
-                line.setLine(line.getX1(), line.getY1(), line.getX2(), tc.homeTank.y + Tank.length / 2);
-            }
-        } else {
-            if (tc.homeTank2.isLive() && line.intersects(tc.homeTank2.getRect())) {
-                tc.homeTank.score++;
-                line.setLine(line.getX1(), line.getY1(), line.getX2(), tc.homeTank2.y + Tank.length / 2);
-            }
-        }
-
-        return line;
+        final Tank target = getAimTarget();
+        if (isAimingAt(target))
+            aimY2 = target.y + Tank.length / 2;
     }
 
-    private Line2D getAimlineToDown() {
+    private void aimDown() {
         final int gunX = x + width / 2;
         final int gunY = y + length;
-        Line2D line = new Line2D.Float(gunX, gunY, gunX, gunY + TankClient.Fram_length);
+        setAimLine(gunX, gunY, gunX, gunY + TankClient.Fram_length);
 
-        if (this != tc.homeTank) {
-            if (tc.homeTank.isLive() && line.intersects(tc.homeTank.getRect())) {
-                tc.homeTank2.score++;
-                line.setLine(line.getX1(), line.getY1(), line.getX2(), tc.homeTank.y + Tank.length / 2);
-            }
-        } else {
-            if (tc.homeTank2.isLive() && line.intersects(tc.homeTank2.getRect())) {
-                tc.homeTank.score++;
-                line.setLine(line.getX1(), line.getY1(), line.getX2(), tc.homeTank2.y + Tank.length / 2);
-            }
-        }
+        final Tank target = getAimTarget();
+        if (isAimingAt(target))
+            aimY2 = target.y + Tank.length / 2;
+    }
+
+    private void setAimLine(final float x1, final float y1, final float x2, final float y2) {
+        aiming = true;
+        aimX1 = x1;
+        aimY1 = y1;
+        aimX2 = x2;
+        aimY2 = y2;
+    }
 
-        return line;
+    private Tank getAimTarget() {
+        return this != world.homeTank ? world.homeTank : world.homeTank2;
+    }
+
+    /*
+     * aiming at a live target gives a point to the player who isn't the target
+     */
+    private boolean isAimingAt(final Tank target) {
+        if (target.isLive() && Aabb.intersectsSegment(target.x, target.y, width, length, aimX1, aimY1, aimX2, aimY2)) {
+            if (target == world.homeTank)
+                world.homeTank2.score++;
+            else
+                world.homeTank.score++;
+            return true;
+        }
+        return false;
     }
 
     void move() {
@@ -352,18 +347,19 @@ public class Tank {
 
         if (!good) {
             final Direction[] directons = Direction.values();
+            final SplittableRandom random = world.getRandom();
             if (step == 0) {
-                step = r.nextInt(12) + 3;
-                final int mod = r.nextInt(9);
+                step = random.nextInt(12) + 3;
+                final int mod = random.nextInt(9);
                 if (playertankaround()) {
-                    if (x == tc.homeTank.x) {
-                        if (y > tc.homeTank.y) direction = directons[1];
-                        else if (y < tc.homeTank.y) direction = directons[3];
-                    } else if (y == tc.homeTank.y) {
-                        if (x > tc.homeTank.x) direction = directons[0];
-                        else if (x < tc.homeTank.x) direction = directons[2];
+                    if (x == world.homeTank.x) {
+                        if (y > world.homeTank.y) direction = directons[1];
+                        else if (y < world.homeTank.y) direction = directons[3];
+                    } else if (y == world.homeTank.y) {
+                        if (x > world.homeTank.x) direction = directons[0];
+                        else if (x < world.homeTank.x) direction = directons[2];
                     } else {
-                        final int rn = r.nextInt(directons.length);
+                        final int rn = random.nextInt(directons.length);
                         direction = directons[rn];
                     }
                     rate = 2;
@@ -372,16 +368,16 @@ public class Tank {
                 } else if (1 < mod && mod <= 3) {
                     rate = 1;
                 } else {
-                    final int rn = r.nextInt(directons.length);
+                    final int rn = random.nextInt(directons.length);
                     direction = directons[rn];
                     rate = 1;
                 }
             }
             step--;
             if (rate == 2) {
-                if (r.nextInt(40) > 35)
+                if (random.nextInt(40) > 35)
                     this.fire();
-            } else if (r.nextInt(40) > 38)
+            } else if (random.nextInt(40) > 38)
                 this.fire();
         }
     }
@@ -390,8 +386,7 @@ public class Tank {
         int rx = x - 15, ry = y - 15;
         if ((x - 15) < 0) rx = 0;
         if ((y - 15) < 0) ry = 0;
-        final Rectangle a = new Rectangle(rx, ry, 60, 60);
-        if (this.live && a.intersects(tc.homeTank.getRect())) {
+        if (this.live && Aabb.intersects(rx, ry, 60, 60, world.homeTank.x, world.homeTank.y, width, length)) {
             return true;
         }
         return false;
@@ -442,36 +437,6 @@ public class Tank {
         final int key = e.getKeyCode();
         if (player == 1) {
             switch (key) {
-                case KeyEvent.VK_R:
-                    tc.tanks.clear();
-                    tc.bullets.clear();
-                    tc.trees.clear();
-                    tc.otherWall.clear();
-                    tc.homeWall.clear();
-                    tc.metalWall.clear();
-                    tc.homeTank.setLive(false);
-                    if (tc.tanks.size() == 0) {
-                        for (int i = 0; i < 20; i++) {
-                            if (i < 9)
-                                tc.tanks.add(new Tank(150 + 70 * i, 40, false,
-                                        Direction.R, tc, 0));
-                            else if (i < 15)
-                                tc.tanks.add(new Tank(700, 140 + 50 * (i - 6), false,
-                                        Direction.D, tc, 0));
-                            else
-                                tc.tanks.add(new Tank(10, 50 * (i - 12), false,
-                                        Direction.L, tc, 0));
-                        }
-                    }
-
-                    tc.homeTank = new Tank(300, 560, true, Direction.STOP, tc, 0);
-                    if (!tc.home.isLive())
-                        tc.home.setLive(true);
-                    final TankClient abc = new TankClient(tc.getTitle(), tc.isManualControls());
-                    if (tc.isVisible())
-                        abc.showClient();
-                    if (tc.Player2) abc.Player2 = true;
-                    break;
                 case KeyEvent.VK_D:
                     bR = true;
                     break;
@@ -586,25 +551,50 @@ public class Tank {
     }
 
     public boolean isLoaded() {
-        return tc.currentTime >= lastReloadTime;
+        return world.currentTime >= lastReloadTime;
     }
 
-    public Bullets fire() {
+    /**
+     * @return the id of the fired bullet, or {@code -1} if this tank can't fire now
+     */
+    public int fire() {
         if (!live || !isLoaded())
-            return null;
+            return -1;
         final int x = this.x + Tank.width / 2 - Bullets.width / 2;
         final int y = this.y + Tank.length / 2 - Bullets.length / 2;
-        final Bullets m = new Bullets(x, y + 2, good, Kdirection, this.tc, this);
-        tc.bullets.add(m);
-        lastReloadTime = tc.currentTime + RELOAD_TIME;
+        final int bullet = world.bullets.add(x, y + 2, Kdirection, id);
+        lastReloadTime = world.currentTime + RELOAD_TIME;
         score--;
-        return m;
+        return bullet;
+    }
+
+    /**
+     * @return the id of this tank (unique in its world), or {@code -1} for a tank without a world
+     */
+    public int getId() {
+        return id;
     }
 
     public Rectangle getRect() {
         return new Rectangle(x, y, width, length);
     }
 
+    /*
+     * a collision moves this tank back to its previous position (oldX, oldY) so a tank can be anywhere between the two
+     * positions until its next move
+     */
+    int getOldX() {
+        return oldX;
+    }
+
+    int getOldY() {
+        return oldY;
+    }
+
+    private boolean intersects(final int x, final int y, final int width, final int length) {
+        return Aabb.intersects(this.x, this.y, Tank.width, Tank.length, x, y, width, length);
+    }
+
     public boolean isLive() {
         return live;
     }
@@ -618,7 +608,7 @@ public class Tank {
     }
 
     public boolean collideWithWall(final CommonWall w) {
-        if (this.live && this.getRect().intersects(w.getRect())) {
+        if (this.live && intersects(w.getX(), w.getY(), CommonWall.width, CommonWall.length)) {
             this.changToOldDir();
             return true;
         }
@@ -626,7 +616,7 @@ public class Tank {
     }
 
     public boolean collideWithWall(final MetalWall w) {
-        if (this.live && this.getRect().intersects(w.getRect())) {
+        if (this.live && intersects(w.getX(), w.getY(), MetalWall.width, MetalWall.length)) {
             this.changToOldDir();
             return true;
         }
@@ -634,7 +624,7 @@ public class Tank {
     }
 
     public boolean collideRiver(final River r) {
-        if (this.live && this.getRect().intersects(r.getRect())) {
+        if (this.live && intersects(r.getX(), r.getY(), River.riverWidth, River.riverLength)) {
             this.changToOldDir();
             return true;
         }
@@ -642,7 +632,7 @@ public class Tank {
     }
 
     public boolean collideHome(final Home h) {
-        if (this.live && this.getRect().intersects(h.getRect())) {
+        if (this.live && intersects(h.getX(), h.getY(), Home.width, Home.length)) {
             this.changToOldDir();
             return true;
         }
@@ -654,7 +644,7 @@ public class Tank {
             final Tank t = tanks.get(i);
             if (this != t) {
                 if (this.live && t.isLive()
-                        && this.getRect().intersects(t.getRect())) {
+                        && intersects(t.x, t.y, width, length)) {
                     this.changToOldDir();
                     t.changToOldDir();
                     return true;
@@ -665,7 +655,7 @@ public class Tank {
     }
 
     public boolean collideWithPlayer(Tank tank) {
-        if (this != tank && live && tank.live && this.getRect().intersects(tank.getRect())) {
+        if (this != tank && live && tank.live && intersects(tank.x, tank.y, width, length)) {
             this.changToOldDir();
             tank.changToOldDir();
             return true;
@@ -682,7 +672,7 @@ public class Tank {
     }
 
     public boolean eat(final GetBlood b) {
-        if (this.live && b.isLive() && this.getRect().intersects(b.getRect())) {
+        if (this.live && b.isLive() && intersects(b.getX(), b.getY(), GetBlood.width, GetBlood.length)) {
             if (this.life <= 100)
                 this.life = this.life + 100;
             else
@@ -21,9 +21,6 @@ import java.awt.event.KeyAdapter;
 import java.awt.event.KeyEvent;
 import java.awt.event.WindowAdapter;
 import java.awt.event.WindowEvent;
-import java.util.ArrayList;
-import java.util.LinkedList;
-import java.util.List;
 import java.util.Objects;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
@@ -42,8 +39,8 @@ public class TankClient extends Frame implements ActionListener {
      *
      */
     private static final long serialVersionUID = 1L;
-    private static int MAX_TIME = 300;
     private final ExecutorService threadPool = Executors.newCachedThreadPool();
+    private final GameSimulation simulation;
     public boolean printable = true;
     MenuBar jmb;
     Menu jm1, jm2, jm3, jm4, jm5;
@@ -51,47 +48,18 @@ public class TankClient extends Frame implements ActionListener {
             jmi6, jmi7, jmi8, jmi9, jmi10, jmi11;
     Image screenImage;
 
-    double initY1;
-    double initY2;
-    boolean normalOrReverse = true;
-    Tank homeTank;
-    Tank homeTank2;
-    Boolean Player2 = true;
-    GetBlood blood = new GetBlood();
-    Home home = new Home(-100, -100, this);
-    Boolean win = false, lose = false;
-    boolean roundEnded, p1Won, p2Won;
-    List<River> theRiver = new ArrayList<River>();
-    List<Tank> tanks = new ArrayList<Tank>();
-    List<BombTank> bombTanks = new ArrayList<BombTank>();
-    List<Bullets> bullets = new ArrayList<Bullets>();
-    List<Tree> trees = new ArrayList<Tree>();
-    List<CommonWall> homeWall = new ArrayList<CommonWall>();
-    List<CommonWall> otherWall = new ArrayList<CommonWall>();
-    List<MetalWall> metalWall = new ArrayList<MetalWall>();
-    volatile int currentTime;
-    List<GameListener> gameListeners = new LinkedList<>();
-    List<ScoreListener> scoreListeners = new LinkedList<>();
-    private boolean manualControls;
-    private long upTime;
-
-    {
-        int length = Math.max(Tank.length, Tank.width);
-
-        initY1 = 3 * length + (Fram_length - 5 * length) * Math.random();
-        initY2 = 3 * length + (Fram_length - 5 * length) * Math.random();
-
-        while (Math.abs(initY1 - initY2) < (2 * length))
-            initY2 = 3 * length + (Fram_length - 5 * length) * Math.random();
-
-        homeTank = new Tank(normalOrReverse ? 150 : Fram_width - 150, (int) initY1, true, Direction.STOP, this, 1);
-        homeTank2 = new Tank(normalOrReverse ? Fram_width - 150 : 150, (int) initY2, true, Direction.STOP, this, 2);
+    public TankClient(String title, boolean manualControls) {
+        this(new GameSimulation(title, manualControls));
     }
 
-    public TankClient(String title, boolean manualControls) {
-        super(title);
-        upTime = System.nanoTime();
-        this.manualControls = manualControls;
+    /**
+     * Creates a window that renders the given simulation and steps it once per painted frame.
+     *
+     * @param simulation the world to show, the window is closed when its round ends
+     */
+    public TankClient(GameSimulation simulation) {
+        super(simulation.getName());
+        this.simulation = Objects.requireNonNull(simulation);
         // printable = false;
 
         setAutoRequestFocus(false);
@@ -227,8 +195,6 @@ public class TankClient extends Frame implements ActionListener {
         }
         */
 
-        theRiver.add(new River((Fram_width - River.riverWidth) / 2, 0, this));
-
         this.setSize(Fram_width, Fram_length);
         this.setLocation(280, 50);
 
@@ -241,9 +207,11 @@ public class TankClient extends Frame implements ActionListener {
         this.setBackground(Color.GRAY);
         this.setVisible(true);
 
-        if (manualControls)
+        if (simulation.isManualControls())
             this.addKeyListener(new KeyMonitor());
 
+        simulation.addListener((p1Won, p2Won) -> close());
+
         log.debug("starting game: " + getTitle());
         printable = true;
         threadPool.execute(new PaintTask(this));
@@ -253,16 +221,20 @@ public class TankClient extends Frame implements ActionListener {
         setVisible(true);
     }
 
+    public GameSimulation getSimulation() {
+        return simulation;
+    }
+
     public GameClientConnection getConnectionToTank1() {
-        return new TankConnection(this, homeTank, homeTank2);
+        return simulation.getConnectionToTank1();
     }
 
     public GameClientConnection getConnectionToTank2() {
-        return new TankConnection(this, homeTank2, homeTank);
+        return simulation.getConnectionToTank2();
     }
 
     public boolean isManualControls() {
-        return manualControls;
+        return simulation.isManualControls();
     }
 
     public void update(Graphics g) {
@@ -288,6 +260,12 @@ public class TankClient extends Frame implements ActionListener {
     }
 
     public void framPaint(Graphics g) {
+        synchronized (simulation) {
+            paintWorld(g);
+        }
+    }
+
+    private void paintWorld(Graphics g) {
 
         Graphics2D g2 = (Graphics2D) g;
         RenderingHints rh = new RenderingHints(
@@ -295,243 +273,115 @@ public class TankClient extends Frame implements ActionListener {
                 RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
         g2.setRenderingHints(rh);
 
+        final GameSimulation world = simulation;
+        final Tank homeTank = world.homeTank;
+        final Tank homeTank2 = world.homeTank2;
+        final boolean Player2 = world.Player2;
+
         Color c = g.getColor();
         Font f1 = g.getFont();
         g.setColor(Color.BLACK);
         g.setFont(new Font("Times New Roman", Font.BOLD, 20));
 
-        for (int i = 0; i < theRiver.size(); i++) {
-            River r = theRiver.get(i);
+        for (int i = 0; i < world.theRiver.size(); i++) {
+            River r = world.theRiver.get(i);
             r.draw(g);
         }
 
-        for (int i = 0; i < theRiver.size(); i++) {
-            River r = theRiver.get(i);
-            homeTank.collideRiver(r);
-            if (Player2) homeTank2.collideRiver(r);
-            r.draw(g);
-        }
-
-        home.draw(g);
+        world.home.draw(g);
 
         homeTank.drawAimLine(g);
         if (Player2)
             homeTank2.drawAimLine(g);
 
         homeTank.draw(g);
-        homeTank.eat(blood);
-        if (Player2) {
+        if (Player2)
             homeTank2.draw(g);
-            homeTank2.eat(blood);
-        }
-
-        bullets.removeIf(Objects::isNull);
-
-        for (int i = 0; i < bullets.size(); i++) {
-            Bullets m = bullets.get(i);
-            m.hitTanks(tanks);
-            m.hitTank(homeTank);
-            m.hitTank(homeTank2);
-            m.hitHome();
-            for (int j = 0; j < bullets.size(); j++) {
-                if (i == j) continue;
-                Bullets bts = bullets.get(j);
-                m.hitBullet(bts);
-            }
-            for (int j = 0; j < metalWall.size(); j++) {
-                MetalWall mw = metalWall.get(j);
-                m.hitWall(mw);
-            }
-
-            for (int j = 0; j < otherWall.size(); j++) {
-                CommonWall w = otherWall.get(j);
-                m.hitWall(w);
-            }
-
-            for (int j = 0; j < homeWall.size(); j++) {
-                CommonWall cw = homeWall.get(j);
-                m.hitWall(cw);
-            }
-            m.draw(g);
-        }
 
-        for (int i = 0; i < tanks.size(); i++) {
-            Tank t = tanks.get(i);
-
-            for (int j = 0; j < homeWall.size(); j++) {
-                CommonWall cw = homeWall.get(j);
-                t.collideWithWall(cw);
-                cw.draw(g);
-            }
-            for (int j = 0; j < otherWall.size(); j++) {
-                CommonWall cw = otherWall.get(j);
-                t.collideWithWall(cw);
-                cw.draw(g);
-            }
-            for (int j = 0; j < metalWall.size(); j++) {
-                MetalWall mw = metalWall.get(j);
-                t.collideWithWall(mw);
-                mw.draw(g);
-            }
-            for (int j = 0; j < theRiver.size(); j++) {
-                River r = theRiver.get(j);
-                t.collideRiver(r);
-                r.draw(g);
-                // t.draw(g);
-            }
-
-            t.collideWithTanks(tanks);
-            t.collideHome(home);
+        for (int i = 0; i < world.bullets.size(); i++)
+            Bullets.draw(g, world.bullets, i);
 
+        for (int i = 0; i < world.tanks.size(); i++) {
+            Tank t = world.tanks.get(i);
             t.draw(g);
         }
 
         //blood.draw(g);
 
-        for (int i = 0; i < trees.size(); i++) {
-            Tree tr = trees.get(i);
+        for (int i = 0; i < world.trees.size(); i++) {
+            Tree tr = world.trees.get(i);
             tr.draw(g);
         }
 
-        for (int i = 0; i < bombTanks.size(); i++) {
-            BombTank bt = bombTanks.get(i);
+        for (int i = 0; i < world.bombTanks.size(); i++) {
+            BombTank bt = world.bombTanks.get(i);
             bt.draw(g);
         }
 
-        for (int i = 0; i < otherWall.size(); i++) {
-            CommonWall cw = otherWall.get(i);
+        for (int i = 0; i < world.homeWall.size(); i++) {
+            CommonWall cw = world.homeWall.get(i);
             cw.draw(g);
         }
 
-        for (int i = 0; i < metalWall.size(); i++) {
-            MetalWall mw = metalWall.get(i);
-            mw.draw(g);
-        }
-
-        homeTank.collideWithTanks(tanks);
-        homeTank.collideHome(home);
-        if (Player2) {
-            homeTank2.collideWithTanks(tanks);
-            homeTank2.collideHome(home);
-            homeTank2.collideWithPlayer(homeTank);
-            homeTank.collideWithPlayer(homeTank2);
-        }
-
-        for (int i = 0; i < metalWall.size(); i++) {
-            MetalWall w = metalWall.get(i);
-            homeTank.collideWithWall(w);
-            if (Player2) homeTank2.collideWithWall(w);
-            w.draw(g);
-        }
-
-        for (int i = 0; i < otherWall.size(); i++) {
-            CommonWall cw = otherWall.get(i);
-            homeTank.collideWithWall(cw);
-            if (Player2) homeTank2.collideWithWall(cw);
+        for (int i = 0; i < world.otherWall.size(); i++) {
+            CommonWall cw = world.otherWall.get(i);
             cw.draw(g);
         }
 
-        for (int i = 0; i < homeWall.size(); i++) {
-            CommonWall w = homeWall.get(i);
-            homeTank.collideWithWall(w);
-            if (Player2) homeTank2.collideWithWall(w);
-            w.draw(g);
+        for (int i = 0; i < world.metalWall.size(); i++) {
+            MetalWall mw = world.metalWall.get(i);
+            mw.draw(g);
         }
 
         if (!Player2) g.drawString("" + homeTank.getLife(), 650, 70);
         else g.drawString("Player1: " + homeTank.getLife() + "    Player2: " + homeTank2.getLife(), 550, 70);
         g.setFont(f1);
         if (!Player2) {
-            if (tanks.size() == 0 && home.isLive() && homeTank.isLive() && lose == false) {
+            if (world.win) {
                 Font f = g.getFont();
                 g.setFont(new Font("Times New Roman", Font.BOLD, 60));
-                this.otherWall.clear();
                 g.drawString("Congratulations! ", 200, 300);
                 g.setFont(f);
-                win = true;
             }
 
-            if (homeTank.isLive() == false && win == false) {
+            if (world.lose) {
                 Font f = g.getFont();
                 g.setFont(new Font("Times New Roman", Font.BOLD, 40));
-                tanks.clear();
-                bullets.clear();
                 g.drawString("Sorry. You lose!", 200, 300);
-                lose = true;
                 g.setFont(f);
             }
-        } else {
-            if (!roundEnded) {
-                if (homeTank.isLive() && !homeTank2.isLive()) {
-                    p1Won = true;
-                    endRound();
-                }
-
-                if (homeTank2.isLive() && !homeTank.isLive()) {
-                    p2Won = true;
-                    endRound();
-                }
+        } else if (!world.isRoundEnded()) {
+            if (!world.isManualControls())
+                g.drawString(String.format("%.2f", (GameSimulation.MAX_TIME - world.currentTime) / 50.0d), 8, 60);
 
-                if (!manualControls)
-                    if (currentTime > MAX_TIME) {
-                        g.setFont(new Font("Times New Roman", Font.BOLD, 30));
-                        String text = "Time out!";
-                        int width = g.getFontMetrics().stringWidth(text);
-                        g.drawString(text, (Fram_width - width) / 2, Fram_length / 2);
-                        endRound();
-                    } else
-                        g.drawString(String.format("%.2f", (MAX_TIME - currentTime) / 50.0d), 8, 60);
-
-                g.drawString("p1 score: " + homeTank.getScore(homeTank2), 100, 60);
-                g.drawString("p2 score: " + homeTank2.getScore(homeTank), 200, 60);
-            }
+            g.drawString("p1 score: " + world.getPlayer1Score(), 100, 60);
+            g.drawString("p2 score: " + world.getPlayer2Score(), 200, 60);
         }
         g.setColor(c);
         g.setFont(f1);
     }
 
-    private void endRound() {
-        roundEnded = true;
+    /* called once the simulated round ended */
+    private void close() {
         printable = false;
         threadPool.shutdownNow();
         dispose();
-
-        int score1 = this.homeTank.getScore(this.homeTank2);
-        int score2 = this.homeTank2.getScore(this.homeTank);
-
-        log.debug("round ended: " + this.getTitle() +
-                " (took " + getCurrentDurration() + ") " +
-                (this.p1Won ? "player1 won " : "") +
-                (this.p2Won ? "player2 won " : "") +
-                "p1 score: " + score1 + ", p2 score: " + score2);
-
-        for (GameListener listener : this.gameListeners) {
-            listener.roundEnded(this.p1Won, this.p2Won);
-        }
-
-        this.gameListeners.clear();
-
-        for (ScoreListener listener : this.scoreListeners) {
-            listener.roundEndedWithScore(score1, score2);
-        }
-
-        this.scoreListeners.clear();
     }
 
     public void addListener(GameListener listener) {
-        gameListeners.add(listener);
+        simulation.addListener(listener);
     }
 
     public void removeListener(GameListener listener) {
-        gameListeners.remove(listener);
+        simulation.removeListener(listener);
     }
 
     public void addScoreListener(ScoreListener listener) {
-        scoreListeners.add(listener);
+        simulation.addScoreListener(listener);
     }
 
     public void removeScoreListener(ScoreListener listener) {
-        scoreListeners.remove(listener);
+        simulation.removeScoreListener(listener);
     }
 
     public void actionPerformed(ActionEvent e) {
@@ -546,7 +396,7 @@ public class TankClient extends Frame implements ActionListener {
 
                 printable = true;
                 this.dispose();
-                TankClient game = new TankClient(getTitle(), manualControls);
+                TankClient game = new TankClient(getTitle(), isManualControls());
                 if (isVisible())
                     game.showClient();
             } else {
@@ -585,10 +435,10 @@ public class TankClient extends Frame implements ActionListener {
             if (response == 0) {
                 printable = true;
                 this.dispose();
-                TankClient Player2add = new TankClient(getTitle(), manualControls);
+                TankClient Player2add = new TankClient(getTitle(), isManualControls());
                 if (isVisible())
                     Player2add.showClient();
-                Player2add.Player2 = true;
+                Player2add.simulation.Player2 = true;
             } else {
                 printable = true;
                 threadPool.execute(new PaintTask(this));
@@ -607,7 +457,7 @@ public class TankClient extends Frame implements ActionListener {
             Bullets.speedX = 10;
             Bullets.speedY = 10;
             this.dispose();
-            TankClient game = new TankClient(getTitle(), manualControls);
+            TankClient game = new TankClient(getTitle(), isManualControls());
             if (isVisible())
                 game.showClient();
         } else if (e.getActionCommand().equals("level2")) {
@@ -617,7 +467,7 @@ public class TankClient extends Frame implements ActionListener {
             Bullets.speedX = 12;
             Bullets.speedY = 12;
             this.dispose();
-            TankClient game = new TankClient(getTitle(), manualControls);
+            TankClient game = new TankClient(getTitle(), isManualControls());
             if (isVisible())
                 game.showClient();
 
@@ -628,7 +478,7 @@ public class TankClient extends Frame implements ActionListener {
             Bullets.speedX = 16;
             Bullets.speedY = 16;
             this.dispose();
-            TankClient game = new TankClient(getTitle(), manualControls);
+            TankClient game = new TankClient(getTitle(), isManualControls());
             if (isVisible())
                 game.showClient();
         } else if (e.getActionCommand().equals("level4")) {
@@ -638,7 +488,7 @@ public class TankClient extends Frame implements ActionListener {
             Bullets.speedX = 18;
             Bullets.speedY = 18;
             this.dispose();
-            TankClient game = new TankClient(getTitle(), manualControls);
+            TankClient game = new TankClient(getTitle(), isManualControls());
             if (isVisible())
                 game.showClient();
         } else if (e.getActionCommand().equals("Join")) {
@@ -651,47 +501,7 @@ public class TankClient extends Frame implements ActionListener {
     }
 
     public String getCurrentDurration() {
-        long duration = System.nanoTime() - upTime;
-        return String.format("%.2f sec", duration / 1_000_000_000.0);
-    }
-
-    private static final class TankConnection implements GameClientConnection {
-
-        private Tank tank;
-        private Context context;
-
-        private TankConnection(TankClient tankClient, Tank tank, Tank enemy) {
-            this.tank = Objects.requireNonNull(tank);
-            context = new Context(tankClient, tank, enemy);
-        }
-
-        @Override
-        public void sendOrders(Orders orders) {
-            ensureOpen();
-            tank.receiveOrders(orders);
-        }
-
-        @Override
-        public Context getContext() {
-            ensureOpen();
-            return context;
-        }
-
-        @Override
-        public void close() {
-            tank = null;
-            context.close();
-        }
-
-        @Override
-        public boolean isClosed() {
-            return context.isClosed();
-        }
-
-        private void ensureOpen() {
-            if (context.isClosed())
-                throw new IllegalStateException("connection is already closed");
-        }
+        return simulation.getCurrentDurration();
     }
 
     private static final class PaintTask implements Runnable {
@@ -708,8 +518,9 @@ public class TankClient extends Frame implements ActionListener {
                 throw new IllegalStateException("paint task have been already run");
 
             alreadyRun = true;
-            while (parent.printable && !Thread.interrupted()) {
-                parent.currentTime++;
+            final GameSimulation simulation = parent.simulation;
+            while (parent.printable && !simulation.isRoundEnded() && !Thread.interrupted()) {
+                simulation.step();
                 parent.repaint();
                 try {
                     Thread.sleep(20);
@@ -718,8 +529,8 @@ public class TankClient extends Frame implements ActionListener {
                 }
             }
 
-            if (!parent.roundEnded)
-                parent.endRound();
+            if (!simulation.isRoundEnded())
+                simulation.endRound();
 
             parent = null;
         }
@@ -730,18 +541,36 @@ public class TankClient extends Frame implements ActionListener {
 
         public void keyReleased(KeyEvent e) {
             if (isManualControls()) {
-                homeTank.keyReleased(e);
-                homeTank2.keyReleased(e);
+                synchronized (simulation) {
+                    simulation.homeTank.keyReleased(e);
+                    simulation.homeTank2.keyReleased(e);
+                }
             }
         }
 
         public void keyPressed(KeyEvent e) {
             if (isManualControls()) {
-                homeTank.keyPressed(e);
-                homeTank2.keyPressed(e);
+                if (e.getKeyCode() == KeyEvent.VK_R) {
+                    restart();
+                    return;
+                }
+
+                synchronized (simulation) {
+                    simulation.homeTank.keyPressed(e);
+                    simulation.homeTank2.keyPressed(e);
+                }
             }
         }
 
+        private void restart() {
+            final boolean player2 = simulation.Player2;
+            simulation.endRound();
+            final TankClient game = new TankClient(getTitle(), isManualControls());
+            if (isVisible())
+                game.showClient();
+            game.simulation.Player2 = player2;
+        }
+
     }
 
 }
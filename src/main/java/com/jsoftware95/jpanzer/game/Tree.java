@@ -18,12 +18,12 @@ public class Tree {
     }
 
     int x, y;
-    TankClient tc;
+    GameSimulation world;
 
-    public Tree(final int x, final int y, final TankClient tc) {
+    public Tree(final int x, final int y, final GameSimulation world) {
         this.x = x;
         this.y = y;
-        this.tc = tc;
+        this.world = world;
     }
 
     public void draw(final Graphics g) {
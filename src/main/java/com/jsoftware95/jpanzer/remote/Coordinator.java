@@ -0,0 +1,325 @@
+/*
+ * Copyright 2017-2018 Youcef DEBBAH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.jsoftware95.jpanzer.remote;
+
+import com.jsoftware95.janns.EnumNeuralNetwork;
+import com.jsoftware95.janns.evolution.FitnessEvaluator;
+import com.jsoftware95.jpanzer.agents.Inputs;
+import com.jsoftware95.jpanzer.agents.Outputs;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketException;
+import java.net.SocketTimeoutException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.BlockingDeque;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Spreads fitness evaluations over remote {@link Worker}s: the candidates of an evaluation are split in small tasks put
+ * in a shared queue, and each connected worker takes the next task as soon as it's done with the previous one (so fast
+ * workers do more of the work). If a worker dies (or its connection breaks) its current task goes back to the head of
+ * the queue and is taken by another worker. A worker that doesn't answer a task before its deadline (its host lost
+ * power, the network is partitioned...) is considered dead too, the deadline of a task grows with its size (see
+ * {@link #setTaskTimeout(long)} and {@link #setRoundTimeout(long)}).
+ * <p>
+ * Workers can connect and leave at any time, an evaluation waits until all its tasks are done (possibly forever if no
+ * worker connects). Instances of this class are thread-safe.
+ */
+public class Coordinator implements Closeable {
+
+    private static final Logger log = LogManager.getLogger(Coordinator.class);
+
+    private final ServerSocket serverSocket;
+    private final BlockingDeque<Chunk> queue = new LinkedBlockingDeque<>();
+    private final Set<Socket> sockets = ConcurrentHashMap.newKeySet();
+    private final Set<Thread> handlers = ConcurrentHashMap.newKeySet();
+    private final AtomicLong tasksIds = new AtomicLong();
+    private volatile int chunkSize = 4;
+    private volatile long taskTimeout = 30_000;
+    private volatile long roundTimeout = 2_000;
+    private volatile boolean closed;
+
+    /**
+     * Starts listening for workers.
+     *
+     * @param port the port to listen on ({@code 0} for any free port, see {@link #getPort()})
+     *
+     * @throws IOException if the server socket could not be opened
+     */
+    public Coordinator(final int port) throws IOException {
+        serverSocket = new ServerSocket(port);
+        final Thread acceptor = new Thread(this::acceptWorkers, "coordinator-" + getPort());
+        acceptor.setDaemon(true);
+        acceptor.start();
+        log.info("coordinator listening on port: " + getPort());
+    }
+
+    public int getPort() {
+        return serverSocket.getLocalPort();
+    }
+
+    /**
+     * @return the count of the currently connected workers
+     */
+    public int getWorkersCount() {
+        return handlers.size();
+    }
+
+    public int getChunkSize() {
+        return chunkSize;
+    }
+
+    /**
+     * @param chunkSize the maximum count of candidates in a task sent to a worker (4 by default)
+     * @throws IllegalArgumentException if {@code chunkSize} is not positive
+     */
+    public void setChunkSize(final int chunkSize) {
+        if (chunkSize < 1)
+            throw new IllegalArgumentException("chunk size must be positive: " + chunkSize);
+        this.chunkSize = chunkSize;
+    }
+
+    public long getTaskTimeout() {
+        return taskTimeout;
+    }
+
+    /**
+     * @param taskTimeout the time (in milliseconds) given to a worker to answer a task, on top of the time given to
+     *                    each of its rounds (30 seconds by default), also the time given to a new worker to say hello
+     * @throws IllegalArgumentException if {@code taskTimeout} is not positive
+     */
+    public void setTaskTimeout(final long taskTimeout) {
+        if (taskTimeout < 1)
+            throw new IllegalArgumentException("task timeout must be positive: " + taskTimeout);
+        this.taskTimeout = taskTimeout;
+    }
+
+    public long getRoundTimeout() {
+        return roundTimeout;
+    }
+
+    /**
+     * @param roundTimeout the time (in milliseconds) given to a worker for each round of each candidate of a task (2
+     *                     seconds by default)
+     * @throws IllegalArgumentException if {@code roundTimeout} is negative
+     */
+    public void setRoundTimeout(final long roundTimeout) {
+        if (roundTimeout < 0)
+            throw new IllegalArgumentException("round timeout can't be negative: " + roundTimeout);
+        this.roundTimeout = roundTimeout;
+    }
+
+    /*
+     * the deadline of a task is relative to its sending, the rounds of a task may all be played on a single core
+     */
+    private int timeoutOf(final Task task) {
+        final long rounds = (long) task.getRounds() * task.getCandidates().length;
+        final long timeout = taskTimeout + rounds * roundTimeout;
+        return (int) Math.min(Integer.MAX_VALUE, timeout);
+    }
+
+    /**
+     * Computes remotely the fitness of the given candidates: their mean score over {@code rounds} rounds against the
+     * opponent (see {@link RoundsFitness}).
+     *
+     * @param candidates        the parameters of the candidates brains
+     * @param opponent          the parameters of the opponent brain
+     * @param hiddenLayersSizes the hidden layers of all the brains
+     * @param rounds            the count of rounds played by each candidate
+     * @param seed              the seed from which the seed of each round is derived
+     *
+     * @return the fitness of each candidate
+     * @throws InterruptedException  if the calling thread was interrupted while waiting (the tasks that were not sent
+     *                               yet get cancelled)
+     * @throws IllegalStateException if this coordinator is closed
+     */
+    public double[] evaluate(final List<double[]> candidates, final double[] opponent, final int[] hiddenLayersSizes,
+                             final int rounds, final long seed) throws InterruptedException {
+        Objects.requireNonNull(candidates);
+        Objects.requireNonNull(opponent);
+        Objects.requireNonNull(hiddenLayersSizes);
+        if (closed)
+            throw new IllegalStateException("coordinator closed");
+
+        final int count = candidates.size();
+        final int size = chunkSize;
+        final Job job = new Job(count, (count + size - 1) / size);
+        for (int from = 0; from < count; from += size) {
+            final double[][] chunk = candidates.subList(from, Math.min(count, from + size)).toArray(new double[0][]);
+            final Task task = new Task(tasksIds.incrementAndGet(), seed, rounds, hiddenLayersSizes, opponent, chunk);
+            queue.add(new Chunk(job, from, task));
+        }
+
+        try {
+            job.done.await();
+        } catch (InterruptedException e) {
+            queue.removeIf(chunk -> chunk.job == job);
+            throw e;
+        }
+
+        return job.fitness;
+    }
+
+    /**
+     * @return an evaluator of brains parameters against the given opponent (see
+     * {@link #evaluate(List, double[], int[], int, long)}), to be used by a
+     * {@link com.jsoftware95.janns.evolution.GeneticAlgorithm}
+     */
+    public FitnessEvaluator evaluatorAgainst(final EnumNeuralNetwork<Inputs, Outputs> opponent, final int rounds, final long seed) {
+        final double[] opponentParameters = opponent.getParameters();
+        final int[] hiddenLayersSizes = opponent.getHiddenLayersSizes();
+
+        return individuals -> {
+            final List<double[]> candidates = new ArrayList<>(individuals.size());
+            for (int i = 0; i < individuals.size(); i++)
+                candidates.add(individuals.get(i).getParameters());
+
+            final double[] fitness = evaluate(candidates, opponentParameters, hiddenLayersSizes, rounds, seed);
+            for (int i = 0; i < individuals.size(); i++)
+                individuals.get(i).setFitness(fitness[i]);
+        };
+    }
+
+    private void acceptWorkers() {
+        while (!closed) {
+            try {
+                final Socket socket = serverSocket.accept();
+                final Thread handler = new Thread(() -> serve(socket), "coordinator-worker-" + socket.getRemoteSocketAddress());
+                handler.setDaemon(true);
+                handler.start();
+            } catch (IOException e) {
+                if (!closed)
+                    log.error("could not accept a worker", e);
+            }
+        }
+    }
+
+    /*
+     * sends the queued tasks one by one to a worker until the connection breaks or this coordinator is closed
+     */
+    private void serve(final Socket socket) {
+        final Thread handler = Thread.currentThread();
+        sockets.add(socket);
+        handlers.add(handler);
+        try {
+            socket.setTcpNoDelay(true);
+            socket.setKeepAlive(true);
+            socket.setSoTimeout((int) Math.min(Integer.MAX_VALUE, taskTimeout));
+            final DataInputStream input = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+            final DataOutputStream output = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+            Protocol.readHello(input);
+            log.info("worker connected: " + socket.getRemoteSocketAddress());
+
+            while (!closed) {
+                final Chunk chunk;
+                try {
+                    chunk = queue.take();
+                } catch (InterruptedException e) {
+                    Protocol.writeBye(output);
+                    return;
+                }
+
+                final double[] fitness;
+                try {
+                    socket.setSoTimeout(timeoutOf(chunk.task));
+                    Protocol.writeTask(output, chunk.task);
+                    fitness = Protocol.readResult(input, chunk.task);
+                } catch (IOException e) {
+                    queue.addFirst(chunk);
+                    throw e;
+                }
+                chunk.complete(fitness);
+            }
+        } catch (SocketTimeoutException e) {
+            log.warn("worker didn't answer in time: " + socket.getRemoteSocketAddress());
+        } catch (IOException e) {
+            if (!closed)
+                log.warn("worker lost: " + socket.getRemoteSocketAddress() + " (its task was resubmitted)", e);
+        } finally {
+            handlers.remove(handler);
+            sockets.remove(socket);
+            try {
+                socket.close();
+            } catch (IOException e) {
+                log.debug("could not close the connection to: " + socket.getRemoteSocketAddress(), e);
+            }
+        }
+    }
+
+    /**
+     * Stops accepting workers and ends the sessions of the connected ones, the pending evaluations never end.
+     */
+    @Override
+    public void close() throws IOException {
+        closed = true;
+        serverSocket.close();
+        for (final Thread handler : handlers)
+            handler.interrupt();
+        for (final Socket socket : sockets) {
+            try {
+                socket.shutdownInput();
+            } catch (SocketException ignored) {
+                // already closed
+            }
+        }
+    }
+
+    /*
+     * an evaluation waiting for its chunks
+     */
+    private static final class Job {
+        private final double[] fitness;
+        private final CountDownLatch done;
+
+        private Job(final int candidatesCount, final int chunksCount) {
+            fitness = new double[candidatesCount];
+            done = new CountDownLatch(chunksCount);
+        }
+    }
+
+    private static final class Chunk {
+        private final Job job;
+        private final int offset;
+        private final Task task;
+
+        private Chunk(final Job job, final int offset, final Task task) {
+            this.job = job;
+            this.offset = offset;
+            this.task = task;
+        }
+
+        private void complete(final double[] fitness) {
+            System.arraycopy(fitness, 0, job.fitness, offset, fitness.length);
+            job.done.countDown();
+        }
+    }
+}
@@ -0,0 +1,158 @@
+/*
+ * Copyright 2017-2018 Youcef DEBBAH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.jsoftware95.jpanzer.remote;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+
+/**
+ * The binary protocol between a {@link Coordinator} and its {@link Worker}s (big-endian, as written by
+ * {@link DataOutputStream}):
+ * <ul>
+ *     <li>the worker opens the connection and sends: {@code int MAGIC, int VERSION}</li>
+ *     <li>the coordinator sends tasks: {@code byte TASK, long id, long seed, int rounds, int hiddenLayersCount,
+ *     int[hiddenLayersCount] hiddenLayersSizes, int parametersCount, double[parametersCount] opponent,
+ *     int candidatesCount, double[candidatesCount * parametersCount] candidates}</li>
+ *     <li>the worker answers each task with: {@code byte RESULT, long id, int count, double[count] fitness}</li>
+ *     <li>the coordinator ends the session with: {@code byte BYE}</li>
+ * </ul>
+ * A worker handles one task at a time, so the results arrive in the order of the tasks.
+ */
+final class Protocol {
+
+    static final int MAGIC = 0x4A504E5A; // "JPNZ"
+    static final int VERSION = 1;
+
+    static final byte TASK = 1;
+    static final byte RESULT = 2;
+    static final byte BYE = 3;
+
+    // upper bounds of the sizes read from the network (a corrupted stream must not allocate huge arrays)
+    private static final int MAX_LAYERS = 1 << 10;
+    private static final int MAX_LENGTH = 1 << 24;
+
+    private Protocol() {
+    }
+
+    static void writeHello(final DataOutputStream output) throws IOException {
+        output.writeInt(MAGIC);
+        output.writeInt(VERSION);
+        output.flush();
+    }
+
+    /**
+     * @throws IOException if the peer is not a worker of the same protocol version
+     */
+    static void readHello(final DataInputStream input) throws IOException {
+        final int magic = input.readInt();
+        final int version = input.readInt();
+        if (magic != MAGIC || version != VERSION)
+            throw new IOException("unexpected hello: magic: " + Integer.toHexString(magic) + ", version: " + version);
+    }
+
+    static void writeTask(final DataOutputStream output, final Task task) throws IOException {
+        output.writeByte(TASK);
+        output.writeLong(task.getId());
+        output.writeLong(task.getSeed());
+        output.writeInt(task.getRounds());
+
+        output.writeInt(task.getHiddenLayersSizes().length);
+        for (final int size : task.getHiddenLayersSizes())
+            output.writeInt(size);
+
+        output.writeInt(task.getOpponent().length);
+        writeDoubles(output, task.getOpponent());
+        output.writeInt(task.getCandidates().length);
+        for (final double[] candidate : task.getCandidates())
+            writeDoubles(output, candidate);
+
+        output.flush();
+    }
+
+    /*
+     * reads a task after its type byte
+     */
+    static Task readTask(final DataInputStream input) throws IOException {
+        final long id = input.readLong();
+        final long seed = input.readLong();
+        final int rounds = input.readInt();
+
+        final int[] hiddenLayersSizes = new int[checkLength(input.readInt(), MAX_LAYERS)];
+        for (int i = 0; i < hiddenLayersSizes.length; i++)
+            hiddenLayersSizes[i] = input.readInt();
+
+        final double[] opponent = readDoubles(input, checkLength(input.readInt(), MAX_LENGTH));
+        final double[][] candidates = new double[checkLength(input.readInt(), MAX_LENGTH / Math.max(1, opponent.length))][];
+        for (int i = 0; i < candidates.length; i++)
+            candidates[i] = readDoubles(input, opponent.length);
+
+        try {
+            return new Task(id, seed, rounds, hiddenLayersSizes, opponent, candidates);
+        } catch (IllegalArgumentException e) {
+            throw new IOException("invalid task: " + id, e);
+        }
+    }
+
+    static void writeResult(final DataOutputStream output, final long id, final double[] fitness) throws IOException {
+        output.writeByte(RESULT);
+        output.writeLong(id);
+        output.writeInt(fitness.length);
+        writeDoubles(output, fitness);
+        output.flush();
+    }
+
+    /**
+     * @return the fitness of the candidates of the given task
+     * @throws IOException if the next message is not the result of that task
+     */
+    static double[] readResult(final DataInputStream input, final Task task) throws IOException {
+        final byte type = input.readByte();
+        if (type != RESULT)
+            throw new IOException("expected a result, found message type: " + type);
+
+        final long id = input.readLong();
+        final int count = input.readInt();
+        if (id != task.getId() || count != task.getCandidates().length)
+            throw new IOException("unexpected result: " + id + " (" + count + " values) for task: " + task.getId());
+
+        return readDoubles(input, count);
+    }
+
+    static void writeBye(final DataOutputStream output) throws IOException {
+        output.writeByte(BYE);
+        output.flush();
+    }
+
+    private static void writeDoubles(final DataOutputStream output, final double[] values) throws IOException {
+        for (final double value : values)
+            output.writeDouble(value);
+    }
+
+    private static double[] readDoubles(final DataInputStream input, final int length) throws IOException {
+        final double[] values = new double[length];
+        for (int i = 0; i < length; i++)
+            values[i] = input.readDouble();
+        return values;
+    }
+
+    private static int checkLength(final int length, final int max) throws IOException {
+        if (length < 0 || length > max)
+            throw new IOException("invalid length: " + length);
+        return length;
+    }
+}
@@ -0,0 +1,103 @@
+/*
+ * Copyright 2017-2018 Youcef DEBBAH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.jsoftware95.jpanzer.remote;
+
+import com.jsoftware95.janns.EnumNeuralNetwork;
+import com.jsoftware95.jpanzer.agents.EvaluationService;
+import com.jsoftware95.jpanzer.agents.Inputs;
+import com.jsoftware95.jpanzer.agents.Outputs;
+import com.jsoftware95.jpanzer.agents.WorldBatch;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * The fitness computed for a {@link Task}: the mean score of each candidate over the task rounds, all the candidates
+ * playing the same worlds. The result only depends on the task, so it can be computed by any worker (or again after a
+ * worker died).
+ */
+final class RoundsFitness {
+
+    private RoundsFitness() {
+    }
+
+    /**
+     * @param service the service running the rounds (the candidates of each round are split in one batch per thread)
+     *
+     * @return the fitness of each candidate of the task
+     */
+    static double[] evaluate(final EvaluationService service, final Task task) throws InterruptedException, ExecutionException {
+        final int count = task.getCandidates().length;
+        final List<EnumNeuralNetwork<Inputs, Outputs>> candidates = newBrains(task, count);
+        for (int i = 0; i < count; i++)
+            candidates.get(i).setParameters(task.getCandidates()[i], 0);
+
+        final List<EnumNeuralNetwork<Inputs, Outputs>> opponents = newBrains(task, count);
+        for (final EnumNeuralNetwork<Inputs, Outputs> opponent : opponents)
+            opponent.setParameters(task.getOpponent(), 0);
+
+        final double[] sums = new double[count];
+        final SplittableRandom seeds = new SplittableRandom(task.getSeed());
+        for (int round = 0; round < task.getRounds(); round++) {
+            final long roundSeed = seeds.nextLong();
+            final int batchesCount = Math.min(count, service.getParallelism());
+            final List<Callable<int[]>> batches = new ArrayList<>(batchesCount);
+            for (int batch = 0; batch < batchesCount; batch++) {
+                final int from = batch * count / batchesCount;
+                final int to = (batch + 1) * count / batchesCount;
+                final String name = "task " + task.getId() + " round " + (round + 1) + " candidates " + (from + 1) + "-" + to;
+                batches.add(() -> play(name, candidates.subList(from, to), opponents.subList(from, to), roundSeed));
+            }
+
+            int candidate = 0;
+            for (final int[] scores : service.evaluateAll(batches))
+                for (final int score : scores)
+                    sums[candidate++] += score;
+        }
+
+        for (int i = 0; i < count; i++)
+            sums[i] /= task.getRounds();
+        return sums;
+    }
+
+    private static int[] play(final String name, final List<EnumNeuralNetwork<Inputs, Outputs>> brains1,
+                              final List<EnumNeuralNetwork<Inputs, Outputs>> brains2, final long seed) throws InterruptedException {
+        final long[] seeds = new long[brains1.size()];
+        Arrays.fill(seeds, seed);
+
+        final WorldBatch batch = new WorldBatch(name, brains1, brains2, seeds);
+        batch.play();
+        if (Thread.currentThread().isInterrupted())
+            throw new InterruptedException("rounds interrupted: " + name);
+
+        final int[] scores = new int[batch.size()];
+        for (int i = 0; i < scores.length; i++)
+            scores[i] = batch.getPlayer1Score(i);
+        return scores;
+    }
+
+    private static List<EnumNeuralNetwork<Inputs, Outputs>> newBrains(final Task task, final int count) {
+        final EnumNeuralNetwork<Inputs, Outputs> brain = new EnumNeuralNetwork<>(Inputs.values(), Outputs.values());
+        for (final int size : task.getHiddenLayersSizes())
+            brain.addHiddenLayer(size);
+        return brain.massClone(count, null);
+    }
+}
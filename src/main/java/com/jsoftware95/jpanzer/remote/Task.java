@@ -0,0 +1,73 @@
+/*
+ * Copyright 2017-2018 Youcef DEBBAH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.jsoftware95.jpanzer.remote;
+
+import java.util.Objects;
+
+/**
+ * A unit of remote work: the fitness of a few candidates (parameters of brains with the given hidden layers) against
+ * an opponent, each candidate playing the same {@code rounds} worlds derived from {@code seed}.
+ */
+final class Task {
+
+    private final long id;
+    private final long seed;
+    private final int rounds;
+    private final int[] hiddenLayersSizes;
+    private final double[] opponent;
+    private final double[][] candidates;
+
+    Task(final long id, final long seed, final int rounds, final int[] hiddenLayersSizes, final double[] opponent,
+         final double[][] candidates) {
+        if (rounds < 1)
+            throw new IllegalArgumentException("rounds must be positive: " + rounds);
+
+        this.id = id;
+        this.seed = seed;
+        this.rounds = rounds;
+        this.hiddenLayersSizes = Objects.requireNonNull(hiddenLayersSizes);
+        this.opponent = Objects.requireNonNull(opponent);
+        this.candidates = Objects.requireNonNull(candidates);
+        for (final double[] candidate : candidates)
+            if (candidate.length != opponent.length)
+                throw new IllegalArgumentException("expected parameters vectors of length: " + opponent.length + ", found: " + candidate.length);
+    }
+
+    long getId() {
+        return id;
+    }
+
+    long getSeed() {
+        return seed;
+    }
+
+    int getRounds() {
+        return rounds;
+    }
+
+    int[] getHiddenLayersSizes() {
+        return hiddenLayersSizes;
+    }
+
+    double[] getOpponent() {
+        return opponent;
+    }
+
+    double[][] getCandidates() {
+        return candidates;
+    }
+}
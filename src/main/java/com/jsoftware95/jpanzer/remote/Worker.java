@@ -0,0 +1,110 @@
+/*
+ * Copyright 2017-2018 Youcef DEBBAH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.jsoftware95.jpanzer.remote;
+
+import com.jsoftware95.jpanzer.agents.EvaluationService;
+import com.jsoftware95.toolkit.metrics.MetricsReporter;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.net.Socket;
+import java.util.Objects;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * A process that connects to a {@link Coordinator} and computes the fitness of the tasks it receives (using all the
+ * local cores) until the coordinator says bye or closes the connection.
+ */
+public class Worker {
+
+    private static final Logger log = LogManager.getLogger(Worker.class);
+
+    private final String host;
+    private final int port;
+    private final EvaluationService service;
+
+    /**
+     * @param host    the host of the coordinator
+     * @param port    the port of the coordinator
+     * @param service the service running the rounds of the tasks
+     */
+    public Worker(final String host, final int port, final EvaluationService service) {
+        this.host = Objects.requireNonNull(host);
+        this.port = port;
+        this.service = Objects.requireNonNull(service);
+    }
+
+    /**
+     * Usage: {@code Worker <coordinator host> <coordinator port>}
+     */
+    public static void main(final String... args) throws IOException, InterruptedException, ExecutionException {
+        if (args.length != 2)
+            throw new IllegalArgumentException("usage: Worker <coordinator host> <coordinator port>");
+
+        // several workers may run in the same folder, they only log their metrics
+        MetricsReporter.startDefault(null);
+
+        new Worker(args[0], Integer.parseInt(args[1]), EvaluationService.getShared()).run();
+    }
+
+    /**
+     * Connects to the coordinator and handles its tasks until the end of the session.
+     *
+     * @throws IOException          if the connection failed
+     * @throws InterruptedException if the calling thread was interrupted
+     * @throws ExecutionException   if the evaluation of a task failed
+     */
+    public void run() throws IOException, InterruptedException, ExecutionException {
+        try (final Socket socket = new Socket(host, port)) {
+            socket.setTcpNoDelay(true);
+            socket.setKeepAlive(true);
+            final DataInputStream input = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+            final DataOutputStream output = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+            Protocol.writeHello(output);
+            log.info("connected to coordinator: " + host + ":" + port);
+
+            while (true) {
+                final byte type;
+                try {
+                    type = input.readByte();
+                } catch (EOFException e) {
+                    log.info("coordinator closed the connection");
+                    return;
+                }
+
+                if (type == Protocol.BYE) {
+                    log.info("coordinator said bye");
+                    return;
+                }
+                if (type != Protocol.TASK)
+                    throw new IOException("unexpected message type: " + type);
+
+                final Task task = Protocol.readTask(input);
+                final long t0 = System.nanoTime();
+                final double[] fitness = RoundsFitness.evaluate(service, task);
+                Protocol.writeResult(output, task.getId(), fitness);
+                log.debug("task: " + task.getId() + " (" + fitness.length + " candidates) done in: " + (System.nanoTime() - t0) / 1_000_000_000.0 + " sec");
+            }
+        }
+    }
+}
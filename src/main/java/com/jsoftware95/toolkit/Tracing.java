@@ -0,0 +1,70 @@
+/*
+ * Copyright 2017-2018 Youcef DEBBAH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.jsoftware95.toolkit;
+
+import org.apache.logging.log4j.Logger;
+import org.apache.logging.log4j.util.Supplier;
+
+/**
+ * Guards for the trace logs of hot paths (constructors of neurons, connections and layers, inputs setters, agents
+ * decisions...) so they cost nothing while tracing is disabled.
+ * <p>
+ * Tracing is disabled unless the JVM is started with {@code -Dcom.jsoftware95.tracing=true}, in which case the usual
+ * log4j2 level of each logger still applies. As {@link #ENABLED} is a {@code static final} field the JIT compiler
+ * handles it as a constant, so while it's {@code false} the guarded code is removed from the compiled methods: no
+ * message is built, no argument is boxed and the logger is not even asked for its level.
+ * <p>
+ * Example:
+ * <pre><code>
+ *     if (Tracing.isEnabled(log))
+ *         log.trace("{} is set to: {}", property, value);
+ *
+ *     Tracing.trace(log, () -&gt; "received " + immigrants.size() + " immigrants"); // on paths that are not hot
+ * </code></pre>
+ */
+public final class Tracing {
+
+    /**
+     * The system property enabling tracing.
+     */
+    public static final String PROPERTY = "com.jsoftware95.tracing";
+
+    /**
+     * Whether tracing is enabled for this JVM, it can't change after this class is initialized.
+     */
+    public static final boolean ENABLED = Boolean.getBoolean(PROPERTY);
+
+    private Tracing() {
+    }
+
+    /**
+     * @return {@code true} if tracing is enabled for this JVM and the trace level is enabled for the given logger
+     */
+    public static boolean isEnabled(final Logger log) {
+        return ENABLED && log.isTraceEnabled();
+    }
+
+    /**
+     * Logs the supplied message at the trace level if {@link #isEnabled(Logger) enabled}. Note that a lambda capturing
+     * variables is allocated by the caller before this method is called, so hot paths should rather check
+     * {@link #isEnabled(Logger)} themselves.
+     */
+    public static void trace(final Logger log, final Supplier<?> message) {
+        if (isEnabled(log))
+            log.trace(message);
+    }
+}
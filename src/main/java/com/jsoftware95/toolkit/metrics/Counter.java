@@ -0,0 +1,48 @@
+/*
+ * Copyright 2017-2018 Youcef DEBBAH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.jsoftware95.toolkit.metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A monotonic count of events, cheap to update from many threads at once (the count is only summed when read).
+ */
+public final class Counter {
+
+    private final LongAdder count = new LongAdder();
+
+    Counter() {
+    }
+
+    public void increment() {
+        count.increment();
+    }
+
+    /**
+     * @param events the count of events to add
+     * @throws IllegalArgumentException if {@code events} is negative
+     */
+    public void add(final long events) {
+        if (events < 0)
+            throw new IllegalArgumentException("a counter can't decrease: " + events);
+        count.add(events);
+    }
+
+    public long getCount() {
+        return count.sum();
+    }
+}
@@ -0,0 +1,172 @@
+/*
+ * Copyright 2017-2018 Youcef DEBBAH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.jsoftware95.toolkit.metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Records durations (in nanoseconds) in a log-linear histogram, the same layout as HdrHistogram: values below
+ * {@value #SUB_BUCKETS} have their own bucket and every power of two above is split into {@value #SUB_BUCKETS} linear
+ * buckets, so any recorded value is known with a relative error below {@code 1 / }{@value #SUB_BUCKETS} whatever its
+ * magnitude. Recording is lock-free and doesn't allocate.
+ */
+public final class LatencyRecorder {
+
+    static final int SUB_BUCKETS = 64;
+    private static final int SUB_BUCKETS_BITS = 6;
+    private static final int BUCKETS_COUNT = SUB_BUCKETS + (63 - SUB_BUCKETS_BITS) * SUB_BUCKETS;
+
+    private final AtomicLongArray buckets = new AtomicLongArray(BUCKETS_COUNT);
+    private final LongAdder count = new LongAdder();
+    private final LongAdder total = new LongAdder();
+    private final AtomicLong max = new AtomicLong();
+
+    LatencyRecorder() {
+    }
+
+    /**
+     * @param nanos a duration in nanoseconds (negative durations, which can't be measured, are recorded as zero)
+     */
+    public void record(final long nanos) {
+        final long value = Math.max(0, nanos);
+        buckets.incrementAndGet(indexOf(value));
+        count.increment();
+        total.add(value);
+        if (value > max.get())
+            max.accumulateAndGet(value, Math::max);
+    }
+
+    /**
+     * Records the time elapsed since the given {@link System#nanoTime()}.
+     */
+    public void recordSince(final long startNanos) {
+        record(System.nanoTime() - startNanos);
+    }
+
+    /**
+     * @return the recorded values so far (values recorded concurrently may be partially included)
+     */
+    public Snapshot snapshot() {
+        final long[] counts = new long[BUCKETS_COUNT];
+        for (int i = 0; i < BUCKETS_COUNT; i++)
+            counts[i] = buckets.get(i);
+        return new Snapshot(counts, count.sum(), total.sum(), max.get());
+    }
+
+    static int indexOf(final long value) {
+        if (value < SUB_BUCKETS)
+            return (int) value;
+
+        final int magnitude = 63 - Long.numberOfLeadingZeros(value);
+        final int shift = magnitude - SUB_BUCKETS_BITS;
+        final int subBucket = (int) (value >>> shift) - SUB_BUCKETS;
+        return SUB_BUCKETS + shift * SUB_BUCKETS + subBucket;
+    }
+
+    /* the highest value that falls in the bucket of the given index */
+    static long highestValueOf(final int index) {
+        if (index < SUB_BUCKETS)
+            return index;
+
+        final int shift = (index - SUB_BUCKETS) / SUB_BUCKETS;
+        final long subBucket = (index - SUB_BUCKETS) % SUB_BUCKETS;
+        final long lowest = (SUB_BUCKETS + subBucket) << shift;
+        return lowest + (1L << shift) - 1;
+    }
+
+    /**
+     * An immutable copy of the values of a recorder.
+     */
+    public static final class Snapshot {
+
+        private final long[] counts;
+        private final long count;
+        private final long total;
+        private final long max;
+
+        private Snapshot(final long[] counts, final long count, final long total, final long max) {
+            this.counts = counts;
+            this.count = count;
+            this.total = total;
+            this.max = max;
+        }
+
+        /**
+         * @return the values recorded after the given (older) snapshot of the same recorder was taken, the maximum is
+         * the highest value of the non empty buckets (bounded by the maximum of this snapshot)
+         */
+        public Snapshot since(final Snapshot older) {
+            final long[] interval = new long[counts.length];
+            int highest = -1;
+            for (int i = 0; i < counts.length; i++) {
+                interval[i] = Math.max(0, counts[i] - older.counts[i]);
+                if (interval[i] > 0)
+                    highest = i;
+            }
+
+            final long intervalMax = highest < 0 ? 0 : Math.min(max, highestValueOf(highest));
+            return new Snapshot(interval, Math.max(0, count - older.count), Math.max(0, total - older.total), intervalMax);
+        }
+
+        public long getCount() {
+            return count;
+        }
+
+        public long getTotal() {
+            return total;
+        }
+
+        public long getMax() {
+            return max;
+        }
+
+        /**
+         * @return the mean of the recorded values, or {@code 0} if there is none
+         */
+        public double getMean() {
+            return count == 0 ? 0 : (double) total / count;
+        }
+
+        /**
+         * @param percentile in [0, 100]
+         * @return the value below which the given percentage of the recorded values are (within the precision of the
+         * histogram), or {@code 0} if there is none
+         * @throws IllegalArgumentException if the percentile is out of range
+         */
+        public long getPercentile(final double percentile) {
+            if (!(percentile >= 0 && percentile <= 100))
+                throw new IllegalArgumentException("percentile must be in [0, 100]: " + percentile);
+
+            long recorded = 0;
+            for (final long bucketCount : counts)
+                recorded += bucketCount;
+            if (recorded == 0)
+                return 0;
+
+            final long rank = Math.max(1, (long) Math.ceil(percentile / 100 * recorded));
+            long seen = 0;
+            for (int i = 0; i < counts.length; i++) {
+                seen += counts[i];
+                if (seen >= rank)
+                    return Math.min(max, highestValueOf(i));
+            }
+            return max;
+        }
+    }
+}
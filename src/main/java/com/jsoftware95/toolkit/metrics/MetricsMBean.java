@@ -0,0 +1,139 @@
+/*
+ * Copyright 2017-2018 Youcef DEBBAH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.jsoftware95.toolkit.metrics;
+
+import javax.management.Attribute;
+import javax.management.AttributeList;
+import javax.management.AttributeNotFoundException;
+import javax.management.DynamicMBean;
+import javax.management.MBeanAttributeInfo;
+import javax.management.MBeanInfo;
+import javax.management.MBeanOperationInfo;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * A read only view of a registry for JMX, its attributes follow the metrics of the registry (metrics created after the
+ * registration show up the next time the MBean info is read):
+ * <ul>
+ * <li>a counter {@code name} is the attribute {@code name.count}</li>
+ * <li>a latency recorder {@code name} is the attributes {@code name.count}, {@code name.mean}, {@code name.p50},
+ * {@code name.p90}, {@code name.p99} and {@code name.max} (cumulative, in nanoseconds)</li>
+ * <li>a gauge {@code name} is the attribute {@code name}</li>
+ * </ul>
+ */
+final class MetricsMBean implements DynamicMBean {
+
+    private static final String[] LATENCY_ATTRIBUTES = {"count", "mean", "p50", "p90", "p99", "max"};
+
+    private final MetricsRegistry registry;
+
+    MetricsMBean(final MetricsRegistry registry) {
+        this.registry = Objects.requireNonNull(registry);
+    }
+
+    @Override
+    public Object getAttribute(final String attribute) throws AttributeNotFoundException {
+        Objects.requireNonNull(attribute);
+
+        final Gauge gauge = registry.getGauges().get(attribute);
+        if (gauge != null)
+            return gauge.getValue();
+
+        final int dot = attribute.lastIndexOf('.');
+        if (dot > 0) {
+            final String metric = attribute.substring(0, dot);
+            final String field = attribute.substring(dot + 1);
+
+            final Counter counter = registry.getCounters().get(metric);
+            if (counter != null && field.equals("count"))
+                return counter.getCount();
+
+            final LatencyRecorder latency = registry.getLatencies().get(metric);
+            if (latency != null) {
+                final LatencyRecorder.Snapshot snapshot = latency.snapshot();
+                switch (field) {
+                    case "count":
+                        return snapshot.getCount();
+                    case "mean":
+                        return snapshot.getMean();
+                    case "p50":
+                        return snapshot.getPercentile(50);
+                    case "p90":
+                        return snapshot.getPercentile(90);
+                    case "p99":
+                        return snapshot.getPercentile(99);
+                    case "max":
+                        return snapshot.getMax();
+                }
+            }
+        }
+
+        throw new AttributeNotFoundException("no such metric: " + attribute);
+    }
+
+    @Override
+    public AttributeList getAttributes(final String[] attributes) {
+        final AttributeList list = new AttributeList();
+        for (final String attribute : attributes)
+            try {
+                list.add(new Attribute(attribute, getAttribute(attribute)));
+            } catch (AttributeNotFoundException e) {
+                // missing attributes are left out, as specified by DynamicMBean
+            }
+        return list;
+    }
+
+    @Override
+    public void setAttribute(final Attribute attribute) throws AttributeNotFoundException {
+        throw new AttributeNotFoundException("metrics are read only: " + attribute.getName());
+    }
+
+    @Override
+    public AttributeList setAttributes(final AttributeList attributes) {
+        return new AttributeList();
+    }
+
+    @Override
+    public Object invoke(final String actionName, final Object[] params, final String[] signature) {
+        throw new UnsupportedOperationException("no operations: " + actionName);
+    }
+
+    @Override
+    public MBeanInfo getMBeanInfo() {
+        final List<MBeanAttributeInfo> attributes = new ArrayList<>();
+        for (final String name : registry.getCounters().keySet())
+            attributes.add(attribute(name + ".count", Long.class, "count of " + name));
+
+        for (final String name : registry.getLatencies().keySet())
+            for (final String field : LATENCY_ATTRIBUTES)
+                attributes.add(attribute(name + "." + field, field.equals("mean") ? Double.class : Long.class,
+                        field + " of " + name + (field.equals("count") ? "" : " (ns)")));
+
+        for (final Map.Entry<String, Gauge> gauge : registry.getGauges().entrySet())
+            attributes.add(attribute(gauge.getKey(), Long.class, "current value of " + gauge.getKey()));
+
+        return new MBeanInfo(getClass().getName(), "metrics registry",
+                attributes.toArray(new MBeanAttributeInfo[0]), null, new MBeanOperationInfo[0], null);
+    }
+
+    private static MBeanAttributeInfo attribute(final String name, final Class<?> type, final String description) {
+        return new MBeanAttributeInfo(name, type.getName(), description, true, false, false);
+    }
+}
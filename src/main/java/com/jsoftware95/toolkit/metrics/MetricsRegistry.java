@@ -0,0 +1,146 @@
+/*
+ * Copyright 2017-2018 Youcef DEBBAH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.jsoftware95.toolkit.metrics;
+
+import javax.management.InstanceAlreadyExistsException;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.Map;
+import java.util.Objects;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The named metrics of an application. A metric is created by the first call asking for its name, then the same
+ * instance is returned for that name, so the hot paths should keep their metrics in (static) fields instead of looking
+ * them up each time.
+ * <p>
+ * Example:
+ * <pre><code>
+ *     private static final LatencyRecorder WRITE_TIME = MetricsRegistry.getDefault().latency("archive.write");
+ *
+ *     final long t0 = System.nanoTime();
+ *     write();
+ *     WRITE_TIME.recordSince(t0);
+ * </code></pre>
+ */
+public final class MetricsRegistry {
+
+    /**
+     * The name of the MBean of the default registry (see {@link #registerMBean(String)}).
+     */
+    public static final String DEFAULT_MBEAN_NAME = "com.jsoftware95:type=Metrics";
+
+    private static final MetricsRegistry DEFAULT = new MetricsRegistry();
+
+    private final Map<String, Counter> counters = new ConcurrentHashMap<>();
+    private final Map<String, LatencyRecorder> latencies = new ConcurrentHashMap<>();
+    private final Map<String, Gauge> gauges = new ConcurrentHashMap<>();
+
+    /**
+     * @return the registry shared by the whole JVM, where the library and the game record their metrics
+     */
+    public static MetricsRegistry getDefault() {
+        return DEFAULT;
+    }
+
+    /**
+     * @throws IllegalArgumentException if the name is already used by a metric of another kind
+     */
+    public Counter counter(final String name) {
+        checkUnused(name, counters);
+        return counters.computeIfAbsent(name, key -> new Counter());
+    }
+
+    /**
+     * @throws IllegalArgumentException if the name is already used by a metric of another kind
+     */
+    public LatencyRecorder latency(final String name) {
+        checkUnused(name, latencies);
+        return latencies.computeIfAbsent(name, key -> new LatencyRecorder());
+    }
+
+    /**
+     * Registers a gauge, replacing the gauge previously registered with the same name (if any).
+     *
+     * @throws IllegalArgumentException if the name is already used by a metric of another kind
+     */
+    public void gauge(final String name, final Gauge gauge) {
+        Objects.requireNonNull(gauge);
+        checkUnused(name, gauges);
+        gauges.put(name, gauge);
+    }
+
+    private void checkUnused(final String name, final Map<String, ?> kind) {
+        Objects.requireNonNull(name);
+        if ((kind != counters && counters.containsKey(name)) || (kind != latencies && latencies.containsKey(name))
+                || (kind != gauges && gauges.containsKey(name)))
+            throw new IllegalArgumentException("metric name already used by another kind of metric: " + name);
+    }
+
+    /**
+     * @return the counters of this registry sorted by name
+     */
+    public SortedMap<String, Counter> getCounters() {
+        return new TreeMap<>(counters);
+    }
+
+    /**
+     * @return the latency recorders of this registry sorted by name
+     */
+    public SortedMap<String, LatencyRecorder> getLatencies() {
+        return new TreeMap<>(latencies);
+    }
+
+    /**
+     * @return the gauges of this registry sorted by name
+     */
+    public SortedMap<String, Gauge> getGauges() {
+        return new TreeMap<>(gauges);
+    }
+
+    /**
+     * Exposes the metrics of this registry as the attributes of an MBean of the platform MBean server (e.g. to be read
+     * with JConsole), registering the same name again has no effect.
+     *
+     * @param name the object name of the MBean
+     * @return the object name of the registered MBean
+     * @throws IllegalArgumentException if the name is not a valid object name
+     * @throws IllegalStateException    if the MBean could not be registered
+     */
+    public ObjectName registerMBean(final String name) {
+        final ObjectName objectName;
+        try {
+            objectName = new ObjectName(name);
+        } catch (JMException e) {
+            throw new IllegalArgumentException("invalid MBean name: " + name, e);
+        }
+
+        final MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        try {
+            server.registerMBean(new MetricsMBean(this), objectName);
+        } catch (InstanceAlreadyExistsException e) {
+            // already registered
+        } catch (JMException e) {
+            throw new IllegalStateException("could not register the metrics MBean: " + name, e);
+        }
+        return objectName;
+    }
+}
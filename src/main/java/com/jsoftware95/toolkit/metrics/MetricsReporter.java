@@ -0,0 +1,201 @@
+/*
+ * Copyright 2017-2018 Youcef DEBBAH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.jsoftware95.toolkit.metrics;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Periodically reports the metrics of a registry to the logs (at the info level) and optionally to a CSV file, each
+ * report covers the interval since the previous one: the rates are per second and the latencies percentiles (in
+ * nanoseconds) are the ones of the values recorded during the interval.
+ * <p>
+ * The CSV file has one row per metric and report, with the columns:
+ * {@code time,metric,total,interval,per_second,mean_ns,p50_ns,p90_ns,p99_ns,max_ns}, where {@code total} is the count
+ * of a counter or a recorder (or the value of a gauge) and {@code interval} its increase since the previous report.
+ */
+public final class MetricsReporter implements Closeable {
+
+    private static final Logger log = LogManager.getLogger(MetricsReporter.class);
+    private static final String CSV_HEADER = "time,metric,total,interval,per_second,mean_ns,p50_ns,p90_ns,p99_ns,max_ns";
+
+    private final MetricsRegistry registry;
+    private final BufferedWriter csv;
+    private final Map<String, Long> previousCounts = new HashMap<>();
+    private final Map<String, LatencyRecorder.Snapshot> previousSnapshots = new HashMap<>();
+    private long previousTime = System.nanoTime();
+    private ScheduledExecutorService scheduler;
+    private boolean closed;
+
+    /**
+     * @param registry the reported registry
+     * @param csvFile  the CSV file the reports are appended to (created if missing), or {@code null} to only log them
+     * @throws IOException if the CSV file can't be opened
+     */
+    public MetricsReporter(final MetricsRegistry registry, final Path csvFile) throws IOException {
+        this.registry = Objects.requireNonNull(registry);
+        if (csvFile == null) {
+            csv = null;
+        } else {
+            final boolean newFile = !Files.exists(csvFile) || Files.size(csvFile) == 0;
+            csv = Files.newBufferedWriter(csvFile, StandardCharsets.UTF_8, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+            if (newFile) {
+                csv.write(CSV_HEADER);
+                csv.newLine();
+                csv.flush();
+            }
+        }
+    }
+
+    /**
+     * Exposes the {@link MetricsRegistry#getDefault() default registry} through JMX (as
+     * {@value MetricsRegistry#DEFAULT_MBEAN_NAME}) and reports it every minute, this is what the long running processes
+     * of an application should call at startup.
+     *
+     * @param csvFile the CSV file the reports are appended to, or {@code null} to only log them
+     * @return the started reporter
+     * @throws IOException if the CSV file can't be opened
+     */
+    public static MetricsReporter startDefault(final Path csvFile) throws IOException {
+        MetricsRegistry.getDefault().registerMBean(MetricsRegistry.DEFAULT_MBEAN_NAME);
+        final MetricsReporter reporter = new MetricsReporter(MetricsRegistry.getDefault(), csvFile);
+        reporter.start(1, TimeUnit.MINUTES);
+        return reporter;
+    }
+
+    /**
+     * Starts reporting at a fixed rate on a daemon thread.
+     *
+     * @throws IllegalArgumentException if the period is not positive
+     * @throws IllegalStateException    if this reporter was already started or is closed
+     */
+    public synchronized void start(final long period, final TimeUnit unit) {
+        Objects.requireNonNull(unit);
+        if (period <= 0)
+            throw new IllegalArgumentException("period must be positive: " + period);
+        if (closed)
+            throw new IllegalStateException("reporter is closed");
+        if (scheduler != null)
+            throw new IllegalStateException("reporter already started");
+
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            final Thread thread = new Thread(runnable, "metrics-reporter");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleAtFixedRate(this::report, period, period, unit);
+    }
+
+    /**
+     * Reports the metrics now (a report failing to be written to the CSV file is logged, the next reports are still
+     * attempted).
+     */
+    public synchronized void report() {
+        if (closed)
+            return;
+
+        final long now = System.nanoTime();
+        final double seconds = Math.max(1e-9, (now - previousTime) / 1e9);
+        previousTime = now;
+        final String time = Instant.now().toString();
+
+        final StringBuilder rows = new StringBuilder();
+        for (final Map.Entry<String, Counter> entry : registry.getCounters().entrySet()) {
+            final String name = entry.getKey();
+            final long count = entry.getValue().getCount();
+            final Long previous = previousCounts.put(name, count);
+            final long interval = count - (previous == null ? 0 : previous);
+
+            log.info(String.format(Locale.ROOT, "%s: %d (%.1f/s)", name, count, interval / seconds));
+            row(rows, time, name, count, interval, interval / seconds, null);
+        }
+
+        for (final Map.Entry<String, LatencyRecorder> entry : registry.getLatencies().entrySet()) {
+            final String name = entry.getKey();
+            final LatencyRecorder.Snapshot snapshot = entry.getValue().snapshot();
+            final LatencyRecorder.Snapshot previous = previousSnapshots.put(name, snapshot);
+            final LatencyRecorder.Snapshot interval = previous == null ? snapshot : snapshot.since(previous);
+
+            log.info(String.format(Locale.ROOT, "%s: %d (%.1f/s) mean: %.3f ms p50: %.3f ms p99: %.3f ms max: %.3f ms",
+                    name, snapshot.getCount(), interval.getCount() / seconds, interval.getMean() / 1e6,
+                    interval.getPercentile(50) / 1e6, interval.getPercentile(99) / 1e6, interval.getMax() / 1e6));
+            row(rows, time, name, snapshot.getCount(), interval.getCount(), interval.getCount() / seconds, interval);
+        }
+
+        for (final Map.Entry<String, Gauge> entry : registry.getGauges().entrySet()) {
+            final long value = entry.getValue().getValue();
+            log.info(entry.getKey() + ": " + value);
+            rows.append(time).append(',').append(entry.getKey()).append(',').append(value).append(",,,,,,,\n");
+        }
+
+        if (csv != null && rows.length() > 0)
+            try {
+                csv.write(rows.toString());
+                csv.flush();
+            } catch (IOException e) {
+                log.error("could not write the metrics report", e);
+            }
+    }
+
+    private static void row(final StringBuilder rows, final String time, final String name, final long total,
+                            final long interval, final double perSecond, final LatencyRecorder.Snapshot latency) {
+        rows.append(time).append(',').append(name).append(',').append(total).append(',').append(interval).append(',')
+                .append(String.format(Locale.ROOT, "%.3f", perSecond));
+
+        if (latency == null)
+            rows.append(",,,,,");
+        else
+            rows.append(',').append(String.format(Locale.ROOT, "%.1f", latency.getMean()))
+                    .append(',').append(latency.getPercentile(50))
+                    .append(',').append(latency.getPercentile(90))
+                    .append(',').append(latency.getPercentile(99))
+                    .append(',').append(latency.getMax());
+        rows.append('\n');
+    }
+
+    /**
+     * Stops the periodic reports (after a last one) and closes the CSV file.
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        if (closed)
+            return;
+
+        if (scheduler != null)
+            scheduler.shutdownNow();
+        report();
+        closed = true;
+        if (csv != null)
+            csv.close();
+    }
+}
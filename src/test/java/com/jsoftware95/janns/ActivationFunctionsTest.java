@@ -51,4 +51,15 @@ public class ActivationFunctionsTest {
 
         log.info("testApply done.");
     }
+
+    @Test
+    public void testApplyAsDouble() {
+        final double[] inputs = {-10, -1, -0.5, 0, 0.5, 1.0, BIG_POSITIVE, Double.NaN};
+
+        for (final ActivationFunctions function : ActivationFunctions.values())
+            for (final double x : inputs)
+                Assert.assertEquals(function.applyAsDouble(x), function.apply(x).doubleValue(), function + "(" + x + ")");
+
+        log.info("testApplyAsDouble done.");
+    }
 }
\ No newline at end of file
@@ -0,0 +1,103 @@
+/*
+ * Copyright 2017-2018 Youcef DEBBAH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.jsoftware95.janns;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+@Test(groups = "unit-tests")
+public class CheckpointArchiveTest {
+
+    @Test
+    public void testAppendAndReopen() throws IOException {
+        final Path folder = Files.createTempDirectory("archive");
+        final Path file = folder.resolve("run.archive");
+        try {
+            try (CheckpointArchive archive = CheckpointArchive.create(file, 3)) {
+                Assert.assertEquals(archive.append("alpha", 1, 0.5, new double[]{1, 2, 3}), 0);
+                Assert.assertEquals(archive.append("beta", 1, 1.5, new double[]{4, 5, 6}), 1);
+                Assert.assertEquals(archive.getParameters(0), new double[]{1, 2, 3});
+                Assert.assertEquals(archive.append("alpha", 2, -2, new double[]{7, 8, 9}), 2);
+
+                Assert.assertEquals(archive.size(), 3);
+                Assert.assertEquals(archive.indexOf("alpha", 2), 2);
+                Assert.assertEquals(archive.indexOf("beta", 2), -1);
+                Assert.assertEquals(archive.indexOf("gamma", 1), -1);
+                Assert.assertEquals(archive.getParameters(2), new double[]{7, 8, 9});
+                Assert.assertThrows(IllegalArgumentException.class, () -> archive.append("alpha", 3, 0, new double[2]));
+                archive.force();
+            }
+
+            try (CheckpointArchive archive = CheckpointArchive.open(file)) {
+                Assert.assertEquals(archive.size(), 3);
+                Assert.assertEquals(archive.getParametersCount(), 3);
+                Assert.assertEquals(archive.getPlayers(), Arrays.asList("alpha", "beta"));
+
+                final int record = archive.indexOf("beta", 1);
+                Assert.assertEquals(record, 1);
+                Assert.assertEquals(archive.getPlayer(record), "beta");
+                Assert.assertEquals(archive.getGeneration(record), 1);
+                Assert.assertEquals(archive.getFitness(record), 1.5);
+                Assert.assertEquals(archive.getParameters(record), new double[]{4, 5, 6});
+
+                Assert.assertEquals(archive.append("gamma", 1, 3, new double[]{0, 0, 1}), 3);
+                Assert.assertEquals(archive.getParameters(3), new double[]{0, 0, 1});
+                Assert.assertThrows(IndexOutOfBoundsException.class, () -> archive.getFitness(4));
+            }
+        } finally {
+            Files.deleteIfExists(file);
+            Files.delete(folder);
+        }
+    }
+
+    @Test
+    public void testIncompleteRecord() throws IOException {
+        final Path folder = Files.createTempDirectory("archive");
+        final Path file = folder.resolve("run.archive");
+        try {
+            try (CheckpointArchive archive = CheckpointArchive.create(file, 2)) {
+                archive.append("alpha", 1, 1, new double[]{1, 2});
+                archive.append("alpha", 2, 2, new double[]{3, 4});
+            }
+
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+                channel.truncate(channel.size() - 1);
+            }
+
+            try (CheckpointArchive archive = CheckpointArchive.open(file)) {
+                Assert.assertEquals(archive.size(), 1);
+                Assert.assertEquals(archive.indexOf("alpha", 2), -1);
+                Assert.assertEquals(archive.append("alpha", 2, 2, new double[]{5, 6}), 1);
+                Assert.assertEquals(archive.getParameters(1), new double[]{5, 6});
+            }
+
+            Files.write(file, new byte[]{1, 2, 3});
+            Assert.assertThrows(IOException.class, () -> CheckpointArchive.open(file));
+        } finally {
+            Files.deleteIfExists(file);
+            Files.delete(folder);
+        }
+    }
+}
@@ -0,0 +1,136 @@
+/*
+ * Copyright 2017-2018 Youcef DEBBAH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.jsoftware95.janns;
+
+import com.jsoftware95.janns.api.WeightedConnection;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.Deque;
+import java.util.LinkedList;
+
+@Test(groups = "unit-tests")
+public class DenseNetworkTest {
+
+    @Test
+    public void testSameOutputAsObjectModel() {
+        final EnumNeuralNetwork<TestInputs, TestOutputs> network = newNetwork();
+
+        // a continuous output activation so small differences in the hidden layers show up
+        for (final EnumOutputNeuron<TestOutputs> neuron : network.outputLayer.getNeurons())
+            neuron.setActivationFunction(ActivationFunctions.RELU);
+        network.invalidateEngine();
+
+        for (int round = 0; round < 100; round++) {
+            setRandomInput(network);
+
+            network.processInputNeuronByNeuron();
+            final double[] expected = getOutputs(network);
+
+            network.processInput();
+            Assert.assertEquals(getOutputs(network), expected);
+        }
+    }
+
+    @Test
+    public void testRebuiltAfterSetData() {
+        final EnumNeuralNetwork<TestInputs, TestOutputs> network = newNetwork();
+        setRandomInput(network);
+        network.processInput();
+
+        final Deque<Double> data = new LinkedList<>();
+        for (final Double ignored : network.getData())
+            data.add((1 - Math.random()) * 2 - 1);
+        network.setData(data);
+
+        network.processInput();
+        final double[] actual = getOutputs(network);
+
+        network.processInputNeuronByNeuron();
+        Assert.assertEquals(actual, getOutputs(network));
+    }
+
+    @Test
+    public void testRebuiltAfterEditingNeurons() {
+        final EnumNeuralNetwork<TestInputs, TestOutputs> network = newNetwork();
+        setRandomInput(network);
+        network.processInput();
+
+        final EnumOutputNeuron<TestOutputs> neuron = network.outputLayer.getNeurons().get(0);
+        neuron.setActivationFunction(ActivationFunctions.RELU);
+        assertSameOutputAsObjectModel(network);
+
+        for (final WeightedConnection connection : neuron.getConnections())
+            connection.setWeight(-connection.getWeight());
+        assertSameOutputAsObjectModel(network);
+
+        neuron.setBias(-neuron.getBias());
+        assertSameOutputAsObjectModel(network);
+
+        neuron.getConnections().iterator().next().updateWeight();
+        assertSameOutputAsObjectModel(network);
+
+        neuron.setSignalCollector(links -> 0.5);
+        assertSameOutputAsObjectModel(network);
+    }
+
+    @Test
+    public void testUnsupportedCollectorFallsBack() {
+        final EnumNeuralNetwork<TestInputs, TestOutputs> network = newNetwork();
+        for (final EnumOutputNeuron<TestOutputs> neuron : network.outputLayer.getNeurons())
+            neuron.setSignalCollector(links -> 0.5);
+        network.invalidateEngine();
+
+        setRandomInput(network);
+        network.processInput();
+
+        for (final EnumOutputNeuron<TestOutputs> neuron : network.outputLayer.getNeurons())
+            Assert.assertEquals(neuron.getOutput(), neuron.getActivationFunction().apply(0.5 + neuron.getBias()));
+    }
+
+    private static void assertSameOutputAsObjectModel(final EnumNeuralNetwork<TestInputs, TestOutputs> network) {
+        network.processInput();
+        final double[] actual = getOutputs(network);
+
+        network.processInputNeuronByNeuron();
+        Assert.assertEquals(actual, getOutputs(network));
+    }
+
+    private static EnumNeuralNetwork<TestInputs, TestOutputs> newNetwork() {
+        final EnumNeuralNetwork<TestInputs, TestOutputs> network = new EnumNeuralNetwork<>(TestInputs.values(), TestOutputs.values());
+        network.addHiddenLayer(TestInputs.values().length * 2);
+        network.addHiddenLayer(TestInputs.values().length);
+        return network;
+    }
+
+    private static void setRandomInput(final EnumNeuralNetwork<TestInputs, ?> network) {
+        for (final TestInputs input : TestInputs.values())
+            network.setInput(input, Math.random() * 2 - 1);
+    }
+
+    private static double[] getOutputs(final EnumNeuralNetwork<?, TestOutputs> network) {
+        final double[] outputs = new double[TestOutputs.values().length];
+        for (final TestOutputs output : TestOutputs.values())
+            outputs[output.ordinal()] = network.getOutput(output);
+        return outputs;
+    }
+
+    private enum TestInputs {I1, I2, I3, I4, I5, I6}
+
+    private enum TestOutputs {O1, O2, O3}
+
+}
@@ -16,12 +16,19 @@
 
 package com.jsoftware95.janns;
 
+import com.jsoftware95.janns.api.DataMapper;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.testng.Assert;
 import org.testng.annotations.Test;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Deque;
 import java.util.LinkedList;
+import java.util.List;
+import java.util.SplittableRandom;
 
 public class EnumNeuralNetworkTest {
     private static final Logger log = LogManager.getLogger(EnumNeuralNetworkTest.class);
@@ -61,10 +68,118 @@ public class EnumNeuralNetworkTest {
         Assert.assertThrows(() -> network1.setData(null));
         Assert.assertThrows(() -> network1.setData(new LinkedList<>()));
 
+        final Deque<Double> invalid = network1.getData();
+        invalid.addFirst(2.0);
+        final List<Double> expected = new ArrayList<>(invalid);
+        Assert.assertThrows(IllegalArgumentException.class, () -> network2.setData(invalid));
+        Assert.assertEquals(new ArrayList<>(invalid), expected);
+        Assert.assertEquals(network2.getData(), network1.getData());
+
+        invalid.removeFirst();
+        invalid.addLast(null);
+        invalid.addFirst(null);
+        Assert.assertThrows(NullPointerException.class, () -> network2.setData(invalid));
+        Assert.assertEquals(invalid.size(), expected.size() + 1);
+
+        final Deque<Double> extra = network1.getData();
+        extra.addLast(0.5);
+        network2.setData(extra);
+        Assert.assertEquals(new ArrayList<>(extra), Collections.singletonList(0.5));
+
         final EnumNeuralNetwork<TestInputs, TestOutputs> network0 = network1.massClone(1, null).get(0);
         Assert.assertEquals(network0.getData(), network1.getData());
     }
 
+    @Test(groups = "unit-tests")
+    public void testParameters() {
+        final EnumNeuralNetwork<TestInputs, TestOutputs> network1 = new EnumNeuralNetwork<>(TestInputs.values(), TestOutputs.values());
+        network1.addHiddenLayer(TestInputs.values().length);
+        final EnumNeuralNetwork<TestInputs, TestOutputs> network2 = network1.massClone(1, (value, cloneIndex, valueIndex) -> Double.NaN).get(0);
+
+        final double[] parameters = network1.getParameters();
+        Assert.assertEquals(parameters.length, network1.getParametersCount());
+        Assert.assertEquals(network1.getData().size(), parameters.length);
+        int index = 0;
+        for (final Double value : network1.getData())
+            Assert.assertEquals(parameters[index++], value.doubleValue());
+
+        final double[] buffer = new double[parameters.length + 2];
+        Assert.assertEquals(network1.copyParametersInto(buffer, 2), buffer.length);
+        Assert.assertEquals(Arrays.copyOfRange(buffer, 2, buffer.length), parameters);
+
+        Assert.assertNotEquals(network2.getParameters(), parameters);
+        Assert.assertEquals(network2.setParameters(buffer, 2), buffer.length);
+        Assert.assertEquals(network2.getParameters(), parameters);
+
+        final double[] before = network2.getParameters();
+        Assert.assertThrows(IllegalArgumentException.class, () -> network2.setParameters(buffer, 3));
+        Assert.assertThrows(IllegalArgumentException.class, () -> network2.setParameters(buffer, -1));
+        buffer[buffer.length - 1] = 2;
+        Assert.assertThrows(IllegalArgumentException.class, () -> network2.setParameters(buffer, 2));
+        Assert.assertEquals(network2.getParameters(), before);
+    }
+
+    @Test(groups = "unit-tests")
+    public void testForward() {
+        final EnumNeuralNetwork<TestInputs, TestOutputs> network = new EnumNeuralNetwork<>(TestInputs.values(), TestOutputs.values());
+        network.addHiddenLayer(TestInputs.values().length);
+
+        final double[][] inputs = new double[20][TestInputs.values().length];
+        for (final double[] input : inputs)
+            for (int i = 0; i < input.length; i++)
+                input[i] = Math.random() * 2 - 1;
+
+        final double[][] outputs = network.forward(inputs);
+        Assert.assertEquals(outputs.length, inputs.length);
+
+        for (int sample = 0; sample < inputs.length; sample++) {
+            for (final TestInputs input : TestInputs.values())
+                network.setInput(input, inputs[sample][input.ordinal()]);
+            network.processInput();
+
+            for (final TestOutputs output : TestOutputs.values())
+                Assert.assertEquals(outputs[sample][output.ordinal()], network.getOutput(output));
+        }
+
+        final double[][] buffer = new double[inputs.length][TestOutputs.values().length];
+        network.forward(inputs, buffer);
+        for (int sample = 0; sample < inputs.length; sample++)
+            Assert.assertEquals(buffer[sample], outputs[sample]);
+
+        Assert.assertThrows(IllegalArgumentException.class, () -> network.forward(new double[][]{{0.5}}));
+        Assert.assertThrows(IllegalArgumentException.class, () -> network.forward(inputs, new double[1][TestOutputs.values().length]));
+        inputs[0][0] = 2;
+        Assert.assertThrows(IllegalArgumentException.class, () -> network.forward(inputs));
+    }
+
+    @Test(groups = "unit-tests")
+    public void testSeededRandom() {
+        final EnumNeuralNetwork<TestInputs, TestOutputs> network1 = newSeededNetwork(42);
+        final EnumNeuralNetwork<TestInputs, TestOutputs> network2 = newSeededNetwork(42);
+        Assert.assertEquals(network1.getParameters(), network2.getParameters());
+        Assert.assertNotEquals(newSeededNetwork(43).getParameters(), network1.getParameters());
+
+        for (final double value : network1.getParameters())
+            Assert.assertTrue(value > -1 && value <= 1);
+
+        final DataMapper mutation = (value, cloneIndex, valueIndex) -> cloneIndex != valueIndex ? value : Double.NaN;
+        final List<EnumNeuralNetwork<TestInputs, TestOutputs>> clones1 = network1.massClone(3, mutation);
+        final List<EnumNeuralNetwork<TestInputs, TestOutputs>> clones2 = network2.massClone(3, mutation);
+        for (int i = 0; i < clones1.size(); i++) {
+            final double[] parameters = clones1.get(i).getParameters();
+            Assert.assertEquals(parameters, clones2.get(i).getParameters());
+            Assert.assertNotEquals(parameters[i], network1.getParameters()[i]);
+        }
+    }
+
+    private static EnumNeuralNetwork<TestInputs, TestOutputs> newSeededNetwork(final long seed) {
+        final EnumNeuralNetwork<TestInputs, TestOutputs> network = new EnumNeuralNetwork<>(TestInputs.values(), TestOutputs.values());
+        network.addHiddenLayer(TestInputs.values().length);
+        network.setRandom(new SplittableRandom(seed));
+        network.randomize();
+        return network;
+    }
+
     private enum TestInputs {I1, I2, I3, I4, I5, I6, I7, I8, I9, I10}
 
     private enum TestOutputs {O1, O2, O3, O4, O5}
@@ -0,0 +1,166 @@
+/*
+ * Copyright 2017-2018 Youcef DEBBAH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.jsoftware95.janns;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+@Test(groups = "unit-tests")
+public class NetworkCheckpointTest {
+
+    @Test
+    public void testWriteRead() throws IOException {
+        final EnumNeuralNetwork<TestInputs, TestOutputs> network = new EnumNeuralNetwork<>(TestInputs.values(), TestOutputs.values());
+        network.addHiddenLayer(3);
+        network.addHiddenLayer(2);
+
+        final Path file = Files.createTempFile("network", ".checkpoint");
+        try {
+            NetworkCheckpoint.of(network, 42).write(file);
+            Assert.assertTrue(NetworkCheckpoint.isCheckpoint(file));
+
+            final NetworkCheckpoint checkpoint = NetworkCheckpoint.read(file);
+            Assert.assertEquals(checkpoint.getGeneration(), 42);
+            Assert.assertEquals(checkpoint.getParameters(), network.getParameters());
+            Assert.assertEquals(checkpoint.getHiddenLayersSizes(), new int[]{3, 2});
+            Assert.assertEquals(checkpoint.getInputs().length, TestInputs.values().length);
+            Assert.assertEquals(checkpoint.getOutputs()[0], TestOutputs.values()[0].name());
+
+            final EnumNeuralNetwork<TestInputs, TestOutputs> copy = checkpoint.toNetwork(TestInputs.class, TestOutputs.class);
+            Assert.assertEquals(copy.getParameters(), network.getParameters());
+            Assert.assertEquals(copy.getHiddenLayersSizes(), network.getHiddenLayersSizes());
+
+            final EnumNeuralNetwork<TestInputs, TestOutputs> other = new EnumNeuralNetwork<>(TestInputs.values(), TestOutputs.values());
+            other.addHiddenLayer(3);
+            other.addHiddenLayer(2);
+            checkpoint.applyTo(other);
+            Assert.assertEquals(other.getParameters(), network.getParameters());
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    @Test
+    public void testTopologyMismatch() {
+        final EnumNeuralNetwork<TestInputs, TestOutputs> network = new EnumNeuralNetwork<>(TestInputs.values(), TestOutputs.values());
+        network.addHiddenLayer(3);
+        final NetworkCheckpoint checkpoint = NetworkCheckpoint.of(network, 0);
+
+        final EnumNeuralNetwork<TestInputs, TestOutputs> other = new EnumNeuralNetwork<>(TestInputs.values(), TestOutputs.values());
+        other.addHiddenLayer(4);
+        Assert.assertThrows(IllegalArgumentException.class, () -> checkpoint.applyTo(other));
+    }
+
+    @Test
+    public void testCorruptedFiles() throws IOException {
+        final EnumNeuralNetwork<TestInputs, TestOutputs> network = new EnumNeuralNetwork<>(TestInputs.values(), TestOutputs.values());
+        final Path file = Files.createTempFile("network", ".checkpoint");
+        try {
+            Files.write(file, new byte[]{1, 2, 3, 4, 5, 6, 7, 8});
+            Assert.assertFalse(NetworkCheckpoint.isCheckpoint(file));
+            Assert.assertThrows(IOException.class, () -> NetworkCheckpoint.read(file));
+
+            NetworkCheckpoint.of(network, 1).write(file);
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+                channel.truncate(channel.size() - 1);
+            }
+            Assert.assertTrue(NetworkCheckpoint.isCheckpoint(file));
+            Assert.assertThrows(IOException.class, () -> NetworkCheckpoint.read(file));
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    @Test
+    public void testCorruptedCounts() throws IOException {
+        final EnumNeuralNetwork<TestInputs, TestOutputs> network = new EnumNeuralNetwork<>(TestInputs.values(), TestOutputs.values());
+        final int parametersCountPosition = Math.toIntExact(-Integer.BYTES - network.getParametersCount() * Double.BYTES);
+        final int inputsCountPosition = 12;
+
+        final Path file = Files.createTempFile("network", ".checkpoint");
+        try {
+            // counts too big for the file must be rejected before anything is allocated
+            for (final int position : new int[]{inputsCountPosition, parametersCountPosition}) {
+                NetworkCheckpoint.of(network, 1).write(file);
+                try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+                    final ByteBuffer count = ByteBuffer.allocate(Integer.BYTES).order(ByteOrder.LITTLE_ENDIAN);
+                    count.putInt(Integer.MAX_VALUE).flip();
+                    channel.write(count, position >= 0 ? position : channel.size() + position);
+                }
+                Assert.assertThrows(IOException.class, () -> NetworkCheckpoint.read(file));
+            }
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    @Test
+    public void testCorruptedTopology() throws IOException {
+        final EnumNeuralNetwork<TestInputs, TestOutputs> network = new EnumNeuralNetwork<>(TestInputs.values(), TestOutputs.values());
+        network.addHiddenLayer(3);
+        final int parametersCountPosition = Math.toIntExact(-Integer.BYTES - network.getParametersCount() * Double.BYTES);
+        // after the magic number, the version, the generation, the 4 inputs, the 2 outputs and the hidden layers count
+        final int hiddenLayerSizePosition = 12 + (Integer.BYTES + 4 * (Short.BYTES + 2)) +
+                (Integer.BYTES + 2 * (Short.BYTES + 2)) + Integer.BYTES;
+
+        final Path file = Files.createTempFile("network", ".checkpoint");
+        try {
+            NetworkCheckpoint.of(network, 1).write(file);
+            overwriteInt(file, hiddenLayerSizePosition, 3);
+            Assert.assertEquals(NetworkCheckpoint.read(file).getHiddenLayersSizes(), new int[]{3});
+
+            // hidden layers must have neurons and the parameters must be exactly the ones of the saved topology
+            final int[][] corruptions = {
+                    {hiddenLayerSizePosition, 0},
+                    {hiddenLayerSizePosition, -3},
+                    {hiddenLayerSizePosition, 2},
+                    {parametersCountPosition, network.getParametersCount() - 1}
+            };
+            for (final int[] corruption : corruptions) {
+                NetworkCheckpoint.of(network, 1).write(file);
+                overwriteInt(file, corruption[0], corruption[1]);
+                Assert.assertThrows(IOException.class, () -> NetworkCheckpoint.read(file));
+            }
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    /*
+     * a negative position is relative to the end of the file
+     */
+    private static void overwriteInt(final Path file, final int position, final int value) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            final ByteBuffer buffer = ByteBuffer.allocate(Integer.BYTES).order(ByteOrder.LITTLE_ENDIAN);
+            buffer.putInt(value).flip();
+            channel.write(buffer, position >= 0 ? position : channel.size() + position);
+        }
+    }
+
+    private enum TestInputs {I1, I2, I3, I4}
+
+    private enum TestOutputs {O1, O2}
+}
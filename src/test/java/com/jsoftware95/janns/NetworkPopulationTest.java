@@ -0,0 +1,110 @@
+/*
+ * Copyright 2017-2018 Youcef DEBBAH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.jsoftware95.janns;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+@Test(groups = "unit-tests")
+public class NetworkPopulationTest {
+
+    @Test
+    public void testSameOutputAsNetworks() {
+        final EnumNeuralNetwork<TestInputs, TestOutputs> original = new EnumNeuralNetwork<>(TestInputs.values(), TestOutputs.values());
+        original.addHiddenLayer(TestInputs.values().length * 2);
+
+        final List<EnumNeuralNetwork<TestInputs, TestOutputs>> networks =
+                original.massClone(8, (value, cloneIndex, valueIndex) -> cloneIndex == valueIndex % 8 ? Double.NaN : value);
+
+        final NetworkPopulation population = NetworkPopulation.of(networks);
+        Assert.assertEquals(population.size(), networks.size());
+
+        final double[][] inputs = new double[networks.size()][TestInputs.values().length];
+        final double[][] outputs = new double[networks.size()][TestOutputs.values().length];
+        for (final double[] input : inputs)
+            for (int i = 0; i < input.length; i++)
+                input[i] = Math.random() * 2 - 1;
+
+        population.forward(inputs, outputs);
+
+        for (int candidate = 0; candidate < networks.size(); candidate++) {
+            final double[][] expected = networks.get(candidate).forward(new double[][]{inputs[candidate]});
+            Assert.assertEquals(outputs[candidate], expected[0], "candidate: " + candidate);
+        }
+    }
+
+    @Test
+    public void testWeightedInputSum() {
+        final EnumNeuralNetwork<TestInputs, TestOutputs> original = new EnumNeuralNetwork<>(TestInputs.values(), TestOutputs.values());
+        original.addHiddenLayer(TestInputs.values().length);
+
+        final List<EnumNeuralNetwork<TestInputs, TestOutputs>> networks =
+                original.massClone(4, (value, cloneIndex, valueIndex) -> cloneIndex == valueIndex % 4 ? Double.NaN : value);
+        for (final EnumNeuralNetwork<TestInputs, TestOutputs> network : networks)
+            for (final EnumOutputNeuron<TestOutputs> neuron : network.outputLayer.getNeurons()) {
+                neuron.setSignalCollector(SignalCollectors.WEIGHTED_INPUT_SUM);
+                neuron.setActivationFunction(ActivationFunctions.RELU);
+            }
+        final NetworkPopulation population = NetworkPopulation.of(networks);
+
+        final double[][] inputs = new double[networks.size()][TestInputs.values().length];
+        final double[][] outputs = new double[networks.size()][TestOutputs.values().length];
+        for (final double[] input : inputs)
+            for (int i = 0; i < input.length; i++)
+                input[i] = Math.random() * 2 - 1;
+
+        population.forward(inputs, outputs);
+
+        for (int candidate = 0; candidate < networks.size(); candidate++) {
+            final double[][] expected = networks.get(candidate).forward(new double[][]{inputs[candidate]});
+            Assert.assertEquals(outputs[candidate], expected[0], "candidate: " + candidate);
+        }
+    }
+
+    @Test
+    public void testInputOutsideRange() {
+        final EnumNeuralNetwork<TestInputs, TestOutputs> network = new EnumNeuralNetwork<>(TestInputs.values(), TestOutputs.values());
+        final NetworkPopulation population = NetworkPopulation.of(Collections.singletonList(network));
+
+        final double[][] inputs = new double[1][TestInputs.values().length];
+        inputs[0][2] = 1.5;
+        Assert.assertThrows(IllegalArgumentException.class, () -> population.forward(inputs, new double[1][TestOutputs.values().length]));
+        Assert.assertThrows(IllegalArgumentException.class, () -> network.forward(inputs));
+    }
+
+    @Test
+    public void testDifferentTopology() {
+        final EnumNeuralNetwork<TestInputs, TestOutputs> network1 = new EnumNeuralNetwork<>(TestInputs.values(), TestOutputs.values());
+        final EnumNeuralNetwork<TestInputs, TestOutputs> network2 = new EnumNeuralNetwork<>(TestInputs.values(), TestOutputs.values());
+        network2.addHiddenLayer(2);
+
+        Assert.assertThrows(IllegalArgumentException.class, () -> NetworkPopulation.of(Collections.emptyList()));
+        Assert.assertThrows(IllegalArgumentException.class, () -> NetworkPopulation.of(Arrays.asList(network1, network2)));
+
+        final NetworkPopulation population = NetworkPopulation.of(Collections.singletonList(network1));
+        Assert.assertThrows(IllegalArgumentException.class, () -> population.forward(new double[2][TestInputs.values().length], new double[2][TestOutputs.values().length]));
+    }
+
+    private enum TestInputs {I1, I2, I3, I4, I5, I6}
+
+    private enum TestOutputs {O1, O2, O3}
+
+}
@@ -24,6 +24,7 @@ import org.testng.Assert;
 import org.testng.annotations.Test;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.stream.DoubleStream;
 
@@ -57,4 +58,24 @@ public class SignalCollectorsTest {
         Assert.assertEquals(WEIGHTED_INPUT_AVERAGE.apply(connections), OUTPUTS_AVERAGE, EPSILON);
         log.info("testApply done.");
     }
+
+    @Test
+    public void testApplyAsDouble() {
+        for (final SignalCollectors collector : SignalCollectors.values())
+            Assert.assertEquals(collector.applyAsDouble(connections), collector.apply(connections).doubleValue());
+
+        log.info("testApplyAsDouble done.");
+    }
+
+    @Test
+    public void testCollect() {
+        final double[] weights = new double[OUTPUTS.length + 2];
+        Arrays.fill(weights, 1.0);
+        weights[0] = Double.NaN;
+
+        Assert.assertEquals(WEIGHTED_INPUT_SUM.collect(OUTPUTS, weights, 1), WEIGHTED_INPUT_SUM.apply(connections), EPSILON);
+        Assert.assertEquals(WEIGHTED_INPUT_AVERAGE.collect(OUTPUTS, weights, 1), WEIGHTED_INPUT_AVERAGE.apply(connections), EPSILON);
+
+        log.info("testCollect done.");
+    }
 }
\ No newline at end of file
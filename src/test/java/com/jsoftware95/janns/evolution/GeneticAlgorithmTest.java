@@ -0,0 +1,154 @@
+/*
+ * Copyright 2017-2018 Youcef DEBBAH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.jsoftware95.janns.evolution;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.ToDoubleFunction;
+
+public class GeneticAlgorithmTest {
+
+    private static final double[] TARGET = {0.5, -0.25, 0.75, 0.0, -0.5, 0.1, -0.9, 0.3};
+
+    // the closer to the target the better (the maximum is 0)
+    private static final ToDoubleFunction<double[]> FITNESS = parameters -> {
+        double distance = 0;
+        for (int i = 0; i < parameters.length; i++)
+            distance += (parameters[i] - TARGET[i]) * (parameters[i] - TARGET[i]);
+        return -distance;
+    };
+
+    @Test(groups = "unit-tests")
+    public void testEvolve() throws InterruptedException, ExecutionException {
+        final GeneticAlgorithm algorithm = newAlgorithm(42, FitnessEvaluator.sequential(FITNESS));
+        algorithm.evolve();
+        final double firstBest = algorithm.getBest().getFitness();
+
+        double previousBest = firstBest;
+        for (int i = 0; i < 100; i++) {
+            algorithm.evolve();
+            // with elitism the best fitness never decreases
+            Assert.assertTrue(algorithm.getBest().getFitness() >= previousBest);
+            previousBest = algorithm.getBest().getFitness();
+        }
+
+        Assert.assertEquals(algorithm.getGeneration(), 101);
+        Assert.assertEquals(algorithm.getPopulation().size(), 30);
+        Assert.assertTrue(previousBest > -0.05, "best fitness: " + previousBest);
+        Assert.assertTrue(previousBest > firstBest);
+
+        for (int i = 1; i < algorithm.getPopulation().size(); i++)
+            Assert.assertTrue(algorithm.getPopulation().get(i - 1).getFitness() >= algorithm.getPopulation().get(i).getFitness());
+        for (final Individual individual : algorithm.getPopulation())
+            for (final double value : individual.getParameters())
+                Assert.assertTrue(value >= -1 && value <= 1);
+    }
+
+    @Test(groups = "unit-tests")
+    public void testSeed() throws InterruptedException, ExecutionException {
+        final ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            final GeneticAlgorithm algorithm1 = newAlgorithm(7, FitnessEvaluator.sequential(FITNESS));
+            final GeneticAlgorithm algorithm2 = newAlgorithm(7, FitnessEvaluator.parallel(FITNESS, executor));
+            algorithm2.setSelection(new RankSelection(1.5));
+            algorithm1.setSelection(new RankSelection(1.5));
+            algorithm1.setCrossover(Crossovers.ARITHMETIC);
+            algorithm2.setCrossover(Crossovers.ARITHMETIC);
+
+            for (int i = 0; i < 20; i++) {
+                algorithm1.evolve();
+                algorithm2.evolve();
+            }
+
+            for (int i = 0; i < algorithm1.getPopulation().size(); i++)
+                Assert.assertEquals(algorithm1.getPopulation().get(i).getParameters(), algorithm2.getPopulation().get(i).getParameters());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test(groups = "unit-tests")
+    public void testEqualFitness() throws InterruptedException, ExecutionException {
+        // all the individuals have the same fitness, none of them should be lost when ranking
+        final GeneticAlgorithm algorithm = newAlgorithm(1, FitnessEvaluator.sequential(parameters -> 1.0));
+        algorithm.setElitism(algorithm.getPopulation().size());
+        final List<Individual> initial = new ArrayList<>(algorithm.getPopulation());
+
+        algorithm.evolve();
+        Assert.assertEquals(algorithm.getPopulation(), initial);
+        for (final Individual individual : algorithm.getPopulation())
+            Assert.assertEquals(individual.getFitness(), 1.0);
+
+        algorithm.invalidate();
+        for (final Individual individual : algorithm.getPopulation())
+            Assert.assertFalse(individual.isEvaluated());
+
+        algorithm.setEvaluator(individuals -> {
+        });
+        Assert.assertThrows(IllegalStateException.class, algorithm::evolve);
+    }
+
+    @Test(groups = "unit-tests")
+    public void testOperators() {
+        final SplittableRandom random = new SplittableRandom(3);
+        final double[] parent1 = {1, 1, 1, 1};
+        final double[] parent2 = {-1, -1, -1, -1};
+
+        for (final double value : Crossovers.UNIFORM.cross(parent1, parent2, random))
+            Assert.assertTrue(value == 1 || value == -1);
+
+        final double[] child = Crossovers.ARITHMETIC.cross(parent1, parent2, random);
+        for (final double value : child)
+            Assert.assertEquals(value, child[0]);
+        Assert.assertThrows(IllegalArgumentException.class, () -> Crossovers.UNIFORM.cross(parent1, new double[1], random));
+
+        final double[] parameters = parent1.clone();
+        new GaussianMutation(0, 1).mutate(parameters, random);
+        Assert.assertEquals(parameters, parent1);
+        new GaussianMutation(1, 10).mutate(parameters, random);
+        for (final double value : parameters)
+            Assert.assertTrue(value >= -1 && value <= 1);
+        Assert.assertThrows(IllegalArgumentException.class, () -> new GaussianMutation(2, 1));
+
+        final List<Individual> population = new ArrayList<>();
+        for (int i = 0; i < 10; i++)
+            population.add(new Individual(new double[]{i}));
+
+        Assert.assertSame(new TournamentSelection(100).select(population, random), population.get(0));
+        final int[] counts = new int[population.size()];
+        final RankSelection rankSelection = new RankSelection(2);
+        for (int i = 0; i < 10_000; i++)
+            counts[(int) rankSelection.select(population, random).getParameters()[0]]++;
+        Assert.assertTrue(counts[0] > counts[population.size() - 1], Arrays.toString(counts));
+        Assert.assertThrows(IllegalArgumentException.class, () -> new RankSelection(3));
+    }
+
+    private static GeneticAlgorithm newAlgorithm(final long seed, final FitnessEvaluator evaluator) {
+        final SplittableRandom random = new SplittableRandom(seed);
+        final double[] ancestor = new double[TARGET.length];
+        final List<double[]> population = GeneticAlgorithm.populationAround(ancestor, 30, new GaussianMutation(1, 0.5), random);
+        return new GeneticAlgorithm(population, evaluator, random.split());
+    }
+}
@@ -0,0 +1,88 @@
+/*
+ * Copyright 2017-2018 Youcef DEBBAH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.jsoftware95.janns.evolution;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+public class IslandModelTest {
+
+    @Test(groups = "unit-tests")
+    public void testEvolve() throws InterruptedException, ExecutionException {
+        // the fitness of each island only depends on the first parameter, but each island starts in a different region
+        final int islandsCount = 4;
+        final List<GeneticAlgorithm> islands = new ArrayList<>(islandsCount);
+        final SplittableRandom random = new SplittableRandom(11);
+        for (int island = 0; island < islandsCount; island++) {
+            final double[] ancestor = {-1 + island * 0.1, 0};
+            final List<double[]> population = GeneticAlgorithm.populationAround(ancestor, 10, new GaussianMutation(1, 0.01), random);
+            final GeneticAlgorithm algorithm = new GeneticAlgorithm(population, FitnessEvaluator.sequential(parameters -> parameters[0]), random.split());
+            algorithm.setMutation(new GaussianMutation(0.5, 0.01));
+            islands.add(algorithm);
+        }
+
+        final IslandModel model = new IslandModel(islands, 2, 1);
+        final ExecutorService executor = Executors.newFixedThreadPool(islandsCount);
+        try {
+            model.evolve(10, executor);
+            model.evolve(10, executor);
+        } finally {
+            executor.shutdownNow();
+        }
+
+        for (final GeneticAlgorithm island : model.getIslands())
+            Assert.assertEquals(island.getGeneration(), 20);
+
+        double bestOfIslands = Double.NEGATIVE_INFINITY;
+        for (final GeneticAlgorithm island : model.getIslands())
+            bestOfIslands = Math.max(bestOfIslands, island.getBest().getFitness());
+        Assert.assertEquals(model.getBest().getFitness(), bestOfIslands);
+
+        // the last island published its best individuals at the end of the first call, so the first island received
+        // them (or better ones) during the second call
+        Assert.assertTrue(model.getIslands().get(0).getBest().getFitness() > -1 + 0.2, "" + model.getIslands().get(0).getBest());
+    }
+
+    @Test(groups = "unit-tests")
+    public void testImmigrate() throws InterruptedException, ExecutionException {
+        final SplittableRandom random = new SplittableRandom(5);
+        final List<double[]> population = GeneticAlgorithm.populationAround(new double[]{0}, 4, new GaussianMutation(1, 0.1), random);
+        final GeneticAlgorithm algorithm = new GeneticAlgorithm(population, FitnessEvaluator.sequential(parameters -> parameters[0]), random);
+        algorithm.setElitism(2);
+        algorithm.evolve();
+
+        final Individual best = algorithm.getBest();
+        algorithm.immigrate(Collections.nCopies(10, new double[]{1}));
+        Assert.assertSame(algorithm.getPopulation().get(0), best);
+        Assert.assertEquals(algorithm.getPopulation().get(2).getParameters()[0], 1.0);
+        Assert.assertFalse(algorithm.getPopulation().get(3).isEvaluated());
+
+        algorithm.evolve();
+        Assert.assertEquals(algorithm.getBest().getFitness(), 1.0);
+        Assert.assertThrows(IllegalArgumentException.class, () -> algorithm.immigrate(Collections.singletonList(new double[2])));
+        Assert.assertThrows(IllegalArgumentException.class, () -> new IslandModel(Collections.singletonList(algorithm), 0, 1));
+        Assert.assertThrows(IllegalArgumentException.class, () -> new IslandModel(Collections.emptyList(), 1, 1));
+    }
+}
@@ -0,0 +1,65 @@
+/*
+ * Copyright 2017-2018 Youcef DEBBAH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.jsoftware95.jpanzer.agents;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+
+@Test(groups = "unit-tests")
+public class EvaluationServiceTest {
+
+    @Test
+    public void testCallerRuns() throws InterruptedException, ExecutionException {
+        final EvaluationService service = EvaluationService.getCallerRuns();
+        final Thread caller = Thread.currentThread();
+        final Callable<Integer> first = () -> Thread.currentThread() == caller ? 1 : -1;
+        final Callable<Integer> second = () -> Thread.currentThread() == caller ? 2 : -2;
+
+        Assert.assertEquals(service.evaluateAll(Arrays.asList(first, second)), Arrays.asList(1, 2));
+        Assert.assertEquals(service.getParallelism(), 1);
+        Assert.assertEquals(service.getQueueDepth(), 0);
+        Assert.assertThrows(IllegalStateException.class, service::shutdown);
+    }
+
+    @Test
+    public void testCallerRunsFailures() {
+        final EvaluationService service = EvaluationService.getCallerRuns();
+        final int[] calls = new int[1];
+        final Callable<Integer> counted = () -> ++calls[0];
+        final Callable<Integer> failing = () -> {
+            throw new IllegalStateException("failed evaluation");
+        };
+
+        Assert.assertThrows(ExecutionException.class, () -> service.evaluateAll(Arrays.asList(counted, failing, counted)));
+        Assert.assertEquals(calls[0], 1);
+
+        // an interrupted caller gets no results (the flag is cleared like by a pool)
+        final List<Callable<Integer>> interrupting = Arrays.asList(counted, () -> {
+            Thread.currentThread().interrupt();
+            return 0;
+        }, counted);
+        Assert.assertThrows(InterruptedException.class, () -> service.evaluateAll(interrupting));
+        Assert.assertEquals(calls[0], 2);
+        Assert.assertFalse(Thread.currentThread().isInterrupted());
+    }
+}
@@ -0,0 +1,89 @@
+/*
+ * Copyright 2017-2018 Youcef DEBBAH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.jsoftware95.jpanzer.agents;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.Arrays;
+
+public class FitnessCacheTest {
+
+    private static final double[] OPPONENT = {0.5, -0.5};
+
+    @Test(groups = "unit-tests")
+    public void testGetPut() {
+        final FitnessCache cache = new FitnessCache(4);
+        Assert.assertNull(cache.get(new double[]{1, 2}, OPPONENT, 7));
+
+        cache.put(new double[]{1, 2}, OPPONENT, 7, 42);
+        // keys are compared by content
+        Assert.assertEquals(cache.get(new double[]{1, 2}, OPPONENT.clone(), 7), 42.0);
+        Assert.assertNull(cache.get(new double[]{1, 2}, OPPONENT, 8));
+        Assert.assertNull(cache.get(new double[]{1, 2}, new double[]{0.5, 0.5}, 7));
+        Assert.assertNull(cache.get(new double[]{2, 1}, OPPONENT, 7));
+
+        Assert.assertEquals(cache.getHits(), 1);
+        Assert.assertEquals(cache.getMisses(), 4);
+        Assert.assertEquals(cache.size(), 1);
+
+        cache.clear();
+        Assert.assertEquals(cache.size(), 0);
+        Assert.assertNull(cache.get(new double[]{1, 2}, OPPONENT, 7));
+    }
+
+    @Test(groups = "unit-tests")
+    public void testHashCollision() {
+        // both vectors have the same hash code (the two halves of the bits of the second value cancel each other)
+        final double[] candidate1 = {0.0};
+        final double[] candidate2 = {Double.longBitsToDouble(0x0000_0001_0000_0001L)};
+        Assert.assertEquals(Arrays.hashCode(candidate1), Arrays.hashCode(candidate2));
+
+        final FitnessCache cache = new FitnessCache(4);
+        cache.put(candidate1, OPPONENT, 1, 10);
+        Assert.assertNull(cache.get(candidate2, OPPONENT, 1));
+
+        cache.put(candidate2, OPPONENT, 1, 20);
+        Assert.assertEquals(cache.get(candidate1, OPPONENT, 1), 10.0);
+        Assert.assertEquals(cache.get(candidate2, OPPONENT, 1), 20.0);
+        Assert.assertEquals(cache.size(), 2);
+    }
+
+    @Test(groups = "unit-tests")
+    public void testLeastRecentlyUsedEviction() {
+        final FitnessCache cache = new FitnessCache(3);
+        for (int i = 0; i < 3; i++)
+            cache.put(new double[]{i}, OPPONENT, 0, i);
+
+        // reading the first result makes the second one the least recently used
+        Assert.assertEquals(cache.get(new double[]{0}, OPPONENT, 0), 0.0);
+        cache.put(new double[]{3}, OPPONENT, 0, 3);
+        Assert.assertEquals(cache.size(), 3);
+        Assert.assertNull(cache.get(new double[]{1}, OPPONENT, 0));
+
+        cache.put(new double[]{4}, OPPONENT, 0, 4);
+        Assert.assertNull(cache.get(new double[]{2}, OPPONENT, 0));
+        Assert.assertEquals(cache.get(new double[]{0}, OPPONENT, 0), 0.0);
+        Assert.assertEquals(cache.get(new double[]{3}, OPPONENT, 0), 3.0);
+        Assert.assertEquals(cache.get(new double[]{4}, OPPONENT, 0), 4.0);
+    }
+
+    @Test(groups = "unit-tests")
+    public void testInvalidCapacity() {
+        Assert.assertThrows(IllegalArgumentException.class, () -> new FitnessCache(0));
+    }
+}
@@ -0,0 +1,84 @@
+/*
+ * Copyright 2017-2018 Youcef DEBBAH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.jsoftware95.jpanzer.agents;
+
+import com.jsoftware95.janns.CheckpointArchive;
+import com.jsoftware95.janns.NetworkCheckpoint;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+@Test(groups = "unit-tests")
+public class PlayerTest {
+
+    @Test
+    public void testExportCheckpoint() throws IOException {
+        final double[] parameters = new Player("alpha", false, 1).brain.getParameters();
+        final Path folder = Files.createTempDirectory("players");
+        final Path archiveFile = folder.resolve("run.archive");
+        final Path checkpointFile = folder.resolve("Player-alpha_g-3");
+        try {
+            try (CheckpointArchive archive = CheckpointArchive.create(archiveFile, parameters.length)) {
+                archive.append("alpha", 3, 0.75, parameters);
+                archive.append("alpha", 4, 0.5, new double[parameters.length]);
+
+                Player.exportCheckpoint(archive, "alpha", 3, checkpointFile);
+                Assert.assertThrows(IllegalArgumentException.class,
+                        () -> Player.exportCheckpoint(archive, "alpha", 5, checkpointFile));
+            }
+
+            final NetworkCheckpoint checkpoint = NetworkCheckpoint.read(checkpointFile);
+            Assert.assertEquals(checkpoint.getGeneration(), 3);
+            Assert.assertEquals(checkpoint.getParameters(), parameters);
+
+            final Player player = new Player("alpha", false, 2);
+            checkpoint.applyTo(player.brain);
+            Assert.assertEquals(player.brain.getParameters(), parameters);
+        } finally {
+            Files.deleteIfExists(checkpointFile);
+            Files.deleteIfExists(archiveFile);
+            Files.delete(folder);
+        }
+    }
+
+    @Test
+    public void testRecordsNotFittingTheBrain() throws IOException {
+        final Player player = new Player("alpha", false, 1);
+        final double[] parameters = player.brain.getParameters();
+        final Path folder = Files.createTempDirectory("players");
+        final Path archiveFile = folder.resolve("run.archive");
+        final Path checkpointFile = folder.resolve("Player-alpha_g-3");
+        try {
+            try (CheckpointArchive archive = CheckpointArchive.create(archiveFile, parameters.length - 1)) {
+                archive.append("alpha", 3, 0.75, new double[parameters.length - 1]);
+
+                Assert.assertThrows(IllegalArgumentException.class, () -> player.loadData(archive, "alpha", 3));
+                Assert.assertEquals(player.brain.getParameters(), parameters);
+                Assert.assertThrows(IllegalArgumentException.class,
+                        () -> Player.exportCheckpoint(archive, "alpha", 3, checkpointFile));
+                Assert.assertFalse(Files.exists(checkpointFile));
+            }
+        } finally {
+            Files.deleteIfExists(archiveFile);
+            Files.delete(folder);
+        }
+    }
+}
@@ -0,0 +1,176 @@
+/*
+ * Copyright 2017-2018 Youcef DEBBAH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.jsoftware95.jpanzer.agents;
+
+import com.jsoftware95.janns.EnumNeuralNetwork;
+import org.testng.Assert;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+public class RacingEvaluatorTest {
+
+    private EvaluationService service;
+
+    @BeforeClass(groups = "unit-tests")
+    public void startService() {
+        service = new EvaluationService(2);
+    }
+
+    @AfterClass(groups = "unit-tests", alwaysRun = true)
+    public void stopService() {
+        service.shutdown();
+    }
+
+    @Test(groups = "unit-tests")
+    public void testDominatedCandidateEliminated() throws InterruptedException, ExecutionException {
+        final List<EnumNeuralNetwork<Inputs, Outputs>> candidates = newBrains(2);
+        final ScriptedRounds rounds = new ScriptedRounds(candidates, new int[]{100}, new int[]{0});
+        final RacingEvaluator racer = new RacingEvaluator(service, null, rounds);
+        racer.setMinRounds(20);
+
+        final RacingEvaluator.Race race = racer.race("dominated", candidates, newBrains(1).get(0), 1);
+        // the dominated candidate is kept until the min rounds are played, then the race ends with a single candidate
+        Assert.assertTrue(race.isEliminated(1));
+        Assert.assertFalse(race.isEliminated(0));
+        Assert.assertEquals(race.getRounds(1), 20);
+        Assert.assertEquals(race.getRoundsCount(), 20);
+        Assert.assertEquals(race.getBest(), 0);
+        Assert.assertEquals(race.getMean(0), 100.0);
+        Assert.assertEquals(rounds.getPlayed(0), 20);
+    }
+
+    @Test(groups = "unit-tests")
+    public void testObservedRange() throws InterruptedException, ExecutionException {
+        // with delta = 0.05 and 32 max rounds, the intervals of two candidates that are always the range apart stop
+        // overlapping after 16 rounds: range * sqrt(ln(2 * 2 * 32 / 0.05) / (2 * 16)) < range / 2
+        for (final int[][] scores : new int[][][]{{{100}, {0}}, {{1000}, {990}}}) {
+            final List<EnumNeuralNetwork<Inputs, Outputs>> candidates = newBrains(2);
+            final RacingEvaluator racer = new RacingEvaluator(service, null, new ScriptedRounds(candidates, scores));
+
+            final RacingEvaluator.Race race = racer.race("range", candidates, newBrains(1).get(0), 2);
+            Assert.assertTrue(race.isEliminated(1));
+            Assert.assertEquals(race.getRounds(1), 16, "scores: " + scores[0][0] + " vs " + scores[1][0]);
+            Assert.assertEquals(race.getBest(), 0);
+        }
+    }
+
+    @Test(groups = "unit-tests")
+    public void testCloseCandidatesSurvive() throws InterruptedException, ExecutionException {
+        final List<EnumNeuralNetwork<Inputs, Outputs>> candidates = newBrains(3);
+        final ScriptedRounds rounds = new ScriptedRounds(candidates, new int[]{50, 51}, new int[]{51, 50}, new int[]{49, 52});
+        final RacingEvaluator racer = new RacingEvaluator(service, null, rounds);
+        racer.setMaxRounds(10);
+
+        final RacingEvaluator.Race race = racer.race("close", candidates, newBrains(1).get(0), 3);
+        Assert.assertEquals(race.getEliminatedCount(), 0);
+        Assert.assertEquals(race.getRoundsCount(), 10);
+        for (int candidate = 0; candidate < candidates.size(); candidate++) {
+            Assert.assertEquals(race.getRounds(candidate), 10);
+            Assert.assertEquals(race.getMean(candidate), 50.5);
+        }
+        Assert.assertEquals(race.getTotalRounds(), 30);
+        Assert.assertEquals(racer.getPlayedRounds(), 30);
+    }
+
+    @Test(groups = "unit-tests")
+    public void testSingleCandidate() throws InterruptedException, ExecutionException {
+        final List<EnumNeuralNetwork<Inputs, Outputs>> candidates = newBrains(1);
+        final RacingEvaluator racer = new RacingEvaluator(service, null, new ScriptedRounds(candidates, new int[]{7}));
+
+        final RacingEvaluator.Race race = racer.race("single", candidates, newBrains(1).get(0), 4);
+        Assert.assertEquals(race.getRounds(0), 1);
+        Assert.assertEquals(race.getMean(0), 7.0);
+    }
+
+    @Test(groups = "unit-tests")
+    public void testCachedRoundsNotReplayed() throws InterruptedException, ExecutionException {
+        final List<EnumNeuralNetwork<Inputs, Outputs>> candidates = newBrains(2);
+        final EnumNeuralNetwork<Inputs, Outputs> opponent = newBrains(1).get(0);
+        final ScriptedRounds rounds = new ScriptedRounds(candidates, new int[]{50, 51}, new int[]{51, 50});
+        final FitnessCache cache = new FitnessCache(1024);
+        final RacingEvaluator racer = new RacingEvaluator(service, cache, rounds);
+        racer.setMaxRounds(6);
+
+        final RacingEvaluator.Race first = racer.race("first", candidates, opponent, 5);
+        Assert.assertEquals(racer.getPlayedRounds(), 12);
+        Assert.assertEquals(cache.size(), 12);
+
+        // same candidates, opponent and seed: all the rounds come from the cache
+        final RacingEvaluator.Race second = racer.race("second", candidates, opponent, 5);
+        Assert.assertEquals(racer.getPlayedRounds(), 12);
+        Assert.assertEquals(rounds.getPlayed(0) + rounds.getPlayed(1), 12);
+        Assert.assertEquals(cache.getHits(), 12);
+        for (int candidate = 0; candidate < candidates.size(); candidate++) {
+            Assert.assertEquals(second.getMean(candidate), first.getMean(candidate));
+            Assert.assertEquals(second.getRounds(candidate), first.getRounds(candidate));
+        }
+
+        // other worlds are played again
+        racer.race("third", candidates, opponent, 6);
+        Assert.assertEquals(racer.getPlayedRounds(), 24);
+    }
+
+    private static List<EnumNeuralNetwork<Inputs, Outputs>> newBrains(final int count) {
+        final EnumNeuralNetwork<Inputs, Outputs> brain = new EnumNeuralNetwork<>(Inputs.values(), Outputs.values());
+        brain.addHiddenLayer(Inputs.values().length * 2);
+        brain.setRandom(new SplittableRandom(count));
+        final List<EnumNeuralNetwork<Inputs, Outputs>> brains = brain.massClone(count, null);
+        for (final EnumNeuralNetwork<Inputs, Outputs> clone : brains)
+            clone.randomize();
+        return brains;
+    }
+
+    /*
+     * the n-th round played by a candidate scores the n-th value of its script (scripts are cycled)
+     */
+    private static final class ScriptedRounds implements RacingEvaluator.Rounds {
+        private final Map<EnumNeuralNetwork<Inputs, Outputs>, Integer> indexes = new IdentityHashMap<>();
+        private final int[][] scripts;
+        private final AtomicIntegerArray played;
+
+        private ScriptedRounds(final List<EnumNeuralNetwork<Inputs, Outputs>> candidates, final int[]... scripts) {
+            for (int i = 0; i < candidates.size(); i++)
+                indexes.put(candidates.get(i), i);
+            this.scripts = scripts;
+            this.played = new AtomicIntegerArray(scripts.length);
+        }
+
+        @Override
+        public int[] play(final String name, final List<EnumNeuralNetwork<Inputs, Outputs>> brains1,
+                          final List<EnumNeuralNetwork<Inputs, Outputs>> brains2, final long seed) {
+            final int[] scores = new int[brains1.size()];
+            for (int i = 0; i < scores.length; i++) {
+                final int candidate = indexes.get(brains1.get(i));
+                final int[] script = scripts[candidate];
+                scores[i] = script[played.getAndIncrement(candidate) % script.length];
+            }
+            return scores;
+        }
+
+        private int getPlayed(final int candidate) {
+            return played.get(candidate);
+        }
+    }
+}
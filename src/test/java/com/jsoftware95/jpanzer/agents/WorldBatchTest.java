@@ -0,0 +1,140 @@
+/*
+ * Copyright 2017-2018 Youcef DEBBAH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.jsoftware95.jpanzer.agents;
+
+import com.jsoftware95.janns.EnumNeuralNetwork;
+import com.jsoftware95.jpanzer.game.Context;
+import com.jsoftware95.jpanzer.game.GameAgent;
+import com.jsoftware95.jpanzer.game.GameSimulation;
+import com.jsoftware95.jpanzer.game.Orders;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+@Test(groups = "unit-tests")
+public class WorldBatchTest {
+
+    private static final long[] SEEDS = {3, 5, 8, 13};
+
+    @Test
+    public void testSameScoresAsSeparateRounds() {
+        final List<EnumNeuralNetwork<Inputs, Outputs>> brains1 = newBrains(1);
+        final List<EnumNeuralNetwork<Inputs, Outputs>> brains2 = newBrains(2);
+
+        final WorldBatch batch = new WorldBatch("batch", brains1, brains2, SEEDS);
+        batch.play();
+
+        for (int world = 0; world < SEEDS.length; world++) {
+            final GameSimulation alone = new GameSimulation("alone", false, SEEDS[world]);
+            alone.getConnectionToTank1().attach(new BrainAgent(brains1.get(world)));
+            alone.getConnectionToTank2().attach(new BrainAgent(brains2.get(world)));
+            alone.play();
+
+            Assert.assertEquals(batch.getPlayer1Score(world), alone.getPlayer1Score(), "world: " + world);
+            Assert.assertEquals(batch.getPlayer2Score(world), alone.getPlayer2Score(), "world: " + world);
+        }
+    }
+
+    @Test
+    public void testPerNetworkFallback() {
+        final List<EnumNeuralNetwork<Inputs, Outputs>> brains1 = newBrains(1);
+        final List<EnumNeuralNetwork<Inputs, Outputs>> brains2 = newBrains(2);
+
+        // a brain with another topology can't be packed into a population with the others, so the brains of the first
+        // side are evaluated one by one, the rounds of the other brains must still end with the same scores
+        final List<EnumNeuralNetwork<Inputs, Outputs>> unpackedBrains1 = new ArrayList<>(brains1);
+        final EnumNeuralNetwork<Inputs, Outputs> deeperBrain = newBrains(3).get(0);
+        deeperBrain.addHiddenLayer(Inputs.values().length);
+        unpackedBrains1.set(SEEDS.length - 1, deeperBrain);
+
+        final WorldBatch packed = new WorldBatch("packed", brains1, brains2, SEEDS);
+        packed.play();
+        final WorldBatch unpacked = new WorldBatch("unpacked", unpackedBrains1, brains2, SEEDS);
+        unpacked.play();
+
+        for (int world = 0; world < SEEDS.length - 1; world++) {
+            Assert.assertEquals(unpacked.getPlayer1Score(world), packed.getPlayer1Score(world), "world: " + world);
+            Assert.assertEquals(unpacked.getPlayer2Score(world), packed.getPlayer2Score(world), "world: " + world);
+        }
+    }
+
+    @Test
+    public void testEndedRoundsAreNotStepped() {
+        final GameSimulation[] worlds = new GameSimulation[SEEDS.length];
+        for (int world = 0; world < worlds.length; world++)
+            worlds[world] = new GameSimulation("world " + world, false, SEEDS[world]);
+
+        // the second round ends at its 100th step while the others go on until the time is over
+        final GameSimulation shortRound = worlds[1];
+        shortRound.getConnectionToTank1().attach(context -> {
+            if (shortRound.getCurrentTime() == 100)
+                shortRound.endRound();
+            return null;
+        });
+
+        new WorldBatch(worlds, newBrains(1), newBrains(2)).play();
+
+        for (int world = 0; world < worlds.length; world++) {
+            Assert.assertTrue(worlds[world].isRoundEnded());
+            Assert.assertEquals(worlds[world].getCurrentTime(), world == 1 ? 101 : GameSimulation.MAX_TIME + 1, "world: " + world);
+        }
+    }
+
+    @Test
+    public void testPlayedOnce() {
+        final WorldBatch batch = new WorldBatch("batch", newBrains(1).subList(0, 1), newBrains(2).subList(0, 1), new long[]{1});
+        batch.play();
+        Assert.assertThrows(IllegalStateException.class, batch::play);
+    }
+
+    private static List<EnumNeuralNetwork<Inputs, Outputs>> newBrains(final long seed) {
+        final SplittableRandom random = new SplittableRandom(seed);
+        final List<EnumNeuralNetwork<Inputs, Outputs>> brains = new ArrayList<>(SEEDS.length);
+        for (int i = 0; i < SEEDS.length; i++) {
+            final EnumNeuralNetwork<Inputs, Outputs> brain = new EnumNeuralNetwork<>(Inputs.values(), Outputs.values());
+            brain.addHiddenLayer(Inputs.values().length * 2);
+            brain.setRandom(random.split());
+            brain.randomize();
+            brains.add(brain);
+        }
+        return brains;
+    }
+
+    /*
+     * plays a round alone, the same way as a player brain
+     */
+    private static final class BrainAgent implements GameAgent {
+        private final EnumNeuralNetwork<Inputs, Outputs> brain;
+        private final double[][] inputs = new double[1][BrainCodec.INPUTS_COUNT];
+        private final double[][] outputs = new double[1][BrainCodec.OUTPUTS_COUNT];
+
+        private BrainAgent(final EnumNeuralNetwork<Inputs, Outputs> brain) {
+            this.brain = brain;
+        }
+
+        @Override
+        public Orders decide(final Context context) {
+            BrainCodec.encode(context, inputs[0]);
+            brain.forward(inputs, outputs);
+            return BrainCodec.decode(outputs[0], new Orders());
+        }
+    }
+}
@@ -0,0 +1,128 @@
+/*
+ * Copyright 2017-2018 Youcef DEBBAH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.jsoftware95.jpanzer.game;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+
+public class BulletStoreTest {
+
+    @Test(groups = "unit-tests")
+    public void testIdsStableAcrossSwapRemove() {
+        final BulletStore bullets = new BulletStore(4);
+        final int id0 = bullets.add(0, 0, Direction.U, 1);
+        final int id1 = bullets.add(10, 11, Direction.D, 2);
+        final int id2 = bullets.add(20, 21, Direction.L, 1);
+        final int id3 = bullets.add(30, 31, Direction.R, 2);
+
+        // the first slot gets the last bullet, and a dead last bullet is removed too
+        bullets.kill(bullets.slotOf(id0));
+        bullets.kill(bullets.slotOf(id3));
+        bullets.removeDead();
+
+        Assert.assertEquals(bullets.size(), 2);
+        Assert.assertEquals(bullets.slotOf(id0), -1);
+        Assert.assertEquals(bullets.slotOf(id3), -1);
+        assertBullet(bullets, id1, 10, 11, Direction.D, 2);
+        assertBullet(bullets, id2, 20, 21, Direction.L, 1);
+
+        bullets.moveBy(bullets.slotOf(id2), 5, -5);
+        bullets.kill(bullets.slotOf(id1));
+        bullets.removeDead();
+
+        Assert.assertEquals(bullets.size(), 1);
+        Assert.assertEquals(bullets.slotOf(id1), -1);
+        assertBullet(bullets, id2, 25, 16, Direction.L, 1);
+    }
+
+    @Test(groups = "unit-tests")
+    public void testFreedIdsAreReused() {
+        final BulletStore bullets = new BulletStore(4);
+        final int id0 = bullets.add(0, 0, Direction.U, 1);
+        final int id1 = bullets.add(1, 1, Direction.U, 1);
+        bullets.add(2, 2, Direction.U, 1);
+
+        bullets.kill(bullets.slotOf(id1));
+        bullets.removeDead();
+        Assert.assertEquals(bullets.add(3, 3, Direction.D, 2), id1);
+
+        bullets.clear();
+        Assert.assertEquals(bullets.size(), 0);
+        Assert.assertEquals(bullets.slotOf(id0), -1);
+
+        // no new id is needed while freed ones are available
+        final Set<Integer> ids = new HashSet<>();
+        for (int i = 0; i < 3; i++)
+            ids.add(bullets.add(i, i, Direction.R, 1));
+        Assert.assertEquals(ids.size(), 3);
+        for (final int bulletId : ids)
+            Assert.assertTrue(bulletId >= 0 && bulletId < 3, "id: " + bulletId);
+    }
+
+    @Test(groups = "unit-tests")
+    public void testGrowsPastInitialCapacity() {
+        final BulletStore bullets = new BulletStore(2);
+        final int[] ids = new int[37];
+        for (int i = 0; i < ids.length; i++)
+            ids[i] = bullets.add(i, -i, Direction.values()[i % Direction.values().length], i % 3);
+
+        Assert.assertEquals(bullets.size(), ids.length);
+        for (int i = 0; i < ids.length; i++)
+            assertBullet(bullets, ids[i], i, -i, Direction.values()[i % Direction.values().length], i % 3);
+
+        for (int i = 0; i < ids.length; i += 2)
+            bullets.kill(bullets.slotOf(ids[i]));
+        bullets.removeDead();
+
+        Assert.assertEquals(bullets.size(), ids.length / 2);
+        for (int i = 0; i < ids.length; i++)
+            if (i % 2 == 0)
+                Assert.assertEquals(bullets.slotOf(ids[i]), -1);
+            else
+                assertBullet(bullets, ids[i], i, -i, Direction.values()[i % Direction.values().length], i % 3);
+    }
+
+    @Test(groups = "unit-tests")
+    public void testRemoveOnlyBullet() {
+        final BulletStore bullets = new BulletStore(1);
+        final int bulletId = bullets.add(7, 8, Direction.D, 1);
+
+        bullets.kill(bullets.slotOf(bulletId));
+        bullets.removeDead();
+
+        Assert.assertEquals(bullets.size(), 0);
+        Assert.assertEquals(bullets.slotOf(bulletId), -1);
+        Assert.assertEquals(bullets.add(1, 2, Direction.U, 2), bulletId);
+        assertBullet(bullets, bulletId, 1, 2, Direction.U, 2);
+    }
+
+    private static void assertBullet(final BulletStore bullets, final int bulletId, final int x, final int y,
+                                     final Direction direction, final int owner) {
+        final int slot = bullets.slotOf(bulletId);
+        Assert.assertTrue(slot >= 0 && slot < bullets.size(), "slot of: " + bulletId);
+        Assert.assertEquals(bullets.getId(slot), bulletId);
+        Assert.assertEquals(bullets.getX(slot), x);
+        Assert.assertEquals(bullets.getY(slot), y);
+        Assert.assertEquals(bullets.getDirection(slot), direction);
+        Assert.assertEquals(bullets.getOwner(slot), owner);
+        Assert.assertTrue(bullets.isLive(slot));
+    }
+}
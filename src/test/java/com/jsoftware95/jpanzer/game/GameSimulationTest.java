@@ -0,0 +1,256 @@
+/*
+ * Copyright 2017-2018 Youcef DEBBAH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.jsoftware95.jpanzer.game;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.awt.Rectangle;
+import java.lang.management.ManagementFactory;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+public class GameSimulationTest {
+
+    private static final int LEFT = 0, UP = 1, RIGHT = 2, DOWN = 3, STOP = 4, CHASE = 5;
+
+    /*
+     * the expected traces were recorded with the collision code written on top of Rectangle and Line2D (before the
+     * grids, the primitive coordinates checks and the bullets store), each line is: {time, x1, y1, life1, x2, y2, life2,
+     * score1, score2, walls}
+     */
+    @Test(groups = "unit-tests")
+    public void testScriptedRoundAcrossTheRiver() {
+        assertTrace(newWorld(150, 250, 650, 450,
+                new ScriptedAgent(new int[]{RIGHT, UP, RIGHT, DOWN, LEFT, CHASE}, 15, 3),
+                new ScriptedAgent(new int[]{LEFT, DOWN, CHASE, UP, STOP}, 20, 2)), new int[][]{
+                {20, 223, 221, 150, 633, 433, 150, -28, -81, 128},
+                {40, 283, 221, 150, 633, 433, 150, -38, -141, 128},
+                {60, 295, 263, 150, 633, 433, 150, -7, -221, 128},
+                {80, 235, 263, 150, 633, 433, 150, -7, -301, 128},
+                {100, 301, 263, 150, 633, 433, 150, -16, -381, 128},
+                {120, 295, 221, 150, 633, 433, 150, -67, -462, 127},
+                {140, 295, 251, 150, 633, 433, 150, -58, -522, 127},
+                {160, 235, 263, 150, 633, 433, 150, -48, -602, 127},
+                {180, 295, 263, 150, 633, 433, 150, -48, -682, 127},
+                {200, 295, 233, 150, 633, 433, 150, -63, -762, 127},
+                {220, 301, 221, 150, 633, 433, 150, -117, -843, 126},
+                {240, 295, 263, 150, 633, 433, 150, -89, -903, 126},
+                {260, 235, 263, 150, 633, 433, 150, -89, -983, 126},
+                {280, 301, 263, 150, 633, 433, 150, -98, -1063, 126},
+                {300, 295, 221, 150, 633, 433, 150, -148, -1143, 126},
+                {301, 301, 221, 150, 633, 433, 150, -148, -1148, 126}
+        });
+    }
+
+    @Test(groups = "unit-tests")
+    public void testScriptedRoundDuel() {
+        assertTrace(newWorld(60, 420, 330, 520,
+                new ScriptedAgent(new int[]{CHASE, UP, CHASE, DOWN}, 12, 2),
+                new ScriptedAgent(new int[]{CHASE, LEFT, CHASE, RIGHT, STOP}, 9, 3)), new int[][]{
+                {20, 115, 355, 150, 324, 520, 150, -1, -21, 128},
+                {40, 169, 361, 150, 330, 520, 150, 27, -41, 128},
+                {60, 181, 361, 150, 324, 520, 150, 9, -61, 128},
+                {80, 181, 361, 150, 336, 520, 150, 13, -81, 128},
+                {100, 181, 361, 150, 324, 520, 150, -7, -101, 128},
+                {120, 187, 343, 150, 336, 520, 150, 8, -122, 126},
+                {140, 187, 385, 150, 324, 520, 150, 37, -142, 126},
+                {160, 187, 361, 150, 330, 514, 150, 21, -162, 126},
+                {180, 187, 379, 150, 330, 520, 150, 46, -182, 126},
+                {200, 187, 385, 150, 324, 520, 150, 33, -202, 126},
+                {220, 199, 367, 150, 330, 520, 150, 43, -223, 124},
+                {240, 205, 385, 150, 324, 520, 150, 51, -243, 124},
+                {260, 205, 343, 150, 336, 520, 150, 38, -263, 124},
+                {280, 205, 385, 150, 324, 520, 150, 67, -283, 124},
+                {300, 205, 385, 150, 336, 520, 150, 47, -303, 124},
+                {301, 205, 379, 150, 336, 520, 150, 46, -304, 124}
+        });
+    }
+
+    @Test(groups = "unit-tests")
+    public void testScriptedRoundBetweenWalls() {
+        assertTrace(newWorld(240, 230, 560, 300,
+                new ScriptedAgent(new int[]{DOWN, RIGHT, UP, LEFT}, 10, 1),
+                new ScriptedAgent(new int[]{UP, LEFT, DOWN, RIGHT}, 11, 1)), new int[][]{
+                {20, 283, 261, 150, 489, 241, 150, 27, 25, 128},
+                {40, 223, 219, 150, 519, 265, 150, 36, 20, 128},
+                {60, 283, 261, 150, 513, 241, 150, 63, 19, 128},
+                {80, 223, 219, 150, 495, 265, 150, 78, 18, 128},
+                {100, 283, 261, 150, 537, 241, 150, 118, 11, 128},
+                {120, 223, 219, 150, 477, 265, 100, 632, 10, 128},
+                {140, 283, 261, 150, 543, 241, 100, 676, 5, 128},
+                {160, 223, 219, 150, 477, 265, 100, 691, 3, 128},
+                {180, 283, 261, 150, 543, 241, 100, 739, -2, 128},
+                {200, 223, 219, 150, 477, 253, 100, 754, -9, 128},
+                {220, 283, 261, 150, 543, 265, 100, 801, -17, 127},
+                {240, 223, 219, 150, 489, 241, 100, 799, 0, 127},
+                {260, 283, 261, 150, 519, 265, 100, 847, -5, 127},
+                {280, 223, 219, 150, 513, 241, 100, 845, 12, 127},
+                {300, 283, 261, 150, 495, 265, 100, 869, 29, 127},
+                {301, 283, 255, 150, 501, 265, 100, 869, 28, 127}
+        });
+    }
+
+    @Test(groups = "unit-tests")
+    public void testStepWithoutAgentsAllocatesNothing() {
+        final com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        final long thread = Thread.currentThread().getId();
+        final GameSimulation world = newWorld(150, 250, 650, 450);
+
+        // a world without time limit, stepped until its code is compiled
+        for (int i = 0; i < 200_000; i++)
+            world.step();
+
+        final long before = threads.getThreadAllocatedBytes(thread);
+        for (int i = 0; i < 10_000; i++)
+            world.step();
+        final long after = threads.getThreadAllocatedBytes(thread);
+        // what the measure itself allocates
+        final long overhead = threads.getThreadAllocatedBytes(thread) - after;
+        Assert.assertEquals(after - before - overhead, 0L);
+    }
+
+    @Test(groups = "unit-tests")
+    public void testAabbIntersects() {
+        final SplittableRandom random = new SplittableRandom(3);
+        for (int i = 0; i < 100_000; i++) {
+            // small coordinates so boxes often touch, sizes can be empty or negative
+            final int x1 = random.nextInt(-8, 8), y1 = random.nextInt(-8, 8), width1 = random.nextInt(-2, 8), height1 = random.nextInt(-2, 8);
+            final int x2 = random.nextInt(-8, 8), y2 = random.nextInt(-8, 8), width2 = random.nextInt(-2, 8), height2 = random.nextInt(-2, 8);
+            Assert.assertEquals(Aabb.intersects(x1, y1, width1, height1, x2, y2, width2, height2),
+                    new Rectangle(x1, y1, width1, height1).intersects(new Rectangle(x2, y2, width2, height2)),
+                    Arrays.toString(new int[]{x1, y1, width1, height1, x2, y2, width2, height2}));
+        }
+
+        // sides overflowing the int range
+        final int[][] overflows = {
+                {Integer.MAX_VALUE - 5, 0, 10, 10, Integer.MAX_VALUE - 2, 0, 10, 10},
+                {0, Integer.MAX_VALUE - 1, 10, 10, 0, 0, 10, Integer.MAX_VALUE},
+                {Integer.MIN_VALUE, 0, Integer.MAX_VALUE, 10, -5, 0, 10, 10},
+        };
+        for (final int[] boxes : overflows)
+            Assert.assertEquals(Aabb.intersects(boxes[0], boxes[1], boxes[2], boxes[3], boxes[4], boxes[5], boxes[6], boxes[7]),
+                    new Rectangle(boxes[0], boxes[1], boxes[2], boxes[3]).intersects(new Rectangle(boxes[4], boxes[5], boxes[6], boxes[7])),
+                    Arrays.toString(boxes));
+    }
+
+    @Test(groups = "unit-tests")
+    public void testAabbIntersectsSegment() {
+        final SplittableRandom random = new SplittableRandom(4);
+        for (int i = 0; i < 100_000; i++) {
+            final int x = random.nextInt(-8, 8), y = random.nextInt(-8, 8), width = random.nextInt(-2, 8), height = random.nextInt(-2, 8);
+            // integer ends hit the edges and corners exactly, fractional ones cross them anywhere
+            final double x1 = end(random), y1 = end(random), x2 = end(random), y2 = end(random);
+            Assert.assertEquals(Aabb.intersectsSegment(x, y, width, height, x1, y1, x2, y2),
+                    new Rectangle(x, y, width, height).intersectsLine(x1, y1, x2, y2),
+                    Arrays.toString(new double[]{x, y, width, height, x1, y1, x2, y2}));
+        }
+    }
+
+    private static double end(final SplittableRandom random) {
+        return random.nextBoolean() ? random.nextInt(-12, 12) : random.nextDouble(-12, 12);
+    }
+
+    private static void assertTrace(final GameSimulation world, final int[][] expected) {
+        int checkpoint = 0;
+        while (!world.isRoundEnded()) {
+            world.step();
+            if (world.getCurrentTime() % 20 == 0 || world.isRoundEnded()) {
+                final int[] actual = {world.getCurrentTime(),
+                        world.homeTank.getX(), world.homeTank.getY(), world.homeTank.getLife(),
+                        world.homeTank2.getX(), world.homeTank2.getY(), world.homeTank2.getLife(),
+                        world.getPlayer1Score(), world.getPlayer2Score(), world.otherWall.size()};
+                Assert.assertTrue(checkpoint < expected.length, "round too long: " + Arrays.toString(actual));
+                Assert.assertEquals(actual, expected[checkpoint], "checkpoint: " + checkpoint);
+                checkpoint++;
+            }
+        }
+        Assert.assertEquals(checkpoint, expected.length, "round too short");
+    }
+
+    /*
+     * the classic level walls (no AI tank, they move at random) with the player tanks at fixed positions, the world has
+     * a time limit only if agents are given
+     */
+    private static GameSimulation newWorld(final int x1, final int y1, final int x2, final int y2, final GameAgent... agents) {
+        final GameSimulation world = new GameSimulation("test", agents.length == 0, 0);
+        world.homeTank = new Tank(x1, y1, true, Direction.STOP, world, 1);
+        world.homeTank2 = new Tank(x2, y2, true, Direction.STOP, world, 2);
+
+        for (int i = 0; i < 16; i++) {
+            world.otherWall.add(new CommonWall(200 + 21 * i, 300, world));
+            world.otherWall.add(new CommonWall(500 + 21 * i, 180, world));
+            world.otherWall.add(new CommonWall(200, 400 + 21 * i, world));
+            world.otherWall.add(new CommonWall(500, 400 + 21 * i, world));
+            world.otherWall.add(new CommonWall(200 + 21 * i, 320, world));
+            world.otherWall.add(new CommonWall(500 + 21 * i, 220, world));
+            world.otherWall.add(new CommonWall(222, 400 + 21 * i, world));
+            world.otherWall.add(new CommonWall(522, 400 + 21 * i, world));
+        }
+        for (int i = 0; i < 10; i++) {
+            world.metalWall.add(new MetalWall(140 + 30 * i, 150, world));
+            world.metalWall.add(new MetalWall(600, 400 + 20 * i, world));
+            world.metalWall.add(new MetalWall(140 + 30 * i, 180, world));
+        }
+        world.mapChanged();
+
+        if (agents.length > 0) {
+            world.getConnectionToTank1().attach(agents[0]);
+            world.getConnectionToTank2().attach(agents[1]);
+        }
+        return world;
+    }
+
+    /*
+     * plays each move of its script for a fixed count of steps (chasing moves toward the enemy along the longest
+     * distance) and fires periodically
+     */
+    private static final class ScriptedAgent implements GameAgent {
+        private final Orders orders = new Orders();
+        private final int[] script;
+        private final int period;
+        private final int fireInterval;
+        private int step;
+
+        private ScriptedAgent(final int[] script, final int period, final int fireInterval) {
+            this.script = script;
+            this.period = period;
+            this.fireInterval = fireInterval;
+        }
+
+        @Override
+        public Orders decide(final Context context) {
+            int move = script[(step / period) % script.length];
+            if (move == CHASE) {
+                final int dx = context.getDistanceFromEnemyX();
+                final int dy = context.getDistanceFromEnemyY();
+                if (Math.abs(dx) > Math.abs(dy))
+                    move = dx > 0 ? LEFT : RIGHT;
+                else
+                    move = dy > 0 ? UP : DOWN;
+            }
+
+            orders.setMoveLeft(move == LEFT);
+            orders.setMoveUp(move == UP);
+            orders.setMoveRight(move == RIGHT);
+            orders.setMoveDown(move == DOWN);
+            orders.setFire(step % fireInterval == 0);
+            step++;
+            return orders;
+        }
+    }
+}
@@ -0,0 +1,164 @@
+/*
+ * Copyright 2017-2018 Youcef DEBBAH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.jsoftware95.jpanzer.remote;
+
+import com.jsoftware95.janns.EnumNeuralNetwork;
+import com.jsoftware95.jpanzer.agents.EvaluationService;
+import com.jsoftware95.jpanzer.agents.Inputs;
+import com.jsoftware95.jpanzer.agents.Outputs;
+import org.testng.Assert;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.Socket;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+public class DistributedEvaluationTest {
+
+    private static final int WORKERS_COUNT = 3;
+    private static final int ROUNDS = 2;
+    private static final long SEED = 1234;
+    private static final int[] HIDDEN_LAYERS = {Inputs.values().length * 2};
+
+    private final List<Process> workers = new ArrayList<>();
+    private Coordinator coordinator;
+    private List<double[]> candidates;
+    private double[] opponent;
+    private double[] expectedFitness;
+
+    @BeforeClass(groups = "integration-tests")
+    public void startWorkers() throws IOException, InterruptedException, ExecutionException {
+        coordinator = new Coordinator(0);
+        coordinator.setChunkSize(1);
+
+        final String java = System.getProperty("java.home") + File.separator + "bin" + File.separator + "java";
+        for (int i = 0; i < WORKERS_COUNT; i++)
+            workers.add(new ProcessBuilder(java, "-Djava.awt.headless=true", "-cp", System.getProperty("java.class.path"),
+                    Worker.class.getName(), "localhost", String.valueOf(coordinator.getPort()))
+                    .inheritIO()
+                    .start());
+
+        final SplittableRandom random = new SplittableRandom(SEED);
+        final EnumNeuralNetwork<Inputs, Outputs> brain = new EnumNeuralNetwork<>(Inputs.values(), Outputs.values());
+        brain.addHiddenLayer(HIDDEN_LAYERS[0]);
+        brain.setRandom(random.split());
+        brain.randomize();
+        opponent = brain.getParameters();
+
+        candidates = new ArrayList<>();
+        for (final EnumNeuralNetwork<Inputs, Outputs> candidate : brain.massClone(12, (value, cloneIndex, valueIndex) -> Double.NaN))
+            candidates.add(candidate.getParameters());
+
+        // the same tasks evaluated in this JVM
+        final EvaluationService service = new EvaluationService(2);
+        try {
+            final Task task = new Task(0, SEED, ROUNDS, HIDDEN_LAYERS, opponent, candidates.toArray(new double[0][]));
+            expectedFitness = RoundsFitness.evaluate(service, task);
+        } finally {
+            service.shutdown();
+        }
+
+        final long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(60);
+        while (coordinator.getWorkersCount() < WORKERS_COUNT) {
+            Assert.assertTrue(System.nanoTime() < deadline, "workers didn't connect, connected: " + coordinator.getWorkersCount());
+            Thread.sleep(50);
+        }
+    }
+
+    @AfterClass(groups = "integration-tests", alwaysRun = true)
+    public void stopWorkers() throws IOException, InterruptedException {
+        if (coordinator != null)
+            coordinator.close();
+
+        for (final Process worker : workers)
+            if (!worker.waitFor(30, TimeUnit.SECONDS))
+                worker.destroyForcibly();
+    }
+
+    @Test(groups = "integration-tests")
+    public void testEvaluate() throws InterruptedException {
+        final double[] fitness = coordinator.evaluate(candidates, opponent, HIDDEN_LAYERS, ROUNDS, SEED);
+        Assert.assertEquals(fitness, expectedFitness);
+    }
+
+    @Test(groups = "integration-tests", dependsOnMethods = "testEvaluate")
+    public void testWorkerDeath() throws InterruptedException, ExecutionException {
+        final ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            final Future<double[]> fitness = executor.submit(() -> coordinator.evaluate(candidates, opponent, HIDDEN_LAYERS, ROUNDS, SEED));
+
+            // the tasks of the killed worker are taken by the others
+            workers.get(0).destroyForcibly().waitFor();
+            Assert.assertEquals(fitness.get(), expectedFitness);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test(groups = "integration-tests", dependsOnMethods = "testEvaluate")
+    public void testSilentWorker() throws IOException, InterruptedException, ExecutionException {
+        final ExecutorService executor = Executors.newFixedThreadPool(2);
+        final EvaluationService service = new EvaluationService(1);
+        try (final Coordinator coordinator = new Coordinator(0);
+             final Socket silentWorker = new Socket("localhost", coordinator.getPort())) {
+            coordinator.setChunkSize(1);
+            coordinator.setTaskTimeout(500);
+            coordinator.setRoundTimeout(500);
+
+            // a worker that stops answering without closing its connection (e.g. a network partition)
+            Protocol.writeHello(new DataOutputStream(silentWorker.getOutputStream()));
+            final long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+            while (coordinator.getWorkersCount() < 1) {
+                Assert.assertTrue(System.nanoTime() < deadline, "the silent worker didn't connect");
+                Thread.sleep(10);
+            }
+
+            final Future<double[]> fitness = executor.submit(() -> coordinator.evaluate(candidates, opponent, HIDDEN_LAYERS, ROUNDS, SEED));
+            executor.submit(() -> {
+                new Worker("localhost", coordinator.getPort(), service).run();
+                return null;
+            });
+
+            // the task of the silent worker expires and is taken by the other worker
+            Assert.assertEquals(fitness.get(), expectedFitness);
+
+            // the coordinator closes the connection of the silent worker (after the task it was sent)
+            silentWorker.setSoTimeout(30_000);
+            final InputStream input = silentWorker.getInputStream();
+            final byte[] buffer = new byte[4096];
+            int read;
+            do
+                read = input.read(buffer);
+            while (read >= 0);
+        } finally {
+            executor.shutdownNow();
+            service.shutdown();
+        }
+    }
+}
@@ -0,0 +1,92 @@
+/*
+ * Copyright 2017-2018 Youcef DEBBAH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.jsoftware95.toolkit.metrics;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+public class LatencyRecorderTest {
+
+    @Test(groups = "unit-tests")
+    public void testBuckets() {
+        long previousIndex = -1;
+        for (long value = 0; value < 1 << 20; value++) {
+            final int index = LatencyRecorder.indexOf(value);
+            Assert.assertTrue(index == previousIndex || index == previousIndex + 1, "value: " + value);
+            Assert.assertTrue(value <= LatencyRecorder.highestValueOf(index), "value: " + value);
+            previousIndex = index;
+        }
+
+        Assert.assertEquals(LatencyRecorder.highestValueOf(LatencyRecorder.indexOf(Long.MAX_VALUE)), Long.MAX_VALUE);
+    }
+
+    @Test(groups = "unit-tests")
+    public void testPercentiles() {
+        final LatencyRecorder recorder = new LatencyRecorder();
+        for (long value = 1; value <= 10_000; value++)
+            recorder.record(value * 1000);
+
+        final LatencyRecorder.Snapshot snapshot = recorder.snapshot();
+        Assert.assertEquals(snapshot.getCount(), 10_000);
+        Assert.assertEquals(snapshot.getMax(), 10_000_000);
+        Assert.assertEquals(snapshot.getMean(), 5_000_500, 1e-6);
+        assertClose(snapshot.getPercentile(50), 5_000_000);
+        assertClose(snapshot.getPercentile(99), 9_900_000);
+        Assert.assertEquals(snapshot.getPercentile(100), 10_000_000);
+        Assert.assertThrows(IllegalArgumentException.class, () -> snapshot.getPercentile(101));
+    }
+
+    @Test(groups = "unit-tests")
+    public void testRandomValues() {
+        final SplittableRandom random = new SplittableRandom(42);
+        final LatencyRecorder recorder = new LatencyRecorder();
+        final long[] values = new long[1000];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = random.nextLong(1, 1L << 40);
+            recorder.record(values[i]);
+        }
+
+        Arrays.sort(values);
+        final LatencyRecorder.Snapshot snapshot = recorder.snapshot();
+        assertClose(snapshot.getPercentile(90), values[899]);
+        assertClose(snapshot.getPercentile(50), values[499]);
+    }
+
+    @Test(groups = "unit-tests")
+    public void testSince() {
+        final LatencyRecorder recorder = new LatencyRecorder();
+        recorder.record(1_000_000);
+        final LatencyRecorder.Snapshot first = recorder.snapshot();
+
+        recorder.record(10);
+        recorder.record(20);
+        final LatencyRecorder.Snapshot interval = recorder.snapshot().since(first);
+
+        Assert.assertEquals(interval.getCount(), 2);
+        Assert.assertEquals(interval.getTotal(), 30);
+        Assert.assertEquals(interval.getMax(), 20);
+        Assert.assertEquals(interval.getPercentile(100), 20);
+    }
+
+    /* within the precision of the histogram */
+    private static void assertClose(final long actual, final long expected) {
+        Assert.assertEquals(actual, expected, expected / LatencyRecorder.SUB_BUCKETS + 1);
+    }
+}
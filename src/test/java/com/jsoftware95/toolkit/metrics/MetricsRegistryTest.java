@@ -0,0 +1,112 @@
+/*
+ * Copyright 2017-2018 Youcef DEBBAH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.jsoftware95.toolkit.metrics;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import javax.management.MBeanAttributeInfo;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+public class MetricsRegistryTest {
+
+    @Test(groups = "unit-tests")
+    public void testMetrics() {
+        final MetricsRegistry registry = new MetricsRegistry();
+        final Counter counter = registry.counter("events");
+        counter.increment();
+        counter.add(2);
+
+        Assert.assertSame(registry.counter("events"), counter);
+        Assert.assertEquals(registry.getCounters().get("events").getCount(), 3);
+        Assert.assertThrows(IllegalArgumentException.class, () -> counter.add(-1));
+        Assert.assertThrows(IllegalArgumentException.class, () -> registry.latency("events"));
+        Assert.assertThrows(IllegalArgumentException.class, () -> registry.gauge("events", () -> 0));
+
+        registry.gauge("queue", () -> 7);
+        Assert.assertEquals(registry.getGauges().get("queue").getValue(), 7);
+        Assert.assertSame(registry.latency("time"), registry.latency("time"));
+    }
+
+    @Test(groups = "unit-tests")
+    public void testMBean() throws Exception {
+        final MetricsRegistry registry = new MetricsRegistry();
+        registry.counter("events").add(5);
+        registry.latency("time").record(1000);
+        registry.gauge("queue", () -> 3);
+
+        final ObjectName name = registry.registerMBean("com.jsoftware95:type=Metrics,name=MetricsRegistryTest");
+        final MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        try {
+            Assert.assertEquals(server.getAttribute(name, "events.count"), 5L);
+            Assert.assertEquals(server.getAttribute(name, "time.count"), 1L);
+            Assert.assertEquals(server.getAttribute(name, "time.max"), 1000L);
+            Assert.assertEquals(server.getAttribute(name, "queue"), 3L);
+
+            // metrics created after the registration are exposed too
+            registry.counter("late").increment();
+            final Set<String> attributes = Arrays.stream(server.getMBeanInfo(name).getAttributes())
+                    .map(MBeanAttributeInfo::getName).collect(Collectors.toSet());
+            Assert.assertTrue(attributes.contains("late.count"));
+            Assert.assertTrue(attributes.contains("time.p99"));
+        } finally {
+            server.unregisterMBean(name);
+        }
+    }
+
+    @Test(groups = "unit-tests")
+    public void testReporter() throws IOException {
+        final MetricsRegistry registry = new MetricsRegistry();
+        final Path csv = Files.createTempFile("metrics", ".csv");
+        Files.delete(csv);
+        try {
+            try (MetricsReporter reporter = new MetricsReporter(registry, csv)) {
+                registry.counter("events").add(4);
+                registry.latency("time").record(2000);
+                registry.gauge("queue", () -> 9);
+                reporter.report();
+                registry.counter("events").add(1);
+            }
+
+            final List<String> lines = Files.readAllLines(csv);
+            Assert.assertEquals(lines.get(0), "time,metric,total,interval,per_second,mean_ns,p50_ns,p90_ns,p99_ns,max_ns");
+            // one report by report() and the last one on close
+            Assert.assertEquals(lines.size(), 1 + 3 + 3);
+
+            final String[] events = lines.get(4).split(",", -1);
+            Assert.assertEquals(events[1], "events");
+            Assert.assertEquals(events[2], "5");
+            Assert.assertEquals(events[3], "1");
+
+            final String[] time = lines.get(2).split(",", -1);
+            Assert.assertEquals(time[1], "time");
+            Assert.assertEquals(time[9], "2000");
+            Assert.assertEquals(lines.get(3).split(",", -1)[2], "9");
+        } finally {
+            Files.deleteIfExists(csv);
+        }
+    }
+}